@@ -172,4 +172,25 @@ public interface RegistryClientConfig {
    * @return the boolean
    */
   boolean isEventBusEnable();
+
+  /**
+   * Gets the max number of the register requests waiting for the response.
+   *
+   * @return the register in flight limit
+   */
+  int getRegisterInFlightLimit();
+
+  /**
+   * Gets the directory of the local data cache, the cache is disabled when blank.
+   *
+   * @return the local cache dir
+   */
+  String getLocalCacheDir();
+
+  /**
+   * Gets the max bytes of the local data cache files.
+   *
+   * @return the local cache max size
+   */
+  long getLocalCacheMaxSize();
 }
@@ -31,6 +31,9 @@ public class SubscriberRegistration extends BaseRegistration {
 
   private SubscriberDataObserver subscriberDataObserver;
 
+  /** receive only the changed publishers from the server when the data changes */
+  private boolean acceptDelta;
+
   /**
    * Instantiates a new Subscriber registration.
    *
@@ -78,6 +81,24 @@ public class SubscriberRegistration extends BaseRegistration {
     this.subscriberDataObserver = subscriberDataObserver;
   }
 
+  /**
+   * Getter method for property <tt>acceptDelta</tt>.
+   *
+   * @return property value of acceptDelta
+   */
+  public boolean isAcceptDelta() {
+    return acceptDelta;
+  }
+
+  /**
+   * Setter method for property <tt>acceptDelta</tt>.
+   *
+   * @param acceptDelta value to be assigned to property acceptDelta
+   */
+  public void setAcceptDelta(boolean acceptDelta) {
+    this.acceptDelta = acceptDelta;
+  }
+
   /**
    * To string string.
    *
@@ -105,6 +126,8 @@ public class SubscriberRegistration extends BaseRegistration {
         + scopeEnum
         + ", subscriberDataObserver="
         + subscriberDataObserver
+        + ", acceptDelta="
+        + acceptDelta
         + '}';
   }
 }
@@ -35,6 +35,14 @@ public class SegmentData implements Serializable {
 
   private Long version;
 
+  /** the data keyed by the publisher registId, the subscriber accepting delta uses it */
+  private Map<String /*zone*/, Map<String /*registId*/, List<DataBox>>> publisherData;
+
+  /** not null means the publisherData and removedRegistIds are the changes since baseVersion */
+  private Long baseVersion;
+
+  private List<String> removedRegistIds;
+
   /**
    * Getter method for property <tt>segment</tt>.
    *
@@ -88,4 +96,58 @@ public class SegmentData implements Serializable {
   public void setVersion(Long version) {
     this.version = version;
   }
+
+  /**
+   * Getter method for property <tt>publisherData</tt>.
+   *
+   * @return property value of publisherData
+   */
+  public Map<String, Map<String, List<DataBox>>> getPublisherData() {
+    return publisherData;
+  }
+
+  /**
+   * Setter method for property <tt>publisherData</tt>.
+   *
+   * @param publisherData value to be assigned to property publisherData
+   */
+  public void setPublisherData(Map<String, Map<String, List<DataBox>>> publisherData) {
+    this.publisherData = publisherData;
+  }
+
+  /**
+   * Getter method for property <tt>baseVersion</tt>.
+   *
+   * @return property value of baseVersion
+   */
+  public Long getBaseVersion() {
+    return baseVersion;
+  }
+
+  /**
+   * Setter method for property <tt>baseVersion</tt>.
+   *
+   * @param baseVersion value to be assigned to property baseVersion
+   */
+  public void setBaseVersion(Long baseVersion) {
+    this.baseVersion = baseVersion;
+  }
+
+  /**
+   * Getter method for property <tt>removedRegistIds</tt>.
+   *
+   * @return property value of removedRegistIds
+   */
+  public List<String> getRemovedRegistIds() {
+    return removedRegistIds;
+  }
+
+  /**
+   * Setter method for property <tt>removedRegistIds</tt>.
+   *
+   * @param removedRegistIds value to be assigned to property removedRegistIds
+   */
+  public void setRemovedRegistIds(List<String> removedRegistIds) {
+    this.removedRegistIds = removedRegistIds;
+  }
 }
@@ -27,10 +27,13 @@ import com.alipay.sofa.registry.client.event.SubscriberProcessEvent;
 import com.alipay.sofa.registry.client.factory.NamedThreadFactory;
 import com.alipay.sofa.registry.client.log.LoggerFactory;
 import com.alipay.sofa.registry.client.task.ObserverHandler;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 
 /**
@@ -46,12 +49,22 @@ public class DefaultObserverHandler implements ObserverHandler {
 
   private static final int KEEP_ALIVE_TIME = 60;
 
+  /** the notify state whose task has finished, it is never reused */
+  private static final int RETIRED = -1;
+
   private ExecutorService executor;
 
   private EventBus eventBus;
 
   private RegistryClientConfig config;
 
+  /**
+   * the notify state of the subscribers, at most one notify task for a subscriber. the state is
+   * removed once its task has delivered the latest data
+   */
+  final ConcurrentMap<Subscriber, AtomicInteger> pendingNotifies =
+      new ConcurrentHashMap<Subscriber, AtomicInteger>();
+
   /**
    * Constructor.
    *
@@ -73,7 +86,48 @@ public class DefaultObserverHandler implements ObserverHandler {
   /** @see ObserverHandler#notify(Subscriber) */
   @Override
   public void notify(Subscriber subscriber) {
-    executor.submit(new SubscriberNotifyTask(subscriber));
+    if (null == subscriber) {
+      return;
+    }
+    AtomicInteger pending;
+    for (; ; ) {
+      pending = pendingNotifies.get(subscriber);
+      if (null == pending) {
+        AtomicInteger newPending = new AtomicInteger(0);
+        pending = pendingNotifies.putIfAbsent(subscriber, newPending);
+        if (null == pending) {
+          pending = newPending;
+        }
+      }
+      int notifies = pending.get();
+      if (notifies < 0) {
+        // the notify task has finished and retired the state, start a new one
+        pendingNotifies.remove(subscriber, pending);
+        continue;
+      }
+      if (pending.compareAndSet(notifies, notifies + 1)) {
+        if (notifies != 0) {
+          // the scheduled task will notify the latest data
+          LOGGER.debug(
+              "[notify] conflate subscriber notify, dataId: {}, registId: {}",
+              subscriber.getDataId(),
+              subscriber.getRegistId());
+          return;
+        }
+        break;
+      }
+    }
+    try {
+      executor.submit(new SubscriberNotifyTask(subscriber, pending));
+    } catch (RuntimeException e) {
+      retire(subscriber, pending);
+      throw e;
+    }
+  }
+
+  private void retire(Subscriber subscriber, AtomicInteger pending) {
+    pending.set(RETIRED);
+    pendingNotifies.remove(subscriber, pending);
   }
 
   /** @see ObserverHandler#notify(Configurator) */
@@ -87,13 +141,26 @@ public class DefaultObserverHandler implements ObserverHandler {
 
     private Subscriber subscriber;
 
+    private AtomicInteger pending;
+
     /**
      * Constructor.
      *
      * @param subscriber the subscriber
      */
     public SubscriberNotifyTask(Subscriber subscriber) {
+      this(subscriber, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param subscriber the subscriber
+     * @param pending the count of the notifies not delivered yet
+     */
+    public SubscriberNotifyTask(Subscriber subscriber, AtomicInteger pending) {
       this.subscriber = subscriber;
+      this.pending = pending;
     }
 
     /** @see Runnable#run() */
@@ -103,7 +170,20 @@ public class DefaultObserverHandler implements ObserverHandler {
       if (null == subscriber) {
         return;
       }
+      if (null == pending) {
+        notifySubscriber();
+        return;
+      }
+      int notifies;
+      do {
+        notifies = pending.get();
+        notifySubscriber();
+        // notified during the delivery, deliver the latest data again
+      } while (!pending.compareAndSet(notifies, RETIRED));
+      pendingNotifies.remove(subscriber, pending);
+    }
 
+    private void notifySubscriber() {
       SubscriberProcessEvent event = new SubscriberProcessEvent();
       long start = System.currentTimeMillis();
       event.setStart(start);
@@ -41,6 +41,7 @@ import com.alipay.sofa.registry.client.event.DefaultEventBus;
 import com.alipay.sofa.registry.client.event.LookoutSubscriber;
 import com.alipay.sofa.registry.client.event.SubscriberProcessEvent;
 import com.alipay.sofa.registry.client.log.LoggerFactory;
+import com.alipay.sofa.registry.client.model.SegmentData;
 import com.alipay.sofa.registry.client.remoting.ClientConnection;
 import com.alipay.sofa.registry.client.remoting.ClientConnectionCloseEventProcessor;
 import com.alipay.sofa.registry.client.remoting.ClientConnectionOpenEventProcessor;
@@ -54,6 +55,7 @@ import com.alipay.sofa.registry.client.task.WorkerThread;
 import com.alipay.sofa.registry.client.util.StringUtils;
 import com.alipay.sofa.registry.core.model.ReceivedConfigData;
 import com.alipay.sofa.registry.core.model.ReceivedData;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -99,6 +101,8 @@ public class DefaultRegistryClient implements RegistryClient {
 
   private AuthManager authManager;
 
+  private SubscriberDataCache subscriberDataCache;
+
   private EventBus eventBus;
 
   private LookoutSubscriber lookoutSubscriber;
@@ -142,6 +146,9 @@ public class DefaultRegistryClient implements RegistryClient {
               .setObserverThreadQueueLength(registryClientConfig.getObserverThreadQueueLength())
               .setObserverCallbackTimeout(registryClientConfig.getObserverCallbackTimeout())
               .setSyncConfigRetryInterval(registryClientConfig.getSyncConfigRetryInterval())
+              .setRegisterInFlightLimit(registryClientConfig.getRegisterInFlightLimit())
+              .setLocalCacheDir(registryClientConfig.getLocalCacheDir())
+              .setLocalCacheMaxSize(registryClientConfig.getLocalCacheMaxSize())
               .setAccessKey(registryClientConfig.getAccessKey())
               .setSecretKey(registryClientConfig.getSecretKey())
               .build();
@@ -182,6 +189,16 @@ public class DefaultRegistryClient implements RegistryClient {
       authManager = NoopAuthManager.INSTANCE;
     }
 
+    // init local data cache
+    if (null == subscriberDataCache
+        && StringUtils.isNotBlank(registryClientConfig.getLocalCacheDir())) {
+      subscriberDataCache =
+          new SubscriberDataCache(
+              new File(registryClientConfig.getLocalCacheDir()),
+              registryClientConfig.getLocalCacheMaxSize());
+      subscriberDataCache.start();
+    }
+
     // init user processor
     List<UserProcessor> userProcessorList = new ArrayList<UserProcessor>();
     if (null == userProcessorMap) {
@@ -335,9 +352,16 @@ public class DefaultRegistryClient implements RegistryClient {
       throwDuplicateException(registration, oldSubscriber);
     }
 
+    boolean cached = loadCachedData((DefaultSubscriber) subscriber);
+
     registerCache.addRegister(subscriber);
     addRegisterTask(subscriber);
 
+    if (cached) {
+      // serve the cached data before the server pushes
+      observerHandler.notify(subscriber);
+    }
+
     LOGGER.info(
         "[api] Regist subscriber success, dataId: {}, group: {}, scope: {}, registerId: {}",
         subscriber.getDataId(),
@@ -467,6 +491,30 @@ public class DefaultRegistryClient implements RegistryClient {
             + ")");
   }
 
+  /**
+   * Load the data of the subscriber from the local cache.
+   *
+   * @param subscriber the subscriber
+   * @return true if the cached data loaded
+   */
+  private boolean loadCachedData(DefaultSubscriber subscriber) {
+    if (null == subscriberDataCache) {
+      return false;
+    }
+    subscriber.setDataCache(subscriberDataCache);
+    List<SegmentData> cachedData = subscriberDataCache.load(subscriber);
+    if (cachedData.isEmpty()) {
+      return false;
+    }
+    subscriber.putCachedData(cachedData);
+    LOGGER.info(
+        "[api] Load subscriber cached data, dataId: {}, registerId: {}, segments: {}",
+        subscriber.getDataId(),
+        subscriber.getRegistId(),
+        cachedData.size());
+    return true;
+  }
+
   /**
    * Add register task.
    *
@@ -91,6 +91,15 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
   /** */
   private boolean eventBusEnable;
 
+  /** */
+  private int registerInFlightLimit;
+
+  /** */
+  private String localCacheDir;
+
+  /** */
+  private long localCacheMaxSize;
+
   /**
    * Instantiates a new Default registry client config.
    *
@@ -115,6 +124,10 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
    * @param secretKey the secret key
    * @param algorithm the algorithm
    * @param authCacheInterval the auth cache interval
+   * @param eventBusEnable the event bus enable
+   * @param registerInFlightLimit the register in flight limit
+   * @param localCacheDir the local cache dir
+   * @param localCacheMaxSize the local cache max size
    */
   public DefaultRegistryClientConfig(
       String env,
@@ -138,7 +151,10 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
       String secretKey,
       String algorithm,
       long authCacheInterval,
-      boolean eventBusEnable) {
+      boolean eventBusEnable,
+      int registerInFlightLimit,
+      String localCacheDir,
+      long localCacheMaxSize) {
     this.env = env;
     this.instanceId = instanceId;
     this.ip = ip;
@@ -161,6 +177,9 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
     this.algorithm = algorithm;
     this.authCacheInterval = authCacheInterval;
     this.eventBusEnable = eventBusEnable;
+    this.registerInFlightLimit = registerInFlightLimit;
+    this.localCacheDir = localCacheDir;
+    this.localCacheMaxSize = localCacheMaxSize;
   }
 
   /**
@@ -405,6 +424,36 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
     this.eventBusEnable = eventBusEnable;
   }
 
+  /**
+   * Getter method for property <tt>registerInFlightLimit</tt>.
+   *
+   * @return property value of registerInFlightLimit
+   */
+  @Override
+  public int getRegisterInFlightLimit() {
+    return registerInFlightLimit;
+  }
+
+  /**
+   * Getter method for property <tt>localCacheDir</tt>.
+   *
+   * @return property value of localCacheDir
+   */
+  @Override
+  public String getLocalCacheDir() {
+    return localCacheDir;
+  }
+
+  /**
+   * Getter method for property <tt>localCacheMaxSize</tt>.
+   *
+   * @return property value of localCacheMaxSize
+   */
+  @Override
+  public long getLocalCacheMaxSize() {
+    return localCacheMaxSize;
+  }
+
   /**
    * Equals boolean.
    *
@@ -527,6 +576,13 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
         + authCacheInterval
         + ", eventBusEnable="
         + eventBusEnable
+        + ", registerInFlightLimit="
+        + registerInFlightLimit
+        + ", localCacheDir='"
+        + localCacheDir
+        + '\''
+        + ", localCacheMaxSize="
+        + localCacheMaxSize
         + '}';
   }
 }
@@ -48,6 +48,9 @@ public class DefaultRegistryClientConfigBuilder {
   private String algorithm = "HmacSHA256";
   private long authCacheInterval = 5 * 60 * 1000;
   private boolean eventBusEnable = true;
+  private int registerInFlightLimit = 200;
+  private String localCacheDir;
+  private long localCacheMaxSize = 64 * 1024 * 1024;
 
   /**
    * Start default registry client config builder.
@@ -292,6 +295,39 @@ public class DefaultRegistryClientConfigBuilder {
     return this;
   }
 
+  /**
+   * Setter method for property <tt>registerInFlightLimit</tt>.
+   *
+   * @param registerInFlightLimit value to be assigned to property registerInFlightLimit
+   * @return the default registry client config builder
+   */
+  public DefaultRegistryClientConfigBuilder setRegisterInFlightLimit(int registerInFlightLimit) {
+    this.registerInFlightLimit = registerInFlightLimit;
+    return this;
+  }
+
+  /**
+   * Setter method for property <tt>localCacheDir</tt>.
+   *
+   * @param localCacheDir value to be assigned to property localCacheDir
+   * @return the default registry client config builder
+   */
+  public DefaultRegistryClientConfigBuilder setLocalCacheDir(String localCacheDir) {
+    this.localCacheDir = localCacheDir;
+    return this;
+  }
+
+  /**
+   * Setter method for property <tt>localCacheMaxSize</tt>.
+   *
+   * @param localCacheMaxSize value to be assigned to property localCacheMaxSize
+   * @return the default registry client config builder
+   */
+  public DefaultRegistryClientConfigBuilder setLocalCacheMaxSize(long localCacheMaxSize) {
+    this.localCacheMaxSize = localCacheMaxSize;
+    return this;
+  }
+
   /**
    * Create default registry client config default registry client config.
    *
@@ -320,6 +356,9 @@ public class DefaultRegistryClientConfigBuilder {
         secretKey,
         algorithm,
         authCacheInterval,
-        eventBusEnable);
+        eventBusEnable,
+        registerInFlightLimit,
+        localCacheDir,
+        localCacheMaxSize);
   }
 }
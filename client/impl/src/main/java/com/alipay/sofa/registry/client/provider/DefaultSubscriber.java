@@ -30,7 +30,10 @@ import com.alipay.sofa.registry.core.model.DataBox;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.core.model.SubscriberRegister;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -57,6 +60,12 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
   private Worker worker;
   private volatile String localZone;
   private List<String> availableSegments = new ArrayList<String>();
+  /** the immutable snapshot of the received data, null when the data changed since built */
+  private volatile UserData userData;
+  /** the segments loaded from the local cache, not received from the server yet */
+  private final Set<String> staleSegments = new HashSet<String>();
+
+  private SubscriberDataCache dataCache;
 
   /**
    * Instantiates a new Default subscriber multi.
@@ -91,6 +100,10 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
   /** @see Subscriber#peekData() */
   @Override
   public UserData peekData() {
+    UserData cached = userData;
+    if (null != cached) {
+      return cached;
+    }
     readLock.lock();
     try {
       if (!init.get()) {
@@ -119,27 +132,50 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
           continue;
         }
 
+        Map<String, Map<String, List<DataBox>>> publisherData = segmentData.getPublisherData();
+        if (null != publisherData) {
+          for (Entry<String, Map<String, List<DataBox>>> entry : publisherData.entrySet()) {
+            List<String> resultList = getZoneList(zoneMap, entry.getKey());
+            for (List<DataBox> dataList : entry.getValue().values()) {
+              addDataBoxes(resultList, dataList);
+            }
+          }
+          continue;
+        }
+
         Map<String, List<DataBox>> data = segmentData.getData();
         for (Entry<String, List<DataBox>> entry : data.entrySet()) {
-          String zone = entry.getKey();
-          List<String> resultList = zoneMap.get(zone);
-          if (null == resultList) {
-            resultList = new ArrayList<String>();
-            zoneMap.put(zone, resultList);
-          }
-          List<DataBox> dataList = entry.getValue();
-          for (DataBox dataBox : dataList) {
-            resultList.add(dataBox.getData());
-          }
+          List<String> resultList = getZoneList(zoneMap, entry.getKey());
+          addDataBoxes(resultList, entry.getValue());
         }
       }
-      userData.setZoneData(zoneMap);
+      for (Entry<String, List<String>> entry : zoneMap.entrySet()) {
+        entry.setValue(Collections.unmodifiableList(entry.getValue()));
+      }
+      userData.setZoneData(Collections.unmodifiableMap(zoneMap));
+      // the writers are blocked by the read lock, the snapshot is still the latest
+      this.userData = userData;
       return userData;
     } finally {
       readLock.unlock();
     }
   }
 
+  private static List<String> getZoneList(Map<String, List<String>> zoneMap, String zone) {
+    List<String> resultList = zoneMap.get(zone);
+    if (null == resultList) {
+      resultList = new ArrayList<String>();
+      zoneMap.put(zone, resultList);
+    }
+    return resultList;
+  }
+
+  private static void addDataBoxes(List<String> resultList, List<DataBox> dataList) {
+    for (DataBox dataBox : dataList) {
+      resultList.add(dataBox.getData());
+    }
+  }
+
   /**
    * Gets scope enum.
    *
@@ -176,6 +212,7 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
       register = new SubscriberRegister();
       register.setRegistId(REGIST_ID);
       register.setScope(registration.getScopeEnum().name());
+      register.setAcceptDelta(registration.isAcceptDelta());
       setAttributes(register, registration, config);
       // auth signature
       setAuthSignature(register);
@@ -194,15 +231,189 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
   public void putReceivedData(SegmentData segmentData, String localZone) {
     writeLock.lock();
     try {
-      putSegmentData(segmentData);
+      if (null != segmentData && null != segmentData.getPublisherData()) {
+        // the received data maybe shared by the subscribers, the delta applies on a private copy
+        putSegmentData(copyOf(segmentData));
+      } else {
+        putSegmentData(segmentData);
+      }
       this.localZone = localZone;
+      this.userData = null;
     } finally {
       writeLock.unlock();
     }
+    markCacheDirty();
+  }
+
+  /**
+   * Put the received delta, the changes since the base version.
+   *
+   * @param delta the delta
+   * @param localZone the local zone
+   * @return false if the base version of the delta is not held
+   */
+  public boolean putReceivedDelta(SegmentData delta, String localZone) {
+    writeLock.lock();
+    try {
+      if (!applyDelta(delta)) {
+        return false;
+      }
+      this.localZone = localZone;
+      this.userData = null;
+    } finally {
+      writeLock.unlock();
+    }
+    markCacheDirty();
+    return true;
+  }
+
+  /**
+   * Put the data loaded from the local cache, it is stale until the data of the segment is received
+   * from the server.
+   *
+   * @param cachedData the cached data
+   */
+  public void putCachedData(List<SegmentData> cachedData) {
+    writeLock.lock();
+    try {
+      for (SegmentData segmentData : cachedData) {
+        if (null == data.putIfAbsent(segmentData.getSegment(), segmentData)) {
+          staleSegments.add(segmentData.getSegment());
+          init.compareAndSet(false, true);
+        }
+      }
+      this.userData = null;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Gets the received data to write to the local cache, the data of a segment is flatten to the
+   * zone data.
+   *
+   * @return the received data
+   */
+  public List<SegmentData> getCacheData() {
+    readLock.lock();
+    try {
+      List<SegmentData> result = new ArrayList<SegmentData>(data.size());
+      for (SegmentData segmentData : data.values()) {
+        if (staleSegments.contains(segmentData.getSegment())) {
+          continue;
+        }
+        Map<String, List<DataBox>> zoneData = new HashMap<String, List<DataBox>>();
+        if (null != segmentData.getPublisherData()) {
+          for (Entry<String, Map<String, List<DataBox>>> entry :
+              segmentData.getPublisherData().entrySet()) {
+            List<DataBox> dataList = new ArrayList<DataBox>();
+            for (List<DataBox> publisherData : entry.getValue().values()) {
+              dataList.addAll(publisherData);
+            }
+            zoneData.put(entry.getKey(), dataList);
+          }
+        } else if (null != segmentData.getData()) {
+          for (Entry<String, List<DataBox>> entry : segmentData.getData().entrySet()) {
+            zoneData.put(entry.getKey(), new ArrayList<DataBox>(entry.getValue()));
+          }
+        }
+        SegmentData copy = new SegmentData();
+        copy.setSegment(segmentData.getSegment());
+        copy.setVersion(segmentData.getVersion());
+        copy.setData(zoneData);
+        result.add(copy);
+      }
+      return result;
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  /**
+   * Is stale boolean.
+   *
+   * @return true if some data is loaded from the local cache and not refreshed by the server
+   */
+  public boolean isStale() {
+    readLock.lock();
+    try {
+      return !staleSegments.isEmpty();
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private void markCacheDirty() {
+    if (null != dataCache) {
+      dataCache.markDirty(this);
+    }
+  }
+
+  private boolean applyDelta(SegmentData delta) {
+    SegmentData existsData = data.get(delta.getSegment());
+    if (null != existsData && staleSegments.contains(delta.getSegment())) {
+      // the base of the delta is not the cached data
+      return false;
+    }
+    if (null != existsData && existsData.getVersion() >= delta.getVersion()) {
+      // expired push, ignore it like the full push
+      return true;
+    }
+    if (null == existsData
+        || null == existsData.getPublisherData()
+        || !delta.getBaseVersion().equals(existsData.getVersion())) {
+      return false;
+    }
+    Map<String, Map<String, List<DataBox>>> publisherData = existsData.getPublisherData();
+    if (null != delta.getRemovedRegistIds()) {
+      for (String registId : delta.getRemovedRegistIds()) {
+        for (Map<String, List<DataBox>> zoneData : publisherData.values()) {
+          zoneData.remove(registId);
+        }
+      }
+    }
+    if (null != delta.getPublisherData()) {
+      for (Entry<String, Map<String, List<DataBox>>> entry : delta.getPublisherData().entrySet()) {
+        Map<String, List<DataBox>> zoneData = publisherData.get(entry.getKey());
+        if (null == zoneData) {
+          zoneData = new HashMap<String, List<DataBox>>();
+          publisherData.put(entry.getKey(), zoneData);
+        }
+        zoneData.putAll(entry.getValue());
+      }
+    }
+    Iterator<Map<String, List<DataBox>>> it = publisherData.values().iterator();
+    while (it.hasNext()) {
+      if (it.next().isEmpty()) {
+        it.remove();
+      }
+    }
+    existsData.setVersion(delta.getVersion());
+    init.compareAndSet(false, true);
+    return true;
+  }
+
+  private static SegmentData copyOf(SegmentData segmentData) {
+    Map<String, Map<String, List<DataBox>>> publisherData =
+        new HashMap<String, Map<String, List<DataBox>>>();
+    for (Entry<String, Map<String, List<DataBox>>> entry :
+        segmentData.getPublisherData().entrySet()) {
+      publisherData.put(entry.getKey(), new HashMap<String, List<DataBox>>(entry.getValue()));
+    }
+    SegmentData copy = new SegmentData();
+    copy.setSegment(segmentData.getSegment());
+    copy.setVersion(segmentData.getVersion());
+    copy.setPublisherData(publisherData);
+    return copy;
   }
 
   private void putSegmentData(SegmentData segmentData) {
     if (null != segmentData) {
+      if (staleSegments.remove(segmentData.getSegment())) {
+        // replace the cached data whatever the version is
+        data.put(segmentData.getSegment(), segmentData);
+        return;
+      }
 
       SegmentData existsData = data.putIfAbsent(segmentData.getSegment(), segmentData);
       if (null == existsData) {
@@ -277,6 +488,7 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
       } else {
         this.availableSegments = new ArrayList<String>(availableSegments);
       }
+      this.userData = null;
     } finally {
       writeLock.unlock();
     }
@@ -286,6 +498,24 @@ public class DefaultSubscriber extends AbstractInternalRegister implements Subsc
     return init.get();
   }
 
+  /**
+   * Getter method for property <tt>instanceId</tt>.
+   *
+   * @return property value of instanceId
+   */
+  public String getInstanceId() {
+    return config.getInstanceId();
+  }
+
+  /**
+   * Setter method for property <tt>dataCache</tt>.
+   *
+   * @param dataCache value to be assigned to property dataCache
+   */
+  public void setDataCache(SubscriberDataCache dataCache) {
+    this.dataCache = dataCache;
+  }
+
   @Override
   public String toString() {
     return "DefaultSubscriber{" + "registration=" + registration + '}' + super.toString();
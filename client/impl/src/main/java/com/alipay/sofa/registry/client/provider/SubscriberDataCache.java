@@ -0,0 +1,363 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.client.provider;
+
+import com.alipay.sofa.registry.client.factory.NamedThreadFactory;
+import com.alipay.sofa.registry.client.log.LoggerFactory;
+import com.alipay.sofa.registry.client.model.SegmentData;
+import com.alipay.sofa.registry.core.model.DataBox;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+
+/**
+ * The local file cache of the data received by the subscribers. The data is loaded when the
+ * subscriber registers, so the observer is notified before the server pushes.
+ *
+ * <p>A file per subscribed dataInfoId and scope, replaced atomically by renaming a synced temp
+ * file. The changes are coalesced and flushed by a single thread, and the oldest files are deleted
+ * when the files exceed the max size.
+ */
+public class SubscriberDataCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SubscriberDataCache.class);
+
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private static final int MAGIC = 0x53524443;
+
+  private static final int FORMAT_VERSION = 1;
+
+  private static final String FILE_SUFFIX = ".dat";
+
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  private static final long FLUSH_INTERVAL = 1000;
+
+  private final File dir;
+
+  private final long maxSize;
+
+  /** the subscribers received data since last flush, Map<cacheKey, subscriber> */
+  private final ConcurrentMap<String, DefaultSubscriber> dirtySubscribers =
+      new ConcurrentHashMap<String, DefaultSubscriber>();
+
+  private ScheduledExecutorService flushExecutor;
+
+  /**
+   * Instantiates a new Subscriber data cache.
+   *
+   * @param dir the dir of the cache files
+   * @param maxSize the max bytes of the cache files
+   */
+  public SubscriberDataCache(File dir, long maxSize) {
+    this.dir = dir;
+    this.maxSize = maxSize;
+  }
+
+  /** Start the flush thread. */
+  public void start() {
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      LOGGER.error("[cache] create local cache dir failed, {}", dir);
+      return;
+    }
+    for (File file : listFiles(TEMP_SUFFIX)) {
+      deleteFile(file);
+    }
+    flushExecutor =
+        new ScheduledThreadPoolExecutor(
+            1, new NamedThreadFactory("SubscriberDataCacheFlush", true));
+    flushExecutor.scheduleWithFixedDelay(
+        new Runnable() {
+          @Override
+          public void run() {
+            flush();
+          }
+        },
+        FLUSH_INTERVAL,
+        FLUSH_INTERVAL,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Mark the subscriber to write in the next flush.
+   *
+   * @param subscriber the subscriber
+   */
+  public void markDirty(DefaultSubscriber subscriber) {
+    dirtySubscribers.put(cacheKey(subscriber), subscriber);
+  }
+
+  /**
+   * Load the cached data of the subscriber.
+   *
+   * @param subscriber the subscriber
+   * @return the cached data, empty if not cached or the file is broken
+   */
+  public List<SegmentData> load(DefaultSubscriber subscriber) {
+    String key = cacheKey(subscriber);
+    File file = cacheFile(key);
+    if (!file.isFile()) {
+      return Collections.emptyList();
+    }
+    try {
+      return read(file, key);
+    } catch (Throwable e) {
+      LOGGER.warn("[cache] read local cache failed, {}, {}", key, file, e);
+      deleteFile(file);
+      return Collections.emptyList();
+    }
+  }
+
+  /** Write the data of the dirty subscribers, then evict the oldest files if exceeds max size. */
+  void flush() {
+    if (dirtySubscribers.isEmpty()) {
+      return;
+    }
+    for (String key : new ArrayList<String>(dirtySubscribers.keySet())) {
+      DefaultSubscriber subscriber = dirtySubscribers.remove(key);
+      if (null == subscriber) {
+        continue;
+      }
+      try {
+        write(cacheFile(key), key, subscriber.getCacheData());
+      } catch (Throwable e) {
+        LOGGER.warn("[cache] write local cache failed, {}", key, e);
+      }
+    }
+    evict();
+  }
+
+  private void evict() {
+    File[] files = listFiles(FILE_SUFFIX);
+    long total = 0;
+    for (File file : files) {
+      total += file.length();
+    }
+    if (total <= maxSize) {
+      return;
+    }
+    Arrays.sort(
+        files,
+        new Comparator<File>() {
+          @Override
+          public int compare(File o1, File o2) {
+            long m1 = o1.lastModified();
+            long m2 = o2.lastModified();
+            return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+          }
+        });
+    for (File file : files) {
+      if (total <= maxSize) {
+        break;
+      }
+      long length = file.length();
+      if (deleteFile(file)) {
+        total -= length;
+        LOGGER.info("[cache] evict local cache file, {}", file);
+      }
+    }
+  }
+
+  private void write(File file, String key, List<SegmentData> segments) throws IOException {
+    File temp = new File(dir, file.getName() + TEMP_SUFFIX);
+    FileOutputStream fos = new FileOutputStream(temp);
+    try {
+      GZIPOutputStream gzip = new CacheOutputStream(new BufferedOutputStream(fos));
+      DataOutputStream out = new DataOutputStream(gzip);
+      try {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        writeString(out, key);
+        out.writeInt(segments.size());
+        for (SegmentData segmentData : segments) {
+          writeString(out, segmentData.getSegment());
+          out.writeLong(segmentData.getVersion());
+          out.writeInt(segmentData.getData().size());
+          for (Entry<String, List<DataBox>> entry : segmentData.getData().entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (DataBox dataBox : entry.getValue()) {
+              writeString(out, dataBox.getData());
+            }
+          }
+        }
+        gzip.finish();
+        out.flush();
+        fos.getFD().sync();
+      } finally {
+        // release the native memory of the deflater
+        out.close();
+      }
+    } finally {
+      fos.close();
+    }
+    if (!temp.renameTo(file)) {
+      // not able to rename to an existing file on some platforms
+      deleteFile(file);
+      if (!temp.renameTo(file)) {
+        deleteFile(temp);
+        throw new IOException("rename " + temp + " to " + file + " failed");
+      }
+    }
+  }
+
+  private List<SegmentData> read(File file, String key) throws IOException {
+    DataInputStream in =
+        new DataInputStream(
+            new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))));
+    try {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+        throw new IOException("unknown format");
+      }
+      if (!key.equals(readString(in))) {
+        // hash conflicted
+        return Collections.emptyList();
+      }
+      int segmentCount = in.readInt();
+      List<SegmentData> segments = new ArrayList<SegmentData>(segmentCount);
+      for (int i = 0; i < segmentCount; i++) {
+        SegmentData segmentData = new SegmentData();
+        segmentData.setSegment(readString(in));
+        segmentData.setVersion(in.readLong());
+        int zoneCount = in.readInt();
+        Map<String, List<DataBox>> data = new HashMap<String, List<DataBox>>(zoneCount);
+        for (int j = 0; j < zoneCount; j++) {
+          String zone = readString(in);
+          int size = in.readInt();
+          List<DataBox> dataList = new ArrayList<DataBox>(size);
+          for (int k = 0; k < size; k++) {
+            dataList.add(new DataBox(readString(in)));
+          }
+          data.put(zone, dataList);
+        }
+        segmentData.setData(data);
+        segments.add(segmentData);
+      }
+      return segments;
+    } finally {
+      in.close();
+    }
+  }
+
+  /** the deflater is not released by GZIPOutputStream#close if the finish fails */
+  private static final class CacheOutputStream extends GZIPOutputStream {
+    CacheOutputStream(OutputStream out) throws IOException {
+      super(out);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        def.end();
+      }
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (null == value) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(UTF8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, UTF8);
+  }
+
+  private File cacheFile(String key) {
+    return new File(dir, md5Hex(key) + FILE_SUFFIX);
+  }
+
+  private File[] listFiles(final String suffix) {
+    File[] files =
+        dir.listFiles(
+            new FilenameFilter() {
+              @Override
+              public boolean accept(File dir, String name) {
+                return name.endsWith(suffix);
+              }
+            });
+    return null == files ? new File[0] : files;
+  }
+
+  private static boolean deleteFile(File file) {
+    if (file.delete() || !file.exists()) {
+      return true;
+    }
+    LOGGER.warn("[cache] delete local cache file failed, {}", file);
+    return false;
+  }
+
+  static String cacheKey(DefaultSubscriber subscriber) {
+    ScopeEnum scope = subscriber.getScopeEnum();
+    return subscriber.getDataId()
+        + "#"
+        + subscriber.getInstanceId()
+        + "#"
+        + subscriber.getGroup()
+        + "#"
+        + (null == scope ? ScopeEnum.zone : scope);
+  }
+
+  private static String md5Hex(String key) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("MD5");
+      return new BigInteger(1, digest.digest(key.getBytes(UTF8))).toString(16);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.client.remoting;
 
+import com.alipay.remoting.InvokeCallback;
 import com.alipay.remoting.exception.RemotingException;
 
 /**
@@ -52,4 +53,13 @@ public interface Client {
    * @throws InterruptedException the interrupted exception
    */
   Object invokeSync(Object request) throws RemotingException, InterruptedException;
+
+  /**
+   * Invoke with callback, the result or the exception is passed to the callback.
+   *
+   * @param request the request
+   * @param callback the callback
+   * @throws RemotingException the remoting exception
+   */
+  void invokeWithCallback(Object request, InvokeCallback callback) throws RemotingException;
 }
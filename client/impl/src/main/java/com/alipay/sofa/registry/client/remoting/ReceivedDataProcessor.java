@@ -63,7 +63,7 @@ public class ReceivedDataProcessor extends SyncUserProcessor<ReceivedData> {
   public Object handleRequest(BizContext bizCtx, ReceivedData request) {
     Result result = new Result();
     result.setSuccess(true);
-    if (null == request || null == request.getData()) {
+    if (null == request || (null == request.getData() && null == request.getPublisherData())) {
       return result;
     }
     try {
@@ -73,6 +73,9 @@ public class ReceivedDataProcessor extends SyncUserProcessor<ReceivedData> {
       segmentData.setData(request.getData());
       segmentData.setVersion(request.getVersion());
       segmentData.setSegment(request.getSegment());
+      segmentData.setPublisherData(request.getPublisherData());
+      segmentData.setBaseVersion(request.getBaseVersion());
+      segmentData.setRemovedRegistIds(request.getRemovedRegistIds());
 
       for (String registId : registIds) {
         Subscriber subscriber = registerCache.getSubscriberByRegistId(registId);
@@ -82,7 +85,19 @@ public class ReceivedDataProcessor extends SyncUserProcessor<ReceivedData> {
 
         if (subscriber instanceof DefaultSubscriber) {
           DefaultSubscriber defaultSubscriber = (DefaultSubscriber) subscriber;
-          defaultSubscriber.putReceivedData(segmentData, request.getLocalZone());
+          if (null == segmentData.getBaseVersion()) {
+            defaultSubscriber.putReceivedData(segmentData, request.getLocalZone());
+          } else if (!defaultSubscriber.putReceivedDelta(segmentData, request.getLocalZone())) {
+            // the server retries with the full data
+            result.setSuccess(false);
+            result.setMessage("delta base version not held");
+            LOGGER.warn(
+                "[received] delta base version not held, dataId: {}, registId: {}, baseVersion: {}",
+                subscriber.getDataId(),
+                registId,
+                request.getBaseVersion());
+            continue;
+          }
           try {
             observerHandler.notify(subscriber);
           } catch (Exception e) {
@@ -99,10 +114,11 @@ public class ReceivedDataProcessor extends SyncUserProcessor<ReceivedData> {
       }
 
       LOGGER.info(
-          "[received] receive subscriber data save success, dataId: {} group: {} version: {} data:{} registIds:{}",
+          "[received] receive subscriber data save success, dataId: {} group: {} version: {} baseVersion: {} data:{} registIds:{}",
           request.getDataId(),
           request.getGroup(),
           request.getVersion(),
+          request.getBaseVersion(),
           request.getData(),
           registIds);
     } catch (Exception e) {
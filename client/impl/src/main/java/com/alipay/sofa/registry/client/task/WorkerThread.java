@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.client.task;
 
+import com.alipay.remoting.InvokeCallback;
 import com.alipay.sofa.registry.client.api.Register;
 import com.alipay.sofa.registry.client.api.RegistryClientConfig;
 import com.alipay.sofa.registry.client.log.LoggerFactory;
@@ -26,6 +27,8 @@ import com.alipay.sofa.registry.client.remoting.Client;
 import com.alipay.sofa.registry.core.model.RegisterResponse;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 
@@ -47,6 +50,11 @@ public class WorkerThread extends AbstractWorkerThread {
 
   private AtomicBoolean inited = new AtomicBoolean(false);
 
+  /** the requests are pipelined, limit the requests waiting for the response */
+  private final int inFlightLimit;
+
+  private final Semaphore inFlight;
+
   /**
    * Instantiates a new Worker thread.
    *
@@ -57,6 +65,8 @@ public class WorkerThread extends AbstractWorkerThread {
     super(client);
     this.config = config;
     this.registerCache = registerCache;
+    this.inFlightLimit = Math.max(1, config.getRegisterInFlightLimit());
+    this.inFlight = new Semaphore(inFlightLimit);
     this.setName("RegistryWorkerThread");
     this.setDaemon(true);
   }
@@ -118,6 +128,9 @@ public class WorkerThread extends AbstractWorkerThread {
           handleTask(ev);
         }
 
+        // wait for the responses, the succeeded tasks are done before cleaning
+        awaitInFlight();
+
         // Cleaning completed task, it will take more time when the registration number is large.
         requestQueue.cleanCompletedTasks();
       } catch (Throwable e) {
@@ -152,8 +165,33 @@ public class WorkerThread extends AbstractWorkerThread {
 
       Object request = syncTask.getRequest();
 
-      Object result = client.invokeSync(request);
+      inFlight.acquire();
+      boolean sent = false;
+      try {
+        client.invokeWithCallback(
+            request, new RegisterCallback(abstractInternalRegister, requestId, request));
+        sent = true;
+      } finally {
+        if (!sent) {
+          inFlight.release();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOGGER.error("[send] handle request interrupted, {}", event, e);
+    } catch (Exception e) {
+      LOGGER.error("[send] handle request failed, {}", event, e);
+    }
+  }
+
+  private void awaitInFlight() throws InterruptedException {
+    inFlight.acquire(inFlightLimit);
+    inFlight.release(inFlightLimit);
+  }
 
+  private void handleResult(
+      AbstractInternalRegister register, String requestId, Object request, Object result) {
+    try {
       if (!(result instanceof RegisterResponse)) {
         LOGGER.warn("[register] result type is wrong, {}", result);
         return;
@@ -165,8 +203,7 @@ public class WorkerThread extends AbstractWorkerThread {
         return;
       }
 
-      boolean syncOK =
-          abstractInternalRegister.syncOK(requestId, response.getVersion(), response.isRefused());
+      boolean syncOK = register.syncOK(requestId, response.getVersion(), response.isRefused());
       if (!syncOK) {
         LOGGER.info(
             "[register] requestId has expired, ignore this response, {}, {}, {}",
@@ -188,7 +225,43 @@ public class WorkerThread extends AbstractWorkerThread {
             "[register] register to server success, {}, {}, {}", requestId, request, response);
       }
     } catch (Exception e) {
-      LOGGER.error("[send] handle request failed, {}", event, e);
+      LOGGER.error("[send] handle response failed, {}, {}", request, result, e);
+    }
+  }
+
+  private final class RegisterCallback implements InvokeCallback {
+    private final AbstractInternalRegister register;
+    private final String requestId;
+    private final Object request;
+
+    RegisterCallback(AbstractInternalRegister register, String requestId, Object request) {
+      this.register = register;
+      this.requestId = requestId;
+      this.request = request;
+    }
+
+    @Override
+    public void onResponse(Object result) {
+      try {
+        handleResult(register, requestId, request, result);
+      } finally {
+        inFlight.release();
+      }
+    }
+
+    @Override
+    public void onException(Throwable e) {
+      try {
+        LOGGER.error("[send] handle request failed, {}", request, e);
+      } finally {
+        inFlight.release();
+      }
+    }
+
+    @Override
+    public Executor getExecutor() {
+      // handle the result in the io thread, it is cheap
+      return null;
     }
   }
 }
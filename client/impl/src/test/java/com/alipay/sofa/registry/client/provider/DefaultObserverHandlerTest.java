@@ -19,7 +19,12 @@ package com.alipay.sofa.registry.client.provider;
 import static org.mockito.Mockito.times;
 
 import com.alipay.sofa.registry.client.api.*;
+import com.alipay.sofa.registry.client.api.model.UserData;
 import com.alipay.sofa.registry.client.event.DefaultEventBus;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
@@ -47,6 +52,7 @@ public class DefaultObserverHandlerTest {
     handler.notify(mockSubscriber);
     Thread.sleep(100);
     Mockito.verify(mockSubscriber, times(1)).getDataObserver();
+    Assert.assertTrue(handler.pendingNotifies.isEmpty());
   }
 
   @Test
@@ -63,4 +69,45 @@ public class DefaultObserverHandlerTest {
     Thread.sleep(100);
     Mockito.verify(mockConfigurator, times(1)).getDataObserver();
   }
+
+  @Test
+  public void testSubscriberConflate() throws Exception {
+    init();
+    final CountDownLatch blocking = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger handled = new AtomicInteger();
+    Subscriber subscriber = Mockito.mock(Subscriber.class);
+    Mockito.when(subscriber.isEnabled()).thenReturn(true);
+    Mockito.when(subscriber.getDataObserver())
+        .thenReturn(
+            new SubscriberDataObserver() {
+              @Override
+              public void handleData(String dataId, UserData data) {
+                if (handled.incrementAndGet() == 1) {
+                  blocking.countDown();
+                  try {
+                    release.await();
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                }
+              }
+            });
+    handler.notify(subscriber);
+    Assert.assertTrue(blocking.await(3, TimeUnit.SECONDS));
+    // notified during the delivery, conflate to one delivery of the latest data
+    for (int i = 0; i < 10; i++) {
+      handler.notify(subscriber);
+    }
+    release.countDown();
+    Thread.sleep(200);
+    Assert.assertEquals(2, handled.get());
+    Mockito.verify(subscriber, times(2)).peekData();
+
+    handler.notify(subscriber);
+    Thread.sleep(200);
+    Assert.assertEquals(3, handled.get());
+    // the notify state is released once delivered
+    Assert.assertTrue(handler.pendingNotifies.isEmpty());
+  }
 }
@@ -17,8 +17,10 @@
 package com.alipay.sofa.registry.client.provider;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import com.alipay.sofa.registry.client.api.model.UserData;
 import com.alipay.sofa.registry.client.model.SegmentData;
@@ -233,6 +235,110 @@ public class DefaultSubscriberTest {
     assertZoneDataEquals(expectedMap8, userData10.getZoneData());
   }
 
+  @Test
+  public void testPutReceivedDelta() {
+    DefaultRegistryClientConfig config = DefaultRegistryClientConfigBuilder.start().build();
+    DefaultSubscriber defaultSubscriber = new DefaultSubscriber(null, null, config);
+
+    // 1. delta before full
+    assertFalse(defaultSubscriber.putReceivedDelta(deltaData(2, 1), ZHEJIANG));
+
+    // 2. full keyed by publisher
+    SegmentData full = new SegmentData();
+    full.setSegment(segmentA);
+    full.setVersion(1L);
+    full.setPublisherData(new HashMap<String, Map<String, List<DataBox>>>());
+    addToPublisherMap(full.getPublisherData(), ZHEJIANG, "pub1", HANGZHOU);
+    addToPublisherMap(full.getPublisherData(), ZHEJIANG, "pub2", NINGBO);
+    addToPublisherMap(full.getPublisherData(), JIANGSU, "pub3", NANJING);
+    defaultSubscriber.putReceivedData(full, ZHEJIANG);
+
+    Map<String, List<String>> expected = new HashMap<String, List<String>>();
+    addToStringMap(expected, ZHEJIANG, HANGZHOU, NINGBO);
+    addToStringMap(expected, JIANGSU, NANJING);
+    assertZoneDataEquals(expected, defaultSubscriber.peekData().getZoneData());
+
+    // 3. update pub1, remove pub3, add pub4
+    SegmentData delta = deltaData(2, 1);
+    addToPublisherMap(delta.getPublisherData(), ZHEJIANG, "pub1", WENZHOU);
+    addToPublisherMap(delta.getPublisherData(), FUJIAN, "pub4", XIAMEN);
+    delta.getRemovedRegistIds().add("pub3");
+    assertTrue(defaultSubscriber.putReceivedDelta(delta, ZHEJIANG));
+
+    expected = new HashMap<String, List<String>>();
+    addToStringMap(expected, ZHEJIANG, WENZHOU, NINGBO);
+    addToStringMap(expected, FUJIAN, XIAMEN);
+    assertZoneDataEquals(expected, defaultSubscriber.peekData().getZoneData());
+    // the received full data not changed by the delta
+    assertEquals(2, full.getPublisherData().get(ZHEJIANG).size());
+    assertEquals(1, full.getPublisherData().get(JIANGSU).size());
+
+    // 4. expired delta is ignored, the delta of a missing base is rejected
+    assertTrue(defaultSubscriber.putReceivedDelta(deltaData(2, 1), ZHEJIANG));
+    assertFalse(defaultSubscriber.putReceivedDelta(deltaData(4, 3), ZHEJIANG));
+    assertZoneDataEquals(expected, defaultSubscriber.peekData().getZoneData());
+  }
+
+  @Test
+  public void testPeekDataCached() {
+    DefaultRegistryClientConfig config = DefaultRegistryClientConfigBuilder.start().build();
+    DefaultSubscriber defaultSubscriber = new DefaultSubscriber(null, null, config);
+
+    SegmentData segmentData = new SegmentData();
+    segmentData.setSegment(segmentA);
+    segmentData.setVersion(1L);
+    Map<String, List<DataBox>> data = new HashMap<String, List<DataBox>>();
+    addToDataBoxMap(data, ZHEJIANG, HANGZHOU);
+    segmentData.setData(data);
+    defaultSubscriber.putReceivedData(segmentData, ZHEJIANG);
+
+    UserData userData1 = defaultSubscriber.peekData();
+    assertTrue(userData1 == defaultSubscriber.peekData());
+    try {
+      userData1.getZoneData().get(ZHEJIANG).add(NINGBO);
+      fail("the user data is immutable");
+    } catch (UnsupportedOperationException expected) {
+    }
+
+    // rebuild after received the new version
+    SegmentData segmentData2 = new SegmentData();
+    segmentData2.setSegment(segmentA);
+    segmentData2.setVersion(2L);
+    Map<String, List<DataBox>> data2 = new HashMap<String, List<DataBox>>();
+    addToDataBoxMap(data2, ZHEJIANG, NINGBO);
+    segmentData2.setData(data2);
+    defaultSubscriber.putReceivedData(segmentData2, ZHEJIANG);
+
+    UserData userData2 = defaultSubscriber.peekData();
+    assertFalse(userData1 == userData2);
+    assertEquals(Collections.singletonList(HANGZHOU), userData1.getZoneData().get(ZHEJIANG));
+    assertEquals(Collections.singletonList(NINGBO), userData2.getZoneData().get(ZHEJIANG));
+
+    // rebuild after the available segments changed
+    defaultSubscriber.setAvailableSegments(Collections.singletonList(segmentB));
+    assertTrue(defaultSubscriber.peekData().getZoneData().isEmpty());
+  }
+
+  private SegmentData deltaData(long version, long baseVersion) {
+    SegmentData delta = new SegmentData();
+    delta.setSegment(segmentA);
+    delta.setVersion(version);
+    delta.setBaseVersion(baseVersion);
+    delta.setPublisherData(new HashMap<String, Map<String, List<DataBox>>>());
+    delta.setRemovedRegistIds(new ArrayList<String>());
+    return delta;
+  }
+
+  private void addToPublisherMap(
+      Map<String, Map<String, List<DataBox>>> map, String zone, String registId, String value) {
+    Map<String, List<DataBox>> zoneMap = map.get(zone);
+    if (zoneMap == null) {
+      zoneMap = new HashMap<String, List<DataBox>>();
+      map.put(zone, zoneMap);
+    }
+    zoneMap.put(registId, Collections.singletonList(new DataBox(value)));
+  }
+
   private void addToDataBoxMap(Map<String, List<DataBox>> map, String key, String... values) {
     List<DataBox> list = map.get(key);
     if (list == null) {
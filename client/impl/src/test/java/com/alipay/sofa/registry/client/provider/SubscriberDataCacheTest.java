@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.client.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.alipay.sofa.registry.client.api.model.UserData;
+import com.alipay.sofa.registry.client.api.registration.SubscriberRegistration;
+import com.alipay.sofa.registry.client.model.SegmentData;
+import com.alipay.sofa.registry.core.model.DataBox;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SubscriberDataCacheTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private DefaultRegistryClientConfig config = DefaultRegistryClientConfigBuilder.start().build();
+
+  @Test
+  public void testWriteAndLoad() throws Exception {
+    SubscriberDataCache cache = new SubscriberDataCache(folder.getRoot(), 1024 * 1024);
+    DefaultSubscriber subscriber = newSubscriber("testDataId");
+    subscriber.setDataCache(cache);
+    subscriber.putReceivedData(segmentData("a", 10, "zone1", "data1", "data2"), "zone1");
+    subscriber.putReceivedData(segmentData("b", 20, "zone2", "data3"), "zone1");
+    cache.flush();
+    assertEquals(1, folder.getRoot().listFiles().length);
+
+    // restart, the cached data is served before the server pushes
+    DefaultSubscriber restarted = newSubscriber("testDataId");
+    List<SegmentData> cached = cache.load(restarted);
+    assertEquals(2, cached.size());
+    restarted.putCachedData(cached);
+    assertTrue(restarted.isInited());
+    assertTrue(restarted.isStale());
+    UserData userData = restarted.peekData();
+    assertEquals(2, userData.getZoneData().get("zone1").size());
+    assertEquals(Collections.singletonList("data3"), userData.getZoneData().get("zone2"));
+
+    // the cached data is replaced by the pushed data even of lower version
+    restarted.putReceivedData(segmentData("a", 1, "zone1", "data4"), "zone1");
+    assertTrue(restarted.isStale());
+    restarted.putReceivedData(segmentData("b", 1, "zone2", "data5"), "zone1");
+    assertFalse(restarted.isStale());
+    userData = restarted.peekData();
+    assertEquals(Collections.singletonList("data4"), userData.getZoneData().get("zone1"));
+    assertEquals(Collections.singletonList("data5"), userData.getZoneData().get("zone2"));
+
+    // not cached
+    assertTrue(cache.load(newSubscriber("otherDataId")).isEmpty());
+  }
+
+  @Test
+  public void testBrokenFile() throws Exception {
+    SubscriberDataCache cache = new SubscriberDataCache(folder.getRoot(), 1024 * 1024);
+    DefaultSubscriber subscriber = newSubscriber("testDataId");
+    subscriber.setDataCache(cache);
+    subscriber.putReceivedData(segmentData("a", 10, "zone1", "data1"), "zone1");
+    cache.flush();
+    File file = folder.getRoot().listFiles()[0];
+    FileOutputStream out = new FileOutputStream(file);
+    out.write(new byte[] {1, 2, 3});
+    out.close();
+
+    assertTrue(cache.load(newSubscriber("testDataId")).isEmpty());
+    assertFalse(file.exists());
+  }
+
+  @Test
+  public void testEvict() throws Exception {
+    SubscriberDataCache cache = new SubscriberDataCache(folder.getRoot(), 1);
+    DefaultSubscriber subscriber = newSubscriber("testDataId");
+    subscriber.setDataCache(cache);
+    subscriber.putReceivedData(segmentData("a", 10, "zone1", "data1"), "zone1");
+    cache.flush();
+    assertEquals(0, folder.getRoot().listFiles().length);
+  }
+
+  private DefaultSubscriber newSubscriber(String dataId) {
+    SubscriberRegistration registration = new SubscriberRegistration(dataId, null);
+    registration.setGroup("testGroup");
+    return new DefaultSubscriber(registration, null, config);
+  }
+
+  private SegmentData segmentData(String segment, long version, String zone, String... values) {
+    List<DataBox> dataList = new ArrayList<DataBox>();
+    for (String value : values) {
+      dataList.add(new DataBox(value));
+    }
+    Map<String, List<DataBox>> data = new HashMap<String, List<DataBox>>();
+    data.put(zone, dataList);
+    SegmentData segmentData = new SegmentData();
+    segmentData.setSegment(segment);
+    segmentData.setVersion(version);
+    segmentData.setData(data);
+    return segmentData;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.client.task;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.alipay.remoting.InvokeCallback;
+import com.alipay.sofa.registry.client.api.RegistryClientConfig;
+import com.alipay.sofa.registry.client.provider.AbstractInternalRegister;
+import com.alipay.sofa.registry.client.provider.AbstractInternalRegister.SyncTask;
+import com.alipay.sofa.registry.client.provider.DefaultRegistryClientConfigBuilder;
+import com.alipay.sofa.registry.client.provider.RegisterCache;
+import com.alipay.sofa.registry.client.remoting.Client;
+import com.alipay.sofa.registry.core.model.RegisterResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class WorkerThreadTest {
+
+  @Test
+  public void testPipelined() throws Exception {
+    RegistryClientConfig config =
+        DefaultRegistryClientConfigBuilder.start().setRegisterInFlightLimit(2).build();
+    Client client = mock(Client.class);
+    when(client.isConnected()).thenReturn(true);
+
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger maxInFlight = new AtomicInteger();
+    final BlockingQueue<InvokeCallback> callbacks = new LinkedBlockingQueue<InvokeCallback>();
+    doAnswer(
+            new Answer<Void>() {
+              @Override
+              public Void answer(InvocationOnMock invocation) {
+                int current = inFlight.incrementAndGet();
+                if (current > maxInFlight.get()) {
+                  maxInFlight.set(current);
+                }
+                callbacks.add((InvokeCallback) invocation.getArguments()[1]);
+                return null;
+              }
+            })
+        .when(client)
+        .invokeWithCallback(any(), any(InvokeCallback.class));
+
+    WorkerThread worker = new WorkerThread(client, config, mock(RegisterCache.class));
+    List<AbstractInternalRegister> registers = new ArrayList<AbstractInternalRegister>();
+    List<TaskEvent> events = new ArrayList<TaskEvent>();
+    for (int i = 0; i < 5; i++) {
+      AbstractInternalRegister register = mockRegister("registId-" + i);
+      registers.add(register);
+      events.add(new TaskEvent(register));
+    }
+    worker.schedule(events);
+    worker.signal();
+
+    // the responses come back one by one, the window keeps at most 2 requests in flight
+    for (int i = 0; i < 5; i++) {
+      InvokeCallback callback = callbacks.poll(3, TimeUnit.SECONDS);
+      Assert.assertNotNull(callback);
+      inFlight.decrementAndGet();
+      RegisterResponse response = new RegisterResponse();
+      response.setSuccess(true);
+      callback.onResponse(response);
+    }
+    Assert.assertEquals(2, maxInFlight.get());
+    for (AbstractInternalRegister register : registers) {
+      verify(register, times(1)).syncOK(anyString(), anyLong(), anyBoolean());
+    }
+
+    Thread.sleep(200);
+    Assert.assertTrue(worker.requestQueue.isEmpty());
+    Assert.assertTrue(callbacks.isEmpty());
+  }
+
+  private AbstractInternalRegister mockRegister(String registId) {
+    final AtomicBoolean done = new AtomicBoolean(false);
+    AbstractInternalRegister register = mock(AbstractInternalRegister.class);
+    SyncTask syncTask = mock(SyncTask.class);
+    when(syncTask.getRequestId()).thenReturn(registId);
+    when(syncTask.getRequest()).thenReturn(registId);
+    when(register.getRegistId()).thenReturn(registId);
+    when(register.isEnabled()).thenReturn(true);
+    when(register.assemblySyncTask()).thenReturn(syncTask);
+    when(register.syncOK(anyString(), anyLong(), anyBoolean()))
+        .thenAnswer(
+            new Answer<Boolean>() {
+              @Override
+              public Boolean answer(InvocationOnMock invocation) {
+                done.set(true);
+                return true;
+              }
+            });
+    when(register.isDone())
+        .thenAnswer(
+            new Answer<Boolean>() {
+              @Override
+              public Boolean answer(InvocationOnMock invocation) {
+                return done.get();
+              }
+            });
+    return register;
+  }
+}
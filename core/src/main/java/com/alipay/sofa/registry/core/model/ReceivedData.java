@@ -51,6 +51,19 @@ public class ReceivedData implements Serializable {
 
   private Map<String, Integer> dataCount = new HashMap<String, Integer>();
 
+  /**
+   * the data keyed by the publisher registId, set instead of data when the subscriber accepts delta
+   */
+  private Map<String /*zone*/, Map<String /*registId*/, List<DataBox>>> publisherData;
+
+  /**
+   * not null means a delta push, publisherData only contains the publishers added or updated since
+   * baseVersion, and removedRegistIds contains the publishers removed since baseVersion
+   */
+  private Long baseVersion;
+
+  private List<String /*registId*/> removedRegistIds;
+
   /** Instantiates a new Received data multi. */
   public ReceivedData() {}
 
@@ -262,6 +275,60 @@ public class ReceivedData implements Serializable {
     this.dataCount = dataCount;
   }
 
+  /**
+   * Getter method for property <tt>publisherData</tt>.
+   *
+   * @return property value of publisherData
+   */
+  public Map<String, Map<String, List<DataBox>>> getPublisherData() {
+    return publisherData;
+  }
+
+  /**
+   * Setter method for property <tt>publisherData</tt>.
+   *
+   * @param publisherData value to be assigned to property publisherData
+   */
+  public void setPublisherData(Map<String, Map<String, List<DataBox>>> publisherData) {
+    this.publisherData = publisherData;
+  }
+
+  /**
+   * Getter method for property <tt>baseVersion</tt>.
+   *
+   * @return property value of baseVersion
+   */
+  public Long getBaseVersion() {
+    return baseVersion;
+  }
+
+  /**
+   * Setter method for property <tt>baseVersion</tt>.
+   *
+   * @param baseVersion value to be assigned to property baseVersion
+   */
+  public void setBaseVersion(Long baseVersion) {
+    this.baseVersion = baseVersion;
+  }
+
+  /**
+   * Getter method for property <tt>removedRegistIds</tt>.
+   *
+   * @return property value of removedRegistIds
+   */
+  public List<String> getRemovedRegistIds() {
+    return removedRegistIds;
+  }
+
+  /**
+   * Setter method for property <tt>removedRegistIds</tt>.
+   *
+   * @param removedRegistIds value to be assigned to property removedRegistIds
+   */
+  public void setRemovedRegistIds(List<String> removedRegistIds) {
+    this.removedRegistIds = removedRegistIds;
+  }
+
   /**
    * To string string.
    *
@@ -296,6 +363,12 @@ public class ReceivedData implements Serializable {
         + '\''
         + ", dataCount="
         + dataCount
+        + ", publisherData="
+        + publisherData
+        + ", baseVersion="
+        + baseVersion
+        + ", removedRegistIds="
+        + removedRegistIds
         + '}';
   }
 }
@@ -27,8 +27,27 @@ import java.util.*;
  * @version $Id: PublisherDigestUtil.java, v 0.1 2019-05-30 20:58 shangyu.wh Exp $
  */
 public final class PublisherDigestUtil {
+  // the digest sign the publishers in sorted order of registerId
+  public static final byte DIGEST_TYPE_SORTED = 0;
+  // the digest sum the sign of every publisher, could be maintained incrementally
+  public static final byte DIGEST_TYPE_COMMUTATIVE = 1;
+  // exchange the hash tree of the commutative digests level by level, see DataSlotMerkleTree
+  public static final byte DIGEST_TYPE_MERKLE = 2;
+
+  private static final long ID_SEED = 0x9E3779B97F4A7C15L;
+  private static final long VER_SEED = 0xC2B2AE3D27D4EB4FL;
+  private static final long TS_SEED = 0x165667B19E3779F9L;
+
   private PublisherDigestUtil() {}
 
+  public static Map<String, DatumDigest> digest(
+      Map<String, DatumSummary> summaryMap, byte digestType) {
+    if (digestType == DIGEST_TYPE_COMMUTATIVE) {
+      return commutativeDigest(summaryMap);
+    }
+    return digest(summaryMap);
+  }
+
   public static Map<String, DatumDigest> digest(Map<String, DatumSummary> summaryMap) {
     if (summaryMap.isEmpty()) {
       return Collections.emptyMap();
@@ -82,6 +101,88 @@ public final class PublisherDigestUtil {
         publisherNum, publisherIdSign, publisherVerSign, publisherTimestampSign, max, min);
   }
 
+  public static Map<String, DatumDigest> commutativeDigest(Map<String, DatumSummary> summaryMap) {
+    if (summaryMap.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    final Map<String, DatumDigest> ret = Maps.newHashMapWithExpectedSize(summaryMap.size());
+    for (Map.Entry<String, DatumSummary> e : summaryMap.entrySet()) {
+      ret.put(e.getKey(), commutativeDigest(e.getValue()));
+    }
+    return ret;
+  }
+
+  /**
+   * the sign of every publisher is mixed independently and summed, so the digest is independent of
+   * the order of publishers, and could be updated by add/sub the sign of the changed publisher
+   *
+   * @param summary summary
+   * @return DatumDigest
+   */
+  public static DatumDigest commutativeDigest(DatumSummary summary) {
+    long publisherIdSign = 0;
+    long publisherVerSign = 0;
+    long publisherTimestampSign = 0;
+    for (Map.Entry<String, RegisterVersion> pub : summary.getPublisherVersions().entrySet()) {
+      final long idSign = idSign(pub.getKey());
+      publisherIdSign += idSign;
+      publisherVerSign += verSign(idSign, pub.getValue());
+      publisherTimestampSign += timestampSign(idSign, pub.getValue());
+    }
+    return commutativeDigest(
+        summary.size(), publisherIdSign, publisherVerSign, publisherTimestampSign);
+  }
+
+  public static DatumDigest commutativeDigest(
+      int publisherNum, long publisherIdSign, long publisherVerSign, long publisherTimestampSign) {
+    // the max/min timestamp could not be maintained incrementally, unused
+    return new DatumDigest(
+        publisherNum,
+        publisherIdSign,
+        publisherVerSign,
+        publisherTimestampSign,
+        (short) 0,
+        (short) 0);
+  }
+
+  public static long idSign(String registerId) {
+    return mix(ID_SEED + digest(registerId));
+  }
+
+  public static long verSign(long idSign, RegisterVersion ver) {
+    return mix(idSign ^ (VER_SEED * (ver.getVersion() + 1)));
+  }
+
+  public static long timestampSign(long idSign, RegisterVersion ver) {
+    return mix(idSign ^ (TS_SEED * (ver.getRegisterTimestamp() + 1)));
+  }
+
+  /**
+   * the sign of dataInfoId and its digest, used as the item of the hash tree
+   *
+   * @param dataInfoId dataInfoId
+   * @param digest digest
+   * @return long
+   */
+  public static long datumSign(String dataInfoId, DatumDigest digest) {
+    long h = idSign(dataInfoId);
+    h = mix(h ^ digest.getPublisherIdSign());
+    h = mix(h ^ digest.getPublisherVerSign());
+    h = mix(h ^ digest.getPublisherTimestampSign());
+    final long num = ((long) digest.getPublisherNum()) << 32;
+    final long ts =
+        ((digest.getMaxTimestamp() & 0xFFFFL) << 16) | (digest.getMinTimestamp() & 0xFFFFL);
+    return mix(h ^ (num | ts));
+  }
+
+  private static long mix(long z) {
+    // the finalizer of splitmix64, spread the bits to avoid the cancellation of sum
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
   private static int digest(String str) {
     // use string.hashCode, it's the fastest. the calc result has cached.
     // but must pay attention to the compatibility of different jdk versions
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.codec;
+
+import com.google.common.collect.Lists;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/** the input of the binary codec, see {@link CodecOutput} */
+public final class CodecInput {
+  private final byte[] buf;
+  private final int limit;
+  private int pos;
+  private final List<String> strings = Lists.newArrayListWithCapacity(64);
+
+  public CodecInput(byte[] buf) {
+    this(buf, 0, buf.length);
+  }
+
+  public CodecInput(byte[] buf, int offset, int length) {
+    this.buf = buf;
+    this.pos = offset;
+    this.limit = offset + length;
+  }
+
+  private void require(int n) {
+    if (n < 0 || pos + n > limit) {
+      throw new IllegalArgumentException(
+          "codec input underflow, pos=" + pos + ", require=" + n + ", limit=" + limit);
+    }
+  }
+
+  public byte readByte() {
+    require(1);
+    return buf[pos++];
+  }
+
+  public boolean readBoolean() {
+    return readByte() != 0;
+  }
+
+  public int readVarInt() {
+    int v = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      final byte b = readByte();
+      v |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return v;
+      }
+    }
+    throw new IllegalArgumentException("malformed varint, pos=" + pos);
+  }
+
+  public long readVarLong() {
+    long v = 0;
+    for (int shift = 0; shift < 70; shift += 7) {
+      final byte b = readByte();
+      v |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return v;
+      }
+    }
+    throw new IllegalArgumentException("malformed varlong, pos=" + pos);
+  }
+
+  public long readSignedVarLong() {
+    final long v = readVarLong();
+    return (v >>> 1) ^ -(v & 1);
+  }
+
+  public long readFixedLong() {
+    require(8);
+    long v = 0;
+    for (int i = 0; i < 8; i++) {
+      v = (v << 8) | (buf[pos++] & 0xFF);
+    }
+    return v;
+  }
+
+  public byte[] readByteArray() {
+    final int len = readVarInt();
+    if (len == 0) {
+      return null;
+    }
+    require(len - 1);
+    byte[] bs = new byte[len - 1];
+    System.arraycopy(buf, pos, bs, 0, bs.length);
+    pos += bs.length;
+    return bs;
+  }
+
+  public String readString() {
+    final int tag = readVarInt();
+    if (tag == 0) {
+      return null;
+    }
+    if ((tag & 1) == 1) {
+      final int index = tag >>> 1;
+      if (index >= strings.size()) {
+        throw new IllegalArgumentException("illegal string ref " + index + ", pos=" + pos);
+      }
+      return strings.get(index);
+    }
+    final int len = (tag >>> 1) - 1;
+    require(len);
+    String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+    pos += len;
+    strings.add(s);
+    return s;
+  }
+
+  /**
+   * read the size of a collection, the size is checked with the remaining bytes to avoid the huge
+   * allocation from a broken input
+   *
+   * @return size
+   */
+  public int readSize() {
+    final int size = readVarInt();
+    if (size < 0 || size > remaining()) {
+      throw new IllegalArgumentException("illegal size " + size + ", pos=" + pos);
+    }
+    return size;
+  }
+
+  /**
+   * read the size written by {@link CodecOutput#writeNullableSize}
+   *
+   * @return -1 if null
+   */
+  public int readNullableSize() {
+    final int size = readVarInt() - 1;
+    if (size < -1 || size > remaining()) {
+      throw new IllegalArgumentException("illegal size " + size + ", pos=" + pos);
+    }
+    return size;
+  }
+
+  public int remaining() {
+    return limit - pos;
+  }
+}
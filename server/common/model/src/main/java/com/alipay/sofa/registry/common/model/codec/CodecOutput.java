@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.codec;
+
+import com.google.common.collect.Maps;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * the growable output of the binary codec. the strings are written once in a message and then
+ * referenced by index, the dataInfoId/cell/app/address repeat a lot in the internal messages
+ */
+public final class CodecOutput {
+  private byte[] buf;
+  private int pos;
+  private final Map<String, Integer> strings = Maps.newHashMapWithExpectedSize(64);
+
+  public CodecOutput() {
+    this(256);
+  }
+
+  public CodecOutput(int initSize) {
+    this.buf = new byte[Math.max(initSize, 16)];
+  }
+
+  private void ensure(int n) {
+    if (pos + n > buf.length) {
+      buf = Arrays.copyOf(buf, Math.max(buf.length << 1, pos + n));
+    }
+  }
+
+  public void writeByte(int b) {
+    ensure(1);
+    buf[pos++] = (byte) b;
+  }
+
+  public void writeBoolean(boolean b) {
+    writeByte(b ? 1 : 0);
+  }
+
+  public void writeBytes(byte[] bs, int off, int len) {
+    ensure(len);
+    System.arraycopy(bs, off, buf, pos, len);
+    pos += len;
+  }
+
+  /** unsigned varint, the negative int takes 5 bytes */
+  public void writeVarInt(int v) {
+    ensure(5);
+    while ((v & ~0x7F) != 0) {
+      buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    buf[pos++] = (byte) v;
+  }
+
+  /** unsigned varint, the negative long takes 10 bytes */
+  public void writeVarLong(long v) {
+    ensure(10);
+    while ((v & ~0x7FL) != 0) {
+      buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    buf[pos++] = (byte) v;
+  }
+
+  /** zigzag varint, for the value maybe negative */
+  public void writeSignedVarLong(long v) {
+    writeVarLong((v << 1) ^ (v >> 63));
+  }
+
+  /** fixed 8 bytes, for the hash which is not suitable for varint */
+  public void writeFixedLong(long v) {
+    ensure(8);
+    for (int i = 56; i >= 0; i -= 8) {
+      buf[pos++] = (byte) (v >>> i);
+    }
+  }
+
+  /** size+1 of the collection, 0 means null */
+  public void writeNullableSize(Collection<?> c) {
+    writeVarInt(c == null ? 0 : c.size() + 1);
+  }
+
+  /** size+1 of the map, 0 means null */
+  public void writeNullableSize(Map<?, ?> m) {
+    writeVarInt(m == null ? 0 : m.size() + 1);
+  }
+
+  public void writeByteArray(byte[] bs) {
+    if (bs == null) {
+      writeVarInt(0);
+      return;
+    }
+    writeVarInt(bs.length + 1);
+    writeBytes(bs, 0, bs.length);
+  }
+
+  /**
+   * tag=0: null; tag is odd: reference of the (tag-1)/2 th string; tag is even: a new string with
+   * (tag-2)/2 bytes of utf8
+   *
+   * @param s s
+   */
+  public void writeString(String s) {
+    if (s == null) {
+      writeVarInt(0);
+      return;
+    }
+    Integer index = strings.get(s);
+    if (index != null) {
+      writeVarInt((index << 1) + 1);
+      return;
+    }
+    strings.put(s, strings.size());
+    byte[] bs = s.getBytes(StandardCharsets.UTF_8);
+    writeVarInt((bs.length << 1) + 2);
+    writeBytes(bs, 0, bs.length);
+  }
+
+  public int size() {
+    return pos;
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buf, pos);
+  }
+}
@@ -0,0 +1,639 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.codec;
+
+import static com.alipay.sofa.registry.common.model.codec.ModelCodecs.*;
+
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.TraceTimes;
+import com.alipay.sofa.registry.common.model.dataserver.BatchRequest;
+import com.alipay.sofa.registry.common.model.dataserver.ClientOffPublisher;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherResult;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptAllManager;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.common.model.store.SubPublisherList;
+import com.alipay.sofa.registry.common.model.store.UnPublisher;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+
+/** the codecs of the messages between session/data/meta, registered in {@link MessageCodecs} */
+public final class InternalMessageCodecs {
+  private InternalMessageCodecs() {}
+
+  static final int BATCH_REQUEST = 1;
+  static final int DATA_CHANGE_REQUEST = 2;
+  static final int DIFF_DIGEST_REQUEST = 3;
+  static final int DIFF_DIGEST_RESULT = 4;
+  static final int DIFF_PUBLISHER_REQUEST = 5;
+  static final int DIFF_PUBLISHER_RESULT = 6;
+  static final int GET_MULTI_DATA_REQUEST = 7;
+  static final int SLOT_ACCESS_RESPONSE = 8;
+  static final int SUB_PUBLISHER_LIST = 9;
+
+  private static final byte ITEM_PUBLISHER = 1;
+  private static final byte ITEM_UN_PUBLISHER = 2;
+  private static final byte ITEM_CLIENT_OFF = 3;
+
+  private static final byte ACCEPTOR_NULL = 0;
+  private static final byte ACCEPTOR_ALL = 1;
+
+  static boolean supportsAcceptor(SyncSlotAcceptorManager acceptorManager) {
+    return acceptorManager == null || acceptorManager.getClass() == SyncSlotAcceptAllManager.class;
+  }
+
+  static void writeAcceptor(SyncSlotAcceptorManager acceptorManager, CodecOutput out) {
+    out.writeByte(acceptorManager == null ? ACCEPTOR_NULL : ACCEPTOR_ALL);
+  }
+
+  static SyncSlotAcceptorManager readAcceptor(CodecInput in) {
+    final byte b = in.readByte();
+    if (b == ACCEPTOR_NULL) {
+      return null;
+    }
+    if (b == ACCEPTOR_ALL) {
+      return new SyncSlotAcceptAllManager();
+    }
+    throw new IllegalArgumentException("unknown acceptor " + b);
+  }
+
+  public static final class BatchRequestCodec implements MessageCodec<BatchRequest> {
+    @Override
+    public int typeId() {
+      return BATCH_REQUEST;
+    }
+
+    @Override
+    public Class<BatchRequest> type() {
+      return BatchRequest.class;
+    }
+
+    @Override
+    public boolean supports(BatchRequest msg) {
+      for (Object item : msg.getRequest()) {
+        if (item instanceof ClientOffPublisher) {
+          continue;
+        }
+        if (item == null) {
+          return false;
+        }
+        if (item.getClass() == UnPublisher.class) {
+          continue;
+        }
+        if (!(item instanceof Publisher) || !supportsPublisher((Publisher) item)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public void encode(BatchRequest msg, CodecOutput out) {
+      writeProcessId(msg.getSessionProcessId(), out);
+      out.writeVarInt(msg.getSlotId());
+      out.writeSignedVarLong(msg.getSlotTableEpoch());
+      out.writeSignedVarLong(msg.getSlotLeaderEpoch());
+      final List<Object> items = msg.getRequest();
+      out.writeVarInt(items.size());
+      for (Object item : items) {
+        if (item instanceof ClientOffPublisher) {
+          ClientOffPublisher clientOff = (ClientOffPublisher) item;
+          out.writeByte(ITEM_CLIENT_OFF);
+          writeConnectId(clientOff.getConnectId(), out);
+          Map<String, Map<String, RegisterVersion>> publisherMap = clientOff.getPublisherMap();
+          out.writeVarInt(publisherMap.size());
+          for (Map.Entry<String, Map<String, RegisterVersion>> e : publisherMap.entrySet()) {
+            out.writeString(e.getKey());
+            writeRegisterVersions(e.getValue(), out);
+          }
+        } else if (item instanceof UnPublisher) {
+          UnPublisher unPub = (UnPublisher) item;
+          out.writeByte(ITEM_UN_PUBLISHER);
+          out.writeString(unPub.getDataInfoId());
+          writeProcessId(unPub.getSessionProcessId(), out);
+          out.writeString(unPub.getRegisterId());
+          out.writeVarLong(unPub.getRegisterTimestamp());
+          out.writeVarLong(unPub.getVersion());
+        } else {
+          out.writeByte(ITEM_PUBLISHER);
+          writePublisher((Publisher) item, out);
+        }
+      }
+    }
+
+    @Override
+    public BatchRequest decode(CodecInput in) {
+      final ProcessId sessionProcessId = readProcessId(in);
+      final int slotId = in.readVarInt();
+      final long slotTableEpoch = in.readSignedVarLong();
+      final long slotLeaderEpoch = in.readSignedVarLong();
+      final int size = in.readSize();
+      final List<Object> items = Lists.newArrayListWithCapacity(size);
+      for (int i = 0; i < size; i++) {
+        final byte itemType = in.readByte();
+        switch (itemType) {
+          case ITEM_PUBLISHER:
+            items.add(readPublisher(in));
+            break;
+          case ITEM_UN_PUBLISHER:
+            items.add(
+                new UnPublisher(
+                    in.readString(),
+                    readProcessId(in),
+                    in.readString(),
+                    in.readVarLong(),
+                    in.readVarLong()));
+            break;
+          case ITEM_CLIENT_OFF:
+            ClientOffPublisher clientOff = new ClientOffPublisher(readConnectId(in));
+            final int dataInfoIdSize = in.readSize();
+            for (int j = 0; j < dataInfoIdSize; j++) {
+              clientOff.getPublisherMap().put(in.readString(), readRegisterVersions(in));
+            }
+            items.add(clientOff);
+            break;
+          default:
+            throw new IllegalArgumentException("unknown batch item type " + itemType);
+        }
+      }
+      final BatchRequest request = new BatchRequest(sessionProcessId, slotId, items);
+      request.setSlotTableEpoch(slotTableEpoch);
+      request.setSlotLeaderEpoch(slotLeaderEpoch);
+      return request;
+    }
+  }
+
+  public static final class DataChangeRequestCodec implements MessageCodec<DataChangeRequest> {
+    @Override
+    public int typeId() {
+      return DATA_CHANGE_REQUEST;
+    }
+
+    @Override
+    public Class<DataChangeRequest> type() {
+      return DataChangeRequest.class;
+    }
+
+    @Override
+    public boolean supports(DataChangeRequest msg) {
+      return true;
+    }
+
+    @Override
+    public void encode(DataChangeRequest msg, CodecOutput out) {
+      out.writeString(msg.getDataCenter());
+      final Map<String, DatumVersion> versions = msg.getDataInfoIds();
+      out.writeVarInt(versions.size());
+      for (Map.Entry<String, DatumVersion> e : versions.entrySet()) {
+        out.writeString(e.getKey());
+        out.writeVarLong(e.getValue().getValue());
+      }
+      final TraceTimes times = msg.getTimes();
+      out.writeBoolean(times != null);
+      if (times != null) {
+        out.writeVarLong(times.getCreateTs());
+        out.writeVarInt(times.getDataChangeType());
+        out.writeVarLong(times.getFirstDataChange());
+        out.writeVarLong(times.getDatumNotifyCreate());
+        out.writeVarLong(times.getDatumNotifySend());
+        out.writeVarLong(times.getTriggerSession());
+      }
+    }
+
+    @Override
+    public DataChangeRequest decode(CodecInput in) {
+      final String dataCenter = in.readString();
+      final int size = in.readSize();
+      final Map<String, DatumVersion> versions = Maps.newHashMapWithExpectedSize(size);
+      for (int i = 0; i < size; i++) {
+        versions.put(in.readString(), DatumVersion.of(in.readVarLong()));
+      }
+      TraceTimes times = null;
+      if (in.readBoolean()) {
+        times = new TraceTimes();
+        times.setCreateTs(in.readVarLong());
+        times.setDataChangeType(in.readVarInt());
+        times.setFirstDataChange(in.readVarLong());
+        times.setDatumNotifyCreate(in.readVarLong());
+        times.setDatumNotifySend(in.readVarLong());
+        times.setTriggerSession(in.readVarLong());
+      }
+      return new DataChangeRequest(dataCenter, versions, times);
+    }
+  }
+
+  public static final class DiffDigestRequestCodec
+      implements MessageCodec<DataSlotDiffDigestRequest> {
+    @Override
+    public int typeId() {
+      return DIFF_DIGEST_REQUEST;
+    }
+
+    @Override
+    public Class<DataSlotDiffDigestRequest> type() {
+      return DataSlotDiffDigestRequest.class;
+    }
+
+    @Override
+    public boolean supports(DataSlotDiffDigestRequest msg) {
+      return supportsAcceptor(msg.getAcceptorManager());
+    }
+
+    @Override
+    public void encode(DataSlotDiffDigestRequest msg, CodecOutput out) {
+      out.writeString(msg.getLocalDataCenter());
+      out.writeSignedVarLong(msg.getSlotTableEpoch());
+      out.writeVarInt(msg.getSlotId());
+      out.writeSignedVarLong(msg.getSlotLeaderEpoch());
+      final Map<String, DatumDigest> digests = msg.getDatumDigest();
+      out.writeVarInt(digests.size());
+      for (Map.Entry<String, DatumDigest> e : digests.entrySet()) {
+        out.writeString(e.getKey());
+        final DatumDigest digest = e.getValue();
+        out.writeVarInt(digest.getPublisherNum());
+        out.writeFixedLong(digest.getPublisherIdSign());
+        out.writeFixedLong(digest.getPublisherVerSign());
+        out.writeFixedLong(digest.getPublisherTimestampSign());
+        out.writeSignedVarLong(digest.getMaxTimestamp());
+        out.writeSignedVarLong(digest.getMinTimestamp());
+      }
+      writeAcceptor(msg.getAcceptorManager(), out);
+      out.writeByte(msg.getDigestType());
+      out.writeVarInt(msg.getMerkleLevel());
+      writeMerkleNodes(msg.getMerkleNodes(), out);
+    }
+
+    @Override
+    public DataSlotDiffDigestRequest decode(CodecInput in) {
+      final String dataCenter = in.readString();
+      final long slotTableEpoch = in.readSignedVarLong();
+      final int slotId = in.readVarInt();
+      final long slotLeaderEpoch = in.readSignedVarLong();
+      final int size = in.readSize();
+      final Map<String, DatumDigest> digests = Maps.newHashMapWithExpectedSize(size);
+      for (int i = 0; i < size; i++) {
+        digests.put(
+            in.readString(),
+            new DatumDigest(
+                in.readVarInt(),
+                in.readFixedLong(),
+                in.readFixedLong(),
+                in.readFixedLong(),
+                (short) in.readSignedVarLong(),
+                (short) in.readSignedVarLong()));
+      }
+      return new DataSlotDiffDigestRequest(
+          dataCenter,
+          slotTableEpoch,
+          slotId,
+          slotLeaderEpoch,
+          digests,
+          readAcceptor(in),
+          in.readByte(),
+          in.readVarInt(),
+          readMerkleNodes(in));
+    }
+  }
+
+  public static final class DiffDigestResultCodec
+      implements MessageCodec<DataSlotDiffDigestResult> {
+    @Override
+    public int typeId() {
+      return DIFF_DIGEST_RESULT;
+    }
+
+    @Override
+    public Class<DataSlotDiffDigestResult> type() {
+      return DataSlotDiffDigestResult.class;
+    }
+
+    @Override
+    public boolean supports(DataSlotDiffDigestResult msg) {
+      return true;
+    }
+
+    @Override
+    public void encode(DataSlotDiffDigestResult msg, CodecOutput out) {
+      writeStrings(msg.getUpdatedDataInfoIds(), out);
+      writeStrings(msg.getAddedDataInfoIds(), out);
+      writeStrings(msg.getRemovedDataInfoIds(), out);
+      out.writeSignedVarLong(msg.getSlotTableEpoch());
+      writeProcessId(msg.getSessionProcessId(), out);
+      out.writeByte(msg.getDigestType());
+      writeMerkleNodes(msg.getMerkleNodes(), out);
+    }
+
+    @Override
+    public DataSlotDiffDigestResult decode(CodecInput in) {
+      final DataSlotDiffDigestResult result =
+          new DataSlotDiffDigestResult(readStrings(in), readStrings(in), readStrings(in));
+      result.setSlotTableEpoch(in.readSignedVarLong());
+      result.setSessionProcessId(readProcessId(in));
+      result.setDigestType(in.readByte());
+      result.setMerkleNodes(readMerkleNodes(in));
+      return result;
+    }
+  }
+
+  public static final class DiffPublisherRequestCodec
+      implements MessageCodec<DataSlotDiffPublisherRequest> {
+    @Override
+    public int typeId() {
+      return DIFF_PUBLISHER_REQUEST;
+    }
+
+    @Override
+    public Class<DataSlotDiffPublisherRequest> type() {
+      return DataSlotDiffPublisherRequest.class;
+    }
+
+    @Override
+    public boolean supports(DataSlotDiffPublisherRequest msg) {
+      return supportsAcceptor(msg.getAcceptorManager());
+    }
+
+    @Override
+    public void encode(DataSlotDiffPublisherRequest msg, CodecOutput out) {
+      out.writeString(msg.getLocalDataCenter());
+      out.writeSignedVarLong(msg.getSlotTableEpoch());
+      out.writeVarInt(msg.getSlotId());
+      writeAcceptor(msg.getAcceptorManager(), out);
+      final List<DatumSummary> summaries = msg.getDatumSummaries();
+      out.writeVarInt(summaries.size());
+      for (DatumSummary summary : summaries) {
+        out.writeString(summary.getDataInfoId());
+        writeRegisterVersions(summary.getPublisherVersions(), out);
+      }
+    }
+
+    @Override
+    public DataSlotDiffPublisherRequest decode(CodecInput in) {
+      final String dataCenter = in.readString();
+      final long slotTableEpoch = in.readSignedVarLong();
+      final int slotId = in.readVarInt();
+      final SyncSlotAcceptorManager acceptorManager = readAcceptor(in);
+      final int size = in.readSize();
+      final List<DatumSummary> summaries = Lists.newArrayListWithCapacity(size);
+      for (int i = 0; i < size; i++) {
+        summaries.add(new DatumSummary(in.readString(), readRegisterVersions(in)));
+      }
+      return new DataSlotDiffPublisherRequest(
+          dataCenter, slotTableEpoch, slotId, acceptorManager, summaries);
+    }
+  }
+
+  public static final class DiffPublisherResultCodec
+      implements MessageCodec<DataSlotDiffPublisherResult> {
+    @Override
+    public int typeId() {
+      return DIFF_PUBLISHER_RESULT;
+    }
+
+    @Override
+    public Class<DataSlotDiffPublisherResult> type() {
+      return DataSlotDiffPublisherResult.class;
+    }
+
+    @Override
+    public boolean supports(DataSlotDiffPublisherResult msg) {
+      for (List<Publisher> publishers : msg.getUpdatedPublishers().values()) {
+        if (!supportsPublishers(publishers)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public void encode(DataSlotDiffPublisherResult msg, CodecOutput out) {
+      out.writeBoolean(msg.isHasRemain());
+      final Map<String, List<Publisher>> updated = msg.getUpdatedPublishers();
+      out.writeVarInt(updated.size());
+      for (Map.Entry<String, List<Publisher>> e : updated.entrySet()) {
+        out.writeString(e.getKey());
+        writePublishers(e.getValue(), out);
+      }
+      final Map<String, List<String>> removed = msg.getRemovedPublishers();
+      out.writeVarInt(removed.size());
+      for (Map.Entry<String, List<String>> e : removed.entrySet()) {
+        out.writeString(e.getKey());
+        writeStrings(e.getValue(), out);
+      }
+      out.writeSignedVarLong(msg.getSlotTableEpoch());
+      writeProcessId(msg.getSessionProcessId(), out);
+    }
+
+    @Override
+    public DataSlotDiffPublisherResult decode(CodecInput in) {
+      final boolean hasRemain = in.readBoolean();
+      final int updatedSize = in.readSize();
+      final Map<String, List<Publisher>> updated = Maps.newHashMapWithExpectedSize(updatedSize);
+      for (int i = 0; i < updatedSize; i++) {
+        updated.put(in.readString(), readPublishers(in));
+      }
+      final int removedSize = in.readSize();
+      final Map<String, List<String>> removed = Maps.newHashMapWithExpectedSize(removedSize);
+      for (int i = 0; i < removedSize; i++) {
+        removed.put(in.readString(), readStrings(in));
+      }
+      final DataSlotDiffPublisherResult result =
+          new DataSlotDiffPublisherResult(hasRemain, updated, removed);
+      result.setSlotTableEpoch(in.readSignedVarLong());
+      result.setSessionProcessId(readProcessId(in));
+      return result;
+    }
+  }
+
+  public static final class GetMultiDataRequestCodec implements MessageCodec<GetMultiDataRequest> {
+    @Override
+    public int typeId() {
+      return GET_MULTI_DATA_REQUEST;
+    }
+
+    @Override
+    public Class<GetMultiDataRequest> type() {
+      return GetMultiDataRequest.class;
+    }
+
+    @Override
+    public boolean supports(GetMultiDataRequest msg) {
+      return true;
+    }
+
+    @Override
+    public void encode(GetMultiDataRequest msg, CodecOutput out) {
+      writeProcessId(msg.getSessionProcessId(), out);
+      out.writeVarInt(msg.getSlotId());
+      out.writeString(msg.getDataInfoId());
+      final String[] acceptEncodes = msg.getAcceptEncodes();
+      out.writeVarInt(acceptEncodes == null ? 0 : acceptEncodes.length + 1);
+      if (acceptEncodes != null) {
+        for (String encode : acceptEncodes) {
+          out.writeString(encode);
+        }
+      }
+      writeStringLongMap(msg.getSlotTableEpochs(), out);
+      writeStringLongMap(msg.getSlotLeaderEpochs(), out);
+    }
+
+    @Override
+    public GetMultiDataRequest decode(CodecInput in) {
+      return new GetMultiDataRequest(
+          readProcessId(in),
+          in.readVarInt(),
+          in.readString(),
+          readAcceptEncodes(in),
+          readStringLongMap(in),
+          readStringLongMap(in));
+    }
+
+    private static String[] readAcceptEncodes(CodecInput in) {
+      final int size = in.readNullableSize();
+      if (size < 0) {
+        return null;
+      }
+      final String[] acceptEncodes = new String[size];
+      for (int i = 0; i < size; i++) {
+        acceptEncodes[i] = in.readString();
+      }
+      return acceptEncodes;
+    }
+  }
+
+  public static final class SlotAccessResponseCodec
+      implements MessageCodec<SlotAccessGenericResponse> {
+    @Override
+    public int typeId() {
+      return SLOT_ACCESS_RESPONSE;
+    }
+
+    @Override
+    public Class<SlotAccessGenericResponse> type() {
+      return SlotAccessGenericResponse.class;
+    }
+
+    @Override
+    public boolean supports(SlotAccessGenericResponse msg) {
+      final Object data = msg.getData();
+      return data == null || MessageCodecs.supports(data);
+    }
+
+    @Override
+    public void encode(SlotAccessGenericResponse msg, CodecOutput out) {
+      out.writeBoolean(msg.isSuccess());
+      out.writeString(msg.getMessage());
+      final SlotAccess access = msg.getSlotAccess();
+      out.writeBoolean(access != null);
+      if (access != null) {
+        out.writeVarInt(access.getSlotId());
+        out.writeSignedVarLong(access.getSlotTableEpoch());
+        writeEnum(access.getStatus(), out);
+        out.writeSignedVarLong(access.getSlotLeaderEpoch());
+      }
+      MessageCodecs.writeNested(msg.getData(), out);
+    }
+
+    @Override
+    public SlotAccessGenericResponse decode(CodecInput in) {
+      final boolean success = in.readBoolean();
+      final String message = in.readString();
+      SlotAccess access = null;
+      if (in.readBoolean()) {
+        access =
+            new SlotAccess(
+                in.readVarInt(),
+                in.readSignedVarLong(),
+                readEnum(SlotAccess.Status.class, in),
+                in.readSignedVarLong());
+      }
+      return new SlotAccessGenericResponse<>(
+          success, message, access, MessageCodecs.readNested(in));
+    }
+  }
+
+  public static final class SubPublisherListCodec implements MessageCodec<SubPublisherList> {
+    @Override
+    public int typeId() {
+      return SUB_PUBLISHER_LIST;
+    }
+
+    @Override
+    public Class<SubPublisherList> type() {
+      return SubPublisherList.class;
+    }
+
+    @Override
+    public boolean supports(SubPublisherList msg) {
+      for (SubPublisher pub : msg.getPubs()) {
+        if (!supportsDataList(pub.getDataList())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public void encode(SubPublisherList msg, CodecOutput out) {
+      final List<SubPublisher> pubs = msg.getPubs();
+      out.writeVarInt(pubs.size());
+      for (SubPublisher pub : pubs) {
+        out.writeString(pub.getRegisterId());
+        out.writeString(pub.getCell());
+        writeDataList(pub.getDataList(), out);
+        out.writeString(pub.getClientId());
+        out.writeVarLong(pub.getVersion());
+        out.writeString(pub.getSrcAddressString());
+        out.writeVarLong(pub.getRegisterTimestamp());
+        writeEnum(pub.getPublishSource(), out);
+      }
+    }
+
+    @Override
+    public SubPublisherList decode(CodecInput in) {
+      final int size = in.readSize();
+      final List<SubPublisher> pubs = Lists.newArrayListWithCapacity(size);
+      for (int i = 0; i < size; i++) {
+        pubs.add(
+            new SubPublisher(
+                in.readString(),
+                in.readString(),
+                readDataList(in),
+                in.readString(),
+                in.readVarLong(),
+                in.readString(),
+                in.readVarLong(),
+                readEnum(PublishSource.class, in)));
+      }
+      return new SubPublisherList(pubs);
+    }
+  }
+}
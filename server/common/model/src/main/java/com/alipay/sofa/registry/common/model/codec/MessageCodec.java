@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.codec;
+
+/**
+ * the binary codec of an internal message, the layout of the fields is fixed by the code, so the
+ * typeId and the field order must never change once released, append a new type instead
+ */
+public interface MessageCodec<T> {
+  int typeId();
+
+  Class<T> type();
+
+  /**
+   * some messages contain the fields which the codec could not handle, e.g. a customized acceptor
+   * or an object not in bytes, those messages fall back to hessian
+   *
+   * @param msg msg
+   * @return true if the msg could be encoded
+   */
+  boolean supports(T msg);
+
+  void encode(T msg, CodecOutput out);
+
+  T decode(CodecInput in);
+}
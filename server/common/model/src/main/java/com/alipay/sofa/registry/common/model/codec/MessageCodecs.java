@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.codec;
+
+import com.alipay.sofa.registry.util.SystemUtils;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * the registry of the binary codecs, the encoded bytes are: magic(2 bytes) + version(1 byte) +
+ * typeId(varint) + body. the magic never collides with the first byte of the hessian2 output of an
+ * object, so the receiver could tell the codec from hessian by the bytes itself.
+ *
+ * <p>the decoding is always available, the encoding is disabled by default: upgrade all the servers
+ * first, then enable the encoding by {@link #KEY_ENCODE_ENABLED}
+ */
+public final class MessageCodecs {
+  public static final byte MAGIC_0 = (byte) 0xB5;
+
+  public static final byte MAGIC_1 = (byte) 0x52;
+
+  public static final byte VERSION = 1;
+
+  public static final String KEY_ENCODE_ENABLED = "registry.codec.binary.enabled";
+
+  private static volatile boolean encodeEnabled =
+      Boolean.parseBoolean(SystemUtils.getSystem(KEY_ENCODE_ENABLED, "false"));
+
+  private static final Map<Class<?>, MessageCodec> CODECS_BY_TYPE = Maps.newHashMap();
+
+  private static final Map<Integer, MessageCodec> CODECS_BY_ID = Maps.newHashMap();
+
+  static {
+    register(new InternalMessageCodecs.BatchRequestCodec());
+    register(new InternalMessageCodecs.DataChangeRequestCodec());
+    register(new InternalMessageCodecs.DiffDigestRequestCodec());
+    register(new InternalMessageCodecs.DiffDigestResultCodec());
+    register(new InternalMessageCodecs.DiffPublisherRequestCodec());
+    register(new InternalMessageCodecs.DiffPublisherResultCodec());
+    register(new InternalMessageCodecs.GetMultiDataRequestCodec());
+    register(new InternalMessageCodecs.SlotAccessResponseCodec());
+    register(new InternalMessageCodecs.SubPublisherListCodec());
+  }
+
+  private MessageCodecs() {}
+
+  private static void register(MessageCodec codec) {
+    if (CODECS_BY_ID.putIfAbsent(codec.typeId(), codec) != null) {
+      throw new IllegalStateException("duplicate codec typeId " + codec.typeId());
+    }
+    CODECS_BY_TYPE.put(codec.type(), codec);
+  }
+
+  public static boolean isEncodeEnabled() {
+    return encodeEnabled;
+  }
+
+  @VisibleForTesting
+  public static void setEncodeEnabled(boolean enabled) {
+    encodeEnabled = enabled;
+  }
+
+  public static Set<Class<?>> supportedTypes() {
+    return Collections.unmodifiableSet(CODECS_BY_TYPE.keySet());
+  }
+
+  public static boolean supports(Object msg) {
+    if (msg == null) {
+      return false;
+    }
+    MessageCodec codec = CODECS_BY_TYPE.get(msg.getClass());
+    return codec != null && codec.supports(msg);
+  }
+
+  /**
+   * @param msg msg
+   * @return null if the msg is not supported, the caller should fall back to hessian
+   */
+  public static byte[] encode(Object msg) {
+    if (!supports(msg)) {
+      return null;
+    }
+    CodecOutput out = new CodecOutput();
+    out.writeByte(MAGIC_0);
+    out.writeByte(MAGIC_1);
+    out.writeByte(VERSION);
+    writeBody(msg, out);
+    return out.toByteArray();
+  }
+
+  public static boolean isEncoded(byte[] bytes) {
+    return bytes != null && bytes.length > 3 && bytes[0] == MAGIC_0 && bytes[1] == MAGIC_1;
+  }
+
+  public static Object decode(byte[] bytes) {
+    if (!isEncoded(bytes)) {
+      throw new IllegalArgumentException("not encoded by MessageCodecs");
+    }
+    if (bytes[2] != VERSION) {
+      throw new IllegalArgumentException("unsupported codec version " + bytes[2]);
+    }
+    CodecInput in = new CodecInput(bytes, 3, bytes.length - 3);
+    Object msg = readBody(in);
+    if (in.remaining() != 0) {
+      throw new IllegalArgumentException("codec has " + in.remaining() + " bytes remaining");
+    }
+    return msg;
+  }
+
+  static void writeNested(Object msg, CodecOutput out) {
+    if (msg == null) {
+      out.writeVarInt(0);
+      return;
+    }
+    writeBody(msg, out);
+  }
+
+  static Object readNested(CodecInput in) {
+    return readBody(in);
+  }
+
+  private static void writeBody(Object msg, CodecOutput out) {
+    MessageCodec codec = CODECS_BY_TYPE.get(msg.getClass());
+    out.writeVarInt(codec.typeId());
+    codec.encode(msg, out);
+  }
+
+  private static Object readBody(CodecInput in) {
+    final int typeId = in.readVarInt();
+    if (typeId == 0) {
+      return null;
+    }
+    MessageCodec codec = CODECS_BY_ID.get(typeId);
+    if (codec == null) {
+      throw new IllegalArgumentException("unknown codec typeId " + typeId);
+    }
+    return codec.decode(in);
+  }
+}
@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.codec;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.PublishType;
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.store.BaseInfo.ClientVersion;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/** the codec of the model classes nested in the messages */
+public final class ModelCodecs {
+  private ModelCodecs() {}
+
+  public static void writeProcessId(ProcessId processId, CodecOutput out) {
+    if (processId == null) {
+      out.writeBoolean(false);
+      return;
+    }
+    out.writeBoolean(true);
+    out.writeString(processId.getHostAddress());
+    out.writeVarLong(processId.getTimestamp());
+    out.writeVarInt(processId.getPid());
+    out.writeVarInt(processId.getRand());
+  }
+
+  public static ProcessId readProcessId(CodecInput in) {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    return new ProcessId(in.readString(), in.readVarLong(), in.readVarInt(), in.readVarInt());
+  }
+
+  public static void writeConnectId(ConnectId connectId, CodecOutput out) {
+    out.writeString(connectId.getClientHostAddress());
+    out.writeVarInt(connectId.getClientPort());
+    out.writeString(connectId.getSessionHostAddress());
+    out.writeVarInt(connectId.getSessionPort());
+  }
+
+  public static ConnectId readConnectId(CodecInput in) {
+    return new ConnectId(in.readString(), in.readVarInt(), in.readString(), in.readVarInt());
+  }
+
+  public static void writeRegisterVersion(RegisterVersion version, CodecOutput out) {
+    out.writeVarLong(version.getVersion());
+    out.writeVarLong(version.getRegisterTimestamp());
+  }
+
+  public static RegisterVersion readRegisterVersion(CodecInput in) {
+    return RegisterVersion.of(in.readVarLong(), in.readVarLong());
+  }
+
+  public static void writeRegisterVersions(Map<String, RegisterVersion> versions, CodecOutput out) {
+    out.writeNullableSize(versions);
+    if (versions == null) {
+      return;
+    }
+    for (Map.Entry<String, RegisterVersion> e : versions.entrySet()) {
+      out.writeString(e.getKey());
+      writeRegisterVersion(e.getValue(), out);
+    }
+  }
+
+  public static Map<String, RegisterVersion> readRegisterVersions(CodecInput in) {
+    final int size = in.readNullableSize();
+    if (size < 0) {
+      return null;
+    }
+    Map<String, RegisterVersion> versions = Maps.newHashMapWithExpectedSize(size);
+    for (int i = 0; i < size; i++) {
+      versions.put(in.readString(), readRegisterVersion(in));
+    }
+    return versions;
+  }
+
+  public static void writeStrings(Collection<String> strings, CodecOutput out) {
+    out.writeNullableSize(strings);
+    if (strings == null) {
+      return;
+    }
+    for (String s : strings) {
+      out.writeString(s);
+    }
+  }
+
+  public static List<String> readStrings(CodecInput in) {
+    final int size = in.readNullableSize();
+    if (size < 0) {
+      return null;
+    }
+    List<String> strings = Lists.newArrayListWithCapacity(size);
+    for (int i = 0; i < size; i++) {
+      strings.add(in.readString());
+    }
+    return strings;
+  }
+
+  public static void writeStringLongMap(Map<String, Long> map, CodecOutput out) {
+    out.writeNullableSize(map);
+    if (map == null) {
+      return;
+    }
+    for (Map.Entry<String, Long> e : map.entrySet()) {
+      out.writeString(e.getKey());
+      out.writeSignedVarLong(e.getValue());
+    }
+  }
+
+  public static Map<String, Long> readStringLongMap(CodecInput in) {
+    final int size = in.readNullableSize();
+    if (size < 0) {
+      return null;
+    }
+    Map<String, Long> map = Maps.newHashMapWithExpectedSize(size);
+    for (int i = 0; i < size; i++) {
+      map.put(in.readString(), in.readSignedVarLong());
+    }
+    return map;
+  }
+
+  /** the value is the hash of the merkle node, fixed 8 bytes is smaller than varint */
+  public static void writeMerkleNodes(Map<Integer, Long> nodes, CodecOutput out) {
+    out.writeNullableSize(nodes);
+    if (nodes == null) {
+      return;
+    }
+    for (Map.Entry<Integer, Long> e : nodes.entrySet()) {
+      out.writeVarInt(e.getKey());
+      out.writeFixedLong(e.getValue());
+    }
+  }
+
+  public static Map<Integer, Long> readMerkleNodes(CodecInput in) {
+    final int size = in.readNullableSize();
+    if (size < 0) {
+      return null;
+    }
+    Map<Integer, Long> nodes = Maps.newHashMapWithExpectedSize(size);
+    for (int i = 0; i < size; i++) {
+      nodes.put(in.readVarInt(), in.readFixedLong());
+    }
+    return nodes;
+  }
+
+  public static void writeEnum(Enum<?> e, CodecOutput out) {
+    out.writeString(e == null ? null : e.name());
+  }
+
+  public static <E extends Enum<E>> E readEnum(Class<E> type, CodecInput in) {
+    final String name = in.readString();
+    return name == null ? null : Enum.valueOf(type, name);
+  }
+
+  public static void writeURL(URL url, CodecOutput out) {
+    if (url == null) {
+      out.writeBoolean(false);
+      return;
+    }
+    out.writeBoolean(true);
+    writeEnum(url.getProtocol(), out);
+    out.writeString(url.getIpAddress());
+    out.writeVarInt(url.getPort());
+    final Byte serializerIndex = url.getSerializerIndex();
+    out.writeVarInt(serializerIndex == null ? 0 : (serializerIndex & 0xFF) + 1);
+  }
+
+  public static URL readURL(CodecInput in) {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    final URL.ProtocolType protocol = readEnum(URL.ProtocolType.class, in);
+    final String ip = in.readString();
+    final int port = in.readVarInt();
+    final int serializerIndex = in.readVarInt();
+    return URL.internURL(
+        new URL(protocol, ip, port, serializerIndex == 0 ? null : (byte) (serializerIndex - 1)));
+  }
+
+  public static boolean supportsDataList(List<ServerDataBox> dataList) {
+    if (dataList == null) {
+      return true;
+    }
+    for (ServerDataBox box : dataList) {
+      if (box != null && !box.isInBytes() && box.getObject() != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public static void writeDataList(List<ServerDataBox> dataList, CodecOutput out) {
+    out.writeNullableSize(dataList);
+    if (dataList == null) {
+      return;
+    }
+    for (ServerDataBox box : dataList) {
+      if (box == null) {
+        out.writeVarInt(0);
+        continue;
+      }
+      out.writeVarInt(box.getSerialization() + 1);
+      out.writeByteArray(box.getBytes());
+    }
+  }
+
+  public static List<ServerDataBox> readDataList(CodecInput in) {
+    final int size = in.readNullableSize();
+    if (size < 0) {
+      return null;
+    }
+    List<ServerDataBox> dataList = Lists.newArrayListWithCapacity(size);
+    for (int i = 0; i < size; i++) {
+      final int serialization = in.readVarInt();
+      if (serialization == 0) {
+        dataList.add(null);
+        continue;
+      }
+      ServerDataBox box = new ServerDataBox();
+      box.setSerialization(serialization - 1);
+      box.setBytes(in.readByteArray());
+      dataList.add(box);
+    }
+    return dataList;
+  }
+
+  /**
+   * only the plain publisher, the subclass like UnPublisher has its own layout
+   *
+   * @param publisher publisher
+   * @return true if could be encoded
+   */
+  public static boolean supportsPublisher(Publisher publisher) {
+    return publisher != null
+        && publisher.getClass() == Publisher.class
+        && supportsDataList(publisher.getDataList());
+  }
+
+  public static boolean supportsPublishers(Collection<Publisher> publishers) {
+    if (publishers == null) {
+      return true;
+    }
+    for (Publisher publisher : publishers) {
+      if (!supportsPublisher(publisher)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public static void writePublisher(Publisher publisher, CodecOutput out) {
+    out.writeString(publisher.getDataInfoId());
+    out.writeString(publisher.getDataId());
+    out.writeString(publisher.getInstanceId());
+    out.writeString(publisher.getGroup());
+    out.writeString(publisher.getRegisterId());
+    out.writeString(publisher.getClientId());
+    out.writeString(publisher.getCell());
+    out.writeString(publisher.getAppName());
+    out.writeString(publisher.getProcessId());
+    out.writeVarLong(publisher.getVersion());
+    out.writeVarLong(publisher.getRegisterTimestamp());
+    out.writeVarLong(publisher.getClientRegisterTimestamp());
+    writeURL(publisher.getSourceAddress(), out);
+    writeURL(publisher.getTargetAddress(), out);
+    writeEnum(publisher.getClientVersion(), out);
+    if (publisher.attributesSize() == 0) {
+      out.writeVarInt(0);
+    } else {
+      Map<String, String> attributes = publisher.getAttributes();
+      out.writeVarInt(attributes.size());
+      for (Map.Entry<String, String> e : attributes.entrySet()) {
+        out.writeString(e.getKey());
+        out.writeString(e.getValue());
+      }
+    }
+    writeDataList(publisher.getDataList(), out);
+    writeEnum(publisher.getPublishType(), out);
+    writeEnum(publisher.getPublishSource(), out);
+    writeProcessId(publisher.getSessionProcessId(), out);
+  }
+
+  public static Publisher readPublisher(CodecInput in) {
+    Publisher publisher = new Publisher();
+    publisher.setDataInfoId(in.readString());
+    publisher.setDataId(in.readString());
+    publisher.setInstanceId(in.readString());
+    publisher.setGroup(in.readString());
+    publisher.setRegisterId(in.readString());
+    publisher.setClientId(in.readString());
+    publisher.setCell(in.readString());
+    publisher.setAppName(in.readString());
+    publisher.setProcessId(in.readString());
+    publisher.setVersion(in.readVarLong());
+    publisher.setRegisterTimestamp(in.readVarLong());
+    publisher.setClientRegisterTimestamp(in.readVarLong());
+    publisher.setSourceAddress(readURL(in));
+    publisher.setTargetAddress(readURL(in));
+    publisher.setClientVersion(readEnum(ClientVersion.class, in));
+    final int attributeSize = in.readSize();
+    if (attributeSize != 0) {
+      Map<String, String> attributes = Maps.newHashMapWithExpectedSize(attributeSize);
+      for (int i = 0; i < attributeSize; i++) {
+        attributes.put(in.readString(), in.readString());
+      }
+      publisher.setAttributes(attributes);
+    }
+    publisher.setDataList(readDataList(in));
+    publisher.setPublishType(readEnum(PublishType.class, in));
+    publisher.setPublishSource(readEnum(PublishSource.class, in));
+    publisher.setSessionProcessId(readProcessId(in));
+    return publisher;
+  }
+
+  public static void writePublishers(List<Publisher> publishers, CodecOutput out) {
+    out.writeNullableSize(publishers);
+    if (publishers == null) {
+      return;
+    }
+    for (Publisher publisher : publishers) {
+      writePublisher(publisher, out);
+    }
+  }
+
+  public static List<Publisher> readPublishers(CodecInput in) {
+    final int size = in.readNullableSize();
+    if (size < 0) {
+      return null;
+    }
+    List<Publisher> publishers = Lists.newArrayListWithCapacity(size);
+    for (int i = 0; i < size; i++) {
+      publishers.add(readPublisher(in));
+    }
+    return publishers;
+  }
+}
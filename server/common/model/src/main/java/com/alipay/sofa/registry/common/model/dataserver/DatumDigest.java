@@ -43,6 +43,30 @@ public final class DatumDigest implements Serializable {
     this.minTimestamp = minTimestamp;
   }
 
+  public long getPublisherIdSign() {
+    return publisherIdSign;
+  }
+
+  public long getPublisherVerSign() {
+    return publisherVerSign;
+  }
+
+  public long getPublisherTimestampSign() {
+    return publisherTimestampSign;
+  }
+
+  public int getPublisherNum() {
+    return publisherNum;
+  }
+
+  public short getMaxTimestamp() {
+    return maxTimestamp;
+  }
+
+  public short getMinTimestamp() {
+    return minTimestamp;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
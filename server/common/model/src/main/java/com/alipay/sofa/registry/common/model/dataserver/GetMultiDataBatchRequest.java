@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.util.StringFormatter;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * fetch the datum of many dataInfoIds from the same data server in one request, the response is a
+ * list of MultiSlotAccessGenericResponse in the order of the requests
+ */
+public class GetMultiDataBatchRequest implements Serializable {
+  private static final long serialVersionUID = -2931503361424725627L;
+
+  private final ProcessId sessionProcessId;
+
+  private final List<GetMultiDataRequest> requests;
+
+  public GetMultiDataBatchRequest(ProcessId sessionProcessId, List<GetMultiDataRequest> requests) {
+    this.sessionProcessId = sessionProcessId;
+    this.requests = requests;
+  }
+
+  /**
+   * Getter method for property <tt>sessionProcessId</tt>.
+   *
+   * @return property value of sessionProcessId
+   */
+  public ProcessId getSessionProcessId() {
+    return sessionProcessId;
+  }
+
+  /**
+   * Getter method for property <tt>requests</tt>.
+   *
+   * @return property value of requests
+   */
+  public List<GetMultiDataRequest> getRequests() {
+    return requests;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "GetMultiDataBatch:num={},processId={}", requests.size(), sessionProcessId);
+  }
+}
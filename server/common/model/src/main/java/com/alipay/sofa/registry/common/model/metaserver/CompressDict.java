@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.metaserver;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.Base64;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CompressDict {
+  private int dictId;
+
+  // base64 of the trained zstd dictionary
+  private String dict;
+
+  public CompressDict() {}
+
+  public CompressDict(int dictId, byte[] dict) {
+    this.dictId = dictId;
+    this.dict = Base64.getEncoder().encodeToString(dict);
+  }
+
+  @JsonIgnore
+  public byte[] dictBytes() {
+    return Base64.getDecoder().decode(dict);
+  }
+
+  /**
+   * Getter method for property <tt>dictId</tt>.
+   *
+   * @return property value of dictId
+   */
+  public int getDictId() {
+    return dictId;
+  }
+
+  /**
+   * Setter method for property <tt>dictId</tt>.
+   *
+   * @param dictId value to be assigned to property dictId
+   */
+  public void setDictId(int dictId) {
+    this.dictId = dictId;
+  }
+
+  /**
+   * Getter method for property <tt>dict</tt>.
+   *
+   * @return property value of dict
+   */
+  public String getDict() {
+    return dict;
+  }
+
+  /**
+   * Setter method for property <tt>dict</tt>.
+   *
+   * @param dict value to be assigned to property dict
+   */
+  public void setDict(String dict) {
+    this.dict = dict;
+  }
+
+  @Override
+  public String toString() {
+    return "CompressDict{"
+        + "dictId="
+        + dictId
+        + ", dictLength="
+        + (dict == null ? 0 : dict.length())
+        + '}';
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.metaserver;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CompressDicts {
+  public static final int MAX_KEEP = 4;
+
+  // the oldest first
+  @JsonSetter(nulls = Nulls.AS_EMPTY)
+  private List<CompressDict> dicts = new ArrayList<>();
+
+  public static CompressDicts empty() {
+    return new CompressDicts();
+  }
+
+  /**
+   * append a dict and keep the latest MAX_KEEP dicts. a loaded dict is never unregistered, evicting
+   * it only stops the processes started later from advertising it
+   *
+   * @param dict dict
+   * @return false if the dictId exists
+   */
+  public boolean append(CompressDict dict) {
+    for (CompressDict exist : dicts) {
+      if (exist.getDictId() == dict.getDictId()) {
+        return false;
+      }
+    }
+    dicts.add(dict);
+    while (dicts.size() > MAX_KEEP) {
+      dicts.remove(0);
+    }
+    return true;
+  }
+
+  /**
+   * Getter method for property <tt>dicts</tt>.
+   *
+   * @return property value of dicts
+   */
+  public List<CompressDict> getDicts() {
+    return dicts;
+  }
+
+  /**
+   * Setter method for property <tt>dicts</tt>.
+   *
+   * @param dicts value to be assigned to property dicts
+   */
+  public void setDicts(List<CompressDict> dicts) {
+    this.dicts = dicts;
+  }
+
+  @Override
+  public String toString() {
+    return "CompressDicts{" + "dicts=" + dicts + '}';
+  }
+}
@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.common.model.metaserver;
 import java.io.Serializable;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
  * heartbeat info for node
@@ -31,13 +32,22 @@ public class Lease<T> implements Serializable {
   public static final String LEASE_DURATION = "registry.lease.duration.secs";
   public static final int DEFAULT_DURATION_SECS = Integer.getInteger(LEASE_DURATION, 20);
 
+  // the lease is evicted, could not be renewed anymore
+  private static final long EVICTED = -1;
+
+  private static final AtomicLongFieldUpdater<Lease> EXPIRE_UPDATER =
+      AtomicLongFieldUpdater.newUpdater(Lease.class, "expireTimestamp");
+
   private T renewal;
 
   private long beginTimestamp;
 
   private volatile long lastUpdateTimestamp;
 
-  private long duration;
+  private volatile long duration;
+
+  // lastUpdateTimestamp + duration, renew and evict by cas
+  private volatile long expireTimestamp;
 
   /**
    * constructor
@@ -50,6 +60,7 @@ public class Lease<T> implements Serializable {
     this.beginTimestamp = System.currentTimeMillis();
     this.lastUpdateTimestamp = beginTimestamp;
     this.duration = durationSECS * 1000;
+    this.expireTimestamp = beginTimestamp + duration;
   }
 
   /**
@@ -69,22 +80,71 @@ public class Lease<T> implements Serializable {
    * @return boolean
    */
   public boolean isExpired() {
-    return System.currentTimeMillis() > lastUpdateTimestamp + duration;
+    return System.currentTimeMillis() > expireTimestamp;
   }
 
-  /** refresh lastUpdateTimestamp */
-  public void renew() {
-    lastUpdateTimestamp = System.currentTimeMillis();
+  /**
+   * refresh lastUpdateTimestamp
+   *
+   * @return false if the lease is evicted
+   */
+  public boolean renew() {
+    return renewMillis(duration);
   }
 
   /**
    * refresh lastUpdateTimestamp by durationSECS
    *
    * @param durationSECS durationSECS
+   * @return false if the lease is evicted
+   */
+  public boolean renew(long durationSECS) {
+    return renewMillis(durationSECS * 1000);
+  }
+
+  private boolean renewMillis(long durationMillis) {
+    final long now = System.currentTimeMillis();
+    for (; ; ) {
+      final long expire = expireTimestamp;
+      if (expire == EVICTED) {
+        return false;
+      }
+      if (EXPIRE_UPDATER.compareAndSet(this, expire, now + durationMillis)) {
+        lastUpdateTimestamp = now;
+        duration = durationMillis;
+        return true;
+      }
+    }
+  }
+
+  /**
+   * mark the lease evicted if it is expired, the renew after evicted would fail
+   *
+   * @return true if evicted by this call
+   */
+  public boolean evictIfExpired() {
+    final long expire = expireTimestamp;
+    return expire != EVICTED
+        && System.currentTimeMillis() > expire
+        && EXPIRE_UPDATER.compareAndSet(this, expire, EVICTED);
+  }
+
+  /**
+   * Getter method for property <tt>evicted</tt>.
+   *
+   * @return property value of evicted
+   */
+  public boolean isEvicted() {
+    return expireTimestamp == EVICTED;
+  }
+
+  /**
+   * Getter method for property <tt>expireTimestamp</tt>.
+   *
+   * @return property value of expireTimestamp
    */
-  public void renew(long durationSECS) {
-    lastUpdateTimestamp = System.currentTimeMillis();
-    duration = durationSECS * 1000;
+  public long getExpireTimestamp() {
+    return expireTimestamp;
   }
 
   /**
@@ -139,6 +199,8 @@ public class Lease<T> implements Serializable {
         + lastUpdateTimestamp
         + ", duration="
         + duration
+        + ", expireTimestamp="
+        + expireTimestamp
         + '}';
   }
 
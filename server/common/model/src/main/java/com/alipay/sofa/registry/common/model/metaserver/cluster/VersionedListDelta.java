@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.metaserver.cluster;
+
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * the changed members between two revisions of a VersionedList, the members are keyed by ip. the
+ * revision is assigned by the meta leader when the content changed, the epoch of the list may not
+ * change when the members are filtered
+ */
+public final class VersionedListDelta<T extends Node> implements Serializable {
+  private final long fromRevision;
+
+  private final long toRevision;
+
+  private final long epoch;
+
+  private final List<T> changes;
+
+  private final List<String> removes;
+
+  public VersionedListDelta(
+      long fromRevision, long toRevision, long epoch, List<T> changes, List<String> removes) {
+    this.fromRevision = fromRevision;
+    this.toRevision = toRevision;
+    this.epoch = epoch;
+    this.changes = changes;
+    this.removes = removes;
+  }
+
+  public static <T extends Node> VersionedListDelta<T> diff(
+      long fromRevision, VersionedList<T> from, long toRevision, VersionedList<T> to) {
+    if (fromRevision == toRevision) {
+      return new VersionedListDelta<>(
+          fromRevision,
+          toRevision,
+          to.getEpoch(),
+          Collections.emptyList(),
+          Collections.emptyList());
+    }
+    final Map<String, T> fromMembers = membersByIp(from.getClusterMembers());
+    final Map<String, T> toMembers = membersByIp(to.getClusterMembers());
+    List<T> changes = Lists.newArrayList();
+    for (Map.Entry<String, T> e : toMembers.entrySet()) {
+      if (!e.getValue().equals(fromMembers.get(e.getKey()))) {
+        changes.add(e.getValue());
+      }
+    }
+    List<String> removes = Lists.newArrayList();
+    for (String ip : fromMembers.keySet()) {
+      if (!toMembers.containsKey(ip)) {
+        removes.add(ip);
+      }
+    }
+    return new VersionedListDelta<>(fromRevision, toRevision, to.getEpoch(), changes, removes);
+  }
+
+  public VersionedList<T> apply(long baseRevision, VersionedList<T> base) {
+    ParaCheckUtil.checkNotNull(base, "base");
+    ParaCheckUtil.checkEquals(baseRevision, fromRevision, "base.revision");
+    if (isUnchanged()) {
+      return base;
+    }
+    Map<String, T> members = membersByIp(base.getClusterMembers());
+    for (String ip : getRemoves()) {
+      members.remove(ip);
+    }
+    for (T member : getChanges()) {
+      members.put(member.getNodeUrl().getIpAddress(), member);
+    }
+    return new VersionedList<>(epoch, Lists.newArrayList(members.values()));
+  }
+
+  public boolean isUnchanged() {
+    return fromRevision == toRevision && getChanges().isEmpty() && getRemoves().isEmpty();
+  }
+
+  private static <T extends Node> Map<String, T> membersByIp(List<T> members) {
+    Map<String, T> m = Maps.newLinkedHashMap();
+    for (T member : members) {
+      m.put(member.getNodeUrl().getIpAddress(), member);
+    }
+    return m;
+  }
+
+  /**
+   * Getter method for property <tt>fromRevision</tt>.
+   *
+   * @return property value of fromRevision
+   */
+  public long getFromRevision() {
+    return fromRevision;
+  }
+
+  /**
+   * Getter method for property <tt>toRevision</tt>.
+   *
+   * @return property value of toRevision
+   */
+  public long getToRevision() {
+    return toRevision;
+  }
+
+  /**
+   * Getter method for property <tt>epoch</tt>.
+   *
+   * @return property value of epoch
+   */
+  public long getEpoch() {
+    return epoch;
+  }
+
+  /**
+   * Getter method for property <tt>changes</tt>.
+   *
+   * @return property value of changes
+   */
+  public List<T> getChanges() {
+    return changes == null ? Collections.emptyList() : changes;
+  }
+
+  /**
+   * Getter method for property <tt>removes</tt>.
+   *
+   * @return property value of removes
+   */
+  public List<String> getRemoves() {
+    return removes == null ? Collections.emptyList() : removes;
+  }
+
+  @Override
+  public String toString() {
+    return "VersionedListDelta{"
+        + "fromRevision="
+        + fromRevision
+        + ", toRevision="
+        + toRevision
+        + ", epoch="
+        + epoch
+        + ", changes="
+        + getChanges().size()
+        + ", removes="
+        + getRemoves()
+        + '}';
+  }
+}
@@ -17,10 +17,12 @@
 package com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat;
 
 import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedListDelta;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.multi.cluster.RemoteSlotTableStatus;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import java.io.Serializable;
@@ -36,11 +38,12 @@ public class BaseHeartBeatResponse implements Serializable {
 
   private final boolean heartbeatOnLeader;
 
-  private final SlotTable slotTable;
+  // null if slotTableDelta is not null, resolved by the caller
+  private SlotTable slotTable;
 
-  private final VersionedList<MetaNode> metaNodes;
+  private VersionedList<MetaNode> metaNodes;
 
-  private final VersionedList<SessionNode> sessionNodes;
+  private VersionedList<SessionNode> sessionNodes;
 
   private final String metaLeader;
 
@@ -48,6 +51,18 @@ public class BaseHeartBeatResponse implements Serializable {
 
   private final Map<String, RemoteSlotTableStatus> remoteSlotTableStatus;
 
+  // the deltas since the known versions of the heartbeat request
+  private SlotTableDelta slotTableDelta;
+
+  private VersionedListDelta<MetaNode> metaNodesDelta;
+
+  private VersionedListDelta<SessionNode> sessionNodesDelta;
+
+  // 0 means the responder not support delta
+  private long metaNodesRevision;
+
+  private long sessionNodesRevision;
+
   public BaseHeartBeatResponse(boolean heartbeatOnLeader, String metaLeader, long metaLeaderEpoch) {
     this(heartbeatOnLeader, null, null, metaLeader, metaLeaderEpoch);
   }
@@ -134,6 +149,149 @@ public class BaseHeartBeatResponse implements Serializable {
     return remoteSlotTableStatus;
   }
 
+  /**
+   * fill the slot table and members by applying the deltas to the ones of last response
+   *
+   * @param baseSlotTable the slot table of last response
+   * @param baseMetaNodes the meta nodes of last response
+   * @param baseMetaNodesRevision the revision of baseMetaNodes
+   * @param baseSessionNodes the session nodes of last response
+   * @param baseSessionNodesRevision the revision of baseSessionNodes
+   */
+  public void resolveDeltas(
+      SlotTable baseSlotTable,
+      VersionedList<MetaNode> baseMetaNodes,
+      long baseMetaNodesRevision,
+      VersionedList<SessionNode> baseSessionNodes,
+      long baseSessionNodesRevision) {
+    if (slotTableDelta != null) {
+      this.slotTable = slotTableDelta.apply(baseSlotTable);
+      this.slotTableDelta = null;
+    }
+    if (metaNodesDelta != null) {
+      this.metaNodes = metaNodesDelta.apply(baseMetaNodesRevision, baseMetaNodes);
+      this.metaNodesDelta = null;
+    }
+    if (sessionNodesDelta != null) {
+      this.sessionNodes = sessionNodesDelta.apply(baseSessionNodesRevision, baseSessionNodes);
+      this.sessionNodesDelta = null;
+    }
+  }
+
+  /**
+   * Setter method for property <tt>slotTableDelta</tt>, the slot table is omitted.
+   *
+   * @param slotTableDelta value to be assigned to property slotTableDelta
+   * @return this
+   */
+  public BaseHeartBeatResponse setSlotTableDelta(SlotTableDelta slotTableDelta) {
+    this.slotTableDelta = slotTableDelta;
+    this.slotTable = null;
+    return this;
+  }
+
+  /**
+   * Setter method for property <tt>metaNodesDelta</tt>, the meta nodes are omitted.
+   *
+   * @param metaNodesDelta value to be assigned to property metaNodesDelta
+   * @return this
+   */
+  public BaseHeartBeatResponse setMetaNodesDelta(VersionedListDelta<MetaNode> metaNodesDelta) {
+    this.metaNodesDelta = metaNodesDelta;
+    this.metaNodes = null;
+    return this;
+  }
+
+  /**
+   * Setter method for property <tt>sessionNodesDelta</tt>, the session nodes are omitted.
+   *
+   * @param sessionNodesDelta value to be assigned to property sessionNodesDelta
+   * @return this
+   */
+  public BaseHeartBeatResponse setSessionNodesDelta(
+      VersionedListDelta<SessionNode> sessionNodesDelta) {
+    this.sessionNodesDelta = sessionNodesDelta;
+    this.sessionNodes = null;
+    return this;
+  }
+
+  /**
+   * Setter method for the revisions of members.
+   *
+   * @param metaNodesRevision value to be assigned to property metaNodesRevision
+   * @param sessionNodesRevision value to be assigned to property sessionNodesRevision
+   * @return this
+   */
+  public BaseHeartBeatResponse setMembersRevision(
+      long metaNodesRevision, long sessionNodesRevision) {
+    this.metaNodesRevision = metaNodesRevision;
+    this.sessionNodesRevision = sessionNodesRevision;
+    return this;
+  }
+
+  /**
+   * Getter method for property <tt>slotTableDelta</tt>.
+   *
+   * @return property value of slotTableDelta
+   */
+  public SlotTableDelta getSlotTableDelta() {
+    return slotTableDelta;
+  }
+
+  /**
+   * Getter method for property <tt>metaNodesDelta</tt>.
+   *
+   * @return property value of metaNodesDelta
+   */
+  public VersionedListDelta<MetaNode> getMetaNodesDelta() {
+    return metaNodesDelta;
+  }
+
+  /**
+   * Getter method for property <tt>sessionNodesDelta</tt>.
+   *
+   * @return property value of sessionNodesDelta
+   */
+  public VersionedListDelta<SessionNode> getSessionNodesDelta() {
+    return sessionNodesDelta;
+  }
+
+  /**
+   * Getter method for property <tt>metaNodesRevision</tt>.
+   *
+   * @return property value of metaNodesRevision
+   */
+  public long getMetaNodesRevision() {
+    return metaNodesRevision;
+  }
+
+  /**
+   * Getter method for property <tt>sessionNodesRevision</tt>.
+   *
+   * @return property value of sessionNodesRevision
+   */
+  public long getSessionNodesRevision() {
+    return sessionNodesRevision;
+  }
+
+  /**
+   * Getter method for property <tt>metaNodes</tt>.
+   *
+   * @return property value of metaNodes
+   */
+  public VersionedList<MetaNode> getVersionedMetaNodes() {
+    return metaNodes;
+  }
+
+  /**
+   * Getter method for property <tt>sessionNodes</tt>.
+   *
+   * @return property value of sessionNodes
+   */
+  public VersionedList<SessionNode> getVersionedSessionNodes() {
+    return sessionNodes;
+  }
+
   public Map<String, Set<String>> getRemoteDataServers() {
 
     if (CollectionUtils.isEmpty(remoteSlotTableStatus)) {
@@ -50,6 +50,14 @@ public class HeartbeatRequest<T extends Node> implements Serializable {
   // <cluster, slotTableEpoch>
   private final Map<String, Long> remoteClusterSlotTableEpoch;
 
+  // the versions of the last heartbeat response which the caller holds, 0 means not hold
+  // the meta leader responses the deltas since the versions
+  private long knownSlotTableEpoch;
+
+  private long knownMetaNodesRevision;
+
+  private long knownSessionNodesRevision;
+
   /**
    * constructor
    *
@@ -205,6 +213,49 @@ public class HeartbeatRequest<T extends Node> implements Serializable {
     return remoteClusterSlotTableEpoch;
   }
 
+  /**
+   * Sets the versions of the last heartbeat response.
+   *
+   * @param knownSlotTableEpoch knownSlotTableEpoch
+   * @param knownMetaNodesRevision knownMetaNodesRevision
+   * @param knownSessionNodesRevision knownSessionNodesRevision
+   * @return this
+   */
+  public HeartbeatRequest<T> setKnownVersions(
+      long knownSlotTableEpoch, long knownMetaNodesRevision, long knownSessionNodesRevision) {
+    this.knownSlotTableEpoch = knownSlotTableEpoch;
+    this.knownMetaNodesRevision = knownMetaNodesRevision;
+    this.knownSessionNodesRevision = knownSessionNodesRevision;
+    return this;
+  }
+
+  /**
+   * Getter method for property <tt>knownSlotTableEpoch</tt>.
+   *
+   * @return property value of knownSlotTableEpoch
+   */
+  public long getKnownSlotTableEpoch() {
+    return knownSlotTableEpoch;
+  }
+
+  /**
+   * Getter method for property <tt>knownMetaNodesRevision</tt>.
+   *
+   * @return property value of knownMetaNodesRevision
+   */
+  public long getKnownMetaNodesRevision() {
+    return knownMetaNodesRevision;
+  }
+
+  /**
+   * Getter method for property <tt>knownSessionNodesRevision</tt>.
+   *
+   * @return property value of knownSessionNodesRevision
+   */
+  public long getKnownSessionNodesRevision() {
+    return knownSessionNodesRevision;
+  }
+
   /**
    * To string string.
    *
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import java.io.Serializable;
+
+/** a put or remove of a publisher in the change log of the slot */
+public final class DataSlotChangeLogEntry implements Serializable {
+  private final String dataInfoId;
+  private final String registerId;
+  // not null if the entry is a put
+  private final Publisher publisher;
+  // the version of the removed publisher, only the existing <= removedVersion is removed
+  private final RegisterVersion removedVersion;
+
+  private DataSlotChangeLogEntry(
+      String dataInfoId, String registerId, Publisher publisher, RegisterVersion removedVersion) {
+    this.dataInfoId = dataInfoId;
+    this.registerId = registerId;
+    this.publisher = publisher;
+    this.removedVersion = removedVersion;
+  }
+
+  public static DataSlotChangeLogEntry put(Publisher publisher) {
+    ParaCheckUtil.checkNotNull(publisher, "publisher");
+    return new DataSlotChangeLogEntry(
+        publisher.getDataInfoId(), publisher.getRegisterId(), publisher, null);
+  }
+
+  public static DataSlotChangeLogEntry remove(
+      String dataInfoId, String registerId, RegisterVersion removedVersion) {
+    ParaCheckUtil.checkNotNull(removedVersion, "removedVersion");
+    return new DataSlotChangeLogEntry(dataInfoId, registerId, null, removedVersion);
+  }
+
+  public boolean isPut() {
+    return publisher != null;
+  }
+
+  /**
+   * Getter method for property <tt>dataInfoId</tt>.
+   *
+   * @return property value of dataInfoId
+   */
+  public String getDataInfoId() {
+    return dataInfoId;
+  }
+
+  /**
+   * Getter method for property <tt>registerId</tt>.
+   *
+   * @return property value of registerId
+   */
+  public String getRegisterId() {
+    return registerId;
+  }
+
+  /**
+   * Getter method for property <tt>publisher</tt>.
+   *
+   * @return property value of publisher
+   */
+  public Publisher getPublisher() {
+    return publisher;
+  }
+
+  /**
+   * Getter method for property <tt>removedVersion</tt>.
+   *
+   * @return property value of removedVersion
+   */
+  public RegisterVersion getRemovedVersion() {
+    return removedVersion;
+  }
+
+  @Override
+  public String toString() {
+    return isPut()
+        ? "Put{" + dataInfoId + "," + registerId + "," + publisher.registerVersion() + '}'
+        : "Remove{" + dataInfoId + "," + registerId + "," + removedVersion + '}';
+  }
+}
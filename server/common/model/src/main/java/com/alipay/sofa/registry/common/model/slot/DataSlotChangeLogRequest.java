@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import java.io.Serializable;
+
+/**
+ * pull the change log of the slot from the leader, start from the fromSeq. if the fromSeq is
+ * negative, only the current position of the log is returned
+ */
+public class DataSlotChangeLogRequest implements Serializable {
+
+  private final String localDataCenter;
+  private final long slotTableEpoch;
+  private final int slotId;
+  private final long slotLeaderEpoch;
+  private final long logEpoch;
+  private final long fromSeq;
+  private final int maxNum;
+
+  public DataSlotChangeLogRequest(
+      String localDataCenter,
+      long slotTableEpoch,
+      int slotId,
+      long slotLeaderEpoch,
+      long logEpoch,
+      long fromSeq,
+      int maxNum) {
+    this.localDataCenter = localDataCenter;
+    this.slotTableEpoch = slotTableEpoch;
+    this.slotId = slotId;
+    this.slotLeaderEpoch = slotLeaderEpoch;
+    this.logEpoch = logEpoch;
+    this.fromSeq = fromSeq;
+    this.maxNum = maxNum;
+  }
+
+  public static DataSlotChangeLogRequest headRequest(
+      String localDataCenter, long slotTableEpoch, int slotId, long slotLeaderEpoch) {
+    return new DataSlotChangeLogRequest(
+        localDataCenter, slotTableEpoch, slotId, slotLeaderEpoch, 0, -1, 0);
+  }
+
+  /**
+   * Getter method for property <tt>localDataCenter</tt>.
+   *
+   * @return property value of localDataCenter
+   */
+  public String getLocalDataCenter() {
+    return localDataCenter;
+  }
+
+  /**
+   * Getter method for property <tt>slotTableEpoch</tt>.
+   *
+   * @return property value of slotTableEpoch
+   */
+  public long getSlotTableEpoch() {
+    return slotTableEpoch;
+  }
+
+  /**
+   * Getter method for property <tt>slotId</tt>.
+   *
+   * @return property value of slotId
+   */
+  public int getSlotId() {
+    return slotId;
+  }
+
+  /**
+   * Getter method for property <tt>slotLeaderEpoch</tt>.
+   *
+   * @return property value of slotLeaderEpoch
+   */
+  public long getSlotLeaderEpoch() {
+    return slotLeaderEpoch;
+  }
+
+  /**
+   * Getter method for property <tt>logEpoch</tt>.
+   *
+   * @return property value of logEpoch
+   */
+  public long getLogEpoch() {
+    return logEpoch;
+  }
+
+  /**
+   * Getter method for property <tt>fromSeq</tt>.
+   *
+   * @return property value of fromSeq
+   */
+  public long getFromSeq() {
+    return fromSeq;
+  }
+
+  /**
+   * Getter method for property <tt>maxNum</tt>.
+   *
+   * @return property value of maxNum
+   */
+  public int getMaxNum() {
+    return maxNum;
+  }
+
+  public boolean isHeadRequest() {
+    return fromSeq < 0;
+  }
+
+  @Override
+  public String toString() {
+    return "ChangeLog{"
+        + "slotId="
+        + slotId
+        + ", epoch="
+        + slotTableEpoch
+        + ", leaderEpoch="
+        + slotLeaderEpoch
+        + ", logEpoch="
+        + logEpoch
+        + ", fromSeq="
+        + fromSeq
+        + ", maxNum="
+        + maxNum
+        + '}';
+  }
+}
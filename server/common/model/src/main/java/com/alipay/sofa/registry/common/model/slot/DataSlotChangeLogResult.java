@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.google.common.collect.Lists;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+public class DataSlotChangeLogResult implements Serializable {
+  private long slotTableEpoch;
+  // identify the log of the leader, the log is rebuilt when the slot is reassigned
+  private final long logEpoch;
+  // the seq of the next entry to pull
+  private final long nextSeq;
+  // the request position has been truncated or not belong to the log, need to sync the digest
+  private final boolean outOfRange;
+  private final boolean hasRemain;
+  private final List<DataSlotChangeLogEntry> entries;
+
+  public DataSlotChangeLogResult(
+      long logEpoch,
+      long nextSeq,
+      boolean outOfRange,
+      boolean hasRemain,
+      List<DataSlotChangeLogEntry> entries) {
+    this.logEpoch = logEpoch;
+    this.nextSeq = nextSeq;
+    this.outOfRange = outOfRange;
+    this.hasRemain = hasRemain;
+    this.entries = entries == null ? Lists.newArrayListWithCapacity(0) : entries;
+  }
+
+  public static DataSlotChangeLogResult head(long logEpoch, long nextSeq) {
+    return new DataSlotChangeLogResult(logEpoch, nextSeq, false, false, null);
+  }
+
+  public static DataSlotChangeLogResult outOfRange(long logEpoch, long nextSeq) {
+    return new DataSlotChangeLogResult(logEpoch, nextSeq, true, false, null);
+  }
+
+  /**
+   * Getter method for property <tt>slotTableEpoch</tt>.
+   *
+   * @return property value of slotTableEpoch
+   */
+  public long getSlotTableEpoch() {
+    return slotTableEpoch;
+  }
+
+  /**
+   * Setter method for property <tt>slotTableEpoch</tt>.
+   *
+   * @param slotTableEpoch value to be assigned to property slotTableEpoch
+   */
+  public void setSlotTableEpoch(long slotTableEpoch) {
+    this.slotTableEpoch = slotTableEpoch;
+  }
+
+  /**
+   * Getter method for property <tt>logEpoch</tt>.
+   *
+   * @return property value of logEpoch
+   */
+  public long getLogEpoch() {
+    return logEpoch;
+  }
+
+  /**
+   * Getter method for property <tt>nextSeq</tt>.
+   *
+   * @return property value of nextSeq
+   */
+  public long getNextSeq() {
+    return nextSeq;
+  }
+
+  public boolean isOutOfRange() {
+    return outOfRange;
+  }
+
+  public boolean isHasRemain() {
+    return hasRemain;
+  }
+
+  /**
+   * Getter method for property <tt>entries</tt>.
+   *
+   * @return property value of entries
+   */
+  public List<DataSlotChangeLogEntry> getEntries() {
+    return Collections.unmodifiableList(entries);
+  }
+
+  @Override
+  public String toString() {
+    return "ChangeLogResult{"
+        + "logEpoch="
+        + logEpoch
+        + ", nextSeq="
+        + nextSeq
+        + ", outOfRange="
+        + outOfRange
+        + ", hasRemain="
+        + hasRemain
+        + ", entries="
+        + entries.size()
+        + '}';
+  }
+}
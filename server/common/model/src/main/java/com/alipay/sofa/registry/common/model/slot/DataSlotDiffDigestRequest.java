@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.common.model.slot;
 
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
 import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
 import java.io.Serializable;
@@ -37,6 +38,13 @@ public class DataSlotDiffDigestRequest implements Serializable {
 
   private final SyncSlotAcceptorManager acceptorManager;
 
+  // the old version not has the field, deserialize as DIGEST_TYPE_SORTED
+  private final byte digestType;
+
+  // DIGEST_TYPE_MERKLE, the level and hash of the tree nodes to compare
+  private final int merkleLevel;
+  private final Map<Integer, Long> merkleNodes;
+
   public DataSlotDiffDigestRequest(
       String localDataCenter,
       long slotTableEpoch,
@@ -44,12 +52,55 @@ public class DataSlotDiffDigestRequest implements Serializable {
       long slotLeaderEpoch,
       Map<String, DatumDigest> datumDigest,
       SyncSlotAcceptorManager acceptorManager) {
+    this(
+        localDataCenter,
+        slotTableEpoch,
+        slotId,
+        slotLeaderEpoch,
+        datumDigest,
+        acceptorManager,
+        PublisherDigestUtil.DIGEST_TYPE_SORTED);
+  }
+
+  public DataSlotDiffDigestRequest(
+      String localDataCenter,
+      long slotTableEpoch,
+      int slotId,
+      long slotLeaderEpoch,
+      Map<String, DatumDigest> datumDigest,
+      SyncSlotAcceptorManager acceptorManager,
+      byte digestType) {
+    this(
+        localDataCenter,
+        slotTableEpoch,
+        slotId,
+        slotLeaderEpoch,
+        datumDigest,
+        acceptorManager,
+        digestType,
+        0,
+        Collections.emptyMap());
+  }
+
+  public DataSlotDiffDigestRequest(
+      String localDataCenter,
+      long slotTableEpoch,
+      int slotId,
+      long slotLeaderEpoch,
+      Map<String, DatumDigest> datumDigest,
+      SyncSlotAcceptorManager acceptorManager,
+      byte digestType,
+      int merkleLevel,
+      Map<Integer, Long> merkleNodes) {
     this.localDataCenter = localDataCenter;
     this.slotTableEpoch = slotTableEpoch;
     this.slotId = slotId;
     this.slotLeaderEpoch = slotLeaderEpoch;
     this.datumDigest = datumDigest == null ? Collections.emptyMap() : datumDigest;
     this.acceptorManager = acceptorManager;
+    this.digestType = digestType;
+    this.merkleLevel = merkleLevel;
+    this.merkleNodes = merkleNodes;
   }
 
   public static DataSlotDiffDigestRequest buildRequest(
@@ -63,6 +114,45 @@ public class DataSlotDiffDigestRequest implements Serializable {
         localDataCenter, slotTableEpoch, slotId, slotLeaderEpoch, datumDigest, acceptorManager);
   }
 
+  public static DataSlotDiffDigestRequest buildRequest(
+      String localDataCenter,
+      long slotTableEpoch,
+      int slotId,
+      long slotLeaderEpoch,
+      Map<String, DatumDigest> datumDigest,
+      SyncSlotAcceptorManager acceptorManager,
+      byte digestType) {
+    return new DataSlotDiffDigestRequest(
+        localDataCenter,
+        slotTableEpoch,
+        slotId,
+        slotLeaderEpoch,
+        datumDigest,
+        acceptorManager,
+        digestType);
+  }
+
+  public static DataSlotDiffDigestRequest buildMerkleRequest(
+      String localDataCenter,
+      long slotTableEpoch,
+      int slotId,
+      long slotLeaderEpoch,
+      Map<String, DatumDigest> datumDigest,
+      SyncSlotAcceptorManager acceptorManager,
+      int merkleLevel,
+      Map<Integer, Long> merkleNodes) {
+    return new DataSlotDiffDigestRequest(
+        localDataCenter,
+        slotTableEpoch,
+        slotId,
+        slotLeaderEpoch,
+        datumDigest,
+        acceptorManager,
+        PublisherDigestUtil.DIGEST_TYPE_MERKLE,
+        merkleLevel,
+        merkleNodes);
+  }
+
   /**
    * Getter method for property <tt>slotId</tt>.
    *
@@ -112,6 +202,28 @@ public class DataSlotDiffDigestRequest implements Serializable {
     return localDataCenter;
   }
 
+  /**
+   * Getter method for property <tt>digestType</tt>.
+   *
+   * @return property value of digestType
+   */
+  public byte getDigestType() {
+    return digestType;
+  }
+
+  /**
+   * Getter method for property <tt>merkleLevel</tt>.
+   *
+   * @return property value of merkleLevel
+   */
+  public int getMerkleLevel() {
+    return merkleLevel;
+  }
+
+  public Map<Integer, Long> getMerkleNodes() {
+    return merkleNodes == null ? Collections.emptyMap() : Collections.unmodifiableMap(merkleNodes);
+  }
+
   @Override
   public String toString() {
     return "DataSlotDiffDigestRequest{"
@@ -126,6 +238,12 @@ public class DataSlotDiffDigestRequest implements Serializable {
         + slotId
         + ", slotLeaderEpoch="
         + slotLeaderEpoch
+        + ", digestType="
+        + digestType
+        + ", merkleLevel="
+        + merkleLevel
+        + ", merkleNodes="
+        + (merkleNodes == null ? 0 : merkleNodes.size())
         + '}';
   }
 }
@@ -21,6 +21,7 @@ import com.google.common.collect.Lists;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.collections.CollectionUtils;
 
 /**
@@ -34,6 +35,10 @@ public class DataSlotDiffDigestResult implements Serializable {
   private final List<String> removedDataInfoIds;
   // if from session, return the sessionProcessId for lease
   private ProcessId sessionProcessId;
+  // the digestType used to diff, the old version not has the field, means DIGEST_TYPE_SORTED
+  private byte digestType;
+  // DIGEST_TYPE_MERKLE, the children hash of the tree nodes which are different
+  private Map<Integer, Long> merkleNodes;
 
   public DataSlotDiffDigestResult(
       List<String> updatedDataInfoIds,
@@ -97,6 +102,42 @@ public class DataSlotDiffDigestResult implements Serializable {
     this.sessionProcessId = sessionProcessId;
   }
 
+  /**
+   * Getter method for property <tt>digestType</tt>.
+   *
+   * @return property value of digestType
+   */
+  public byte getDigestType() {
+    return digestType;
+  }
+
+  /**
+   * Setter method for property <tt>digestType</tt>.
+   *
+   * @param digestType value to be assigned to property digestType
+   */
+  public void setDigestType(byte digestType) {
+    this.digestType = digestType;
+  }
+
+  /**
+   * Getter method for property <tt>merkleNodes</tt>.
+   *
+   * @return property value of merkleNodes
+   */
+  public Map<Integer, Long> getMerkleNodes() {
+    return merkleNodes == null ? Collections.emptyMap() : merkleNodes;
+  }
+
+  /**
+   * Setter method for property <tt>merkleNodes</tt>.
+   *
+   * @param merkleNodes value to be assigned to property merkleNodes
+   */
+  public void setMerkleNodes(Map<Integer, Long> merkleNodes) {
+    this.merkleNodes = merkleNodes;
+  }
+
   public boolean isEmpty() {
     return CollectionUtils.isEmpty(updatedDataInfoIds)
         && CollectionUtils.isEmpty(removedDataInfoIds)
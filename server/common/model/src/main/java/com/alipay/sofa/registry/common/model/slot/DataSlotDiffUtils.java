@@ -41,10 +41,25 @@ public final class DataSlotDiffUtils {
       Map<String, DatumDigest> targetDigestMap,
       Map<String, Map<String, Publisher>> sourcePublishers,
       SyncSlotAcceptorManager acceptorManager) {
+    return diffDigestResult(
+        targetDigestMap, sourcePublishers, acceptorManager, PublisherDigestUtil.DIGEST_TYPE_SORTED);
+  }
+
+  public static DataSlotDiffDigestResult diffDigestResult(
+      Map<String, DatumDigest> targetDigestMap,
+      Map<String, Map<String, Publisher>> sourcePublishers,
+      SyncSlotAcceptorManager acceptorManager,
+      byte digestType) {
+    if (digestType != PublisherDigestUtil.DIGEST_TYPE_COMMUTATIVE) {
+      // the hash tree is only supported by data server, diff by sorted digest
+      digestType = PublisherDigestUtil.DIGEST_TYPE_SORTED;
+    }
     Map<String, DatumSummary> sourceSummaryMap =
         PublisherUtils.getDatumSummary(sourcePublishers, acceptorManager);
-    Map<String, DatumDigest> digestMap = PublisherDigestUtil.digest(sourceSummaryMap);
-    return diffDigest(targetDigestMap, digestMap);
+    Map<String, DatumDigest> digestMap = PublisherDigestUtil.digest(sourceSummaryMap, digestType);
+    DataSlotDiffDigestResult result = diffDigest(targetDigestMap, digestMap);
+    result.setDigestType(digestType);
+    return result;
   }
 
   public static DataSlotDiffDigestResult diffDigest(
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * the hash tree over the digests of the dataInfoIds in a slot. the dataInfoIds are bucketed into
+ * the leaves by hash, and the hash of a node is the sum of the datumSign of all dataInfoIds under
+ * it, so the tree could be built in one pass and is independent of the order of dataInfoIds.
+ *
+ * <p>the follower sends the root first, the leader returns the children of the different nodes, and
+ * so on until the leaves, at last only the digests in the different leaves are diffed.
+ */
+public final class DataSlotMerkleTree {
+  // every node has 16 children
+  public static final int FANOUT_BITS = 4;
+  // the root is level 0, the leaves are level DEPTH, 4096 leaves
+  public static final int DEPTH = 3;
+
+  public static final int ROOT_INDEX = 0;
+
+  private final long[][] levels;
+
+  public DataSlotMerkleTree(Map<String, DatumDigest> digests) {
+    this.levels = new long[DEPTH + 1][];
+    for (int level = 0; level <= DEPTH; level++) {
+      levels[level] = new long[1 << (FANOUT_BITS * level)];
+    }
+    final long[] leaves = levels[DEPTH];
+    for (Map.Entry<String, DatumDigest> e : digests.entrySet()) {
+      leaves[leafOf(e.getKey())] += PublisherDigestUtil.datumSign(e.getKey(), e.getValue());
+    }
+    for (int level = DEPTH - 1; level >= 0; level--) {
+      final long[] children = levels[level + 1];
+      final long[] nodes = levels[level];
+      for (int i = 0; i < children.length; i++) {
+        nodes[i >>> FANOUT_BITS] += children[i];
+      }
+    }
+  }
+
+  public long getRoot() {
+    return levels[0][ROOT_INDEX];
+  }
+
+  public Map<Integer, Long> rootNodes() {
+    return Collections.singletonMap(ROOT_INDEX, getRoot());
+  }
+
+  /**
+   * compare the nodes of other tree with this tree in the same level
+   *
+   * @param level level
+   * @param nodes the index and hash of the nodes
+   * @return the index and hash of the nodes in this tree which are different
+   */
+  public Map<Integer, Long> diffNodes(int level, Map<Integer, Long> nodes) {
+    checkLevel(level);
+    final long[] hashes = levels[level];
+    Map<Integer, Long> diffs = Maps.newHashMap();
+    for (Map.Entry<Integer, Long> e : nodes.entrySet()) {
+      final int index = e.getKey();
+      if (index < 0 || index >= hashes.length) {
+        continue;
+      }
+      if (hashes[index] != e.getValue()) {
+        diffs.put(index, hashes[index]);
+      }
+    }
+    return diffs;
+  }
+
+  /**
+   * compare the nodes of other tree with this tree in the same level
+   *
+   * @param level level, must be less than DEPTH
+   * @param nodes the index and hash of the nodes
+   * @return the index and hash of the children of the nodes which are different
+   */
+  public Map<Integer, Long> diffChildren(int level, Map<Integer, Long> nodes) {
+    ParaCheckUtil.checkIsPositive(DEPTH - level, "merkleLevel");
+    final long[] children = levels[level + 1];
+    Map<Integer, Long> diffs = Maps.newHashMap();
+    for (Integer index : diffNodes(level, nodes).keySet()) {
+      final int first = index << FANOUT_BITS;
+      for (int i = first; i < first + (1 << FANOUT_BITS); i++) {
+        diffs.put(i, children[i]);
+      }
+    }
+    return diffs;
+  }
+
+  public static int leafOf(String dataInfoId) {
+    return (int) (PublisherDigestUtil.idSign(dataInfoId) >>> (Long.SIZE - FANOUT_BITS * DEPTH));
+  }
+
+  /**
+   * pick the digests of the dataInfoIds in the leaves
+   *
+   * @param digests digests
+   * @param leaves the index of leaves
+   * @return Map
+   */
+  public static Map<String, DatumDigest> filterLeaves(
+      Map<String, DatumDigest> digests, Set<Integer> leaves) {
+    Map<String, DatumDigest> ret = Maps.newHashMap();
+    if (leaves.isEmpty()) {
+      return ret;
+    }
+    for (Map.Entry<String, DatumDigest> e : digests.entrySet()) {
+      if (leaves.contains(leafOf(e.getKey()))) {
+        ret.put(e.getKey(), e.getValue());
+      }
+    }
+    return ret;
+  }
+
+  private static void checkLevel(int level) {
+    ParaCheckUtil.checkNonNegative(level, "merkleLevel");
+    ParaCheckUtil.checkNonNegative(DEPTH - level, "merkleLevel");
+  }
+}
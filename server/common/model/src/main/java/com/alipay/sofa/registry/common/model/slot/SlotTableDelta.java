@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** the changed slots between two slot tables, fromEpoch==toEpoch and no changes means unchanged */
+public final class SlotTableDelta implements Serializable {
+  private final long fromEpoch;
+
+  private final long toEpoch;
+
+  private final List<Slot> changes;
+
+  private final Set<Integer> removes;
+
+  public SlotTableDelta(long fromEpoch, long toEpoch, List<Slot> changes, Set<Integer> removes) {
+    this.fromEpoch = fromEpoch;
+    this.toEpoch = toEpoch;
+    this.changes = changes;
+    this.removes = removes;
+  }
+
+  public static SlotTableDelta diff(SlotTable from, SlotTable to) {
+    if (from.getEpoch() == to.getEpoch()) {
+      return new SlotTableDelta(
+          from.getEpoch(), to.getEpoch(), Collections.emptyList(), Collections.emptySet());
+    }
+    final Map<Integer, Slot> fromSlots = from.getSlotMap();
+    final Map<Integer, Slot> toSlots = to.getSlotMap();
+    List<Slot> changes = Lists.newArrayList();
+    for (Slot slot : toSlots.values()) {
+      if (!slot.equals(fromSlots.get(slot.getId()))) {
+        changes.add(slot);
+      }
+    }
+    Set<Integer> removes = Sets.newHashSet();
+    for (Integer slotId : fromSlots.keySet()) {
+      if (!toSlots.containsKey(slotId)) {
+        removes.add(slotId);
+      }
+    }
+    return new SlotTableDelta(from.getEpoch(), to.getEpoch(), changes, removes);
+  }
+
+  public SlotTable apply(SlotTable base) {
+    ParaCheckUtil.checkNotNull(base, "base");
+    ParaCheckUtil.checkEquals(base.getEpoch(), fromEpoch, "base.epoch");
+    if (isUnchanged()) {
+      return base;
+    }
+    Map<Integer, Slot> slots = Maps.newHashMap(base.getSlotMap());
+    for (Integer slotId : getRemoves()) {
+      slots.remove(slotId);
+    }
+    for (Slot slot : getChanges()) {
+      slots.put(slot.getId(), slot);
+    }
+    return new SlotTable(toEpoch, slots.values());
+  }
+
+  public boolean isUnchanged() {
+    return fromEpoch == toEpoch && getChanges().isEmpty() && getRemoves().isEmpty();
+  }
+
+  /**
+   * Getter method for property <tt>fromEpoch</tt>.
+   *
+   * @return property value of fromEpoch
+   */
+  public long getFromEpoch() {
+    return fromEpoch;
+  }
+
+  /**
+   * Getter method for property <tt>toEpoch</tt>.
+   *
+   * @return property value of toEpoch
+   */
+  public long getToEpoch() {
+    return toEpoch;
+  }
+
+  /**
+   * Getter method for property <tt>changes</tt>.
+   *
+   * @return property value of changes
+   */
+  public List<Slot> getChanges() {
+    return changes == null ? Collections.emptyList() : changes;
+  }
+
+  /**
+   * Getter method for property <tt>removes</tt>.
+   *
+   * @return property value of removes
+   */
+  public Set<Integer> getRemoves() {
+    return removes == null ? Collections.emptySet() : removes;
+  }
+
+  @Override
+  public String toString() {
+    return "SlotTableDelta{"
+        + "fromEpoch="
+        + fromEpoch
+        + ", toEpoch="
+        + toEpoch
+        + ", changes="
+        + getChanges().size()
+        + ", removes="
+        + getRemoves()
+        + '}';
+  }
+}
@@ -48,6 +48,8 @@ public class Subscriber extends BaseInfo {
 
   private boolean acceptMulti;
 
+  private boolean acceptDelta;
+
   /** last push context */
   private Map<String /*dataCenter*/, PushContext> lastPushContexts;
 
@@ -55,6 +57,9 @@ public class Subscriber extends BaseInfo {
 
   private long lastPushedFailTimeStamp = 0;
 
+  /** notified when the push context changes, not serialized */
+  private transient volatile PushContextListener pushContextListener;
+
   /**
    * Getter method for property <tt>scope</tt>.
    *
@@ -99,6 +104,43 @@ public class Subscriber extends BaseInfo {
     this.acceptMulti = acceptMulti;
   }
 
+  public boolean acceptDelta() {
+    return this.acceptDelta;
+  }
+
+  /**
+   * Setter method for property <tt>acceptDelta</tt>.
+   *
+   * @param acceptDelta value to be assigned to property acceptDelta
+   */
+  public void setAcceptDelta(boolean acceptDelta) {
+    this.acceptDelta = acceptDelta;
+  }
+
+  /**
+   * the version which the delta push could be diffed against
+   *
+   * @param dataCenter dataCenter
+   * @return the last pushed version, 0 means the next push must be full
+   */
+  public synchronized long getDeltaBaseVersion(String dataCenter) {
+    if (!acceptDelta) {
+      return 0;
+    }
+    final PushContext ctx = getPushContext(dataCenter);
+    return ctx.deltaBroken ? 0 : ctx.pushedVersion;
+  }
+
+  /**
+   * the client rejects the delta push, the next push falls back to full until a push succeeds
+   *
+   * @param dataCenter dataCenter
+   */
+  public synchronized void markDeltaBroken(String dataCenter) {
+    final PushContext ctx = getPushContext(dataCenter);
+    ctx.deltaBroken = true;
+  }
+
   private PushContext getPushContext(String dataCenter) {
     PushContext ctx = null;
     if (lastPushContexts == null) {
@@ -144,8 +186,12 @@ public class Subscriber extends BaseInfo {
   public synchronized boolean checkAndUpdateCtx(
       Map<String, Long> versions, Map<String, Integer> nums) {
     ParaCheckUtil.checkEquals(versions.keySet(), nums.keySet(), "checkAndUpdateCtx.datacenters");
+    boolean changed = false;
     for (Entry<String, Long> entry : versions.entrySet()) {
-      checkAndUpdateCtx(entry.getKey(), entry.getValue(), nums.get(entry.getKey()));
+      changed |= checkAndUpdateCtx(entry.getKey(), entry.getValue(), nums.get(entry.getKey()));
+    }
+    if (changed) {
+      notifyPushContextChange();
     }
     return true;
   }
@@ -156,6 +202,7 @@ public class Subscriber extends BaseInfo {
     if (ctx.pushedVersion < pushVersion) {
       ctx.pushedVersion = pushVersion;
       ctx.pushedNum = num;
+      ctx.deltaBroken = false;
       pushedFailCount = 0;
       lastPushedFailTimeStamp = 0;
       return true;
@@ -295,10 +342,11 @@ public class Subscriber extends BaseInfo {
   @Override
   protected synchronized String getOtherInfo() {
     return StringFormatter.format(
-        "scope={},elementType={},multi={},ctx={}",
+        "scope={},elementType={},multi={},delta={},ctx={}",
         scope,
         elementType,
         acceptMulti,
+        acceptDelta,
         lastPushContexts);
   }
 
@@ -323,9 +371,27 @@ public class Subscriber extends BaseInfo {
       return ctx.emptyVersion;
     }
     ctx.emptyVersion = emptyVersion;
+    notifyPushContextChange();
     return emptyVersion;
   }
 
+  private void notifyPushContextChange() {
+    final PushContextListener listener = this.pushContextListener;
+    if (listener != null) {
+      listener.onPushContextChange(this);
+    }
+  }
+
+  /**
+   * Setter method for property <tt>pushContextListener</tt>.
+   *
+   * @param pushContextListener value to be assigned to property pushContextListener
+   */
+  @JsonIgnore
+  public void setPushContextListener(PushContextListener pushContextListener) {
+    this.pushContextListener = pushContextListener;
+  }
+
   /** @return */
   @JsonIgnore
   public synchronized CircuitBreakerStatistic getStatistic() {
@@ -383,21 +449,28 @@ public class Subscriber extends BaseInfo {
     this.acceptEncodes = encodes;
   }
 
+  public interface PushContextListener {
+    void onPushContextChange(Subscriber subscriber);
+  }
+
   private static class PushContext {
     long pushedVersion;
     long lastMaxPushVersion = -1;
     long lastPushVersion = -1;
     long emptyVersion;
     int pushedNum = -1;
+    // the client may not hold the data of pushedVersion
+    boolean deltaBroken;
 
     @Override
     public String toString() {
       return StringFormatter.format(
-          "PushCtx{pushedVer={},lastMaxPushVer={},num={},empty={}}",
+          "PushCtx{pushedVer={},lastMaxPushVer={},num={},empty={},deltaBroken={}}",
           pushedVersion,
           lastMaxPushVersion,
           pushedNum,
-          emptyVersion);
+          emptyVersion,
+          deltaBroken);
     }
 
     /**
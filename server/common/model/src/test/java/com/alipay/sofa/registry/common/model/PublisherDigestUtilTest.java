@@ -57,6 +57,83 @@ public class PublisherDigestUtilTest {
     }
   }
 
+  @Test
+  public void testCommutativeDigest() {
+    Map<String, RegisterVersion> m = Maps.newHashMap();
+    Map<String, RegisterVersion> sorted = new TreeMap<>();
+    for (int i = 0; i < 100; i++) {
+      String id = UUID.randomUUID().toString();
+      RegisterVersion ver = RegisterVersion.of(RANDOM.nextInt(3), System.currentTimeMillis());
+      m.put(id, ver);
+      sorted.put(id, ver);
+    }
+    DatumDigest d1 = PublisherDigestUtil.commutativeDigest(new DatumSummary("testDataId", m));
+    DatumDigest d2 = PublisherDigestUtil.commutativeDigest(new DatumSummary("testDataId", sorted));
+    Assert.assertEquals(d1, d2);
+
+    // sum the sign of pubs one by one, and sub the sign of the removed pub
+    int num = 0;
+    long idSigns = 0;
+    long verSigns = 0;
+    long tsSigns = 0;
+    for (Map.Entry<String, RegisterVersion> e : m.entrySet()) {
+      long idSign = PublisherDigestUtil.idSign(e.getKey());
+      num++;
+      idSigns += idSign;
+      verSigns += PublisherDigestUtil.verSign(idSign, e.getValue());
+      tsSigns += PublisherDigestUtil.timestampSign(idSign, e.getValue());
+    }
+    Assert.assertEquals(d1, PublisherDigestUtil.commutativeDigest(num, idSigns, verSigns, tsSigns));
+    String id = m.keySet().iterator().next();
+    RegisterVersion ver = m.remove(id);
+    long idSign = PublisherDigestUtil.idSign(id);
+    Assert.assertEquals(
+        PublisherDigestUtil.commutativeDigest(new DatumSummary("testDataId", m)),
+        PublisherDigestUtil.commutativeDigest(
+            num - 1,
+            idSigns - idSign,
+            verSigns - PublisherDigestUtil.verSign(idSign, ver),
+            tsSigns - PublisherDigestUtil.timestampSign(idSign, ver)));
+
+    Map<String, DatumSummary> summaryMap =
+        Collections.singletonMap("testDataId", new DatumSummary("testDataId", sorted));
+    Assert.assertEquals(
+        PublisherDigestUtil.digest(summaryMap, PublisherDigestUtil.DIGEST_TYPE_COMMUTATIVE)
+            .get("testDataId"),
+        d1);
+    Assert.assertEquals(
+        PublisherDigestUtil.digest(summaryMap, PublisherDigestUtil.DIGEST_TYPE_SORTED),
+        PublisherDigestUtil.digest(summaryMap));
+  }
+
+  @Test
+  public void testCommutativeDigestConflict() {
+    for (int i = 1; i < 100; i++) {
+      int count = i * 10;
+      Map<String, RegisterVersion> m1 = Maps.newHashMapWithExpectedSize(count);
+      Map<String, RegisterVersion> m2 = Maps.newHashMapWithExpectedSize(count);
+      for (int j = 0; j < count; j++) {
+        String id = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        m1.put(id, RegisterVersion.of(0, now));
+        m2.put(id, RegisterVersion.of(0, now));
+      }
+      // change one of the pubs
+      String id = m2.keySet().iterator().next();
+      int r = RANDOM.nextInt(3);
+      if (r == 0) {
+        m2.put(id, RegisterVersion.of(1, m2.get(id).getRegisterTimestamp()));
+      } else if (r == 1) {
+        m2.put(id, RegisterVersion.of(0, m2.get(id).getRegisterTimestamp() + 1));
+      } else {
+        m2.put(UUID.randomUUID().toString(), m2.remove(id));
+      }
+      DatumDigest d1 = PublisherDigestUtil.commutativeDigest(new DatumSummary("testDataId", m1));
+      DatumDigest d2 = PublisherDigestUtil.commutativeDigest(new DatumSummary("testDataId", m2));
+      Assert.assertNotEquals(StringFormatter.format("m1={},m2={}", m1, m2), d1, d2);
+    }
+  }
+
   @Test
   public void testDigestConflict_diffId() {
     for (int i = 1; i < 100; i++) {
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.codec;
+
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.dataserver.BatchRequest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherResult;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptAllManager;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.caucho.hessian.io.Hessian2Input;
+import com.caucho.hessian.io.Hessian2Output;
+import com.caucho.hessian.io.SerializerFactory;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * compare the binary codec against hessian on the hot internal messages, the encoded bytes of both
+ * are printed at setup
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MessageCodecBenchmark {
+  private static final SerializerFactory HESSIAN = new SerializerFactory();
+
+  @Param({"batch", "diffPublisher", "diffDigest"})
+  private String message;
+
+  private Object msg;
+  private byte[] hessianBytes;
+  private byte[] codecBytes;
+
+  @Setup
+  public void setup() throws Exception {
+    final ProcessId processId = new ProcessId("192.168.1.1", System.currentTimeMillis(), 1, 2);
+    switch (message) {
+      case "batch":
+        // the session batches the register requests of a slot
+        List<Object> pubs = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+          pubs.add(newPublisher(processId, i % 10, i));
+        }
+        msg = new BatchRequest(processId, 1, pubs);
+        break;
+      case "diffPublisher":
+        // one round of the publisher sync between leader and follower
+        Map<String, List<Publisher>> updated = Maps.newHashMap();
+        for (int i = 0; i < 1000; i++) {
+          Publisher pub = newPublisher(processId, i % 100, i);
+          updated.computeIfAbsent(pub.getDataInfoId(), k -> Lists.newArrayList()).add(pub);
+        }
+        msg =
+            SlotAccessGenericResponse.successResponse(
+                new SlotAccess(1, 1, SlotAccess.Status.Accept, 1),
+                new DataSlotDiffPublisherResult(true, updated, Collections.emptyMap()));
+        break;
+      case "diffDigest":
+        Map<String, DatumDigest> digests = Maps.newHashMap();
+        for (int i = 0; i < 10000; i++) {
+          String dataInfoId = dataInfoId(i);
+          long idSign = PublisherDigestUtil.idSign(dataInfoId);
+          digests.put(
+              dataInfoId,
+              PublisherDigestUtil.commutativeDigest(10, idSign, idSign + 1, idSign + 2));
+        }
+        msg =
+            DataSlotDiffDigestRequest.buildRequest(
+                "dc", 1, 1, 1, digests, new SyncSlotAcceptAllManager());
+        break;
+      default:
+        throw new IllegalArgumentException(message);
+    }
+    hessianBytes = hessianSerialize(msg);
+    codecBytes = MessageCodecs.encode(msg);
+    System.out.println(
+        "message="
+            + message
+            + ", hessian.bytes="
+            + hessianBytes.length
+            + ", codec.bytes="
+            + codecBytes.length);
+  }
+
+  /** the same as the hessian serializer of bolt */
+  private static byte[] hessianSerialize(Object obj) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Hessian2Output output = new Hessian2Output(bytes);
+    output.setSerializerFactory(HESSIAN);
+    output.writeObject(obj);
+    output.close();
+    return bytes.toByteArray();
+  }
+
+  private static Object hessianDeserialize(byte[] bytes) throws Exception {
+    Hessian2Input input = new Hessian2Input(new ByteArrayInputStream(bytes));
+    input.setSerializerFactory(HESSIAN);
+    Object obj = input.readObject();
+    input.close();
+    return obj;
+  }
+
+  private static String dataInfoId(int i) {
+    return "com.alipay.benchmark.service-" + i + "#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP";
+  }
+
+  private static Publisher newPublisher(ProcessId processId, int dataIndex, int i) {
+    Publisher publisher = new Publisher();
+    publisher.setDataInfoId(dataInfoId(dataIndex));
+    publisher.setDataId("com.alipay.benchmark.service-" + dataIndex);
+    publisher.setInstanceId("DEFAULT_INSTANCE_ID");
+    publisher.setGroup("DEFAULT_GROUP");
+    publisher.setRegisterId("registerId-" + i + "-" + System.nanoTime());
+    publisher.setClientId("clientId-" + i);
+    publisher.setCell("RZ00A");
+    publisher.setAppName("benchmark-app");
+    publisher.setProcessId("192.168.2." + (i % 200) + "-" + i);
+    publisher.setVersion(1);
+    publisher.setRegisterTimestamp(System.currentTimeMillis());
+    publisher.setClientRegisterTimestamp(System.currentTimeMillis());
+    publisher.setSourceAddress(new URL("192.168.2." + (i % 200), 40000 + i));
+    publisher.setTargetAddress(new URL("192.168.1.1", 9600));
+    publisher.setClientVersion(Publisher.ClientVersion.StoreData);
+    publisher.setDataList(
+        Lists.newArrayList(
+            new ServerDataBox(("bolt://192.168.2." + (i % 200) + ":12200?v=4.0").getBytes())));
+    publisher.setSessionProcessId(processId);
+    return publisher;
+  }
+
+  @Benchmark
+  @Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+  public byte[] hessianEncode() throws Exception {
+    return hessianSerialize(msg);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+  public byte[] codecEncode() {
+    return MessageCodecs.encode(msg);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+  public Object hessianDecode() throws Exception {
+    return hessianDeserialize(hessianBytes);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+  public Object codecDecode() {
+    return MessageCodecs.decode(codecBytes);
+  }
+}
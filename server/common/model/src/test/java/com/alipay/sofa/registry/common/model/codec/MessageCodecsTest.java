@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.codec;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.TraceTimes;
+import com.alipay.sofa.registry.common.model.dataserver.BatchRequest;
+import com.alipay.sofa.registry.common.model.dataserver.ClientOffPublisher;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherResult;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptAllManager;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.common.model.store.SubPublisherList;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.common.model.store.UnPublisher;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MessageCodecsTest {
+  private static final ProcessId PROCESS_ID = new ProcessId("192.168.1.1", 1000, 100, -1);
+
+  static Publisher newPublisher(int i) {
+    Publisher publisher = new Publisher();
+    publisher.setDataInfoId("dataId-" + (i % 3) + "#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP");
+    publisher.setDataId("dataId-" + (i % 3));
+    publisher.setInstanceId("DEFAULT_INSTANCE_ID");
+    publisher.setGroup("DEFAULT_GROUP");
+    publisher.setRegisterId("registerId-" + i);
+    publisher.setClientId("clientId-" + i);
+    publisher.setCell("cell");
+    publisher.setAppName("app");
+    publisher.setProcessId("processId");
+    publisher.setVersion(i);
+    publisher.setRegisterTimestamp(System.currentTimeMillis());
+    publisher.setClientRegisterTimestamp(System.currentTimeMillis() - 100);
+    publisher.setSourceAddress(new URL(URL.ProtocolType.BOLT, "192.168.1.2", 9600 + i, (byte) 1));
+    publisher.setTargetAddress(new URL("192.168.1.3", 9600));
+    publisher.setClientVersion(Publisher.ClientVersion.StoreData);
+    Map<String, String> attrs = Maps.newHashMap();
+    attrs.put("k", "v" + i);
+    publisher.setAttributes(attrs);
+    publisher.setDataList(
+        Lists.newArrayList(new ServerDataBox(new byte[] {1, 2, (byte) i}), new ServerDataBox()));
+    publisher.setPublishSource(PublishSource.DATUM_SYNCER);
+    publisher.setSessionProcessId(PROCESS_ID);
+    return publisher;
+  }
+
+  static void assertPublisher(Publisher expect, Publisher actual) {
+    Assert.assertEquals(expect.getDataInfoId(), actual.getDataInfoId());
+    Assert.assertEquals(expect.getDataId(), actual.getDataId());
+    Assert.assertEquals(expect.getInstanceId(), actual.getInstanceId());
+    Assert.assertEquals(expect.getGroup(), actual.getGroup());
+    Assert.assertEquals(expect.getRegisterId(), actual.getRegisterId());
+    Assert.assertEquals(expect.getClientId(), actual.getClientId());
+    Assert.assertEquals(expect.getCell(), actual.getCell());
+    Assert.assertEquals(expect.getAppName(), actual.getAppName());
+    Assert.assertEquals(expect.getProcessId(), actual.getProcessId());
+    Assert.assertEquals(expect.getVersion(), actual.getVersion());
+    Assert.assertEquals(expect.getRegisterTimestamp(), actual.getRegisterTimestamp());
+    Assert.assertEquals(expect.getClientRegisterTimestamp(), actual.getClientRegisterTimestamp());
+    Assert.assertEquals(expect.getSourceAddress(), actual.getSourceAddress());
+    Assert.assertEquals(
+        expect.getSourceAddress().getSerializerIndex(),
+        actual.getSourceAddress().getSerializerIndex());
+    Assert.assertEquals(expect.getTargetAddress(), actual.getTargetAddress());
+    Assert.assertEquals(expect.getClientVersion(), actual.getClientVersion());
+    Assert.assertEquals(expect.getAttributes(), actual.getAttributes());
+    Assert.assertEquals(expect.getDataList(), actual.getDataList());
+    Assert.assertEquals(expect.getPublishType(), actual.getPublishType());
+    Assert.assertEquals(expect.getPublishSource(), actual.getPublishSource());
+    Assert.assertEquals(expect.getSessionProcessId(), actual.getSessionProcessId());
+  }
+
+  private static <T> T roundTrip(T msg) {
+    byte[] bytes = MessageCodecs.encode(msg);
+    Assert.assertNotNull(bytes);
+    Assert.assertTrue(MessageCodecs.isEncoded(bytes));
+    Object decoded = MessageCodecs.decode(bytes);
+    Assert.assertEquals(msg.getClass(), decoded.getClass());
+    return (T) decoded;
+  }
+
+  @Test
+  public void testPrimitive() {
+    CodecOutput out = new CodecOutput(1);
+    long[] longs = {0, 1, -1, 127, 128, Long.MAX_VALUE, Long.MIN_VALUE, System.currentTimeMillis()};
+    for (long l : longs) {
+      out.writeVarLong(l);
+      out.writeSignedVarLong(l);
+      out.writeFixedLong(l);
+      out.writeVarInt((int) l);
+    }
+    out.writeString("abc");
+    out.writeString(null);
+    out.writeString("中文");
+    out.writeString("abc");
+    out.writeByteArray(null);
+    out.writeByteArray(new byte[0]);
+    CodecInput in = new CodecInput(out.toByteArray());
+    for (long l : longs) {
+      Assert.assertEquals(l, in.readVarLong());
+      Assert.assertEquals(l, in.readSignedVarLong());
+      Assert.assertEquals(l, in.readFixedLong());
+      Assert.assertEquals((int) l, in.readVarInt());
+    }
+    Assert.assertEquals("abc", in.readString());
+    Assert.assertNull(in.readString());
+    Assert.assertEquals("中文", in.readString());
+    Assert.assertEquals("abc", in.readString());
+    Assert.assertNull(in.readByteArray());
+    Assert.assertEquals(0, in.readByteArray().length);
+    Assert.assertEquals(0, in.remaining());
+  }
+
+  @Test
+  public void testBatchRequest() {
+    ClientOffPublisher clientOff =
+        new ClientOffPublisher(new ConnectId("192.168.1.4", 1234, "192.168.1.1", 9600));
+    clientOff.addPublisher(newPublisher(1));
+    clientOff.addPublisher(newPublisher(2));
+    Publisher pub = newPublisher(3);
+    List<Object> items =
+        Lists.newArrayList(
+            pub, UnPublisher.of(newPublisher(4)), clientOff, UnPublisher.of(newPublisher(5)));
+    BatchRequest request = new BatchRequest(PROCESS_ID, 10, items);
+    request.setSlotTableEpoch(100);
+    request.setSlotLeaderEpoch(-1);
+
+    BatchRequest decoded = roundTrip(request);
+    Assert.assertEquals(PROCESS_ID, decoded.getSessionProcessId());
+    Assert.assertEquals(10, decoded.getSlotId());
+    Assert.assertEquals(100, decoded.getSlotTableEpoch());
+    Assert.assertEquals(-1, decoded.getSlotLeaderEpoch());
+    Assert.assertEquals(4, decoded.getRequest().size());
+    assertPublisher(pub, (Publisher) decoded.getRequest().get(0));
+    UnPublisher unPub = (UnPublisher) decoded.getRequest().get(1);
+    Assert.assertEquals("registerId-4", unPub.getRegisterId());
+    Assert.assertEquals(4, unPub.getVersion());
+    Assert.assertEquals(PROCESS_ID, unPub.getSessionProcessId());
+    Assert.assertEquals("dataId-1", unPub.getDataId());
+    ClientOffPublisher decodedClientOff = (ClientOffPublisher) decoded.getRequest().get(2);
+    Assert.assertEquals(clientOff.getConnectId(), decodedClientOff.getConnectId());
+    Assert.assertEquals(clientOff.getPublisherMap(), decodedClientOff.getPublisherMap());
+
+    // the object not in bytes is not supported
+    Publisher objectPub = newPublisher(6);
+    objectPub.setDataList(Lists.newArrayList(new ServerDataBox("obj")));
+    Assert.assertNull(
+        MessageCodecs.encode(new BatchRequest(PROCESS_ID, 1, Lists.newArrayList(objectPub))));
+    Assert.assertNull(
+        MessageCodecs.encode(new BatchRequest(PROCESS_ID, 1, Lists.newArrayList("unknown"))));
+  }
+
+  @Test
+  public void testDataChangeRequest() {
+    Map<String, DatumVersion> versions = Maps.newHashMap();
+    versions.put("a", DatumVersion.of(1));
+    versions.put("b", DatumVersion.of(Long.MAX_VALUE));
+    TraceTimes times = new TraceTimes();
+    times.setDataChangeType(2);
+    times.setFirstDataChange(3);
+    times.setTriggerSession(4);
+    DataChangeRequest decoded = roundTrip(new DataChangeRequest("dc", versions, times));
+    Assert.assertEquals("dc", decoded.getDataCenter());
+    Assert.assertEquals(versions, decoded.getDataInfoIds());
+    Assert.assertEquals(times.toString(), decoded.getTimes().toString());
+
+    decoded = roundTrip(new DataChangeRequest("dc", versions, null));
+    Assert.assertNull(decoded.getTimes());
+  }
+
+  @Test
+  public void testDiffDigest() {
+    Map<String, DatumDigest> digests = Maps.newHashMap();
+    digests.put("a", new DatumDigest(1, -1, Long.MAX_VALUE, Long.MIN_VALUE, (short) -2, (short) 3));
+    Map<Integer, Long> nodes = Collections.singletonMap(3, -100L);
+    DataSlotDiffDigestRequest request =
+        DataSlotDiffDigestRequest.buildMerkleRequest(
+            "dc", 1, 2, 3, digests, new SyncSlotAcceptAllManager(), 4, nodes);
+    DataSlotDiffDigestRequest decoded = roundTrip(request);
+    Assert.assertEquals(request.toString(), decoded.toString());
+    Assert.assertEquals(digests, decoded.getDatumDigest());
+    Assert.assertEquals(nodes, decoded.getMerkleNodes());
+    Assert.assertTrue(decoded.getAcceptorManager() instanceof SyncSlotAcceptAllManager);
+
+    // customized acceptor falls back
+    SyncSlotAcceptorManager acceptor = r -> true;
+    Assert.assertNull(
+        MessageCodecs.encode(
+            DataSlotDiffDigestRequest.buildRequest("dc", 1, 2, 3, digests, acceptor)));
+
+    DataSlotDiffDigestResult result =
+        new DataSlotDiffDigestResult(
+            Lists.newArrayList("a"), Collections.emptyList(), Lists.newArrayList("b", "c"));
+    result.setSlotTableEpoch(10);
+    result.setSessionProcessId(PROCESS_ID);
+    result.setDigestType((byte) 2);
+    DataSlotDiffDigestResult decodedResult = roundTrip(result);
+    Assert.assertEquals(result.getUpdatedDataInfoIds(), decodedResult.getUpdatedDataInfoIds());
+    Assert.assertEquals(result.getAddedDataInfoIds(), decodedResult.getAddedDataInfoIds());
+    Assert.assertEquals(result.getRemovedDataInfoIds(), decodedResult.getRemovedDataInfoIds());
+    Assert.assertEquals(10, decodedResult.getSlotTableEpoch());
+    Assert.assertEquals(PROCESS_ID, decodedResult.getSessionProcessId());
+    Assert.assertEquals(2, decodedResult.getDigestType());
+    Assert.assertEquals(result.getMerkleNodes(), decodedResult.getMerkleNodes());
+  }
+
+  @Test
+  public void testDiffPublisher() {
+    Map<String, RegisterVersion> versions = Maps.newHashMap();
+    versions.put("r1", RegisterVersion.of(1, 2));
+    DataSlotDiffPublisherRequest request =
+        new DataSlotDiffPublisherRequest(
+            "dc", 1, 2, null, Lists.newArrayList(new DatumSummary("a", versions)));
+    DataSlotDiffPublisherRequest decoded = roundTrip(request);
+    Assert.assertEquals("dc", decoded.getLocalDataCenter());
+    Assert.assertEquals(1, decoded.getSlotTableEpoch());
+    Assert.assertEquals(2, decoded.getSlotId());
+    Assert.assertNull(decoded.getAcceptorManager());
+    Assert.assertEquals("a", decoded.getDatumSummaries().get(0).getDataInfoId());
+    Assert.assertEquals(versions, decoded.getDatumSummaries().get(0).getPublisherVersions());
+
+    Publisher pub = newPublisher(1);
+    DataSlotDiffPublisherResult result =
+        new DataSlotDiffPublisherResult(
+            true,
+            Collections.singletonMap(pub.getDataInfoId(), Lists.newArrayList(pub)),
+            Collections.singletonMap("b", Lists.newArrayList("r2")));
+    result.setSlotTableEpoch(3);
+    result.setSessionProcessId(PROCESS_ID);
+    SlotAccessGenericResponse<DataSlotDiffPublisherResult> response =
+        SlotAccessGenericResponse.successResponse(
+            new SlotAccess(2, 3, SlotAccess.Status.Accept, 4), result);
+    SlotAccessGenericResponse<DataSlotDiffPublisherResult> decodedResponse = roundTrip(response);
+    Assert.assertTrue(decodedResponse.isSuccess());
+    Assert.assertEquals(
+        response.getSlotAccess().toString(), decodedResponse.getSlotAccess().toString());
+    DataSlotDiffPublisherResult decodedResult = decodedResponse.getData();
+    Assert.assertTrue(decodedResult.isHasRemain());
+    Assert.assertEquals(3, decodedResult.getSlotTableEpoch());
+    Assert.assertEquals(PROCESS_ID, decodedResult.getSessionProcessId());
+    Assert.assertEquals(result.getRemovedPublishers(), decodedResult.getRemovedPublishers());
+    assertPublisher(pub, decodedResult.getUpdatedPublishers().get(pub.getDataInfoId()).get(0));
+
+    SlotAccessGenericResponse failed = roundTrip(SlotAccessGenericResponse.failedResponse("err"));
+    Assert.assertFalse(failed.isSuccess());
+    Assert.assertEquals("err", failed.getMessage());
+    Assert.assertNull(failed.getSlotAccess());
+    Assert.assertNull(failed.getData());
+    // the data is not supported
+    Assert.assertNull(MessageCodecs.encode(SlotAccessGenericResponse.successResponse(null, "s")));
+  }
+
+  @Test
+  public void testGetMultiDataRequest() {
+    GetMultiDataRequest request =
+        new GetMultiDataRequest(
+            PROCESS_ID,
+            1,
+            "a",
+            new String[] {"zstd", "gzip"},
+            Collections.singletonMap("dc", 2L),
+            Collections.singletonMap("dc", 3L));
+    GetMultiDataRequest decoded = roundTrip(request);
+    Assert.assertEquals(PROCESS_ID, decoded.getSessionProcessId());
+    Assert.assertEquals(1, decoded.getSlotId());
+    Assert.assertEquals("a", decoded.getDataInfoId());
+    Assert.assertArrayEquals(request.getAcceptEncodes(), decoded.getAcceptEncodes());
+    Assert.assertEquals(request.getSlotTableEpochs(), decoded.getSlotTableEpochs());
+    Assert.assertEquals(request.getSlotLeaderEpochs(), decoded.getSlotLeaderEpochs());
+
+    decoded = roundTrip(new GetMultiDataRequest(null, 1, "a", null, null, null));
+    Assert.assertNull(decoded.getSessionProcessId());
+    Assert.assertNull(decoded.getAcceptEncodes());
+    Assert.assertNull(decoded.getSlotTableEpochs());
+  }
+
+  @Test
+  public void testSubPublisherList() {
+    List<SubPublisher> pubs = Lists.newArrayList();
+    for (int i = 0; i < 10; i++) {
+      pubs.add(
+          new SubPublisher(
+              "r" + i,
+              "cell",
+              Lists.newArrayList(new ServerDataBox(new byte[] {(byte) i})),
+              "c",
+              i,
+              "192.168.1.1:1000",
+              System.currentTimeMillis(),
+              PublishSource.CLIENT));
+    }
+    SubPublisherList decoded = roundTrip(new SubPublisherList(pubs));
+    Assert.assertEquals(10, decoded.getPubs().size());
+    for (int i = 0; i < 10; i++) {
+      SubPublisher expect = pubs.get(i);
+      SubPublisher actual = decoded.getPubs().get(i);
+      Assert.assertEquals(expect.toString(), actual.toString());
+      Assert.assertEquals(expect.getDataList(), actual.getDataList());
+    }
+    Assert.assertEquals(new SubPublisherList(pubs).size(), decoded.size());
+  }
+
+  @Test
+  public void testBroken() {
+    Assert.assertNull(MessageCodecs.encode(null));
+    Assert.assertNull(MessageCodecs.encode("unknown"));
+    Assert.assertFalse(MessageCodecs.isEncoded(null));
+    Assert.assertFalse(MessageCodecs.isEncoded(new byte[] {'C', 0, 0, 0}));
+
+    byte[] bytes = MessageCodecs.encode(new DataChangeRequest("dc", Collections.emptyMap(), null));
+    // truncated
+    assertBroken(java.util.Arrays.copyOf(bytes, bytes.length - 1));
+    // trailing
+    assertBroken(java.util.Arrays.copyOf(bytes, bytes.length + 1));
+    // unknown version
+    byte[] versionBytes = bytes.clone();
+    versionBytes[2] = 100;
+    assertBroken(versionBytes);
+    // unknown type
+    byte[] typeBytes = bytes.clone();
+    typeBytes[3] = 100;
+    assertBroken(typeBytes);
+  }
+
+  private static void assertBroken(byte[] bytes) {
+    try {
+      MessageCodecs.decode(bytes);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // expect
+    }
+  }
+}
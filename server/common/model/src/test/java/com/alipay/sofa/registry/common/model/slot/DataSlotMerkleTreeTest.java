@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataSlotMerkleTreeTest {
+
+  @Test
+  public void testSameDigests() {
+    Map<String, DatumDigest> digests = newDigests(1000);
+    DataSlotMerkleTree tree1 = new DataSlotMerkleTree(digests);
+    DataSlotMerkleTree tree2 = new DataSlotMerkleTree(new TreeMap<>(digests));
+    Assert.assertEquals(tree1.getRoot(), tree2.getRoot());
+    Assert.assertTrue(tree1.diffNodes(0, tree2.rootNodes()).isEmpty());
+    Assert.assertTrue(tree1.diffChildren(0, tree2.rootNodes()).isEmpty());
+
+    DataSlotMerkleTree empty = new DataSlotMerkleTree(Collections.emptyMap());
+    Assert.assertEquals(empty.getRoot(), 0);
+    Assert.assertNotEquals(empty.getRoot(), tree1.getRoot());
+  }
+
+  @Test
+  public void testDiffToLeaf() {
+    Map<String, DatumDigest> digests = newDigests(1000);
+    Map<String, DatumDigest> changed = Maps.newHashMap(digests);
+    String dataInfoId = digests.keySet().iterator().next();
+    changed.put(dataInfoId, PublisherDigestUtil.commutativeDigest(1, 1, 1, 1));
+    String added = UUID.randomUUID().toString();
+    changed.put(added, PublisherDigestUtil.commutativeDigest(0, 0, 0, 0));
+
+    DataSlotMerkleTree follower = new DataSlotMerkleTree(digests);
+    DataSlotMerkleTree leader = new DataSlotMerkleTree(changed);
+    Map<Integer, Long> nodes = follower.rootNodes();
+    for (int level = 0; level < DataSlotMerkleTree.DEPTH; level++) {
+      Map<Integer, Long> children = leader.diffChildren(level, nodes);
+      Assert.assertFalse(children.isEmpty());
+      Assert.assertEquals(children.size() % (1 << DataSlotMerkleTree.FANOUT_BITS), 0);
+      nodes = follower.diffNodes(level + 1, children);
+      Assert.assertTrue(nodes.size() <= 2);
+    }
+    Assert.assertTrue(nodes.containsKey(DataSlotMerkleTree.leafOf(dataInfoId)));
+    Assert.assertTrue(nodes.containsKey(DataSlotMerkleTree.leafOf(added)));
+    Assert.assertTrue(leader.diffNodes(DataSlotMerkleTree.DEPTH, nodes).size() == nodes.size());
+
+    Map<String, DatumDigest> followerLeaves =
+        DataSlotMerkleTree.filterLeaves(digests, nodes.keySet());
+    Map<String, DatumDigest> leaderLeaves =
+        DataSlotMerkleTree.filterLeaves(changed, nodes.keySet());
+    Assert.assertTrue(followerLeaves.size() < digests.size());
+    DataSlotDiffDigestResult result = DataSlotDiffUtils.diffDigest(followerLeaves, leaderLeaves);
+    Assert.assertEquals(result.getUpdatedDataInfoIds(), Collections.singletonList(dataInfoId));
+    Assert.assertEquals(result.getAddedDataInfoIds(), Collections.singletonList(added));
+    Assert.assertTrue(result.getRemovedDataInfoIds().isEmpty());
+
+    Assert.assertTrue(DataSlotMerkleTree.filterLeaves(digests, Collections.emptySet()).isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLeafNoChildren() {
+    new DataSlotMerkleTree(Collections.emptyMap())
+        .diffChildren(DataSlotMerkleTree.DEPTH, Collections.singletonMap(0, 1L));
+  }
+
+  private static Map<String, DatumDigest> newDigests(int count) {
+    Map<String, DatumDigest> digests = Maps.newHashMapWithExpectedSize(count);
+    for (int i = 0; i < count; i++) {
+      digests.put(
+          UUID.randomUUID().toString(), PublisherDigestUtil.commutativeDigest(i, i, i + 1, i + 2));
+    }
+    return digests;
+  }
+}
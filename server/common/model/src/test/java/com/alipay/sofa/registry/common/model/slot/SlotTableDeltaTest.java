@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedListDelta;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotTableDeltaTest {
+
+  @Test
+  public void testDiff() {
+    List<Slot> slots = Lists.newArrayList();
+    for (int i = 0; i < 10; i++) {
+      slots.add(new Slot(i, "leader" + i, 1, Collections.singletonList("follower" + i)));
+    }
+    SlotTable from = new SlotTable(1, slots);
+    SlotTableDelta unchanged = SlotTableDelta.diff(from, from);
+    Assert.assertTrue(unchanged.isUnchanged());
+    Assert.assertSame(from, unchanged.apply(from));
+
+    List<Slot> toSlots = Lists.newArrayList(slots);
+    toSlots.set(1, new Slot(1, "leader1", 2, Collections.singletonList("follower1")));
+    toSlots.set(2, new Slot(2, "follower2", 2, Collections.singletonList("leader2")));
+    toSlots.remove(9);
+    toSlots.add(new Slot(10, "leader10", 1, Collections.emptyList()));
+    SlotTable to = new SlotTable(2, toSlots);
+
+    SlotTableDelta delta = SlotTableDelta.diff(from, to);
+    Assert.assertFalse(delta.isUnchanged());
+    Assert.assertEquals(3, delta.getChanges().size());
+    Assert.assertEquals(Sets.newHashSet(9), delta.getRemoves());
+    SlotTable applied = delta.apply(from);
+    Assert.assertEquals(to, applied);
+    Assert.assertEquals(2, applied.getEpoch());
+
+    // the base not matched
+    try {
+      delta.apply(to);
+      Assert.fail();
+    } catch (RuntimeException expected) {
+    }
+  }
+
+  @Test
+  public void testVersionedListDiff() {
+    MetaNode meta1 = new MetaNode(new URL("192.168.1.1"), "dc1");
+    MetaNode meta2 = new MetaNode(new URL("192.168.1.2"), "dc1");
+    MetaNode meta3 = new MetaNode(new URL("192.168.1.3"), "dc1");
+    VersionedList<MetaNode> from = new VersionedList<>(1, Lists.newArrayList(meta1, meta2));
+    VersionedListDelta<MetaNode> unchanged = VersionedListDelta.diff(10, from, 10, from);
+    Assert.assertTrue(unchanged.isUnchanged());
+    Assert.assertSame(from, unchanged.apply(10, from));
+
+    VersionedList<MetaNode> to = new VersionedList<>(2, Lists.newArrayList(meta2, meta3));
+    VersionedListDelta<MetaNode> delta = VersionedListDelta.diff(10, from, 11, to);
+    Assert.assertEquals(Lists.newArrayList(meta3), delta.getChanges());
+    Assert.assertEquals(Lists.newArrayList("192.168.1.1"), delta.getRemoves());
+    VersionedList<MetaNode> applied = delta.apply(10, from);
+    Assert.assertEquals(2, applied.getEpoch());
+    Assert.assertEquals(
+        Sets.newHashSet(to.getClusterMembers()), Sets.newHashSet(applied.getClusterMembers()));
+
+    try {
+      delta.apply(11, to);
+      Assert.fail();
+    } catch (RuntimeException expected) {
+    }
+  }
+}
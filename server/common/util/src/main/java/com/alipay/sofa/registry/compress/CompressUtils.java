@@ -21,10 +21,14 @@ import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.metrics.CounterFunc;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.github.luben.zstd.ZstdDictTrainer;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.util.Assert;
@@ -45,8 +49,92 @@ public final class CompressUtils {
         }
       };
 
-  public static Compressor mustGet(String encode) {
+  // dictId -> compressor, dictionaries are only appended, a frame compressed with a dict must
+  // always be decompressable by the peer which advertised it
+  private static final Map<Integer, Compressor.ZstdDictCompressor> zstdDictMap =
+      new TreeMap<>(Collections.reverseOrder());
+
+  private static volatile Map<String, Compressor> dictCompressorMap = Collections.emptyMap();
+
+  private static volatile String[] acceptEncodes = CompressConstants.defaultCompressEncodes;
+
+  public static String zstdDictEncoding(int dictId) {
+    return CompressConstants.encodingZstdDictPrefix + dictId;
+  }
+
+  /**
+   * register a trained zstd dictionary as encoding zstd-dict-{dictId}
+   *
+   * @param dictId dictId
+   * @param dict dict
+   * @return false if the dictId has been registered
+   */
+  public static synchronized boolean registerZstdDict(int dictId, byte[] dict) {
+    Assert.isTrue(dictId > 0, StringFormatter.format("illegal zstd dictId {}", dictId));
+    Assert.isTrue(!ArrayUtils.isEmpty(dict), "empty zstd dict");
+    Compressor.ZstdDictCompressor exist = zstdDictMap.get(dictId);
+    if (exist != null) {
+      if (!Arrays.equals(exist.getDict(), dict)) {
+        LOG.error("conflict zstd dict {}, the registered one is kept", dictId);
+      }
+      return false;
+    }
+    Compressor.ZstdDictCompressor compressor =
+        new Compressor.ZstdDictCompressor(zstdDictEncoding(dictId), dict);
+    zstdDictMap.put(dictId, compressor);
+
+    Map<String, Compressor> compressors = new HashMap<>(zstdDictMap.size());
+    String[] encodes =
+        new String[zstdDictMap.size() + CompressConstants.defaultCompressEncodes.length];
+    int i = 0;
+    for (Compressor.ZstdDictCompressor c : zstdDictMap.values()) {
+      compressors.put(c.getEncoding(), c);
+      encodes[i++] = c.getEncoding();
+    }
+    for (String encode : CompressConstants.defaultCompressEncodes) {
+      encodes[i++] = encode;
+    }
+    dictCompressorMap = compressors;
+    acceptEncodes = encodes;
+    LOG.info("register zstd dict {}, size={}", dictId, dict.length);
+    return true;
+  }
+
+  /**
+   * the encodes this process could decompress, the newest registered dict first
+   *
+   * @return String[]
+   */
+  public static String[] acceptEncodes() {
+    return acceptEncodes;
+  }
+
+  public static byte[] trainZstdDict(Collection<byte[]> samples, int dictSize) {
+    Assert.isTrue(!samples.isEmpty(), "empty samples for zstd dict");
+    long sampleSize = 0;
+    for (byte[] sample : samples) {
+      sampleSize += sample.length;
+    }
+    ZstdDictTrainer trainer =
+        new ZstdDictTrainer((int) Math.min(sampleSize, Integer.MAX_VALUE), dictSize);
+    for (byte[] sample : samples) {
+      if (!trainer.addSample(sample)) {
+        break;
+      }
+    }
+    return trainer.trainSamples();
+  }
+
+  private static Compressor get(String encode) {
     Compressor compressor = compressorMap.get(encode);
+    if (compressor == null) {
+      compressor = dictCompressorMap.get(encode);
+    }
+    return compressor;
+  }
+
+  public static Compressor mustGet(String encode) {
+    Compressor compressor = get(encode);
     Assert.notNull(compressor, StringFormatter.format("compress {} not found", encode));
     return compressor;
   }
@@ -63,7 +151,7 @@ public final class CompressUtils {
       if (forbidEncodes.contains(encoding)) {
         continue;
       }
-      Compressor compressor = compressorMap.get(encoding);
+      Compressor compressor = get(encoding);
       if (compressor != null) {
         return compressor;
       }
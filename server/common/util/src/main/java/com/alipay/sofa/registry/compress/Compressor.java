@@ -85,4 +85,42 @@ public abstract class Compressor {
       return Zstd.decompress(data, decompressedSize);
     }
   }
+
+  public static class ZstdDictCompressor extends Compressor {
+    private final String encoding;
+    private final byte[] dict;
+    private final ZstdDictCompress dictCompress;
+    private final ZstdDictDecompress dictDecompress;
+
+    public ZstdDictCompressor(String encoding, byte[] dict) {
+      this.encoding = encoding;
+      this.dict = dict;
+      this.dictCompress = new ZstdDictCompress(dict, CompressConstants.defaultZstdLevel);
+      this.dictDecompress = new ZstdDictDecompress(dict);
+    }
+
+    @Override
+    public String getEncoding() {
+      return encoding;
+    }
+
+    /**
+     * Getter method for property <tt>dict</tt>.
+     *
+     * @return property value of dict
+     */
+    public byte[] getDict() {
+      return dict;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) throws Exception {
+      return Zstd.compress(data, dictCompress);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int decompressedSize) throws Exception {
+      return Zstd.decompress(data, dictDecompress, decompressedSize);
+    }
+  }
 }
@@ -19,12 +19,15 @@ package com.alipay.sofa.registry.compress;
 import com.alipay.sofa.registry.TestUtils;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.collect.Sets;
 import com.google.common.io.CharStreams;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -137,6 +140,52 @@ public class CompressorTest {
     Assert.assertEquals("zstd", CompressUtils.normalizeEncode("zstd"));
   }
 
+  @Test
+  public void testZstdDict() throws Exception {
+    List<byte[]> samples = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      samples.add(
+          StringFormatter.format(
+                  "bolt://10.{}.{}.{}:12200?_TIMEOUT=3000&p=1&_SERIALIZETYPE=hessian2&app_name=app{}"
+                      + "&v=4.0&_WARMUPTIME=0&_WARMUPWEIGHT=10&zone=GZ00{}&_WEIGHT=100",
+                  i % 7,
+                  i % 13,
+                  i,
+                  i % 31,
+                  (char) ('A' + i % 5))
+              .getBytes(StandardCharsets.UTF_8));
+    }
+    byte[] dict = CompressUtils.trainZstdDict(samples, 4096);
+    Assert.assertTrue(dict.length > 0);
+
+    final int dictId = 1000 + new Random().nextInt(10000);
+    final String encoding = CompressUtils.zstdDictEncoding(dictId);
+    Assert.assertNull(CompressUtils.find(new String[] {encoding}));
+    Assert.assertTrue(CompressUtils.registerZstdDict(dictId, dict));
+    Assert.assertFalse(CompressUtils.registerZstdDict(dictId, dict));
+    Assert.assertFalse(CompressUtils.registerZstdDict(dictId, new byte[] {1, 2, 3}));
+    Assert.assertEquals(encoding, CompressUtils.acceptEncodes()[0]);
+    Assert.assertEquals(
+        CompressConstants.encodingZstd,
+        CompressUtils.acceptEncodes()[CompressUtils.acceptEncodes().length - 1]);
+
+    Compressor c = CompressUtils.find(new String[] {"zstd-dict-0", encoding, "zstd"});
+    Assert.assertEquals(encoding, c.getEncoding());
+    Assert.assertEquals(c, CompressUtils.mustGet(encoding));
+    final byte[] src = samples.get(10);
+    byte[] zdata = c.compress(src);
+    Assert.assertArrayEquals(src, c.decompress(zdata, src.length));
+    LOG.info(
+        "zstd-dict src: {} dst: {}, zstd dst: {}",
+        src.length,
+        zdata.length,
+        CompressUtils.mustGet("zstd").compress(src).length);
+    Assert.assertTrue(zdata.length < CompressUtils.mustGet("zstd").compress(src).length);
+
+    TestUtils.assertException(
+        IllegalArgumentException.class, () -> CompressUtils.registerZstdDict(0, dict));
+  }
+
   @Test
   public void testNewExec() {
     Random r = new Random();
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.remoting.CustomSerializer;
+import com.alipay.remoting.CustomSerializerManager;
+import com.alipay.remoting.InvokeContext;
+import com.alipay.remoting.exception.DeserializationException;
+import com.alipay.remoting.rpc.RequestCommand;
+import com.alipay.remoting.rpc.ResponseCommand;
+import com.alipay.remoting.rpc.RpcCommand;
+import com.alipay.remoting.rpc.protocol.RpcRequestCommand;
+import com.alipay.remoting.rpc.protocol.RpcResponseCommand;
+import com.alipay.sofa.registry.common.model.codec.MessageCodecs;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+
+/**
+ * the custom serializer of the internal messages supported by {@link MessageCodecs}. the content is
+ * encoded only if {@link MessageCodecs#isEncodeEnabled()}, and decoded if it has the magic of the
+ * codec, otherwise returns false and bolt falls back to hessian
+ */
+public class MessageCodecCustomSerializer implements CustomSerializer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MessageCodecCustomSerializer.class);
+
+  private static final MessageCodecCustomSerializer INSTANCE = new MessageCodecCustomSerializer();
+
+  /**
+   * idempotent, the data and session servers in the same jvm both register it, bolt rejects the
+   * second registration of a class
+   */
+  public static synchronized void registerAll() {
+    for (Class<?> type : MessageCodecs.supportedTypes()) {
+      if (CustomSerializerManager.getCustomSerializer(type.getName()) == INSTANCE) {
+        continue;
+      }
+      CustomSerializerManager.registerCustomSerializer(type.getName(), INSTANCE);
+    }
+  }
+
+  @Override
+  public <T extends RequestCommand> boolean serializeHeader(
+      T request, InvokeContext invokeContext) {
+    return false;
+  }
+
+  @Override
+  public <T extends ResponseCommand> boolean serializeHeader(T response) {
+    return false;
+  }
+
+  @Override
+  public <T extends RequestCommand> boolean deserializeHeader(T request) {
+    return false;
+  }
+
+  @Override
+  public <T extends ResponseCommand> boolean deserializeHeader(
+      T response, InvokeContext invokeContext) {
+    return false;
+  }
+
+  @Override
+  public <T extends RequestCommand> boolean serializeContent(
+      T request, InvokeContext invokeContext) {
+    if (request instanceof RpcRequestCommand) {
+      return encode(request, ((RpcRequestCommand) request).getRequestObject());
+    }
+    return false;
+  }
+
+  @Override
+  public <T extends ResponseCommand> boolean serializeContent(T response) {
+    if (response instanceof RpcResponseCommand) {
+      return encode(response, ((RpcResponseCommand) response).getResponseObject());
+    }
+    return false;
+  }
+
+  @Override
+  public <T extends RequestCommand> boolean deserializeContent(T request)
+      throws DeserializationException {
+    if (request instanceof RpcRequestCommand) {
+      RpcRequestCommand requestCommand = (RpcRequestCommand) request;
+      if (MessageCodecs.isEncoded(requestCommand.getContent())) {
+        requestCommand.setRequestObject(
+            decode(requestCommand.getContent(), requestCommand.getRequestClass()));
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public <T extends ResponseCommand> boolean deserializeContent(
+      T response, InvokeContext invokeContext) throws DeserializationException {
+    if (response instanceof RpcResponseCommand) {
+      RpcResponseCommand responseCommand = (RpcResponseCommand) response;
+      if (MessageCodecs.isEncoded(responseCommand.getContent())) {
+        responseCommand.setResponseObject(
+            decode(responseCommand.getContent(), responseCommand.getResponseClass()));
+        return true;
+      }
+    }
+    return false;
+  }
+
+  static boolean encode(RpcCommand cmd, Object obj) {
+    if (!MessageCodecs.isEncodeEnabled()) {
+      return false;
+    }
+    try {
+      byte[] bytes = MessageCodecs.encode(obj);
+      if (bytes == null) {
+        return false;
+      }
+      cmd.setContent(bytes);
+      return true;
+    } catch (Throwable e) {
+      // fall back to hessian
+      LOGGER.error("[bolt] encode by codec error, {}", obj.getClass().getName(), e);
+      return false;
+    }
+  }
+
+  static Object decode(byte[] content, String className) throws DeserializationException {
+    final Object obj;
+    try {
+      obj = MessageCodecs.decode(content);
+    } catch (Throwable e) {
+      throw new DeserializationException("decode by codec error, " + className, e);
+    }
+    if (obj == null || !obj.getClass().getName().equals(className)) {
+      throw new DeserializationException(
+          "decode by codec mismatch, expect="
+              + className
+              + ", actual="
+              + (obj == null ? null : obj.getClass().getName()));
+    }
+    return obj;
+  }
+}
@@ -20,9 +20,10 @@ import com.alipay.remoting.exception.CodecException;
 import com.alipay.remoting.exception.DeserializationException;
 import com.alipay.remoting.exception.SerializationException;
 import com.alipay.remoting.serialization.Serializer;
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -36,11 +37,12 @@ public class ProtobufSerializer implements Serializer {
 
   public static final byte PROTOCOL_PROTOBUF = 11;
 
-  /** cache parse method */
-  private final ConcurrentHashMap<Class, Method> parseMethodMap = new ConcurrentHashMap<>();
-
-  /** cache toByteArray method */
-  private final ConcurrentHashMap<Class, Method> toByteArrayMethodMap = new ConcurrentHashMap<>();
+  /**
+   * the parsers keyed by class name, the messages are registered at startup, the others are
+   * resolved by reflection only at the first time
+   */
+  private final ConcurrentHashMap<String, Parser<? extends MessageLite>> parserMap =
+      new ConcurrentHashMap<>();
 
   private static final ProtobufSerializer instance = new ProtobufSerializer();
 
@@ -50,34 +52,24 @@ public class ProtobufSerializer implements Serializer {
     return instance;
   }
 
+  /**
+   * register the parser of the message
+   *
+   * @param defaultInstance the default instance of the message, e.g. XxxPb.getDefaultInstance()
+   */
+  public void registerMessage(MessageLite defaultInstance) {
+    if (defaultInstance == null) {
+      throw new IllegalArgumentException("message can not be null");
+    }
+    parserMap.put(defaultInstance.getClass().getName(), defaultInstance.getParserForType());
+  }
+
   @Override
   public byte[] serialize(Object object) throws CodecException {
     if (object == null) {
       throw new SerializationException("Unsupported null message");
-    } else if (isProtoBufMessageLite(object)) {
-      Class clazz = object.getClass();
-      Method method = toByteArrayMethodMap.get(clazz);
-      if (method == null) {
-        try {
-          method = clazz.getMethod("toByteArray");
-          method.setAccessible(true);
-          toByteArrayMethodMap.put(clazz, method);
-        } catch (Exception e) {
-          throw new SerializationException(
-              "Cannot found method "
-                  + clazz.getName()
-                  + ".toByteArray(), please check the generated code");
-        }
-      }
-      try {
-        return (byte[]) method.invoke(object);
-      } catch (Exception e) {
-        throw new SerializationException(
-            "Cannot found method "
-                + clazz.getName()
-                + ".toByteArray(), please check the generated code");
-      }
-
+    } else if (object instanceof MessageLite) {
+      return ((MessageLite) object).toByteArray();
     } else if (object instanceof String) {
       return ((String) object).getBytes(StandardCharsets.UTF_8);
     } else {
@@ -88,6 +80,10 @@ public class ProtobufSerializer implements Serializer {
 
   @Override
   public <T> T deserialize(byte[] data, String classOfT) throws CodecException {
+    Parser<? extends MessageLite> parser = parserMap.get(classOfT);
+    if (parser != null) {
+      return (T) parse(data, parser, classOfT);
+    }
     try {
       Class requestClass = Class.forName(classOfT);
       return (T) decode(data, requestClass);
@@ -98,29 +94,7 @@ public class ProtobufSerializer implements Serializer {
 
   public Object decode(byte[] bytes, Class clazz) throws DeserializationException {
     if (isProtoBufMessageLite(clazz)) {
-      try {
-        Method method = parseMethodMap.get(clazz);
-        if (method == null) {
-          method = clazz.getMethod("parseFrom", byte[].class);
-          if (!Modifier.isStatic(method.getModifiers())) {
-            throw new CodecException(
-                "Cannot found method "
-                    + clazz.getName()
-                    + ".parseFrom(byte[]), please check the generated code");
-          }
-          method.setAccessible(true);
-          parseMethodMap.put(clazz, method);
-        }
-        return method.invoke(null, bytes);
-      } catch (DeserializationException e) {
-        throw e;
-      } catch (Exception e) {
-        throw new DeserializationException(
-            "Cannot found method "
-                + clazz.getName()
-                + ".parseFrom(byte[]), please check the generated code",
-            e);
-      }
+      return parse(bytes, parserOf(clazz), clazz.getName());
     } else if (clazz == String.class) {
       return new String(bytes, StandardCharsets.UTF_8);
     } else {
@@ -129,55 +103,48 @@ public class ProtobufSerializer implements Serializer {
     }
   }
 
-  public static boolean isProtoBufMessageLite(Object object) {
-    Class clzz = object == null ? null : object.getClass();
-    return isProtoBufMessageLite(clzz);
-  }
-
-  private static boolean isProtoBufMessageLite(Class clzz) {
-    if (clzz != null) {
-      return isSpecificationInterface(clzz, MessageLite.class.getCanonicalName());
+  private Parser<? extends MessageLite> parserOf(Class clazz) throws DeserializationException {
+    Parser<? extends MessageLite> parser = parserMap.get(clazz.getName());
+    if (parser != null) {
+      return parser;
     }
-    return false;
+    try {
+      Method method = clazz.getMethod("getDefaultInstance");
+      parser = ((MessageLite) method.invoke(null)).getParserForType();
+    } catch (Exception e) {
+      throw new DeserializationException(
+          "Cannot found method "
+              + clazz.getName()
+              + ".getDefaultInstance(), please check the generated code",
+          e);
+    }
+    Parser<? extends MessageLite> exist = parserMap.putIfAbsent(clazz.getName(), parser);
+    return exist != null ? exist : parser;
   }
 
   /**
-   * whether clazz has a interface named interfaceName
-   *
-   * @param clazz
-   * @param interfaceName
-   * @return
+   * the bytes fields of the message share the content instead of copying, the content is owned by
+   * the command and never reused
    */
-  private static boolean isSpecificationInterface(Class<?> clazz, String interfaceName) {
-
-    boolean find = false;
-
-    // First, get all direct interface
-    Class<?>[] interfaces = clazz.getInterfaces();
-    if (interfaces.length > 0) {
-      for (Class<?> interfaze : interfaces) {
-        find = interfaceName.equalsIgnoreCase(interfaze.getCanonicalName());
-        if (find) {
-          break;
-        }
-      }
+  private static MessageLite parse(
+      byte[] bytes, Parser<? extends MessageLite> parser, String className)
+      throws DeserializationException {
+    try {
+      CodedInputStream input = CodedInputStream.newInstance(bytes);
+      input.enableAliasing(true);
+      MessageLite message = parser.parseFrom(input);
+      input.checkLastTagWas(0);
+      return message;
+    } catch (Exception e) {
+      throw new DeserializationException("Failed to parse " + className, e);
     }
-    while (!Object.class.getCanonicalName().equals(clazz.getCanonicalName()) && !find) {
-      // Add the super class
-      Class<?> superClass = clazz.getSuperclass();
-
-      // Interfaces does not have java,lang.Object as superclass, they have null, so break the cycle
-      // and return
-      if (superClass == null) {
-        break;
-      }
-
-      // Now inspect the superclass
-      clazz = superClass;
+  }
 
-      find = isSpecificationInterface(clazz, interfaceName);
-    }
+  public static boolean isProtoBufMessageLite(Object object) {
+    return object instanceof MessageLite;
+  }
 
-    return find;
+  private static boolean isProtoBufMessageLite(Class clzz) {
+    return clzz != null && MessageLite.class.isAssignableFrom(clzz);
   }
 }
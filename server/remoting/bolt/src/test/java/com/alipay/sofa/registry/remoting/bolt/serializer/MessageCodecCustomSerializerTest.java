@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.remoting.CustomSerializerManager;
+import com.alipay.remoting.exception.DeserializationException;
+import com.alipay.remoting.rpc.HeartbeatAckCommand;
+import com.alipay.remoting.rpc.HeartbeatCommand;
+import com.alipay.remoting.rpc.protocol.RpcRequestCommand;
+import com.alipay.remoting.rpc.protocol.RpcResponseCommand;
+import com.alipay.sofa.registry.common.model.codec.MessageCodecs;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MessageCodecCustomSerializerTest {
+  private final MessageCodecCustomSerializer serializer = new MessageCodecCustomSerializer();
+
+  @After
+  public void after() {
+    MessageCodecs.setEncodeEnabled(false);
+  }
+
+  private static DataChangeRequest newRequest() {
+    return new DataChangeRequest("dc", Collections.singletonMap("a", DatumVersion.of(1)), null);
+  }
+
+  @Test
+  public void testRegister() {
+    MessageCodecCustomSerializer.registerAll();
+    // registered again by another server in the same jvm
+    MessageCodecCustomSerializer.registerAll();
+    Assert.assertTrue(
+        CustomSerializerManager.getCustomSerializer(DataChangeRequest.class.getName())
+            instanceof MessageCodecCustomSerializer);
+  }
+
+  @Test
+  public void testHeader() {
+    Assert.assertFalse(serializer.serializeHeader(null, null));
+    Assert.assertFalse(serializer.serializeHeader(null));
+    Assert.assertFalse(serializer.deserializeHeader(null, null));
+    Assert.assertFalse(serializer.deserializeHeader(null));
+  }
+
+  @Test
+  public void testSerdeNotRpcCommand() throws Exception {
+    MessageCodecs.setEncodeEnabled(true);
+    Assert.assertFalse(serializer.serializeContent(new HeartbeatCommand(), null));
+    Assert.assertFalse(serializer.serializeContent(new HeartbeatAckCommand()));
+    Assert.assertFalse(serializer.deserializeContent(new HeartbeatCommand()));
+    Assert.assertFalse(serializer.deserializeContent(new HeartbeatAckCommand(), null));
+  }
+
+  @Test
+  public void testSerdeReq() throws Exception {
+    RpcRequestCommand command = new RpcRequestCommand(newRequest());
+    // disabled, fall back to hessian
+    Assert.assertFalse(serializer.serializeContent(command, null));
+    Assert.assertNull(command.getContent());
+
+    MessageCodecs.setEncodeEnabled(true);
+    Assert.assertTrue(serializer.serializeContent(command, null));
+    Assert.assertTrue(MessageCodecs.isEncoded(command.getContent()));
+
+    // class mismatch
+    command.setRequestClass(String.class.getName());
+    try {
+      serializer.deserializeContent(command);
+      Assert.fail("expect DeserializationException");
+    } catch (DeserializationException e) {
+    }
+
+    // decode even if the encoding is disabled
+    MessageCodecs.setEncodeEnabled(false);
+    command.setRequestClass(DataChangeRequest.class.getName());
+    Assert.assertTrue(serializer.deserializeContent(command));
+    DataChangeRequest decoded = (DataChangeRequest) command.getRequestObject();
+    Assert.assertEquals("dc", decoded.getDataCenter());
+
+    // not encoded by codec, fall back to hessian
+    command.setContent(new byte[] {'C', 1, 2, 3});
+    Assert.assertFalse(serializer.deserializeContent(command));
+
+    // broken
+    command.setContent(new byte[] {MessageCodecs.MAGIC_0, MessageCodecs.MAGIC_1, 1, 100});
+    try {
+      serializer.deserializeContent(command);
+      Assert.fail("expect DeserializationException");
+    } catch (DeserializationException e) {
+    }
+
+    // not supported
+    MessageCodecs.setEncodeEnabled(true);
+    Assert.assertFalse(serializer.serializeContent(new RpcRequestCommand("str"), null));
+  }
+
+  @Test
+  public void testSerdeRep() throws Exception {
+    MessageCodecs.setEncodeEnabled(true);
+    RpcResponseCommand command = new RpcResponseCommand();
+    command.setResponseObject(SlotAccessGenericResponse.failedResponse("err"));
+    Assert.assertTrue(serializer.serializeContent(command));
+
+    command.setResponseClass(SlotAccessGenericResponse.class.getName());
+    Assert.assertTrue(serializer.deserializeContent(command, null));
+    SlotAccessGenericResponse decoded = (SlotAccessGenericResponse) command.getResponseObject();
+    Assert.assertFalse(decoded.isSuccess());
+    Assert.assertEquals("err", decoded.getMessage());
+
+    command.setResponseObject(new RuntimeException());
+    Assert.assertFalse(serializer.serializeContent(command));
+  }
+}
@@ -18,7 +18,9 @@ package com.alipay.sofa.registry.remoting.bolt.serializer;
 
 import com.alipay.remoting.exception.DeserializationException;
 import com.alipay.remoting.exception.SerializationException;
+import com.alipay.sofa.registry.common.model.client.pb.ReceivedDataPb;
 import com.alipay.sofa.registry.remoting.bolt.TestUtils;
+import com.google.protobuf.ByteString;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -38,4 +40,31 @@ public class ProtobufSerializerTest {
     Assert.assertFalse(ProtobufSerializer.isProtoBufMessageLite(new Integer(10)));
     Assert.assertFalse(ProtobufSerializer.isProtoBufMessageLite("xx"));
   }
+
+  @Test
+  public void testSerde() throws Exception {
+    ProtobufSerializer serializer = ProtobufSerializer.getInstance();
+    ReceivedDataPb data =
+        ReceivedDataPb.newBuilder()
+            .setDataId("testDataId")
+            .setVersion(100)
+            .setBody(ByteString.copyFrom(new byte[] {1, 2, 3}))
+            .build();
+    byte[] bytes = serializer.serialize(data);
+    Assert.assertArrayEquals(data.toByteArray(), bytes);
+
+    // not registered, resolve by reflection
+    Assert.assertEquals(data, serializer.deserialize(bytes, ReceivedDataPb.class.getName()));
+    Assert.assertEquals(data, serializer.decode(bytes, ReceivedDataPb.class));
+
+    serializer.registerMessage(ReceivedDataPb.getDefaultInstance());
+    Assert.assertEquals(data, serializer.deserialize(bytes, ReceivedDataPb.class.getName()));
+    Assert.assertEquals("xx", serializer.deserialize("xx".getBytes(), String.class.getName()));
+
+    TestUtils.assertRunException(
+        DeserializationException.class,
+        () -> serializer.deserialize(new byte[] {1, 2, 3}, ReceivedDataPb.class.getName()));
+    TestUtils.assertRunException(
+        IllegalArgumentException.class, () -> serializer.registerMessage(null));
+  }
 }
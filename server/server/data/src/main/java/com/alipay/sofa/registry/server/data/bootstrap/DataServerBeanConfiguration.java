@@ -27,10 +27,12 @@ import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
 import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
 import com.alipay.sofa.registry.server.data.multi.cluster.sync.info.FetchMultiSyncService;
 import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
+import com.alipay.sofa.registry.server.data.providedata.FetchCompressDictService;
 import com.alipay.sofa.registry.server.data.providedata.FetchStopPushService;
 import com.alipay.sofa.registry.server.data.remoting.DataMetaServerManager;
 import com.alipay.sofa.registry.server.data.remoting.DataNodeExchanger;
 import com.alipay.sofa.registry.server.data.remoting.SessionNodeExchanger;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.SlotFollowerChangeLogRequestHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.SlotFollowerDiffDigestRequestHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.SlotFollowerDiffPublisherRequestHandler;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.MetaServerServiceImpl;
@@ -39,6 +41,7 @@ import com.alipay.sofa.registry.server.data.remoting.metaserver.handler.RemoteDa
 import com.alipay.sofa.registry.server.data.remoting.metaserver.provideData.ProvideDataProcessorManager;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.provideData.processor.SessionLeaseProvideDataProcessor;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.*;
+import com.alipay.sofa.registry.server.data.resource.CompressDictResource;
 import com.alipay.sofa.registry.server.data.resource.DataDigestResource;
 import com.alipay.sofa.registry.server.data.resource.DatumApiResource;
 import com.alipay.sofa.registry.server.data.resource.HealthResource;
@@ -47,6 +50,7 @@ import com.alipay.sofa.registry.server.data.slot.SlotAccessorDelegate;
 import com.alipay.sofa.registry.server.data.slot.SlotChangeListenerManager;
 import com.alipay.sofa.registry.server.data.slot.SlotManager;
 import com.alipay.sofa.registry.server.data.slot.SlotManagerImpl;
+import com.alipay.sofa.registry.server.data.snapshot.DatumSnapshotManager;
 import com.alipay.sofa.registry.server.data.timer.CacheCountTask;
 import com.alipay.sofa.registry.server.data.timer.CacheDigestTask;
 import com.alipay.sofa.registry.server.shared.config.CommonConfig;
@@ -160,6 +164,12 @@ public class DataServerBeanConfiguration {
     public DiskSlotTableRecorder diskSlotTableRecorder() {
       return new DiskSlotTableRecorder();
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DatumSnapshotManager datumSnapshotManager() {
+      return new DatumSnapshotManager();
+    }
   }
 
   @Configuration
@@ -204,6 +214,7 @@ public class DataServerBeanConfiguration {
       Collection<AbstractServerHandler> list = new ArrayList<>();
       list.add(getDataHandler());
       list.add(getMultiDataHandler());
+      list.add(getMultiDataBatchHandler());
       list.add(batchPutDataHandler());
       list.add(getDataVersionsHandler());
       return list;
@@ -214,6 +225,7 @@ public class DataServerBeanConfiguration {
       Collection<AbstractServerHandler> list = new ArrayList<>();
       list.add(slotFollowerDiffDataInfoIdRequestHandler());
       list.add(slotFollowerDiffPublisherRequestHandler());
+      list.add(slotFollowerChangeLogRequestHandler());
       return list;
     }
 
@@ -236,6 +248,11 @@ public class DataServerBeanConfiguration {
       return new GetMultiDataHandler();
     }
 
+    @Bean
+    public AbstractServerHandler getMultiDataBatchHandler() {
+      return new GetMultiDataBatchHandler();
+    }
+
     @Bean
     public AbstractServerHandler slotFollowerDiffDataInfoIdRequestHandler() {
       return new SlotFollowerDiffDigestRequestHandler();
@@ -246,6 +263,11 @@ public class DataServerBeanConfiguration {
       return new SlotFollowerDiffPublisherRequestHandler();
     }
 
+    @Bean
+    public AbstractServerHandler slotFollowerChangeLogRequestHandler() {
+      return new SlotFollowerChangeLogRequestHandler();
+    }
+
     @Bean
     public AbstractServerHandler getDataVersionsHandler() {
       return new GetDataVersionsHandler();
@@ -320,6 +342,11 @@ public class DataServerBeanConfiguration {
       return new DatumApiResource();
     }
 
+    @Bean
+    public CompressDictResource compressDictResource() {
+      return new CompressDictResource();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public DataDigestResource dataDigestResource() {
@@ -436,6 +463,14 @@ public class DataServerBeanConfiguration {
       return compressDatumService;
     }
 
+    @Bean
+    public FetchSystemPropertyService fetchCompressDictService(
+        SystemPropertyProcessorManager systemPropertyProcessorManager) {
+      FetchCompressDictService fetchCompressDictService = new FetchCompressDictService();
+      systemPropertyProcessorManager.addSystemDataProcessor(fetchCompressDictService);
+      return fetchCompressDictService;
+    }
+
     @Bean
     public FetchSystemPropertyService fetchStopPushService(
         SystemPropertyProcessorManager systemPropertyProcessorManager) {
@@ -28,6 +28,7 @@ import com.alipay.sofa.registry.metrics.TaskMetrics;
 import com.alipay.sofa.registry.net.NetUtil;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.bolt.serializer.MessageCodecCustomSerializer;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
 import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
@@ -142,6 +143,8 @@ public class DataServerBootstrap {
 
       ReporterUtils.enablePrometheusDefaultExports();
 
+      MessageCodecCustomSerializer.registerAll();
+
       openDataServer();
 
       openDataSyncServer();
@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.server.shared.config.CommonConfig;
 import com.alipay.sofa.registry.server.shared.config.ServerShareConfig;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.alipay.sofa.registry.util.OsUtils;
+import java.io.File;
 import java.util.Collection;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.commons.lang.builder.ToStringStyle;
@@ -100,11 +101,37 @@ public class DataServerConfig implements ServerShareConfig {
   private int slotFollowerSyncLeaderExecutorQueueSize = 10000;
   private volatile int slotFollowerSyncLeaderIntervalSecs = 180;
 
+  // the leader keeps the recent publisher changes of each slot, 0 means disable
+  private int slotChangeLogCapacity = 8192;
+
+  // the follower pulls the change log of the leader at each watching, the digest sync by
+  // slotFollowerSyncLeaderIntervalSecs is the fallback
+  private volatile boolean slotFollowerSyncLeaderLogEnable = true;
+
+  // the publishers of the slots are snapshot to local disk and restored at restart, then only the
+  // digest diff need to be synced from sessions and the leader
+  private boolean datumSnapshotEnable = false;
+
+  private String datumSnapshotDir =
+      System.getProperty("user.home") + File.separator + "registry" + File.separator + "snapshot";
+
+  private volatile int datumSnapshotIntervalSecs = 60;
+
+  // the snapshot older than it would not be restored
+  private volatile int datumSnapshotMaxAgeSecs = 60 * 10;
+
   // the publisher.digest if len(registerId/uuid+long+long), 50bytes
   private volatile int slotSyncPublisherDigestMaxNum = 4000;
 
   private volatile int slotSyncPublisherMaxNum = 512;
 
+  // use the incremental commutative digest to sync slot leader, fallback to sorted digest if the
+  // leader not support
+  private volatile boolean slotSyncCommutativeDigestEnable = true;
+
+  // exchange the hash tree of the commutative digests, only the root is sent if the slot is in sync
+  private volatile boolean slotSyncMerkleDigestEnable = true;
+
   private int slotSyncRequestExecutorMinPoolSize = OsUtils.getCpuCount() * 3;
 
   private int slotSyncRequestExecutorMaxPoolSize = OsUtils.getCpuCount() * 3;
@@ -474,6 +501,43 @@ public class DataServerConfig implements ServerShareConfig {
     this.slotSyncPublisherDigestMaxNum = slotSyncPublisherDigestMaxNum;
   }
 
+  /**
+   * Getter method for property <tt>slotSyncCommutativeDigestEnable</tt>.
+   *
+   * @return property value of slotSyncCommutativeDigestEnable
+   */
+  public boolean isSlotSyncCommutativeDigestEnable() {
+    return slotSyncCommutativeDigestEnable;
+  }
+
+  /**
+   * Setter method for property <tt>slotSyncCommutativeDigestEnable</tt>.
+   *
+   * @param slotSyncCommutativeDigestEnable value to be assigned to property
+   *     slotSyncCommutativeDigestEnable
+   */
+  public void setSlotSyncCommutativeDigestEnable(boolean slotSyncCommutativeDigestEnable) {
+    this.slotSyncCommutativeDigestEnable = slotSyncCommutativeDigestEnable;
+  }
+
+  /**
+   * Getter method for property <tt>slotSyncMerkleDigestEnable</tt>.
+   *
+   * @return property value of slotSyncMerkleDigestEnable
+   */
+  public boolean isSlotSyncMerkleDigestEnable() {
+    return slotSyncMerkleDigestEnable;
+  }
+
+  /**
+   * Setter method for property <tt>slotSyncMerkleDigestEnable</tt>.
+   *
+   * @param slotSyncMerkleDigestEnable value to be assigned to property slotSyncMerkleDigestEnable
+   */
+  public void setSlotSyncMerkleDigestEnable(boolean slotSyncMerkleDigestEnable) {
+    this.slotSyncMerkleDigestEnable = slotSyncMerkleDigestEnable;
+  }
+
   /**
    * Getter method for property <tt>slotSyncPublisherMaxNum</tt>.
    *
@@ -608,6 +672,115 @@ public class DataServerConfig implements ServerShareConfig {
     this.slotFollowerSyncLeaderIntervalSecs = slotFollowerSyncLeaderIntervalSecs;
   }
 
+  /**
+   * Getter method for property <tt>slotChangeLogCapacity</tt>.
+   *
+   * @return property value of slotChangeLogCapacity
+   */
+  public int getSlotChangeLogCapacity() {
+    return slotChangeLogCapacity;
+  }
+
+  /**
+   * Setter method for property <tt>slotChangeLogCapacity</tt>.
+   *
+   * @param slotChangeLogCapacity value to be assigned to property slotChangeLogCapacity
+   */
+  public void setSlotChangeLogCapacity(int slotChangeLogCapacity) {
+    this.slotChangeLogCapacity = slotChangeLogCapacity;
+  }
+
+  /**
+   * Getter method for property <tt>slotFollowerSyncLeaderLogEnable</tt>.
+   *
+   * @return property value of slotFollowerSyncLeaderLogEnable
+   */
+  public boolean isSlotFollowerSyncLeaderLogEnable() {
+    return slotFollowerSyncLeaderLogEnable;
+  }
+
+  /**
+   * Setter method for property <tt>slotFollowerSyncLeaderLogEnable</tt>.
+   *
+   * @param slotFollowerSyncLeaderLogEnable value to be assigned to property
+   *     slotFollowerSyncLeaderLogEnable
+   */
+  public void setSlotFollowerSyncLeaderLogEnable(boolean slotFollowerSyncLeaderLogEnable) {
+    this.slotFollowerSyncLeaderLogEnable = slotFollowerSyncLeaderLogEnable;
+  }
+
+  /**
+   * Getter method for property <tt>datumSnapshotEnable</tt>.
+   *
+   * @return property value of datumSnapshotEnable
+   */
+  public boolean isDatumSnapshotEnable() {
+    return datumSnapshotEnable;
+  }
+
+  /**
+   * Setter method for property <tt>datumSnapshotEnable</tt>.
+   *
+   * @param datumSnapshotEnable value to be assigned to property datumSnapshotEnable
+   */
+  public void setDatumSnapshotEnable(boolean datumSnapshotEnable) {
+    this.datumSnapshotEnable = datumSnapshotEnable;
+  }
+
+  /**
+   * Getter method for property <tt>datumSnapshotDir</tt>.
+   *
+   * @return property value of datumSnapshotDir
+   */
+  public String getDatumSnapshotDir() {
+    return datumSnapshotDir;
+  }
+
+  /**
+   * Setter method for property <tt>datumSnapshotDir</tt>.
+   *
+   * @param datumSnapshotDir value to be assigned to property datumSnapshotDir
+   */
+  public void setDatumSnapshotDir(String datumSnapshotDir) {
+    this.datumSnapshotDir = datumSnapshotDir;
+  }
+
+  /**
+   * Getter method for property <tt>datumSnapshotIntervalSecs</tt>.
+   *
+   * @return property value of datumSnapshotIntervalSecs
+   */
+  public int getDatumSnapshotIntervalSecs() {
+    return datumSnapshotIntervalSecs;
+  }
+
+  /**
+   * Setter method for property <tt>datumSnapshotIntervalSecs</tt>.
+   *
+   * @param datumSnapshotIntervalSecs value to be assigned to property datumSnapshotIntervalSecs
+   */
+  public void setDatumSnapshotIntervalSecs(int datumSnapshotIntervalSecs) {
+    this.datumSnapshotIntervalSecs = datumSnapshotIntervalSecs;
+  }
+
+  /**
+   * Getter method for property <tt>datumSnapshotMaxAgeSecs</tt>.
+   *
+   * @return property value of datumSnapshotMaxAgeSecs
+   */
+  public int getDatumSnapshotMaxAgeSecs() {
+    return datumSnapshotMaxAgeSecs;
+  }
+
+  /**
+   * Setter method for property <tt>datumSnapshotMaxAgeSecs</tt>.
+   *
+   * @param datumSnapshotMaxAgeSecs value to be assigned to property datumSnapshotMaxAgeSecs
+   */
+  public void setDatumSnapshotMaxAgeSecs(int datumSnapshotMaxAgeSecs) {
+    this.datumSnapshotMaxAgeSecs = datumSnapshotMaxAgeSecs;
+  }
+
   /**
    * Getter method for property <tt>slotLeaderSyncSessionExecutorQueueSize</tt>.
    *
@@ -21,9 +21,11 @@ import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
 import com.alipay.sofa.registry.common.model.slot.func.SlotFunction;
 import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.google.common.collect.Maps;
@@ -50,9 +52,17 @@ public class BaseDatumStorage {
 
   private final Map<Integer, PublisherGroups> publisherGroupsMap = Maps.newConcurrentMap();
 
+  // the capacity of the change log per slot, 0 means disable
+  private final int changeLogCapacity;
+
   public BaseDatumStorage(String dataCenter, Logger logger) {
+    this(dataCenter, logger, 0);
+  }
+
+  public BaseDatumStorage(String dataCenter, Logger logger, int changeLogCapacity) {
     this.dataCenter = dataCenter;
     this.logger = logger;
+    this.changeLogCapacity = changeLogCapacity;
   }
 
   private PublisherGroups getPublisherGroups(String dataInfoId) {
@@ -78,6 +88,11 @@ public class BaseDatumStorage {
     return groups == null ? null : groups.getDatum(dataInfoId);
   }
 
+  public SubDatum getSubDatum(String dataInfoId) {
+    final PublisherGroups groups = getPublisherGroups(dataInfoId);
+    return groups == null ? null : groups.getSubDatum(dataInfoId);
+  }
+
   public DatumVersion getVersion(String dataInfoId) {
     PublisherGroups groups = getPublisherGroups(dataInfoId);
     return groups == null ? null : groups.getVersion(dataInfoId);
@@ -180,6 +195,21 @@ public class BaseDatumStorage {
     return groups == null ? null : groups.remove(dataInfoId, sessionProcessId, removedPublishers);
   }
 
+  /**
+   * read the change log of the slot
+   *
+   * @param slotId slotId
+   * @param logEpoch logEpoch
+   * @param fromSeq fromSeq, negative means only return the head of the log
+   * @param maxNum maxNum
+   * @return null if the slot not exist or the change log is disable
+   */
+  public DataSlotChangeLogResult readChangeLog(
+      int slotId, long logEpoch, long fromSeq, int maxNum) {
+    PublisherGroups groups = getPublisherGroups(slotId);
+    return groups == null ? null : groups.readChangeLog(logEpoch, fromSeq, maxNum);
+  }
+
   public void foreach(int slotId, BiConsumer<String, PublisherGroup> f) {
     final PublisherGroups groups = publisherGroupsMap.get(slotId);
     if (groups != null) {
@@ -216,7 +246,7 @@ public class BaseDatumStorage {
     publisherGroupsMap.computeIfAbsent(
         slotId,
         k -> {
-          PublisherGroups groups = new PublisherGroups(dataCenter);
+          PublisherGroups groups = new PublisherGroups(dataCenter, changeLogCapacity);
           logger.info(
               "{} add publisherGroup {}, role={}, slotNum={}",
               dataCenter,
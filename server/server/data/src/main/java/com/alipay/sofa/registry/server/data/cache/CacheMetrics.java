@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import io.prometheus.client.Counter;
+
+public final class CacheMetrics {
+  private CacheMetrics() {}
+
+  private static final Counter SUB_DATUM_SNAPSHOT_COUNTER_ =
+      Counter.build()
+          .namespace("data")
+          .subsystem("cache")
+          .name("subDatum_snapshot_total")
+          .help("subDatum snapshot of publisher group")
+          .labelNames("type")
+          .register();
+
+  static final Counter.Child SUB_DATUM_SNAPSHOT_HIT_COUNTER =
+      SUB_DATUM_SNAPSHOT_COUNTER_.labels("hit");
+  static final Counter.Child SUB_DATUM_SNAPSHOT_MISS_COUNTER =
+      SUB_DATUM_SNAPSHOT_COUNTER_.labels("miss");
+}
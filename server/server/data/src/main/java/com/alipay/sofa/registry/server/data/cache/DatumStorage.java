@@ -21,7 +21,9 @@ import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
 import java.util.Collection;
 import java.util.List;
@@ -46,6 +48,16 @@ public interface DatumStorage {
    */
   Datum get(String dataCenter, String dataInfoId);
 
+  /**
+   * get the immutable snapshot of datum by specific dataInfoId, the snapshot is shared by readers
+   * until the version of datum changed
+   *
+   * @param dataCenter dataCenter
+   * @param dataInfoId dataInfoId
+   * @return SubDatum
+   */
+  SubDatum getSubDatum(String dataCenter, String dataInfoId);
+
   DatumVersion getVersion(String dataCenter, String dataInfoId);
 
   Map<String, DatumVersion> getVersions(
@@ -91,6 +103,9 @@ public interface DatumStorage {
 
   SlotChangeListener getSlotChangeListener(boolean localDataCenter);
 
+  DataSlotChangeLogResult readChangeLog(
+      String dataCenter, int slotId, long logEpoch, long fromSeq, int maxNum);
+
   Set<ProcessId> getSessionProcessIds(String dataCenter);
 
   Map<String, Integer> compact(String dataCenter, long tombstoneTimestamp);
@@ -21,7 +21,9 @@ import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.multi.cluster.storage.MultiClusterDatumStorage;
 import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
@@ -48,7 +50,8 @@ public class DatumStorageDelegate implements DatumStorage {
 
   public DatumStorageDelegate(DataServerConfig dataServerConfig) {
     this.localDataCenter = dataServerConfig.getLocalDataCenter();
-    this.localDatumStorage = new LocalDatumStorage(localDataCenter);
+    this.localDatumStorage =
+        new LocalDatumStorage(localDataCenter, dataServerConfig.getSlotChangeLogCapacity());
     this.multiClusterDatumStorage = new MultiClusterDatumStorage();
   }
 
@@ -72,6 +75,11 @@ public class DatumStorageDelegate implements DatumStorage {
     return storageOf(dataCenter).get(dataCenter, dataInfoId);
   }
 
+  @Override
+  public SubDatum getSubDatum(String dataCenter, String dataInfoId) {
+    return storageOf(dataCenter).getSubDatum(dataCenter, dataInfoId);
+  }
+
   public void cleanLocal(String dataCenter, String dataInfoId) {
     localDatumStorage.removePublishers(dataCenter, dataInfoId, null);
   }
@@ -228,6 +236,12 @@ public class DatumStorageDelegate implements DatumStorage {
         : multiClusterDatumStorage.getSlotChangeListener(false);
   }
 
+  @Override
+  public DataSlotChangeLogResult readChangeLog(
+      String dataCenter, int slotId, long logEpoch, long fromSeq, int maxNum) {
+    return storageOf(dataCenter).readChangeLog(dataCenter, slotId, logEpoch, fromSeq, maxNum);
+  }
+
   @Override
   public Set<ProcessId> getSessionProcessIds(String dataCenter) {
     return storageOf(dataCenter).getSessionProcessIds(dataCenter);
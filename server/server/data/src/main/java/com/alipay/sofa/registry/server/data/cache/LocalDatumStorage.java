@@ -21,8 +21,10 @@ import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
 import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
@@ -42,8 +44,12 @@ public final class LocalDatumStorage implements DatumStorage {
   private final BaseDatumStorage storage;
 
   public LocalDatumStorage(String dataCenter) {
+    this(dataCenter, 0);
+  }
+
+  public LocalDatumStorage(String dataCenter, int changeLogCapacity) {
     this.dataCenter = dataCenter;
-    this.storage = new BaseDatumStorage(dataCenter, LOGGER);
+    this.storage = new BaseDatumStorage(dataCenter, LOGGER, changeLogCapacity);
   }
 
   @Override
@@ -56,6 +62,11 @@ public final class LocalDatumStorage implements DatumStorage {
     return storage.get(dataInfoId);
   }
 
+  @Override
+  public SubDatum getSubDatum(String dataCenter, String dataInfoId) {
+    return storage.getSubDatum(dataInfoId);
+  }
+
   @Override
   public DatumVersion getVersion(String dataCenter, String dataInfoId) {
     return storage.getVersion(dataInfoId);
@@ -151,6 +162,12 @@ public final class LocalDatumStorage implements DatumStorage {
     return new SlotListener();
   }
 
+  @Override
+  public DataSlotChangeLogResult readChangeLog(
+      String dataCenter, int slotId, long logEpoch, long fromSeq, int maxNum) {
+    return storage.readChangeLog(slotId, logEpoch, fromSeq, maxNum);
+  }
+
   @Override
   public Set<ProcessId> getSessionProcessIds(String dataCenter) {
     return storage.getSessionProcessIds();
@@ -16,19 +16,26 @@
  */
 package com.alipay.sofa.registry.server.data.cache;
 
+import static com.alipay.sofa.registry.server.data.cache.CacheMetrics.SUB_DATUM_SNAPSHOT_HIT_COUNTER;
+import static com.alipay.sofa.registry.server.data.cache.CacheMetrics.SUB_DATUM_SNAPSHOT_MISS_COUNTER;
 import static com.alipay.sofa.registry.server.data.change.ChangeMetrics.SKIP_SAME_VALUE_COUNTER;
 
 import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.ProcessIdCache;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
@@ -75,7 +82,27 @@ public final class PublisherGroup {
 
   private final ArrayDeque<Long> recentVersions = new ArrayDeque<>(RECENT_VERSIONS_CAP);
 
+  // immutable view of the pubs at the current version, build lazily by the reader and shared
+  // until the pubMap is modified under the write lock
+  private volatile SubDatum subDatumSnapshot;
+
+  // update with the pubMap under the write lock
+  private final PublisherGroupDigest digest = new PublisherGroupDigest();
+
+  // shared by the groups of the slot, update with the pubMap under the write lock
+  private final PublisherIndex index;
+
+  // shared by the groups of the slot, append with the pubMap under the write lock, null if disable
+  private final SlotChangeLog changeLog;
+
   PublisherGroup(String dataInfoId, String dataCenter) {
+    this(dataInfoId, dataCenter, new PublisherIndex(), null);
+  }
+
+  PublisherGroup(
+      String dataInfoId, String dataCenter, PublisherIndex index, SlotChangeLog changeLog) {
+    this.index = index;
+    this.changeLog = changeLog;
     DataInfo dataInfo = DataInfo.valueOf(dataInfoId);
     this.dataInfoId = WordCache.getWordCache(dataInfoId);
     this.dataCenter = WordCache.getWordCache(dataCenter);
@@ -120,6 +147,40 @@ public final class PublisherGroup {
     return datum;
   }
 
+  SubDatum toSubDatum() {
+    final SubDatum snapshot = this.subDatumSnapshot;
+    if (snapshot != null && snapshot.getVersion() == version) {
+      SUB_DATUM_SNAPSHOT_HIT_COUNTER.inc();
+      return snapshot;
+    }
+    SUB_DATUM_SNAPSHOT_MISS_COUNTER.inc();
+    List<SubPublisher> list = new ArrayList<>(pubMap.size());
+    // build and publish under the read lock, the writers invalidate the snapshot under the write
+    // lock, so a snapshot never holds pubs of other version
+    lock.readLock().lock();
+    try {
+      for (PublisherEnvelope envelope : pubMap.values()) {
+        if (envelope.isPub()) {
+          list.add(DatumUtils.of(envelope.publisher));
+        }
+      }
+      SubDatum subDatum =
+          SubDatum.normalOf(
+              dataInfoId,
+              dataCenter,
+              version,
+              list,
+              dataId,
+              instanceId,
+              group,
+              recentVersions.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+      this.subDatumSnapshot = subDatum;
+      return subDatum;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
   List<Publisher> getPublishers() {
     List<Publisher> list = new ArrayList<>(pubMap.size());
     for (PublisherEnvelope envelope : pubMap.values()) {
@@ -145,6 +206,7 @@ public final class PublisherGroup {
     lock.writeLock().lock();
     try {
       long lastVersion = this.version;
+      this.subDatumSnapshot = null;
       if (useConfreg) {
         this.version = DatumVersionUtil.confregNextId(lastVersion);
       } else {
@@ -170,6 +232,9 @@ public final class PublisherGroup {
     if (exist == null) {
       PublisherEnvelope envelope = PublisherEnvelope.of(publisher);
       pubMap.put(publisher.getRegisterId(), envelope);
+      digest.add(envelope);
+      index.add(this, envelope);
+      logPut(publisher);
       return envelope.isPub();
     }
 
@@ -195,6 +260,13 @@ public final class PublisherGroup {
     }
     PublisherEnvelope envelope = PublisherEnvelope.of(publisher);
     pubMap.put(publisher.getRegisterId(), envelope);
+    digest.remove(exist);
+    digest.add(envelope);
+    index.remove(exist);
+    index.add(this, envelope);
+    logPut(publisher);
+    // the version may not change if the dataList is same, but the pub has been replaced
+    this.subDatumSnapshot = null;
 
     if (exist.publisher == null) {
       // publisher is null after client_off
@@ -260,29 +332,43 @@ public final class PublisherGroup {
           return null;
         }
         cleanContinues.onClean(size);
-        pubMap.clear();
+        clearAll();
         return updateVersion();
       } finally {
         lock.writeLock().unlock();
       }
     }
     // collect the pub of the processId without lock
-    Map<String, PublisherEnvelope> cleans = Maps.newHashMapWithExpectedSize(64);
-    for (Map.Entry<String, PublisherEnvelope> pub : pubMap.entrySet()) {
-      PublisherEnvelope envelope = pub.getValue();
+    List<PublisherEnvelope> cleans = new ArrayList<>(64);
+    for (PublisherEnvelope envelope : pubMap.values()) {
       if (envelope.isPub() && envelope.sessionProcessId.equals(sessionProcessId)) {
-        cleans.put(pub.getKey(), envelope);
+        cleans.add(envelope);
       }
     }
+    return cleanPubs(cleans, cleanContinues);
+  }
+
+  /**
+   * remove the pubs if they are not replaced, the cleans are collected from the pubMap or the index
+   * without lock
+   *
+   * @param cleans cleans
+   * @param cleanContinues cleanContinues
+   * @return DatumVersion, null if not modified
+   */
+  DatumVersion cleanPubs(Collection<PublisherEnvelope> cleans, CleanContinues cleanContinues) {
     // clean modify the version, need to lock
     lock.writeLock().lock();
     try {
       boolean modified = false;
-      for (Map.Entry<String, PublisherEnvelope> clean : cleans.entrySet()) {
+      for (PublisherEnvelope clean : cleans) {
         if (!cleanContinues.continues()) {
           break;
         }
-        if (pubMap.remove(clean.getKey(), clean.getValue())) {
+        if (pubMap.remove(clean.publisher.getRegisterId(), clean)) {
+          digest.remove(clean);
+          index.remove(clean);
+          logRemove(clean.publisher.getRegisterId(), clean.registerVersion);
           cleanContinues.onClean(1);
           modified = true;
         }
@@ -316,6 +402,9 @@ public final class PublisherGroup {
           // sync from local-leader/remote-leader
           if (sessionProcessId == null) {
             pubMap.remove(registerId);
+            digest.remove(existing);
+            index.remove(existing);
+            logRemove(registerId, existing.registerVersion);
             modified = true;
             continue;
           }
@@ -324,6 +413,9 @@ public final class PublisherGroup {
             pubMap.put(
                 registerId,
                 PublisherEnvelope.unpubOf(removedVer.incrRegisterTimestamp(), sessionProcessId));
+            digest.remove(existing);
+            index.remove(existing);
+            logRemove(registerId, existing.registerVersion);
             modified = true;
           } else {
             LOGGER.warn(
@@ -382,6 +474,22 @@ public final class PublisherGroup {
     pubMap.forEach(f);
   }
 
+  /**
+   * get the commutative digest of the pubs accepted by acceptorManager, O(1) without iterate the
+   * pubs
+   *
+   * @param acceptorManager acceptorManager
+   * @return DatumDigest
+   */
+  public DatumDigest getDigest(SyncSlotAcceptorManager acceptorManager) {
+    lock.readLock().lock();
+    try {
+      return digest.digest(dataInfoId, acceptorManager);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
   Collection<ProcessId> getSessionProcessIds() {
     Set<ProcessId> set = Sets.newHashSet();
     for (PublisherEnvelope e : pubMap.values()) {
@@ -394,6 +502,7 @@ public final class PublisherGroup {
 
   int compact(long tombstoneTimestamp) {
     // compact not modify the version, no need to lock
+    // only the unpub is compacted, it is not included in the digest
     int count = 0;
     Map<String, PublisherEnvelope> compacts = Maps.newHashMap();
     for (Map.Entry<String, PublisherEnvelope> e : pubMap.entrySet()) {
@@ -421,6 +530,30 @@ public final class PublisherGroup {
     return count;
   }
 
+  private void clearAll() {
+    for (Map.Entry<String, PublisherEnvelope> e : pubMap.entrySet()) {
+      final PublisherEnvelope envelope = e.getValue();
+      index.remove(envelope);
+      if (envelope.isPub()) {
+        logRemove(e.getKey(), envelope.registerVersion);
+      }
+    }
+    pubMap.clear();
+    digest.clear();
+  }
+
+  private void logPut(Publisher publisher) {
+    if (changeLog != null) {
+      changeLog.appendPut(publisher);
+    }
+  }
+
+  private void logRemove(String registerId, RegisterVersion removedVersion) {
+    if (changeLog != null) {
+      changeLog.appendRemove(dataInfoId, registerId, removedVersion);
+    }
+  }
+
   @Override
   public String toString() {
     return StringFormatter.format(
@@ -431,7 +564,7 @@ public final class PublisherGroup {
     lock.writeLock().lock();
     try {
       if (pubSize() > 0) {
-        pubMap.clear();
+        clearAll();
         return updateVersion();
       }
       return null;
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncAcceptorRequest;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
+import java.util.Arrays;
+
+/**
+ * the commutative digest of the pubs in PublisherGroup, split by PublishSource because the
+ * SyncSlotAcceptorManager filter the pubs by source. not thread safe, guarded by the lock of
+ * PublisherGroup
+ */
+final class PublisherGroupDigest {
+  // the last one is for the pubs without source
+  private static final PublishSource[] SOURCES =
+      Arrays.copyOf(PublishSource.values(), PublishSource.values().length + 1);
+
+  private final int[] publisherNums = new int[SOURCES.length];
+  private final long[] publisherIdSigns = new long[SOURCES.length];
+  private final long[] publisherVerSigns = new long[SOURCES.length];
+  private final long[] publisherTimestampSigns = new long[SOURCES.length];
+
+  void add(PublisherEnvelope envelope) {
+    update(envelope, 1);
+  }
+
+  void remove(PublisherEnvelope envelope) {
+    update(envelope, -1);
+  }
+
+  private void update(PublisherEnvelope envelope, int sign) {
+    if (!envelope.isPub()) {
+      // the unpub is not included in digest
+      return;
+    }
+    final int index = indexOf(envelope.publisher.getPublishSource());
+    final long idSign = PublisherDigestUtil.idSign(envelope.publisher.getRegisterId());
+    publisherNums[index] += sign;
+    publisherIdSigns[index] += sign * idSign;
+    publisherVerSigns[index] +=
+        sign * PublisherDigestUtil.verSign(idSign, envelope.registerVersion);
+    publisherTimestampSigns[index] +=
+        sign * PublisherDigestUtil.timestampSign(idSign, envelope.registerVersion);
+  }
+
+  void clear() {
+    for (int i = 0; i < SOURCES.length; i++) {
+      publisherNums[i] = 0;
+      publisherIdSigns[i] = 0;
+      publisherVerSigns[i] = 0;
+      publisherTimestampSigns[i] = 0;
+    }
+  }
+
+  DatumDigest digest(String dataInfoId, SyncSlotAcceptorManager acceptorManager) {
+    int publisherNum = 0;
+    long publisherIdSign = 0;
+    long publisherVerSign = 0;
+    long publisherTimestampSign = 0;
+    for (int i = 0; i < SOURCES.length; i++) {
+      if (publisherNums[i] == 0) {
+        continue;
+      }
+      if (!acceptorManager.accept(SyncAcceptorRequest.buildRequest(dataInfoId, SOURCES[i]))) {
+        continue;
+      }
+      publisherNum += publisherNums[i];
+      publisherIdSign += publisherIdSigns[i];
+      publisherVerSign += publisherVerSigns[i];
+      publisherTimestampSign += publisherTimestampSigns[i];
+    }
+    return PublisherDigestUtil.commutativeDigest(
+        publisherNum, publisherIdSign, publisherVerSign, publisherTimestampSign);
+  }
+
+  private static int indexOf(PublishSource source) {
+    return source == null ? SOURCES.length - 1 : source.ordinal();
+  }
+}
@@ -21,17 +21,20 @@ import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.ProcessIdCache;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.collect.Maps;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import org.apache.commons.lang.StringUtils;
-import org.glassfish.jersey.internal.guava.Sets;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -41,9 +44,18 @@ import org.springframework.util.CollectionUtils;
 public final class PublisherGroups {
   private final Map<String, PublisherGroup> publisherGroupMap = Maps.newConcurrentMap();
   private final String dataCenter;
+  // the connect/clean/processIds lookup scales with the pubs of the connection/session
+  final PublisherIndex index = new PublisherIndex();
+  // the changes of the slot pulled by the followers, null if disable
+  final SlotChangeLog changeLog;
 
   PublisherGroups(String dataCenter) {
+    this(dataCenter, 0);
+  }
+
+  PublisherGroups(String dataCenter, int changeLogCapacity) {
     this.dataCenter = dataCenter;
+    this.changeLog = changeLogCapacity > 0 ? new SlotChangeLog(changeLogCapacity) : null;
   }
 
   Datum getDatum(String dataInfoId) {
@@ -51,6 +63,11 @@ public final class PublisherGroups {
     return group == null ? null : group.toDatum();
   }
 
+  SubDatum getSubDatum(String dataInfoId) {
+    PublisherGroup group = publisherGroupMap.get(dataInfoId);
+    return group == null ? null : group.toSubDatum();
+  }
+
   DatumVersion getVersion(String dataInfoId) {
     PublisherGroup group = publisherGroupMap.get(dataInfoId);
     return group == null ? null : group.getVersion();
@@ -98,20 +115,35 @@ public final class PublisherGroups {
   }
 
   Map<String, Publisher> getByConnectId(ConnectId connectId) {
-    Map<String, Publisher> map = Maps.newHashMapWithExpectedSize(64);
-    publisherGroupMap.values().forEach(v -> map.putAll(v.getByConnectId(connectId)));
+    List<PublisherEnvelope> envelopes = index.getByConnectId(connectId);
+    Map<String, Publisher> map = Maps.newHashMapWithExpectedSize(envelopes.size());
+    for (PublisherEnvelope envelope : envelopes) {
+      map.put(envelope.publisher.getRegisterId(), envelope.publisher);
+    }
     return map;
   }
 
   PublisherGroup createGroupIfAbsent(String dataInfoId) {
     return publisherGroupMap.computeIfAbsent(
-        dataInfoId, k -> new PublisherGroup(dataInfoId, dataCenter));
+        dataInfoId, k -> new PublisherGroup(dataInfoId, dataCenter, index, changeLog));
   }
 
   Map<String, DatumVersion> clean(ProcessId sessionProcessId, CleanContinues cleanContinues) {
     Map<String, DatumVersion> versionMap = Maps.newHashMapWithExpectedSize(64);
-    for (PublisherGroup g : publisherGroupMap.values()) {
-      DatumVersion ver = g.clean(sessionProcessId, cleanContinues);
+    if (sessionProcessId == null) {
+      for (PublisherGroup g : publisherGroupMap.values()) {
+        DatumVersion ver = g.clean(null, cleanContinues);
+        if (ver != null) {
+          versionMap.put(g.dataInfoId, ver);
+        }
+      }
+      return versionMap;
+    }
+    Map<PublisherGroup, List<PublisherEnvelope>> cleans =
+        index.getBySessionProcessId(ProcessIdCache.cache(sessionProcessId));
+    for (Map.Entry<PublisherGroup, List<PublisherEnvelope>> e : cleans.entrySet()) {
+      final PublisherGroup g = e.getKey();
+      DatumVersion ver = g.cleanPubs(e.getValue(), cleanContinues);
       if (ver != null) {
         versionMap.put(g.dataInfoId, ver);
       }
@@ -140,14 +172,16 @@ public final class PublisherGroups {
     return group == null ? null : group.remove(sessionProcessId, removedPublishers);
   }
 
+  DataSlotChangeLogResult readChangeLog(long logEpoch, long fromSeq, int maxNum) {
+    return changeLog == null ? null : changeLog.read(logEpoch, fromSeq, maxNum);
+  }
+
   void foreach(BiConsumer<String, PublisherGroup> f) {
     publisherGroupMap.forEach(f);
   }
 
   Set<ProcessId> getSessionProcessIds() {
-    Set<ProcessId> ids = Sets.newHashSet();
-    publisherGroupMap.values().forEach(g -> ids.addAll(g.getSessionProcessIds()));
-    return ids;
+    return new HashSet<>(index.getSessionProcessIds());
   }
 
   Map<String, Integer> compact(long tombstoneTimestamp) {
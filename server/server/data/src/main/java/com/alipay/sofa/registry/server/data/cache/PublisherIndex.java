@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * reverse index of the pubs in the PublisherGroups of one slot: sessionProcessId -> connectId ->
+ * envelope -> group, and connectId -> sessionProcessIds. only the envelope which isPub is indexed,
+ * the unpub has no connectId. updated with the pubMap under the write lock of the group, the
+ * envelope is immutable and compared by identity, so the index never holds an entry replaced in the
+ * pubMap after the write lock is released
+ */
+final class PublisherIndex {
+  private final ConcurrentMap<
+          ProcessId, ConcurrentMap<ConnectId, ConcurrentMap<PublisherEnvelope, PublisherGroup>>>
+      index = Maps.newConcurrentMap();
+
+  // connectId -> the sessions which have pubs of the connection, usually only one. copy on write,
+  // update in the compute of the index, so it is consistent with the index of the connectId
+  private final ConcurrentMap<ConnectId, Set<ProcessId>> connects = Maps.newConcurrentMap();
+
+  void add(PublisherGroup group, PublisherEnvelope envelope) {
+    if (!envelope.isPub()) {
+      return;
+    }
+    final ConnectId connectId = envelope.publisher.connectId();
+    index.compute(
+        envelope.sessionProcessId,
+        (pid, conns) -> {
+          if (conns == null) {
+            conns = Maps.newConcurrentMap();
+          }
+          conns.compute(
+              connectId,
+              (k, pubs) -> {
+                if (pubs == null) {
+                  pubs = Maps.newConcurrentMap();
+                  connects.compute(connectId, (c, pids) -> addProcessId(pids, pid));
+                }
+                pubs.put(envelope, group);
+                return pubs;
+              });
+          return conns;
+        });
+  }
+
+  void remove(PublisherEnvelope envelope) {
+    if (!envelope.isPub()) {
+      return;
+    }
+    final ConnectId connectId = envelope.publisher.connectId();
+    index.computeIfPresent(
+        envelope.sessionProcessId,
+        (pid, conns) -> {
+          conns.computeIfPresent(
+              connectId,
+              (k, pubs) -> {
+                pubs.remove(envelope);
+                if (!pubs.isEmpty()) {
+                  return pubs;
+                }
+                connects.computeIfPresent(connectId, (c, pids) -> removeProcessId(pids, pid));
+                return null;
+              });
+          return conns.isEmpty() ? null : conns;
+        });
+  }
+
+  private static Set<ProcessId> addProcessId(Set<ProcessId> pids, ProcessId pid) {
+    if (pids == null) {
+      return Collections.singleton(pid);
+    }
+    Set<ProcessId> ret = Sets.newHashSet(pids);
+    ret.add(pid);
+    return Collections.unmodifiableSet(ret);
+  }
+
+  private static Set<ProcessId> removeProcessId(Set<ProcessId> pids, ProcessId pid) {
+    if (!pids.contains(pid)) {
+      return pids;
+    }
+    if (pids.size() == 1) {
+      return null;
+    }
+    Set<ProcessId> ret = Sets.newHashSet(pids);
+    ret.remove(pid);
+    return Collections.unmodifiableSet(ret);
+  }
+
+  List<PublisherEnvelope> getByConnectId(ConnectId connectId) {
+    // the session address in the connectId may be reused by a restarted session with another
+    // processId, the pubs of the old session are not cleaned yet
+    Set<ProcessId> pids = connects.get(connectId);
+    if (pids == null) {
+      return Collections.emptyList();
+    }
+    List<PublisherEnvelope> ret = Collections.emptyList();
+    for (ProcessId pid : pids) {
+      ConcurrentMap<ConnectId, ConcurrentMap<PublisherEnvelope, PublisherGroup>> conns =
+          index.get(pid);
+      if (conns == null) {
+        continue;
+      }
+      Map<PublisherEnvelope, PublisherGroup> pubs = conns.get(connectId);
+      if (pubs != null) {
+        if (ret.isEmpty()) {
+          ret = new ArrayList<>(pubs.size());
+        }
+        ret.addAll(pubs.keySet());
+      }
+    }
+    return ret;
+  }
+
+  Map<PublisherGroup, List<PublisherEnvelope>> getBySessionProcessId(ProcessId sessionProcessId) {
+    ConcurrentMap<ConnectId, ConcurrentMap<PublisherEnvelope, PublisherGroup>> conns =
+        index.get(sessionProcessId);
+    if (conns == null) {
+      return Collections.emptyMap();
+    }
+    Map<PublisherGroup, List<PublisherEnvelope>> ret = Maps.newHashMapWithExpectedSize(64);
+    for (ConcurrentMap<PublisherEnvelope, PublisherGroup> pubs : conns.values()) {
+      for (Map.Entry<PublisherEnvelope, PublisherGroup> e : pubs.entrySet()) {
+        ret.computeIfAbsent(e.getValue(), k -> new ArrayList<>()).add(e.getKey());
+      }
+    }
+    return ret;
+  }
+
+  Set<ProcessId> getSessionProcessIds() {
+    return index.keySet();
+  }
+
+  int connectSize() {
+    return connects.size();
+  }
+
+  int size() {
+    int count = 0;
+    for (ConcurrentMap<ConnectId, ConcurrentMap<PublisherEnvelope, PublisherGroup>> conns :
+        index.values()) {
+      for (ConcurrentMap<PublisherEnvelope, PublisherGroup> pubs : conns.values()) {
+        count += pubs.size();
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogEntry;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.util.DatumVersionUtil;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * bounded and sequence-numbered log of the publisher changes of a slot, the followers pull and
+ * apply the log in order. the entries are appended by the PublisherGroups under the write lock of
+ * the group, so the entries of the same registerId are in the order of the modification
+ */
+public final class SlotChangeLog {
+  // identify the log, a position of other log is out of range
+  private final long epoch = DatumVersionUtil.nextId();
+
+  private static final int INIT_SIZE = 64;
+
+  private final int capacity;
+
+  // grow until the capacity, the entries are not overwritten before the ring is full
+  private DataSlotChangeLogEntry[] ring;
+
+  // the seq of the next append, the entries in [nextSeq - min(nextSeq, ring.length), nextSeq)
+  private long nextSeq;
+
+  SlotChangeLog(int capacity) {
+    ParaCheckUtil.checkIsPositive(capacity, "capacity");
+    this.capacity = capacity;
+    this.ring = new DataSlotChangeLogEntry[Math.min(capacity, INIT_SIZE)];
+  }
+
+  void appendPut(Publisher publisher) {
+    append(DataSlotChangeLogEntry.put(publisher));
+  }
+
+  void appendRemove(String dataInfoId, String registerId, RegisterVersion removedVersion) {
+    append(DataSlotChangeLogEntry.remove(dataInfoId, registerId, removedVersion));
+  }
+
+  private synchronized void append(DataSlotChangeLogEntry entry) {
+    if (nextSeq >= ring.length && ring.length < capacity) {
+      grow();
+    }
+    ring[(int) (nextSeq % ring.length)] = entry;
+    nextSeq++;
+  }
+
+  private void grow() {
+    final DataSlotChangeLogEntry[] grown =
+        new DataSlotChangeLogEntry[(int) Math.min(capacity, ring.length * 2L)];
+    for (long seq = firstSeq(); seq < nextSeq; seq++) {
+      grown[(int) (seq % grown.length)] = ring[(int) (seq % ring.length)];
+    }
+    this.ring = grown;
+  }
+
+  /**
+   * read the entries start from the fromSeq
+   *
+   * @param logEpoch the epoch of the position
+   * @param fromSeq the seq of the position, negative means only return the head of the log
+   * @param maxNum the max num of the entries
+   * @return DataSlotChangeLogResult
+   */
+  public synchronized DataSlotChangeLogResult read(long logEpoch, long fromSeq, int maxNum) {
+    if (fromSeq < 0) {
+      return DataSlotChangeLogResult.head(epoch, nextSeq);
+    }
+    if (logEpoch != epoch || fromSeq > nextSeq || fromSeq < firstSeq()) {
+      return DataSlotChangeLogResult.outOfRange(epoch, nextSeq);
+    }
+    final int num = (int) Math.min(Math.max(maxNum, 1), nextSeq - fromSeq);
+    List<DataSlotChangeLogEntry> entries = new ArrayList<>(num);
+    for (long seq = fromSeq; seq < fromSeq + num; seq++) {
+      entries.add(ring[(int) (seq % ring.length)]);
+    }
+    final long next = fromSeq + num;
+    return new DataSlotChangeLogResult(epoch, next, false, next < nextSeq, entries);
+  }
+
+  private long firstSeq() {
+    return Math.max(0, nextSeq - ring.length);
+  }
+
+  public long getEpoch() {
+    return epoch;
+  }
+
+  public synchronized long getNextSeq() {
+    return nextSeq;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+}
@@ -21,8 +21,10 @@ import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
 import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.exception.UnSupportOperationException;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -80,6 +82,20 @@ public class MultiClusterDatumStorage implements DatumStorage {
     return datum;
   }
 
+  @Override
+  public SubDatum getSubDatum(String dataCenter, String dataInfoId) {
+    BaseDatumStorage storage = storageMap.get(dataCenter);
+    if (storage == null) {
+      LOGGER.warn("[nullStorage]getSubDatum dataCenter={},dataInfoId={}", dataCenter, dataInfoId);
+      return null;
+    }
+    SubDatum datum = storage.getSubDatum(dataInfoId);
+    if (datum == null) {
+      LOGGER.warn("[nullDatum]getSubDatum dataCenter={},dataInfoId={}", dataCenter, dataInfoId);
+    }
+    return datum;
+  }
+
   @Override
   public DatumVersion getVersion(String dataCenter, String dataInfoId) {
     BaseDatumStorage storage = storageMap.get(dataCenter);
@@ -257,6 +273,16 @@ public class MultiClusterDatumStorage implements DatumStorage {
     return listener;
   }
 
+  @Override
+  public DataSlotChangeLogResult readChangeLog(
+      String dataCenter, int slotId, long logEpoch, long fromSeq, int maxNum) {
+    LOGGER.error(
+        "[MultiClusterDatumStorage]UnExcept readChangeLog, dataCenter={}, slotId={}",
+        dataCenter,
+        slotId);
+    throw new UnSupportOperationException("MultiClusterDatumStorage.readChangeLog");
+  }
+
   @Override
   public Set<ProcessId> getSessionProcessIds(String dataCenter) {
     LOGGER.error(
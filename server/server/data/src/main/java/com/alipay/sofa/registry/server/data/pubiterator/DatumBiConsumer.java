@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.server.data.pubiterator;
 
 import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.slot.filter.SyncAcceptorRequest;
 import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
@@ -111,6 +112,29 @@ public class DatumBiConsumer {
     };
   }
 
+  public static BiConsumer<String, PublisherGroup> publisherGroupsDigestBiConsumer(
+      Map<String, DatumDigest> digests, SyncSlotAcceptorManager syncSlotAcceptorManager) {
+    return (dataInfoId, publisherGroup) -> {
+      if (!syncSlotAcceptorManager.accept(SyncAcceptorRequest.buildRequest(dataInfoId))) {
+        return;
+      }
+      digests.put(dataInfoId, publisherGroup.getDigest(syncSlotAcceptorManager));
+    };
+  }
+
+  public static BiConsumer<String, PublisherGroup> dataInfoIdsPublisherGroupsBiConsumer(
+      Map<String, DatumSummary> summaries,
+      Set<String> dataInfoIds,
+      SyncSlotAcceptorManager syncSlotAcceptorManager) {
+    BiConsumer<String, PublisherGroup> consumer =
+        publisherGroupsBiConsumer(summaries, syncSlotAcceptorManager);
+    return (dataInfoId, publisherGroup) -> {
+      if (dataInfoIds.contains(dataInfoId)) {
+        consumer.accept(dataInfoId, publisherGroup);
+      }
+    };
+  }
+
   public static BiConsumer<String, PublisherEnvelope> publisherGroupBiConsumer(
       String dataInfoId,
       Map<String, RegisterVersion> publisherVersions,
@@ -18,21 +18,26 @@ package com.alipay.sofa.registry.server.data.remoting.dataserver.handler;
 
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
 import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffUtils;
+import com.alipay.sofa.registry.common.model.slot.DataSlotMerkleTree;
 import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.cache.DatumStorageDelegate;
+import com.alipay.sofa.registry.server.data.pubiterator.DatumBiConsumer;
 import com.alipay.sofa.registry.server.data.slot.SlotManager;
 import com.alipay.sofa.registry.server.shared.remoting.AbstractServerHandler;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import java.util.Collections;
 import java.util.Map;
 import javax.annotation.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -69,6 +74,17 @@ public abstract class BaseSlotDiffDigestRequestHandler
       }
       slotManager.triggerUpdateSlotTable(request.getSlotTableEpoch());
 
+      if (request.getDigestType() == PublisherDigestUtil.DIGEST_TYPE_COMMUTATIVE
+          || request.getDigestType() == PublisherDigestUtil.DIGEST_TYPE_MERKLE) {
+        // the digest is maintained by PublisherGroup, no need to copy the publishers
+        DataSlotDiffDigestResult result = calcCommutativeDiffResult(slotId, request);
+        result.setSlotTableEpoch(slotManager.getSlotTableEpoch());
+        if (!postCheck(request)) {
+          return new GenericResponse().fillFailed("post check fail of: " + slotId);
+        }
+        return new GenericResponse().fillSucceed(result);
+      }
+
       // not use acceptorManager to filter in getPublishers() method,
       // because getPublishers() method only loop dataIndoId, will not loop publishers;
       Map<String, Map<String, Publisher>> existingPublishers =
@@ -114,6 +130,38 @@ public abstract class BaseSlotDiffDigestRequestHandler
     return result;
   }
 
+  private DataSlotDiffDigestResult calcCommutativeDiffResult(
+      int targetSlot, DataSlotDiffDigestRequest request) {
+    Map<String, DatumDigest> sourceDigestMap = Maps.newHashMapWithExpectedSize(256);
+    datumStorageDelegate.foreach(
+        dataServerConfig.getLocalDataCenter(),
+        targetSlot,
+        DatumBiConsumer.publisherGroupsDigestBiConsumer(
+            sourceDigestMap, request.getAcceptorManager()));
+
+    if (request.getDigestType() == PublisherDigestUtil.DIGEST_TYPE_MERKLE) {
+      if (request.getMerkleLevel() < DataSlotMerkleTree.DEPTH) {
+        // return the children of the different nodes, the follower compares them in next level
+        DataSlotMerkleTree tree = new DataSlotMerkleTree(sourceDigestMap);
+        DataSlotDiffDigestResult result =
+            new DataSlotDiffDigestResult(
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        result.setMerkleNodes(
+            tree.diffChildren(request.getMerkleLevel(), request.getMerkleNodes()));
+        result.setDigestType(PublisherDigestUtil.DIGEST_TYPE_MERKLE);
+        return result;
+      }
+      // the leaves, only diff the dataInfoIds in the different leaves
+      sourceDigestMap =
+          DataSlotMerkleTree.filterLeaves(sourceDigestMap, request.getMerkleNodes().keySet());
+    }
+    DataSlotDiffDigestResult result =
+        DataSlotDiffUtils.diffDigest(request.getDatumDigest(), sourceDigestMap);
+    result.setDigestType(request.getDigestType());
+    DataSlotDiffUtils.logDiffResult(request.getLocalDataCenter(), result, targetSlot, logger);
+    return result;
+  }
+
   @Override
   protected Node.NodeType getConnectNodeType() {
     return Node.NodeType.DATA;
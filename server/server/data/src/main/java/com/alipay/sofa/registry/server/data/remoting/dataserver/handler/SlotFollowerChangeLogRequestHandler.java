@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.dataserver.handler;
+
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumStorageDelegate;
+import com.alipay.sofa.registry.server.data.multi.cluster.loggers.Loggers;
+import com.alipay.sofa.registry.server.data.slot.SlotManager;
+import com.alipay.sofa.registry.server.shared.remoting.AbstractServerHandler;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import javax.annotation.Resource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/** serve the change log of the slot to the followers */
+public class SlotFollowerChangeLogRequestHandler
+    extends AbstractServerHandler<DataSlotChangeLogRequest> {
+  private static final Logger LOGGER = Loggers.SYNC_SRV_LOGGER;
+
+  @Resource private DatumStorageDelegate datumStorageDelegate;
+
+  @Autowired private DataServerConfig dataServerConfig;
+
+  @Autowired private SlotManager slotManager;
+
+  @Autowired private ThreadPoolExecutor slotSyncRequestProcessorExecutor;
+
+  @Override
+  public void checkParam(DataSlotChangeLogRequest request) {
+    ParaCheckUtil.checkNonNegative(request.getSlotId(), "request.slotId");
+  }
+
+  @Override
+  public Object doHandle(Channel channel, DataSlotChangeLogRequest request) {
+    try {
+      slotManager.triggerUpdateSlotTable(request.getSlotTableEpoch());
+      final int slotId = request.getSlotId();
+      final String localDataCenter = dataServerConfig.getLocalDataCenter();
+      final Slot slot = slotManager.getSlot(localDataCenter, slotId);
+      if (!slotManager.isLeader(localDataCenter, slotId)
+          || slot == null
+          || slot.getLeaderEpoch() != request.getSlotLeaderEpoch()) {
+        LOGGER.warn(
+            "change log request from {}, not leader of {}, {}",
+            request.getLocalDataCenter(),
+            request,
+            slot);
+        return new GenericResponse().fillFailed("not leader of " + slotId);
+      }
+      DataSlotChangeLogResult result =
+          datumStorageDelegate.readChangeLog(
+              localDataCenter,
+              slotId,
+              request.getLogEpoch(),
+              request.getFromSeq(),
+              Math.min(request.getMaxNum(), dataServerConfig.getSlotSyncPublisherMaxNum()));
+      if (result == null) {
+        return new GenericResponse().fillFailed("change log disable of " + slotId);
+      }
+      result.setSlotTableEpoch(slotManager.getSlotTableEpoch());
+      return new GenericResponse().fillSucceed(result);
+    } catch (Throwable e) {
+      String msg =
+          StringFormatter.format(
+              "ChangeLog request from {} error for slot {}",
+              request.getLocalDataCenter(),
+              request.getSlotId());
+      LOGGER.error(msg, e);
+      return new GenericResponse().fillFailed(msg);
+    }
+  }
+
+  @Override
+  public Executor getExecutor() {
+    return slotSyncRequestProcessorExecutor;
+  }
+
+  @Override
+  protected Node.NodeType getConnectNodeType() {
+    return Node.NodeType.DATA;
+  }
+
+  @Override
+  public Class interest() {
+    return DataSlotChangeLogRequest.class;
+  }
+
+  @Override
+  public Object buildFailedResponse(String msg) {
+    return new GenericResponse().fillFailed(msg);
+  }
+
+  /**
+   * Setter method for property <tt>datumStorageDelegate</tt>.
+   *
+   * @param datumStorageDelegate value to be assigned to property datumStorageDelegate
+   * @return SlotFollowerChangeLogRequestHandler
+   */
+  @VisibleForTesting
+  public SlotFollowerChangeLogRequestHandler setDatumStorageDelegate(
+      DatumStorageDelegate datumStorageDelegate) {
+    this.datumStorageDelegate = datumStorageDelegate;
+    return this;
+  }
+
+  /**
+   * Setter method for property <tt>dataServerConfig</tt>.
+   *
+   * @param dataServerConfig value to be assigned to property dataServerConfig
+   * @return SlotFollowerChangeLogRequestHandler
+   */
+  @VisibleForTesting
+  public SlotFollowerChangeLogRequestHandler setDataServerConfig(
+      DataServerConfig dataServerConfig) {
+    this.dataServerConfig = dataServerConfig;
+    return this;
+  }
+
+  /**
+   * Setter method for property <tt>slotManager</tt>.
+   *
+   * @param slotManager value to be assigned to property slotManager
+   * @return SlotFollowerChangeLogRequestHandler
+   */
+  @VisibleForTesting
+  public SlotFollowerChangeLogRequestHandler setSlotManager(SlotManager slotManager) {
+    this.slotManager = slotManager;
+    return this;
+  }
+}
@@ -20,7 +20,6 @@ import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handle
 import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.GET_DATUM_Y_COUNTER;
 import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.GET_PUBLISHER_COUNTER;
 
-import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.slot.SlotAccess;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
@@ -30,6 +29,9 @@ import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import javax.annotation.Resource;
@@ -65,7 +67,7 @@ public abstract class BaseGetDataHandler<T> extends AbstractDataHandler<T> {
       return buildResponse(false, slotAccessBefore, null, "slotAccess not accept.");
     }
 
-    final Datum datum = datumStorageDelegate.get(dataCenter, dataInfoId);
+    final SubDatum subDatum = datumStorageDelegate.getSubDatum(dataCenter, dataInfoId);
     // important. double check the slot access. avoid the case:
     // 1. the slot is leader, the first check pass
     // 2. slot moved and data cleaned
@@ -85,16 +87,73 @@ public abstract class BaseGetDataHandler<T> extends AbstractDataHandler<T> {
 
     GET_DATUM_Y_COUNTER.inc();
 
-    SubDatum zipDatum = zipDatum(dataInfoId, dataCenter, datum, acceptEncodes);
+    SubDatum zipDatum = zipDatum(dataInfoId, dataCenter, subDatum, acceptEncodes);
 
     return buildResponse(true, slotAccessAfter, zipDatum, "");
   }
 
+  /**
+   * get the datums of the dataInfoIds which belong to the same slot, the slot access is checked
+   * once before and once after the reading for the whole group
+   *
+   * @param dataCenter dataCenter
+   * @param slotId slotId
+   * @param dataInfoIds dataInfoIds in the slot
+   * @param slotTableEpoch slotTableEpoch
+   * @param slotLeaderEpoch slotLeaderEpoch
+   * @param acceptEncodes acceptEncodes
+   * @return response of each dataInfoId
+   */
+  protected Map<String, SlotAccessGenericResponse<SubDatum>> processSlotDataCenter(
+      String dataCenter,
+      int slotId,
+      Collection<String> dataInfoIds,
+      long slotTableEpoch,
+      long slotLeaderEpoch,
+      String[] acceptEncodes) {
+    Map<String, SlotAccessGenericResponse<SubDatum>> ret =
+        Maps.newHashMapWithExpectedSize(dataInfoIds.size());
+    final SlotAccess slotAccessBefore =
+        checkAccess(dataCenter, slotId, slotTableEpoch, slotLeaderEpoch);
+    if (!slotAccessBefore.isAccept()) {
+      GET_DATUM_N_COUNTER.inc(dataInfoIds.size());
+      for (String dataInfoId : dataInfoIds) {
+        ret.put(dataInfoId, buildResponse(false, slotAccessBefore, null, "slotAccess not accept."));
+      }
+      return ret;
+    }
+    Map<String, SubDatum> subDatums = Maps.newHashMapWithExpectedSize(dataInfoIds.size());
+    for (String dataInfoId : dataInfoIds) {
+      subDatums.put(dataInfoId, datumStorageDelegate.getSubDatum(dataCenter, dataInfoId));
+    }
+    // double check the slot access, same as processSingleDataCenter
+    final SlotAccess slotAccessAfter =
+        checkAccess(dataCenter, slotId, slotTableEpoch, slotLeaderEpoch);
+    if (slotAccessAfter.getSlotLeaderEpoch() != slotAccessBefore.getSlotLeaderEpoch()) {
+      GET_DATUM_N_COUNTER.inc(dataInfoIds.size());
+      for (String dataInfoId : dataInfoIds) {
+        ret.put(
+            dataInfoId,
+            buildResponse(
+                false,
+                slotAccessAfter,
+                null,
+                "slotLeaderEpoch has change, prev=" + slotAccessBefore));
+      }
+      return ret;
+    }
+    GET_DATUM_Y_COUNTER.inc(dataInfoIds.size());
+    for (Map.Entry<String, SubDatum> e : subDatums.entrySet()) {
+      SubDatum zipDatum = zipDatum(e.getKey(), dataCenter, e.getValue(), acceptEncodes);
+      ret.put(e.getKey(), buildResponse(true, slotAccessAfter, zipDatum, ""));
+    }
+    return ret;
+  }
+
   private SubDatum zipDatum(
-      String dataInfoId, String dataCenter, Datum datum, String[] acceptEncodes) {
+      String dataInfoId, String dataCenter, SubDatum subDatum, String[] acceptEncodes) {
     // return SubDatum, it's serdeSize and memoryOverhead much smaller than Datum
-    SubDatum subDatum = datum != null ? DatumUtils.of(datum) : null;
-
+    // the subDatum is the shared snapshot of the version, must not be modified
     Compressor compressor = compressDatumService.getCompressor(subDatum, acceptEncodes);
 
     SubDatum zipDatum = DatumUtils.compressSubDatum(subDatum, compressor);
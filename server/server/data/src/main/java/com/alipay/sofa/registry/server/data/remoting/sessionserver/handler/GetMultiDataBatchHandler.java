@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataBatchRequest;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.SlotAccess;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * handle the coalesced fetch of session, the dataInfoIds of the same slot share one slot access
+ * check
+ */
+public class GetMultiDataBatchHandler extends BaseGetDataHandler<GetMultiDataBatchRequest> {
+
+  @Override
+  public void checkParam(GetMultiDataBatchRequest request) {
+    ParaCheckUtil.checkNotEmpty(request.getRequests(), "GetMultiDataBatchRequest.requests");
+    for (GetMultiDataRequest req : request.getRequests()) {
+      GetMultiDataHandler.checkMultiDataRequest(req);
+    }
+    checkSessionProcessId(request.getSessionProcessId());
+  }
+
+  @Override
+  public Class interest() {
+    return GetMultiDataBatchRequest.class;
+  }
+
+  @Override
+  public GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>> doHandle(
+      Channel channel, GetMultiDataBatchRequest request) {
+    processSessionProcessId(channel, request.getSessionProcessId());
+    final List<GetMultiDataRequest> reqs = request.getRequests();
+
+    Map<SlotGroup, Set<String>> groups = Maps.newHashMap();
+    for (GetMultiDataRequest req : reqs) {
+      final int slotId = slotAccessorDelegate.slotOf(req.getDataInfoId());
+      for (Entry<String, Long> entry : req.getSlotTableEpochs().entrySet()) {
+        String dataCenter = entry.getKey();
+        SlotGroup group =
+            new SlotGroup(
+                dataCenter,
+                slotId,
+                entry.getValue(),
+                req.getSlotLeaderEpochs().get(dataCenter),
+                req.getAcceptEncodes());
+        groups.computeIfAbsent(group, k -> Sets.newHashSet()).add(req.getDataInfoId());
+      }
+    }
+    Map<SlotGroup, Map<String, SlotAccessGenericResponse<SubDatum>>> groupResults =
+        Maps.newHashMapWithExpectedSize(groups.size());
+    for (Entry<SlotGroup, Set<String>> e : groups.entrySet()) {
+      SlotGroup group = e.getKey();
+      groupResults.put(
+          group,
+          processSlotDataCenter(
+              group.dataCenter,
+              group.slotId,
+              e.getValue(),
+              group.slotTableEpoch,
+              group.slotLeaderEpoch,
+              group.acceptEncodes));
+    }
+
+    List<MultiSlotAccessGenericResponse<MultiSubDatum>> ret =
+        Lists.newArrayListWithCapacity(reqs.size());
+    for (GetMultiDataRequest req : reqs) {
+      final int slotId = slotAccessorDelegate.slotOf(req.getDataInfoId());
+      final int dataCenterSize = req.getSlotTableEpochs().size();
+      boolean success = true;
+      StringBuilder builder = new StringBuilder();
+      Map<String, SlotAccess> slotAccessMap = Maps.newHashMapWithExpectedSize(dataCenterSize);
+      Map<String, SubDatum> datumMap = Maps.newHashMapWithExpectedSize(dataCenterSize);
+      for (Entry<String, Long> entry : req.getSlotTableEpochs().entrySet()) {
+        String dataCenter = entry.getKey();
+        SlotGroup group =
+            new SlotGroup(
+                dataCenter,
+                slotId,
+                entry.getValue(),
+                req.getSlotLeaderEpochs().get(dataCenter),
+                req.getAcceptEncodes());
+        SlotAccessGenericResponse<SubDatum> res = groupResults.get(group).get(req.getDataInfoId());
+        if (!res.isSuccess()) {
+          success = false;
+          builder.append(StringFormatter.format("{}:{}.", dataCenter, res.getMessage()));
+        }
+        slotAccessMap.put(dataCenter, res.getSlotAccess());
+        datumMap.put(dataCenter, res.getData());
+      }
+      MultiSubDatum data = new MultiSubDatum(req.getDataInfoId(), datumMap);
+      ret.add(
+          new MultiSlotAccessGenericResponse<>(success, builder.toString(), data, slotAccessMap));
+    }
+    return new GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>>()
+        .fillSucceed(ret);
+  }
+
+  @Override
+  public CommonResponse buildFailedResponse(String msg) {
+    return new GenericResponse().fillFailed(msg);
+  }
+
+  private static final class SlotGroup {
+    final String dataCenter;
+    final int slotId;
+    final long slotTableEpoch;
+    final long slotLeaderEpoch;
+    final String[] acceptEncodes;
+
+    SlotGroup(
+        String dataCenter,
+        int slotId,
+        long slotTableEpoch,
+        long slotLeaderEpoch,
+        String[] acceptEncodes) {
+      this.dataCenter = dataCenter;
+      this.slotId = slotId;
+      this.slotTableEpoch = slotTableEpoch;
+      this.slotLeaderEpoch = slotLeaderEpoch;
+      this.acceptEncodes = acceptEncodes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      SlotGroup that = (SlotGroup) o;
+      return slotId == that.slotId
+          && slotTableEpoch == that.slotTableEpoch
+          && slotLeaderEpoch == that.slotLeaderEpoch
+          && Objects.equals(dataCenter, that.dataCenter)
+          && Arrays.equals(acceptEncodes, that.acceptEncodes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(dataCenter, slotId, slotTableEpoch, slotLeaderEpoch)
+          + Arrays.hashCode(acceptEncodes);
+    }
+  }
+}
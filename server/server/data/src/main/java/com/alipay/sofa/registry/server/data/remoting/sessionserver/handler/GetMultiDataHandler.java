@@ -38,6 +38,11 @@ public class GetMultiDataHandler extends BaseGetDataHandler<GetMultiDataRequest>
 
   @Override
   public void checkParam(GetMultiDataRequest request) {
+    checkMultiDataRequest(request);
+    checkSessionProcessId(request.getSessionProcessId());
+  }
+
+  static void checkMultiDataRequest(GetMultiDataRequest request) {
     ParaCheckUtil.checkNotBlank(request.getDataInfoId(), "GetMultiDataRequest.dataInfoId");
     ParaCheckUtil.checkNotEmpty(
         request.getSlotTableEpochs(), "GetMultiDataRequest.slotTableEpochs");
@@ -50,8 +55,6 @@ public class GetMultiDataHandler extends BaseGetDataHandler<GetMultiDataRequest>
       ParaCheckUtil.checkNotNull(
           request.getSlotLeaderEpochs().get(dataCenter), dataCenter + ".slotLeaderEpoch");
     }
-
-    checkSessionProcessId(request.getSessionProcessId());
   }
 
   /**
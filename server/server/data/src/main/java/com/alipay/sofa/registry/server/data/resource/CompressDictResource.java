@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.resource;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDict;
+import com.alipay.sofa.registry.compress.CompressConstants;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumStorageDelegate;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * train a zstd dict from the local datum, the result could be posted to meta by
+ * /compress/dict/append and then distributed to data and session by provide data
+ */
+@Path("compress/dict")
+public class CompressDictResource {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CompressDictResource.class);
+
+  private static final int MIN_SAMPLES = 64;
+
+  @Autowired DataServerConfig dataServerConfig;
+
+  @Autowired DatumStorageDelegate datumStorageDelegate;
+
+  /**
+   * curl "http://localhost:9622/compress/dict/train?dictSize=16384&maxSamples=10000"
+   *
+   * @param dictId dictId, default is the epoch seconds, the newer dict is preferred
+   * @param dictSize dictSize
+   * @param maxSamples maxSamples
+   * @return CompressDict
+   */
+  @GET
+  @Path("train")
+  @Produces(MediaType.APPLICATION_JSON)
+  public CompressDict train(
+      @QueryParam("dictId") @DefaultValue("0") int dictId,
+      @QueryParam("dictSize") @DefaultValue("16384") int dictSize,
+      @QueryParam("maxSamples") @DefaultValue("10000") int maxSamples) {
+    ParaCheckUtil.checkIsPositive(dictSize, "dictSize");
+    ParaCheckUtil.checkIsPositive(maxSamples, "maxSamples");
+    if (dictId <= 0) {
+      dictId = (int) (System.currentTimeMillis() / 1000);
+    }
+    List<byte[]> samples = collectSamples(maxSamples);
+    if (samples.size() < MIN_SAMPLES) {
+      LOGGER.warn("[TrainCompressDict]too few samples {} to train dict", samples.size());
+      return null;
+    }
+    byte[] dict = CompressUtils.trainZstdDict(samples, dictSize);
+    LOGGER.info(
+        "[TrainCompressDict]dictId={}, samples={}, dictSize={}, level={}",
+        dictId,
+        samples.size(),
+        dict.length,
+        CompressConstants.defaultZstdLevel);
+    return new CompressDict(dictId, dict);
+  }
+
+  List<byte[]> collectSamples(int maxSamples) {
+    Map<String, Datum> datumMap =
+        datumStorageDelegate.getAll(dataServerConfig.getLocalDataCenter());
+    List<byte[]> samples = Lists.newArrayListWithCapacity(Math.min(datumMap.size(), maxSamples));
+    for (Datum datum : datumMap.values()) {
+      if (samples.size() >= maxSamples) {
+        break;
+      }
+      if (datum.publisherSize() == 0) {
+        continue;
+      }
+      try {
+        samples.add(DatumUtils.serializePublishers(DatumUtils.of(datum)));
+      } catch (Throwable e) {
+        LOGGER.error("[TrainCompressDict]failed to serialize {}", datum.getDataInfoId(), e);
+      }
+    }
+    return samples;
+  }
+}
@@ -17,12 +17,14 @@
 package com.alipay.sofa.registry.server.data.slot;
 
 import com.alipay.sofa.registry.server.data.cache.DatumStorageDelegate;
+import com.alipay.sofa.registry.server.data.snapshot.DatumSnapshotManager;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * @author xiaojian.xj
@@ -36,9 +38,16 @@ public class SlotChangeListenerManager {
 
   @Resource private DatumStorageDelegate datumStorageDelegate;
 
+  @Autowired(required = false)
+  private DatumSnapshotManager datumSnapshotManager;
+
   @PostConstruct
   public void init() {
     localSlotChangeListeners.add(datumStorageDelegate.getSlotChangeListener(true));
+    if (datumSnapshotManager != null) {
+      // restore after the publisherGroups is created by the storage listener
+      localSlotChangeListeners.add(datumSnapshotManager.getSlotChangeListener());
+    }
 
     remoteSlotChangeListeners.add(datumStorageDelegate.getSlotChangeListener(false));
   }
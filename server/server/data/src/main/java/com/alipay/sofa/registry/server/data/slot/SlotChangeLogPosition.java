@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.slot;
+
+/**
+ * the position of the follower in the change log of the slot leader. the position is captured
+ * before the digest sync, and the changes after the position are replayed by the change log
+ */
+public final class SlotChangeLogPosition {
+  final long leaderEpoch;
+  final long logEpoch;
+  // negative means the position is out of range of the leader's log
+  final long seq;
+
+  private SlotChangeLogPosition(long leaderEpoch, long logEpoch, long seq) {
+    this.leaderEpoch = leaderEpoch;
+    this.logEpoch = logEpoch;
+    this.seq = seq;
+  }
+
+  public static SlotChangeLogPosition of(long leaderEpoch, long logEpoch, long seq) {
+    return new SlotChangeLogPosition(leaderEpoch, logEpoch, seq);
+  }
+
+  public static SlotChangeLogPosition outOfRange(long leaderEpoch) {
+    return new SlotChangeLogPosition(leaderEpoch, 0, -1);
+  }
+
+  public static boolean isReady(SlotChangeLogPosition position, long leaderEpoch) {
+    return position != null && position.leaderEpoch == leaderEpoch && position.seq >= 0;
+  }
+
+  public static boolean isOutOfRange(SlotChangeLogPosition position, long leaderEpoch) {
+    return position != null && position.leaderEpoch == leaderEpoch && position.seq < 0;
+  }
+
+  SlotChangeLogPosition advance(long nextSeq) {
+    return new SlotChangeLogPosition(leaderEpoch, logEpoch, nextSeq);
+  }
+
+  @Override
+  public String toString() {
+    return "LogPosition{" + leaderEpoch + "," + logEpoch + "," + seq + '}';
+  }
+}
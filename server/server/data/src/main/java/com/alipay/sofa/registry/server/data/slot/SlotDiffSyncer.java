@@ -26,10 +26,14 @@ import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogEntry;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherResult;
+import com.alipay.sofa.registry.common.model.slot.DataSlotMerkleTree;
 import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
@@ -52,6 +56,8 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author yuzhi.lyz
@@ -67,6 +73,11 @@ public final class SlotDiffSyncer {
 
   private final SyncSlotAcceptorManager syncSlotAcceptorManager;
 
+  // the leaders which not support the commutative digest, avoid to request the whole diff result
+  // in every round
+  private static final long DIGEST_FALLBACK_MILLIS = TimeUnit.MINUTES.toMillis(10);
+  private final Map<String, Long> digestFallbackLeaders = Maps.newConcurrentMap();
+
   public SlotDiffSyncer(
       DataServerConfig dataServerConfig,
       DatumStorageDelegate datumStorageDelegate,
@@ -485,6 +496,66 @@ public final class SlotDiffSyncer {
       SyncContinues continues)
       throws RequestException {
     ParaCheckUtil.checkNotBlank(slotLeaderIp, "slotLeaderIp");
+    if (dataServerConfig.isSlotSyncCommutativeDigestEnable() && !isDigestFallback(slotLeaderIp)) {
+      Map<String, DatumDigest> digestMap = Maps.newHashMap();
+      datumStorageDelegate.foreach(
+          syncDataCenter,
+          slotId,
+          DatumBiConsumer.publisherGroupsDigestBiConsumer(digestMap, syncSlotAcceptorManager));
+      if (syncLocal) {
+        SyncLeader.observeSyncLeaderId(slotId, digestMap.size());
+      } else {
+        RemoteSyncLeader.observeSyncLeaderId(syncDataCenter, slotId, digestMap.size());
+      }
+      final GenericResponse<DataSlotDiffDigestResult> resp;
+      if (dataServerConfig.isSlotSyncMerkleDigestEnable()) {
+        resp =
+            requestMerkleDigest(
+                localDataCenter,
+                slotId,
+                slotLeaderIp,
+                slotLeaderEpoch,
+                exchanger,
+                slotTableEpoch,
+                digestMap);
+      } else {
+        resp =
+            requestDigest(
+                slotLeaderIp,
+                exchanger,
+                DataSlotDiffDigestRequest.buildRequest(
+                    localDataCenter,
+                    slotTableEpoch,
+                    slotId,
+                    slotLeaderEpoch,
+                    digestMap,
+                    syncSlotAcceptorManager,
+                    PublisherDigestUtil.DIGEST_TYPE_COMMUTATIVE));
+      }
+      if (resp == null
+          || !resp.isSuccess()
+          || resp.getData().getDigestType() != PublisherDigestUtil.DIGEST_TYPE_SORTED) {
+        return syncByDigestResp(
+            localDataCenter,
+            syncDataCenter,
+            syncLocal,
+            slotId,
+            slotLeaderIp,
+            exchanger,
+            slotTableEpoch,
+            continues,
+            resp);
+      }
+      // the leader is an old version which not support commutative digest, fallback for a while
+      digestFallbackLeaders.put(slotLeaderIp, System.currentTimeMillis());
+      DIFF_LOGGER.warn(
+          "DiffDigestFallback, syncLocal={}, syncDataCenter={}, slotId={} from {}, digestType={}",
+          syncLocal,
+          syncDataCenter,
+          slotId,
+          slotLeaderIp,
+          resp.getData().getDigestType());
+    }
     Map<String, DatumSummary> summaries = Maps.newHashMap();
     datumStorageDelegate.foreach(
         syncDataCenter,
@@ -505,6 +576,278 @@ public final class SlotDiffSyncer {
         summaries);
   }
 
+  /**
+   * exchange the hash tree level by level, only the children of the different nodes are sent. if
+   * the slot is in sync, only the root is sent
+   *
+   * @return the resp of the leaves diff, or the resp which could not continue(fail, in sync, or the
+   *     leader not support)
+   */
+  private GenericResponse<DataSlotDiffDigestResult> requestMerkleDigest(
+      String localDataCenter,
+      int slotId,
+      String slotLeaderIp,
+      long slotLeaderEpoch,
+      ClientSideExchanger exchanger,
+      long slotTableEpoch,
+      Map<String, DatumDigest> digestMap) {
+    final DataSlotMerkleTree tree = new DataSlotMerkleTree(digestMap);
+    Map<Integer, Long> nodes = tree.rootNodes();
+    for (int level = 0; level < DataSlotMerkleTree.DEPTH; level++) {
+      GenericResponse<DataSlotDiffDigestResult> resp =
+          requestDigest(
+              slotLeaderIp,
+              exchanger,
+              DataSlotDiffDigestRequest.buildMerkleRequest(
+                  localDataCenter,
+                  slotTableEpoch,
+                  slotId,
+                  slotLeaderEpoch,
+                  Collections.emptyMap(),
+                  syncSlotAcceptorManager,
+                  level,
+                  nodes));
+      if (resp == null
+          || !resp.isSuccess()
+          || resp.getData().getDigestType() != PublisherDigestUtil.DIGEST_TYPE_MERKLE) {
+        return resp;
+      }
+      nodes = tree.diffNodes(level + 1, resp.getData().getMerkleNodes());
+      if (nodes.isEmpty()) {
+        // in sync, the resp is empty
+        return resp;
+      }
+    }
+    return requestDigest(
+        slotLeaderIp,
+        exchanger,
+        DataSlotDiffDigestRequest.buildMerkleRequest(
+            localDataCenter,
+            slotTableEpoch,
+            slotId,
+            slotLeaderEpoch,
+            DataSlotMerkleTree.filterLeaves(digestMap, nodes.keySet()),
+            syncSlotAcceptorManager,
+            DataSlotMerkleTree.DEPTH,
+            nodes));
+  }
+
+  private GenericResponse<DataSlotDiffDigestResult> requestDigest(
+      String slotLeaderIp, ClientSideExchanger exchanger, DataSlotDiffDigestRequest request) {
+    Response exchangeResp = exchanger.requestRaw(slotLeaderIp, request);
+    return (GenericResponse<DataSlotDiffDigestResult>) exchangeResp.getResult();
+  }
+
+  /**
+   * request the head of the change log of the leader, the head is captured before the digest sync,
+   * so the changes after the digest are all in the log after the head
+   *
+   * @return null if the leader not support the change log or failed
+   */
+  public DataSlotChangeLogResult requestChangeLogHead(
+      String localDataCenter,
+      int slotId,
+      String slotLeaderIp,
+      long slotLeaderEpoch,
+      ClientSideExchanger exchanger,
+      long slotTableEpoch) {
+    try {
+      GenericResponse<DataSlotChangeLogResult> resp =
+          requestChangeLog(
+              slotLeaderIp,
+              exchanger,
+              DataSlotChangeLogRequest.headRequest(
+                  localDataCenter, slotTableEpoch, slotId, slotLeaderEpoch));
+      if (resp == null || !resp.isSuccess()) {
+        DIFF_LOGGER.warn(
+            "ChangeLogHeadFailed, slotId={} from {}, resp={}", slotId, slotLeaderIp, resp);
+        return null;
+      }
+      return resp.getData();
+    } catch (Throwable e) {
+      DIFF_LOGGER.warn("ChangeLogHeadFailed, slotId={} from {}", slotId, slotLeaderIp, e);
+      return null;
+    }
+  }
+
+  /**
+   * pull and apply the change log from the position until no remain. if the position is out of
+   * range of the log, mark the position and the digest sync would capture a new one
+   *
+   * @return the num of the applied entries, -1 if failed
+   */
+  public int syncSlotLeaderLog(
+      String localDataCenter,
+      int slotId,
+      String slotLeaderIp,
+      long slotLeaderEpoch,
+      ClientSideExchanger exchanger,
+      long slotTableEpoch,
+      SyncContinues continues,
+      AtomicReference<SlotChangeLogPosition> positionRef)
+      throws RequestException {
+    ParaCheckUtil.checkNotBlank(slotLeaderIp, "slotLeaderIp");
+    final int maxNum = dataServerConfig.getSlotSyncPublisherMaxNum();
+    int applied = 0;
+    while (continues.continues()) {
+      final SlotChangeLogPosition position = positionRef.get();
+      if (!SlotChangeLogPosition.isReady(position, slotLeaderEpoch)) {
+        // reset by the leader changed
+        break;
+      }
+      GenericResponse<DataSlotChangeLogResult> resp =
+          requestChangeLog(
+              slotLeaderIp,
+              exchanger,
+              new DataSlotChangeLogRequest(
+                  localDataCenter,
+                  slotTableEpoch,
+                  slotId,
+                  slotLeaderEpoch,
+                  position.logEpoch,
+                  position.seq,
+                  maxNum));
+      if (resp == null || !resp.isSuccess()) {
+        DIFF_LOGGER.error(
+            "ChangeLogFailed, slotId={} from {}, {}, resp={}",
+            slotId,
+            slotLeaderIp,
+            position,
+            resp);
+        return -1;
+      }
+      final DataSlotChangeLogResult result = resp.getData();
+      if (result.isOutOfRange()) {
+        positionRef.compareAndSet(position, SlotChangeLogPosition.outOfRange(slotLeaderEpoch));
+        SyncLeader.observeSyncLeaderLogOutOfRange(slotId);
+        DIFF_LOGGER.info(
+            "ChangeLogOutOfRange, slotId={} from {}, {}, leaderLog={}/{}",
+            slotId,
+            slotLeaderIp,
+            position,
+            result.getLogEpoch(),
+            result.getNextSeq());
+        break;
+      }
+      applied += applyChangeLog(localDataCenter, result.getEntries());
+      if (!positionRef.compareAndSet(position, position.advance(result.getNextSeq()))
+          || !result.isHasRemain()) {
+        break;
+      }
+    }
+    if (applied != 0) {
+      SyncLeader.observeSyncLeaderLog(slotId, applied);
+    }
+    return applied;
+  }
+
+  /**
+   * apply the entries in order, the consecutive entries of the same dataInfoId and same type are
+   * merged into one modification. the put and remove are idempotent by the RegisterVersion
+   */
+  int applyChangeLog(String dataCenter, List<DataSlotChangeLogEntry> entries) {
+    int i = 0;
+    while (i < entries.size()) {
+      final DataSlotChangeLogEntry first = entries.get(i);
+      final String dataInfoId = WordCache.getWordCache(first.getDataInfoId());
+      int j = i + 1;
+      while (j < entries.size()
+          && entries.get(j).isPut() == first.isPut()
+          && dataInfoId.equals(entries.get(j).getDataInfoId())) {
+        j++;
+      }
+      if (first.isPut()) {
+        List<Publisher> publishers = new ArrayList<>(j - i);
+        for (int k = i; k < j; k++) {
+          publishers.add(entries.get(k).getPublisher());
+        }
+        Publisher.internPublisher(publishers);
+        datumStorageDelegate.putPublisher(dataCenter, dataInfoId, publishers);
+      } else {
+        Map<String, RegisterVersion> versions = Maps.newHashMapWithExpectedSize(j - i);
+        for (int k = i; k < j; k++) {
+          final DataSlotChangeLogEntry entry = entries.get(k);
+          versions.put(entry.getRegisterId(), entry.getRemovedVersion());
+        }
+        datumStorageDelegate.removePublishers(dataCenter, dataInfoId, null, versions);
+      }
+      i = j;
+    }
+    return entries.size();
+  }
+
+  private GenericResponse<DataSlotChangeLogResult> requestChangeLog(
+      String slotLeaderIp, ClientSideExchanger exchanger, DataSlotChangeLogRequest request) {
+    Response exchangeResp = exchanger.requestRaw(slotLeaderIp, request);
+    return (GenericResponse<DataSlotChangeLogResult>) exchangeResp.getResult();
+  }
+
+  boolean isDigestFallback(String slotLeaderIp) {
+    Long fallbackTimestamp = digestFallbackLeaders.get(slotLeaderIp);
+    if (fallbackTimestamp == null) {
+      return false;
+    }
+    if (System.currentTimeMillis() - fallbackTimestamp < DIGEST_FALLBACK_MILLIS) {
+      return true;
+    }
+    // maybe the leader has upgraded, try again
+    digestFallbackLeaders.remove(slotLeaderIp, fallbackTimestamp);
+    return false;
+  }
+
+  private boolean syncByDigestResp(
+      String localDataCenter,
+      String syncDataCenter,
+      boolean syncLocal,
+      int slotId,
+      String slotLeaderIp,
+      ClientSideExchanger exchanger,
+      long slotTableEpoch,
+      SyncContinues continues,
+      GenericResponse<DataSlotDiffDigestResult> resp) {
+    // only assembly the summaries of the diff dataInfoIds
+    Map<String, DatumSummary> summaries = Maps.newHashMap();
+    if (resp != null && resp.isSuccess() && !resp.getData().isEmpty()) {
+      DataSlotDiffDigestResult diff = resp.getData();
+      Set<String> dataInfoIds =
+          Sets.newHashSetWithExpectedSize(
+              diff.getUpdatedDataInfoIds().size() + diff.getRemovedDataInfoIds().size());
+      dataInfoIds.addAll(diff.getUpdatedDataInfoIds());
+      dataInfoIds.addAll(diff.getRemovedDataInfoIds());
+      datumStorageDelegate.foreach(
+          syncDataCenter,
+          slotId,
+          DatumBiConsumer.dataInfoIdsPublisherGroupsBiConsumer(
+              summaries, dataInfoIds, syncSlotAcceptorManager));
+      // the dataInfoId maybe cleaned after digest
+      for (String dataInfoId : dataInfoIds) {
+        summaries.computeIfAbsent(dataInfoId, DatumSummary::new);
+      }
+    }
+    DataSlotDiffDigestResult result =
+        processSyncDigestResp(syncLocal, syncDataCenter, slotId, resp, slotLeaderIp, summaries);
+    if (result == null) {
+      return false;
+    }
+    if (result.getUpdateAndAddSize() == 0) {
+      // no change of update and add
+      return true;
+    }
+    final Map<String, DatumSummary> newSummaryMap = getSummaryForSyncPublishers(result, summaries);
+    return syncPublishers(
+        localDataCenter,
+        syncLocal,
+        syncDataCenter,
+        slotId,
+        slotLeaderIp,
+        exchanger,
+        slotTableEpoch,
+        newSummaryMap,
+        dataServerConfig.getSlotSyncPublisherDigestMaxNum(),
+        continues,
+        false);
+  }
+
   static Map<String, DatumSummary> pickSummaries(Map<String, DatumSummary> syncSummaries, int n) {
     Map<String, DatumSummary> m = new HashMap<>();
     for (Map.Entry<String, DatumSummary> e : syncSummaries.entrySet()) {
@@ -651,7 +651,13 @@ public final class SlotManagerImpl implements SlotManager {
     if (syncLeaderTask != null && syncLeaderTask.isFinished()) {
       slotState.completeSyncLeaderTask();
     }
-    if (syncLeaderTask == null || syncLeaderTask.isOverAfter(syncLeaderIntervalMs)) {
+    final boolean syncLog = dataServerConfig.isSlotFollowerSyncLeaderLogEnable();
+    if (syncLeaderTask == null
+        || syncLeaderTask.isOverAfter(syncLeaderIntervalMs)
+        || (syncLog
+            && syncLeaderTask.isFinished()
+            && SlotChangeLogPosition.isOutOfRange(
+                slotState.changeLogPosition.get(), slot.getLeaderEpoch()))) {
       // sync leader no need to notify event
       SlotDiffSyncer syncer =
           new SlotDiffSyncer(
@@ -678,16 +684,59 @@ public final class SlotManagerImpl implements SlotManager {
               dataNodeExchanger,
               continues,
               SYNC_DIGEST_LOGGER,
-              SYNC_ERROR_LOGGER);
+              SYNC_ERROR_LOGGER,
+              syncLog ? slotState.changeLogPosition : null);
       slotState.syncLeaderTask = syncLeaderExecutor.execute(slot.getId(), task);
     } else if (!syncLeaderTask.isFinished()) {
       if (System.currentTimeMillis() - syncLeaderTask.getCreateTime() > 5000) {
         // the sync leader is running more than 5secs, print
         LOGGER.info("sync-leader running, {}", syncLeaderTask);
       }
+    } else if (syncLog) {
+      syncLeaderLog(slotState, slotTableEpoch);
     }
   }
 
+  private void syncLeaderLog(SlotState slotState, long slotTableEpoch) {
+    final Slot slot = slotState.slot;
+    final KeyedTask<SyncLeaderLogTask> syncLeaderLogTask = slotState.syncLeaderLogTask;
+    if (syncLeaderLogTask != null && !syncLeaderLogTask.isFinished()) {
+      return;
+    }
+    slotState.completeSyncLeaderLogTask();
+    if (!SlotChangeLogPosition.isReady(slotState.changeLogPosition.get(), slot.getLeaderEpoch())) {
+      // the position is captured by the digest sync
+      return;
+    }
+    SlotDiffSyncer syncer =
+        new SlotDiffSyncer(
+            dataServerConfig,
+            datumStorageDelegate,
+            null,
+            sessionLeaseManager,
+            syncSlotAcceptAllManager,
+            DIFF_LOGGER);
+    SyncContinues continues =
+        new SyncContinues() {
+          @Override
+          public boolean continues() {
+            return isFollower(dataServerConfig.getLocalDataCenter(), slot.getId());
+          }
+        };
+    SyncLeaderLogTask task =
+        new SyncLeaderLogTask(
+            dataServerConfig.getLocalDataCenter(),
+            slotTableEpoch,
+            slot,
+            syncer,
+            dataNodeExchanger,
+            continues,
+            slotState.changeLogPosition,
+            SYNC_DIGEST_LOGGER,
+            SYNC_ERROR_LOGGER);
+    slotState.syncLeaderLogTask = syncLeaderExecutor.execute(slot.getId(), task);
+  }
+
   private KeyedTask<SyncSessionTask> commitSyncSessionTask(
       Slot slot,
       long slotTableEpoch,
@@ -745,6 +794,9 @@ public final class SlotManagerImpl implements SlotManager {
     final Map<String, MigratingTask> migratingTasks = Maps.newTreeMap();
     final Map<String, KeyedTask<SyncSessionTask>> syncSessionTasks = Maps.newTreeMap();
     volatile KeyedTask<SyncLeaderTask> syncLeaderTask;
+    volatile KeyedTask<SyncLeaderLogTask> syncLeaderLogTask;
+    // the position of the follower in the change log of the leader
+    final AtomicReference<SlotChangeLogPosition> changeLogPosition = new AtomicReference<>();
 
     SlotState(Slot slot) {
       this.slotId = slot.getId();
@@ -758,6 +810,7 @@ public final class SlotManagerImpl implements SlotManager {
         this.syncSessionTasks.clear();
         this.migratingTasks.clear();
         this.migratingStartTime = 0;
+        this.changeLogPosition.set(null);
         if (localIsLeader(s)) {
           // leader change
           observeLeaderUpdateCounter();
@@ -775,6 +828,16 @@ public final class SlotManagerImpl implements SlotManager {
       }
     }
 
+    void completeSyncLeaderLogTask() {
+      // the follower is in sync with the leader after the change log is applied
+      if (syncLeaderLogTask != null
+          && syncLeaderLogTask.isSuccess()
+          && SlotChangeLogPosition.isReady(changeLogPosition.get(), slot.getLeaderEpoch())) {
+        this.lastSuccessLeaderSyncTime =
+            Math.max(lastSuccessLeaderSyncTime, syncLeaderLogTask.getEndTime());
+      }
+    }
+
     int countSyncSuccess(Collection<String> sessions) {
       int count = 0;
       for (String session : sessions) {
@@ -193,6 +193,24 @@ public final class SlotMetrics {
             .labelNames("slot")
             .register();
 
+    private static final Counter SYNC_LEADER_LOG_COUNTER =
+        Counter.build()
+            .namespace("data")
+            .subsystem("sync")
+            .name("leader_log_total")
+            .help("count sync leader change log entries")
+            .labelNames("slot")
+            .register();
+
+    private static final Counter SYNC_LEADER_LOG_OUT_OF_RANGE_COUNTER =
+        Counter.build()
+            .namespace("data")
+            .subsystem("sync")
+            .name("leader_log_out_of_range_total")
+            .help("count sync leader change log out of range")
+            .labelNames("slot")
+            .register();
+
     static void observeSyncLeaderId(int slotId, int idNum) {
       final String str = String.valueOf(slotId);
       SYNC_LEADER_ID_COUNTER.labels(str).inc();
@@ -204,5 +222,13 @@ public final class SlotMetrics {
       SYNC_LEADER_PUB_COUNTER.labels(str).inc();
       SYNC_LEADER_PUB_NUM_COUNTER.labels(str).inc(pubNum);
     }
+
+    static void observeSyncLeaderLog(int slotId, int entryNum) {
+      SYNC_LEADER_LOG_COUNTER.labels(String.valueOf(slotId)).inc(entryNum);
+    }
+
+    static void observeSyncLeaderLogOutOfRange(int slotId) {
+      SYNC_LEADER_LOG_OUT_OF_RANGE_COUNTER.labels(String.valueOf(slotId)).inc();
+    }
   }
 }
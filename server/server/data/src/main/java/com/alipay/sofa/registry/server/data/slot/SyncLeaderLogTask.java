@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.slot;
+
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.server.shared.remoting.ClientSideExchanger;
+import com.alipay.sofa.registry.task.TaskErrorSilenceException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** pull and apply the change log of the slot leader from the position of the follower */
+public class SyncLeaderLogTask implements Runnable {
+  private final String localDataCenter;
+  private final long startTimestamp = System.currentTimeMillis();
+  private final long slotTableEpoch;
+  private final Slot slot;
+  private final SlotDiffSyncer syncer;
+  private final ClientSideExchanger clientSideExchanger;
+  private final SyncContinues continues;
+  private final AtomicReference<SlotChangeLogPosition> changeLogPosition;
+
+  private final Logger SYNC_DIGEST_LOGGER;
+  private final Logger SYNC_ERROR_LOGGER;
+
+  public SyncLeaderLogTask(
+      String localDataCenter,
+      long slotTableEpoch,
+      Slot slot,
+      SlotDiffSyncer syncer,
+      ClientSideExchanger clientSideExchanger,
+      SyncContinues continues,
+      AtomicReference<SlotChangeLogPosition> changeLogPosition,
+      Logger syncDigestLogger,
+      Logger syncErrorLogger) {
+    this.localDataCenter = localDataCenter;
+    this.slotTableEpoch = slotTableEpoch;
+    this.slot = slot;
+    this.syncer = syncer;
+    this.clientSideExchanger = clientSideExchanger;
+    this.continues = continues;
+    this.changeLogPosition = changeLogPosition;
+    this.SYNC_DIGEST_LOGGER = syncDigestLogger;
+    this.SYNC_ERROR_LOGGER = syncErrorLogger;
+  }
+
+  @Override
+  public void run() {
+    int applied = -1;
+    try {
+      applied =
+          syncer.syncSlotLeaderLog(
+              localDataCenter,
+              slot.getId(),
+              slot.getLeader(),
+              slot.getLeaderEpoch(),
+              clientSideExchanger,
+              slotTableEpoch,
+              continues,
+              changeLogPosition);
+    } catch (Throwable e) {
+      SYNC_ERROR_LOGGER.error(
+          "[syncLeaderLog]failed={}, slot={}", slot.getLeader(), slot.getId(), e);
+    } finally {
+      // most of the pulls are empty, only print the modification
+      if (applied != 0) {
+        SYNC_DIGEST_LOGGER.info(
+            "[syncLeaderLog]{},{},{},{},span={}",
+            applied > 0 ? 'Y' : 'N',
+            slot.getId(),
+            slot.getLeader(),
+            applied,
+            System.currentTimeMillis() - startTimestamp);
+      }
+    }
+    if (applied < 0) {
+      // rethrow silence exception, notify the task is failed
+      throw TaskErrorSilenceException.INSTANCE;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SyncLeaderLogTask{"
+        + "slotTableEpoch="
+        + slotTableEpoch
+        + ", slot="
+        + slot
+        + ", position="
+        + changeLogPosition.get()
+        + '}';
+  }
+}
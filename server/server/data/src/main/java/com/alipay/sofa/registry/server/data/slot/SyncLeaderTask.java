@@ -16,11 +16,13 @@
  */
 package com.alipay.sofa.registry.server.data.slot;
 
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
 import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.server.shared.remoting.ClientSideExchanger;
 import com.alipay.sofa.registry.task.TaskErrorSilenceException;
 import com.alipay.sofa.registry.util.StringFormatter;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.commons.lang.StringUtils;
 
 /**
@@ -39,6 +41,8 @@ public class SyncLeaderTask implements Runnable {
   private final SlotDiffSyncer syncer;
   private final ClientSideExchanger clientSideExchanger;
   private final SyncContinues continues;
+  // capture the position of the change log before the digest, null if not sync the change log
+  private final AtomicReference<SlotChangeLogPosition> changeLogPosition;
 
   private final Logger SYNC_DIGEST_LOGGER;
   private final Logger SYNC_ERROR_LOGGER;
@@ -53,6 +57,30 @@ public class SyncLeaderTask implements Runnable {
       SyncContinues continues,
       Logger syncDigestLogger,
       Logger syncErrorLogger) {
+    this(
+        localDataCenter,
+        syncDataCenter,
+        slotTableEpoch,
+        slot,
+        syncer,
+        clientSideExchanger,
+        continues,
+        syncDigestLogger,
+        syncErrorLogger,
+        null);
+  }
+
+  public SyncLeaderTask(
+      String localDataCenter,
+      String syncDataCenter,
+      long slotTableEpoch,
+      Slot slot,
+      SlotDiffSyncer syncer,
+      ClientSideExchanger clientSideExchanger,
+      SyncContinues continues,
+      Logger syncDigestLogger,
+      Logger syncErrorLogger,
+      AtomicReference<SlotChangeLogPosition> changeLogPosition) {
     this.localDataCenter = localDataCenter;
     this.syncDataCenter = syncDataCenter;
     syncLocalDataCenter = StringUtils.equals(localDataCenter, syncDataCenter);
@@ -62,6 +90,7 @@ public class SyncLeaderTask implements Runnable {
     this.syncer = syncer;
     this.clientSideExchanger = clientSideExchanger;
     this.continues = continues;
+    this.changeLogPosition = changeLogPosition;
 
     this.SYNC_DIGEST_LOGGER = syncDigestLogger;
     this.SYNC_ERROR_LOGGER = syncErrorLogger;
@@ -71,6 +100,19 @@ public class SyncLeaderTask implements Runnable {
   public void run() {
     boolean success = false;
     try {
+      final SlotChangeLogPosition position =
+          changeLogPosition == null ? null : changeLogPosition.get();
+      final DataSlotChangeLogResult head =
+          changeLogPosition == null
+                  || SlotChangeLogPosition.isReady(position, slot.getLeaderEpoch())
+              ? null
+              : syncer.requestChangeLogHead(
+                  localDataCenter,
+                  slot.getId(),
+                  slot.getLeader(),
+                  slot.getLeaderEpoch(),
+                  clientSideExchanger,
+                  slotTableEpoch);
       success =
           syncer.syncSlotLeader(
               localDataCenter,
@@ -85,6 +127,12 @@ public class SyncLeaderTask implements Runnable {
       if (!success) {
         throw new RuntimeException(StringFormatter.format("{} sync leader failed", syncDataCenter));
       }
+      if (head != null) {
+        // the follower has applied the changes before the head, replay the log from the head
+        changeLogPosition.compareAndSet(
+            position,
+            SlotChangeLogPosition.of(slot.getLeaderEpoch(), head.getLogEpoch(), head.getNextSeq()));
+      }
     } catch (Throwable e) {
       SYNC_ERROR_LOGGER.error(
           "[syncLeader]syncLocal={}, syncDataCenter={}, failed={}, slot={}",
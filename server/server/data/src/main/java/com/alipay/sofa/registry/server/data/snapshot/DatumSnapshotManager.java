@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.snapshot;
+
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotConfig;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumStorageDelegate;
+import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
+import com.alipay.sofa.registry.server.data.slot.SlotManager;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.LoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * keep the snapshot of the local datum storage on disk. when the data server restarts, the snapshot
+ * of a slot is restored once the slot is assigned to local, then the migrating and the syncing only
+ * pull the digest diff instead of all publishers
+ */
+public class DatumSnapshotManager {
+  private static final Logger LOGGER = LoggerFactory.getLogger("SNAPSHOT");
+
+  @Autowired DataServerConfig dataServerConfig;
+
+  @Autowired DatumStorageDelegate datumStorageDelegate;
+
+  @Autowired SlotManager slotManager;
+
+  // the snapshots load at startup, removed after restored or the first slot table is applied
+  private final Map<Integer, SlotSnapshot> pendingSnapshots = Maps.newConcurrentMap();
+
+  private final SnapshotWriter writer = new SnapshotWriter();
+
+  @PostConstruct
+  public void init() {
+    if (!dataServerConfig.isDatumSnapshotEnable()) {
+      LOGGER.info("datum snapshot is disable");
+      return;
+    }
+    load();
+    ConcurrentUtils.createDaemonThread("datum-snapshot-writer", writer).start();
+  }
+
+  File snapshotDir() {
+    return new File(dataServerConfig.getDatumSnapshotDir(), dataServerConfig.getLocalDataCenter());
+  }
+
+  int load() {
+    final File dir = snapshotDir();
+    final File[] files = dir.listFiles();
+    if (files == null) {
+      LOGGER.info("[load]no snapshot in {}", dir);
+      return 0;
+    }
+    final long start = System.currentTimeMillis();
+    final long expireTimestamp = start - dataServerConfig.getDatumSnapshotMaxAgeSecs() * 1000L;
+    int pubCount = 0;
+    for (File file : files) {
+      final int slotId = SlotSnapshot.slotIdOf(file);
+      if (slotId < 0 || slotId >= SlotConfig.SLOT_NUM) {
+        continue;
+      }
+      try {
+        SlotSnapshot snapshot = SlotSnapshot.read(file);
+        if (snapshot.getTimestamp() < expireTimestamp) {
+          LOGGER.info("[load]skip expired {}", snapshot);
+          continue;
+        }
+        pendingSnapshots.put(slotId, snapshot);
+        pubCount += snapshot.getPublishers().size();
+      } catch (Throwable e) {
+        LOGGER.error("[load]failed to load snapshot {}", file, e);
+      }
+    }
+    LOGGER.info(
+        "[load]slots={}, pubs={}, span={}",
+        pendingSnapshots.size(),
+        pubCount,
+        System.currentTimeMillis() - start);
+    return pendingSnapshots.size();
+  }
+
+  /**
+   * restore the snapshot of the slot into the storage, only the first assignment of the slot after
+   * startup takes effect
+   *
+   * @param dataCenter dataCenter
+   * @param slotId slotId
+   * @return the num of restored publishers
+   */
+  int restore(String dataCenter, int slotId) {
+    final SlotSnapshot snapshot = pendingSnapshots.remove(slotId);
+    if (snapshot == null) {
+      return 0;
+    }
+    final long start = System.currentTimeMillis();
+    Map<String, List<Publisher>> pubs = Maps.newHashMap();
+    for (Publisher p : snapshot.getPublishers()) {
+      pubs.computeIfAbsent(p.getDataInfoId(), k -> Lists.newArrayList())
+          .add(Publisher.internPublisher(p));
+    }
+    int count = 0;
+    for (Map.Entry<String, List<Publisher>> e : pubs.entrySet()) {
+      if (datumStorageDelegate.putPublisher(dataCenter, e.getKey(), e.getValue()) != null) {
+        count += e.getValue().size();
+      }
+    }
+    LOGGER.info(
+        "[restore]slotId={}, datas={}, pubs={}/{}, span={}",
+        slotId,
+        pubs.size(),
+        count,
+        snapshot.getPublishers().size(),
+        System.currentTimeMillis() - start);
+    return count;
+  }
+
+  void discardPending() {
+    if (pendingSnapshots.isEmpty()) {
+      return;
+    }
+    // the slots not assigned to local after the first slot table
+    LOGGER.info("[discard]slots={}", pendingSnapshots.keySet());
+    pendingSnapshots.clear();
+  }
+
+  /**
+   * write the snapshots of the slots owned by local, and delete the snapshots of other slots
+   *
+   * @return the num of written slots
+   */
+  int writeSnapshots() {
+    if (slotManager.getSlotTableEpoch() == SlotTable.INIT.getEpoch()) {
+      // not receive the slot table, not override the snapshot before restored
+      return 0;
+    }
+    discardPending();
+    final String dataCenter = dataServerConfig.getLocalDataCenter();
+    final File dir = snapshotDir();
+    int written = 0;
+    for (int slotId = 0; slotId < SlotConfig.SLOT_NUM; slotId++) {
+      final File file = SlotSnapshot.fileOf(dir, slotId);
+      try {
+        if (!slotManager.isLeader(dataCenter, slotId)
+            && !slotManager.isFollower(dataCenter, slotId)) {
+          if (Files.deleteIfExists(file.toPath())) {
+            LOGGER.info("[delete]slotId={}", slotId);
+          }
+          continue;
+        }
+        final long start = System.currentTimeMillis();
+        final List<Publisher> publishers = Lists.newArrayListWithCapacity(128);
+        datumStorageDelegate.foreach(
+            dataCenter,
+            slotId,
+            (dataInfoId, group) ->
+                group.foreach(
+                    (registerId, envelope) -> {
+                      if (envelope.getPublisher() != null) {
+                        publishers.add(envelope.getPublisher());
+                      }
+                    }));
+        long bytes = SlotSnapshot.write(dir, slotId, publishers);
+        written++;
+        LOGGER.info(
+            "[write]slotId={}, pubs={}, bytes={}, span={}",
+            slotId,
+            publishers.size(),
+            bytes,
+            System.currentTimeMillis() - start);
+      } catch (Throwable e) {
+        LOGGER.error("[write]failed to write snapshot, slotId={}", slotId, e);
+      }
+    }
+    return written;
+  }
+
+  public SlotChangeListener getSlotChangeListener() {
+    return new SlotListener();
+  }
+
+  private final class SlotListener implements SlotChangeListener {
+
+    @Override
+    public void onSlotAdd(String dataCenter, int slotId, Slot.Role role) {
+      // the publisherGroups has been created by the storage listener
+      try {
+        restore(dataCenter, slotId);
+      } catch (Throwable e) {
+        LOGGER.error("[restore]failed to restore snapshot, slotId={}", slotId, e);
+      }
+    }
+
+    @Override
+    public void onSlotRemove(String dataCenter, int slotId, Slot.Role role) {}
+  }
+
+  private final class SnapshotWriter extends LoopRunnable {
+    @Override
+    public void runUnthrowable() {
+      writeSnapshots();
+    }
+
+    @Override
+    public void waitingUnthrowable() {
+      ConcurrentUtils.sleepUninterruptibly(
+          dataServerConfig.getDatumSnapshotIntervalSecs(), TimeUnit.SECONDS);
+    }
+  }
+
+  @VisibleForTesting
+  int pendingSize() {
+    return pendingSnapshots.size();
+  }
+
+  @VisibleForTesting
+  public void setDataServerConfig(DataServerConfig dataServerConfig) {
+    this.dataServerConfig = dataServerConfig;
+  }
+
+  @VisibleForTesting
+  public void setDatumStorageDelegate(DatumStorageDelegate datumStorageDelegate) {
+    this.datumStorageDelegate = datumStorageDelegate;
+  }
+
+  @VisibleForTesting
+  public void setSlotManager(SlotManager slotManager) {
+    this.slotManager = slotManager;
+  }
+}
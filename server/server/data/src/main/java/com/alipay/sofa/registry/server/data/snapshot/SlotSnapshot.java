@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.snapshot;
+
+import com.alipay.remoting.serialization.Serializer;
+import com.alipay.remoting.serialization.SerializerManager;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.util.FileUtils;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * the publishers of a slot persisted on local disk. the layout of the file is
+ *
+ * <pre>
+ * magic(int) | version(int) | slotId(int) | timestamp(long) | count(int)
+ * | [len(int) | hessian(list of publisher)] * chunks | crc32(long)
+ * </pre>
+ *
+ * the publishers are serialized in chunks, the class definitions are shared in a chunk
+ */
+public final class SlotSnapshot {
+  static final int MAGIC = 0x53524453;
+  static final int VERSION = 1;
+  private static final String SUFFIX = ".snapshot";
+  private static final String TMP_SUFFIX = ".tmp";
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int CHUNK_SIZE = 512;
+
+  private final int slotId;
+  private final long timestamp;
+  private final List<Publisher> publishers;
+
+  public SlotSnapshot(int slotId, long timestamp, List<Publisher> publishers) {
+    this.slotId = slotId;
+    this.timestamp = timestamp;
+    this.publishers = Collections.unmodifiableList(publishers);
+  }
+
+  public static File fileOf(File dir, int slotId) {
+    return new File(dir, "slot-" + slotId + SUFFIX);
+  }
+
+  /**
+   * parse the slotId from the name of snapshot file
+   *
+   * @param file file
+   * @return -1 if the file is not a snapshot
+   */
+  public static int slotIdOf(File file) {
+    final String name = file.getName();
+    if (!name.startsWith("slot-") || !name.endsWith(SUFFIX)) {
+      return -1;
+    }
+    try {
+      return Integer.parseInt(name.substring("slot-".length(), name.length() - SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * write the publishers to a tmp file and then rename it, the existing snapshot is not broken if
+   * the writing failed
+   *
+   * @param dir dir
+   * @param slotId slotId
+   * @param publishers publishers
+   * @return the bytes of the snapshot
+   * @throws IOException IOException
+   */
+  public static long write(File dir, int slotId, Collection<Publisher> publishers)
+      throws IOException {
+    ParaCheckUtil.checkNotNull(publishers, "publishers");
+    FileUtils.forceMkdir(dir);
+    final File file = fileOf(dir, slotId);
+    final File tmp = new File(dir, file.getName() + TMP_SUFFIX);
+    final Serializer serializer = SerializerManager.getSerializer(SerializerManager.Hessian2);
+    final CRC32 crc = new CRC32();
+    try (OutputStream fout =
+            new BufferedOutputStream(FileUtils.openOutputStream(tmp, false), BUFFER_SIZE);
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(fout, crc))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(slotId);
+      out.writeLong(System.currentTimeMillis());
+      out.writeInt(publishers.size());
+      for (List<Publisher> chunk : Iterables.partition(publishers, CHUNK_SIZE)) {
+        byte[] bs = serializer.serialize(Lists.newArrayList(chunk));
+        out.writeInt(bs.length);
+        out.write(bs);
+      }
+      out.flush();
+      // the checksum is not included in itself
+      new DataOutputStream(fout).writeLong(crc.getValue());
+      fout.flush();
+    } catch (Throwable e) {
+      Files.deleteIfExists(tmp.toPath());
+      throw e instanceof IOException ? (IOException) e : new IOException(e);
+    }
+    Files.move(
+        tmp.toPath(),
+        file.toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    return file.length();
+  }
+
+  /**
+   * read the snapshot and verify the checksum
+   *
+   * @param file file
+   * @return snapshot
+   * @throws IOException if the file is broken
+   */
+  public static SlotSnapshot read(File file) throws IOException {
+    final Serializer serializer = SerializerManager.getSerializer(SerializerManager.Hessian2);
+    final CRC32 crc = new CRC32();
+    try (InputStream fin = new BufferedInputStream(FileUtils.openInputStream(file), BUFFER_SIZE);
+        DataInputStream in = new DataInputStream(new CheckedInputStream(fin, crc))) {
+      final int magic = in.readInt();
+      if (magic != MAGIC) {
+        throw new IOException("illegal magic " + magic + " of " + file);
+      }
+      final int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException("unsupported version " + version + " of " + file);
+      }
+      final int slotId = in.readInt();
+      final long timestamp = in.readLong();
+      final int count = in.readInt();
+      if (count < 0) {
+        throw new IOException("illegal count " + count + " of " + file);
+      }
+      final int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+      final List<byte[]> items = Lists.newArrayListWithCapacity(chunks);
+      for (int i = 0; i < chunks; i++) {
+        final int len = in.readInt();
+        if (len < 0) {
+          throw new IOException("illegal length " + len + " of " + file);
+        }
+        byte[] bs = new byte[len];
+        in.readFully(bs);
+        items.add(bs);
+      }
+      final long expect = crc.getValue();
+      final long checksum = new DataInputStream(fin).readLong();
+      if (expect != checksum) {
+        throw new IOException("checksum mismatch of " + file);
+      }
+      // deserialize after the checksum is verified
+      final List<Publisher> publishers = Lists.newArrayListWithCapacity(count);
+      for (byte[] bs : items) {
+        List<Publisher> chunk = serializer.deserialize(bs, ArrayList.class.getName());
+        publishers.addAll(chunk);
+      }
+      if (publishers.size() != count) {
+        throw new IOException("count mismatch " + publishers.size() + "/" + count + " of " + file);
+      }
+      return new SlotSnapshot(slotId, timestamp, publishers);
+    } catch (IOException e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IOException("failed to read " + file, e);
+    }
+  }
+
+  /**
+   * Getter method for property <tt>slotId</tt>.
+   *
+   * @return property value of slotId
+   */
+  public int getSlotId() {
+    return slotId;
+  }
+
+  /**
+   * Getter method for property <tt>timestamp</tt>.
+   *
+   * @return property value of timestamp
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Getter method for property <tt>publishers</tt>.
+   *
+   * @return property value of publishers
+   */
+  public List<Publisher> getPublishers() {
+    return publishers;
+  }
+
+  @Override
+  public String toString() {
+    return "SlotSnapshot{slotId="
+        + slotId
+        + ", timestamp="
+        + timestamp
+        + ", pubs="
+        + publishers.size()
+        + '}';
+  }
+}
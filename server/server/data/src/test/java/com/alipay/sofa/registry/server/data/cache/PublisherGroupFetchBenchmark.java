@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** compare the fetch cost of rebuilding datum on every read against the shared snapshot */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PublisherGroupFetchBenchmark {
+
+  @Param({"100", "1000", "5000"})
+  private int pubNum;
+
+  private PublisherGroup group;
+
+  @Setup
+  public void setup() {
+    Publisher first = TestBaseUtils.createTestPublisher("benchmarkDataId");
+    group = new PublisherGroup(first.getDataInfoId(), "dc");
+    List<Publisher> publishers = Lists.newArrayListWithCapacity(pubNum);
+    for (int i = 0; i < pubNum; i++) {
+      Publisher publisher = TestBaseUtils.createTestPublisher("benchmarkDataId");
+      publisher.setDataList(
+          Lists.newArrayList(new ServerDataBox("bolt://192.168.0." + i + ":12200?v=4.0")));
+      publishers.add(publisher);
+    }
+    group.put(publishers);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+  public SubDatum rebuild() {
+    return DatumUtils.of(group.toDatum());
+  }
+
+  @Benchmark
+  @Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+  public SubDatum snapshot() {
+    return group.toSubDatum();
+  }
+}
@@ -18,13 +18,18 @@ package com.alipay.sofa.registry.server.data.cache;
 
 import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.ServerDataBox;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptAllManager;
 import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
 import com.alipay.sofa.registry.server.data.pubiterator.DatumBiConsumer;
@@ -387,4 +392,117 @@ public class PublisherGroupTest {
     Assert.assertEquals(conns.size(), 1);
     Assert.assertEquals(conns.get(newer.getRegisterId()), newer);
   }
+
+  @Test
+  public void testSubDatumSnapshot() {
+    final String dataId = "testDataInfoId";
+    Publisher publisher = TestBaseUtils.createTestPublisher(dataId);
+    PublisherGroup group = new PublisherGroup(publisher.getDataInfoId(), "dc");
+
+    SubDatum empty = group.toSubDatum();
+    Assert.assertEquals(empty.getVersion(), group.getVersion().getValue());
+    Assert.assertEquals(empty.mustGetPublishers().size(), 0);
+    Assert.assertTrue(empty == group.toSubDatum());
+
+    DatumVersion v = group.addPublisher(publisher);
+    Assert.assertNotNull(v);
+    SubDatum subDatum = group.toSubDatum();
+    Assert.assertTrue(subDatum != empty);
+    Assert.assertEquals(subDatum.getVersion(), v.getValue());
+    Assert.assertEquals(subDatum.getDataInfoId(), group.dataInfoId);
+    Assert.assertEquals(subDatum.getDataCenter(), group.dataCenter);
+    Assert.assertEquals(subDatum.getDataId(), group.dataId);
+    Assert.assertEquals(subDatum.getInstanceId(), group.instanceId);
+    Assert.assertEquals(subDatum.getGroup(), group.group);
+    Assert.assertEquals(subDatum.getRecentVersions(), group.toDatum().getRecentVersions());
+    Assert.assertEquals(subDatum.mustGetPublishers().size(), 1);
+    Assert.assertEquals(
+        subDatum.mustGetPublishers().get(0).getRegisterId(), publisher.getRegisterId());
+    // shared until modified
+    Assert.assertTrue(subDatum == group.toSubDatum());
+
+    // replace the pub with same dataList, version not change, but the snapshot is invalidated
+    Publisher newer = TestBaseUtils.cloneBase(publisher);
+    newer.setVersion(publisher.getVersion() + 1);
+    Assert.assertNull(group.addPublisher(newer));
+    SubDatum replaced = group.toSubDatum();
+    Assert.assertTrue(replaced != subDatum);
+    Assert.assertEquals(replaced.getVersion(), subDatum.getVersion());
+    Assert.assertEquals(replaced.mustGetPublishers().get(0).getVersion(), newer.getVersion());
+
+    v = group.updateVersion();
+    SubDatum updated = group.toSubDatum();
+    Assert.assertTrue(updated != replaced);
+    Assert.assertEquals(updated.getVersion(), v.getValue());
+
+    v = group.clearPublishers();
+    Assert.assertNotNull(v);
+    SubDatum cleared = group.toSubDatum();
+    Assert.assertEquals(cleared.getVersion(), v.getValue());
+    Assert.assertEquals(cleared.mustGetPublishers().size(), 0);
+  }
+
+  @Test
+  public void testDigest() {
+    final String dataId = "testDataInfoId";
+    Publisher publisher = TestBaseUtils.createTestPublisher(dataId);
+    PublisherGroup group = new PublisherGroup(publisher.getDataInfoId(), "dc");
+    SyncSlotAcceptorManager acceptAll = new SyncSlotAcceptAllManager();
+    assertDigest(group, acceptAll);
+    final DatumDigest empty = group.getDigest(acceptAll);
+
+    group.addPublisher(publisher);
+    assertDigest(group, acceptAll);
+    Publisher syncer = TestBaseUtils.createTestPublisher(dataId);
+    syncer.setPublishSource(PublishSource.DATUM_SYNCER);
+    group.addPublisher(syncer);
+    final ProcessId mockProcessId = new ProcessId("xxx", System.currentTimeMillis(), 1, 1);
+    Publisher other = TestBaseUtils.createTestPublisher(dataId);
+    other.setSessionProcessId(mockProcessId);
+    group.addPublisher(other);
+    assertDigest(group, acceptAll);
+
+    // filter out the DATUM_SYNCER
+    SyncSlotAcceptorManager acceptClient =
+        request -> request.getSource() != PublishSource.DATUM_SYNCER;
+    assertDigest(group, acceptClient);
+    Assert.assertNotEquals(group.getDigest(acceptClient), group.getDigest(acceptAll));
+
+    // replace
+    Publisher newer = TestBaseUtils.cloneBase(publisher);
+    newer.setVersion(publisher.getVersion() + 1);
+    group.addPublisher(newer);
+    assertDigest(group, acceptAll);
+    assertDigest(group, acceptClient);
+
+    // remove by version
+    group.remove(
+        null,
+        Collections.singletonMap(
+            newer.getRegisterId(),
+            new RegisterVersion(newer.getVersion(), newer.getRegisterTimestamp())));
+    assertDigest(group, acceptAll);
+
+    // clean by processId
+    group.clean(mockProcessId, CleanContinues.ALWAYS);
+    assertDigest(group, acceptAll);
+    assertDigest(group, acceptClient);
+    Assert.assertEquals(group.getDigest(acceptClient), empty);
+
+    group.compact(Long.MAX_VALUE);
+    assertDigest(group, acceptAll);
+
+    group.clearPublishers();
+    assertDigest(group, acceptAll);
+    Assert.assertEquals(group.getDigest(acceptAll), empty);
+  }
+
+  private static void assertDigest(PublisherGroup group, SyncSlotAcceptorManager acceptorManager) {
+    Map<String, DatumSummary> summaries = Maps.newHashMap();
+    DatumBiConsumer.publisherGroupsBiConsumer(summaries, acceptorManager)
+        .accept(group.dataInfoId, group);
+    Assert.assertEquals(
+        group.getDigest(acceptorManager),
+        PublisherDigestUtil.commutativeDigest(summaries.get(group.dataInfoId)));
+  }
 }
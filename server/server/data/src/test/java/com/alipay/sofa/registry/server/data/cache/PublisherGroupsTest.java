@@ -443,6 +443,79 @@ public class PublisherGroupsTest {
     Assert.assertEquals(publishers.get(publisher3.getDataInfoId()).size(), 0);
   }
 
+  @Test
+  public void testIndex() {
+    PublisherGroups groups = new PublisherGroups(testDc);
+    ProcessId processId1 = new ProcessId("ip1", System.currentTimeMillis(), 100, 200);
+    ProcessId processId2 = new ProcessId("ip2", System.currentTimeMillis(), 100, 200);
+    List<Publisher> all = Lists.newArrayList();
+    for (int i = 0; i < 3; i++) {
+      String dataId = testDataId + "-index-" + i;
+      for (int j = 0; j < 4; j++) {
+        Publisher p = TestBaseUtils.createTestPublisher(dataId);
+        p.setSessionProcessId(j % 2 == 0 ? processId1 : processId2);
+        p.setSourceAddress(URL.valueOf("client" + j + ":1000"));
+        p.setTargetAddress(URL.valueOf((j % 2 == 0 ? "ip1" : "ip2") + ":9600"));
+        groups.put(p.getDataInfoId(), Lists.newArrayList(p));
+        all.add(p);
+      }
+    }
+    assertIndex(groups, all);
+    Assert.assertEquals(Sets.newHashSet(processId1, processId2), groups.getSessionProcessIds());
+    Assert.assertEquals(3, groups.getByConnectId(all.get(0).connectId()).size());
+
+    // replace with a newer version from another connection
+    Publisher moved = TestBaseUtils.cloneBase(all.get(0));
+    moved.setVersion(moved.getVersion() + 1);
+    moved.setSessionProcessId(processId2);
+    moved.setSourceAddress(URL.valueOf("client1:1000"));
+    moved.setTargetAddress(URL.valueOf("ip2:9600"));
+    groups.put(moved.getDataInfoId(), Lists.newArrayList(moved));
+    assertIndex(groups, all);
+    Assert.assertEquals(2, groups.getByConnectId(all.get(0).connectId()).size());
+    Assert.assertEquals(4, groups.getByConnectId(moved.connectId()).size());
+
+    // unpub
+    UnPublisher unPublisher = UnPublisher.of(all.get(1));
+    groups.put(unPublisher.getDataInfoId(), Lists.newArrayList(unPublisher));
+    assertIndex(groups, all);
+
+    // the clean by processId only touches the indexed pubs
+    Map<String, DatumVersion> versions = groups.clean(processId1, CleanContinues.ALWAYS);
+    Assert.assertEquals(3, versions.size());
+    assertIndex(groups, all);
+    Assert.assertEquals(Sets.newHashSet(processId2), groups.getSessionProcessIds());
+    Assert.assertTrue(groups.getByConnectId(all.get(2).connectId()).isEmpty());
+
+    groups.clearPublishers(all.get(4).getDataInfoId());
+    assertIndex(groups, all);
+    groups.clean(null, CleanContinues.ALWAYS);
+    assertIndex(groups, all);
+    Assert.assertEquals(0, groups.index.connectSize());
+    Assert.assertTrue(groups.getSessionProcessIds().isEmpty());
+  }
+
+  private void assertIndex(PublisherGroups groups, List<Publisher> publishers) {
+    int pubs = 0;
+    Set<ProcessId> processIds = Sets.newHashSet();
+    Map<String, Publisher> expect = Maps.newHashMap();
+    for (List<Publisher> list : groups.getAllPublisher().values()) {
+      pubs += list.size();
+    }
+    for (Publisher p : publishers) {
+      PublisherGroup group = groups.createGroupIfAbsent(p.getDataInfoId());
+      processIds.addAll(group.getSessionProcessIds());
+      expect.clear();
+      for (Publisher other : publishers) {
+        expect.putAll(
+            groups.createGroupIfAbsent(other.getDataInfoId()).getByConnectId(p.connectId()));
+      }
+      Assert.assertEquals(expect, groups.getByConnectId(p.connectId()));
+    }
+    Assert.assertEquals(pubs, groups.index.size());
+    Assert.assertEquals(processIds, groups.getSessionProcessIds());
+  }
+
   private void assertEmpty(PublisherGroups groups, String dataInfoId) {
     Assert.assertNull(groups.getDatum(dataInfoId));
     Assert.assertNull(groups.getVersion(dataInfoId));
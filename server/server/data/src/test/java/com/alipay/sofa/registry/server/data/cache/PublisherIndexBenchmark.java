@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * the lookup by session/connection in a store of 1M pubs: 100k dataInfoIds with 10 pubs, 100k
+ * clients with 10 pubs, spread over the sessions
+ */
+@State(Scope.Benchmark)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xmx3g", "-Xms3g"})
+public class PublisherIndexBenchmark {
+  private static final int DATA_INFO_ID_NUM = 100000;
+
+  private static final int PUBS_PER_DATA_INFO_ID = 10;
+
+  private static final int CLIENT_NUM = DATA_INFO_ID_NUM;
+
+  @Param({"10", "100"})
+  private int sessionNum;
+
+  private BaseDatumStorage storage;
+
+  private ProcessId[] sessions;
+
+  private List<Publisher> crashedSessionPubs;
+
+  private ConnectId[] connectIds;
+
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    storage = new BaseDatumStorage("dc", LoggerFactory.getLogger(PublisherIndexBenchmark.class));
+    for (int i = 0; i < SlotFunctionRegistry.getFunc().maxSlots(); i++) {
+      storage.putPublisherGroups(i);
+    }
+    sessions = new ProcessId[sessionNum];
+    for (int i = 0; i < sessionNum; i++) {
+      sessions[i] = new ProcessId("10.0.0." + i, System.currentTimeMillis(), i, i);
+    }
+    connectIds = new ConnectId[CLIENT_NUM];
+    crashedSessionPubs = Lists.newArrayListWithCapacity(DATA_INFO_ID_NUM);
+    for (int d = 0; d < DATA_INFO_ID_NUM; d++) {
+      List<Publisher> pubs = Lists.newArrayListWithCapacity(PUBS_PER_DATA_INFO_ID);
+      for (int j = 0; j < PUBS_PER_DATA_INFO_ID; j++) {
+        final int client = (d % (CLIENT_NUM / PUBS_PER_DATA_INFO_ID)) * PUBS_PER_DATA_INFO_ID + j;
+        final int session = client % sessionNum;
+        Publisher p = TestBaseUtils.createTestPublisher("benchmarkDataId-" + d);
+        p.setSessionProcessId(sessions[session]);
+        p.setSourceAddress(
+            URL.valueOf(
+                "11."
+                    + (client >> 16)
+                    + "."
+                    + ((client >> 8) & 0xff)
+                    + "."
+                    + (client & 0xff)
+                    + ":1000"));
+        p.setTargetAddress(URL.valueOf(sessions[session].getHostAddress() + ":9600"));
+        p.setDataList(Lists.newArrayList(new ServerDataBox("bolt://" + client + ":12200?v=4.0")));
+        pubs.add(p);
+        connectIds[client] = p.connectId();
+        if (session == 0) {
+          crashedSessionPubs.add(p);
+        }
+      }
+      storage.putPublisher(pubs.get(0).getDataInfoId(), pubs);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class CrashedSession {
+    @Setup(Level.Invocation)
+    public void restore(PublisherIndexBenchmark benchmark) {
+      for (Publisher p : benchmark.crashedSessionPubs) {
+        benchmark.storage.putPublisher(p);
+      }
+    }
+  }
+
+  /** a session crashes, clean its pubs slot by slot */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 3)
+  @Measurement(iterations = 10)
+  public int cleanSession(CrashedSession crashedSession) {
+    int count = 0;
+    for (int i = 0; i < SlotFunctionRegistry.getFunc().maxSlots(); i++) {
+      Map<String, DatumVersion> versions = storage.clean(i, sessions[0], CleanContinues.ALWAYS);
+      count += versions.size();
+    }
+    return count;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 1, time = 3)
+  @Measurement(iterations = 2, time = 3)
+  public Map<String, Publisher> getByConnectId() {
+    return storage.getByConnectId(connectIds[(next++) % CLIENT_NUM]);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 1, time = 3)
+  @Measurement(iterations = 2, time = 3)
+  public Set<ProcessId> getSessionProcessIds() {
+    return storage.getSessionProcessIds();
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogEntry;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.UnPublisher;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotChangeLogTest {
+  private final String testDc = "testDc";
+
+  @Test
+  public void testRead() {
+    SlotChangeLog log = new SlotChangeLog(100);
+    DataSlotChangeLogResult head = log.read(0, -1, 10);
+    Assert.assertEquals(head.getLogEpoch(), log.getEpoch());
+    Assert.assertEquals(head.getNextSeq(), 0);
+    Assert.assertFalse(head.isOutOfRange());
+
+    for (int i = 0; i < 250; i++) {
+      log.appendRemove("d" + i, "r" + i, RegisterVersion.of(i, i));
+    }
+    Assert.assertEquals(log.getNextSeq(), 250);
+    // truncated
+    Assert.assertTrue(log.read(log.getEpoch(), 149, 10).isOutOfRange());
+    // other log
+    Assert.assertTrue(log.read(log.getEpoch() + 1, 200, 10).isOutOfRange());
+    // future
+    Assert.assertTrue(log.read(log.getEpoch(), 251, 10).isOutOfRange());
+
+    DataSlotChangeLogResult result = log.read(log.getEpoch(), 150, 60);
+    Assert.assertFalse(result.isOutOfRange());
+    Assert.assertTrue(result.isHasRemain());
+    Assert.assertEquals(result.getNextSeq(), 210);
+    Assert.assertEquals(result.getEntries().size(), 60);
+    for (int i = 0; i < 60; i++) {
+      DataSlotChangeLogEntry entry = result.getEntries().get(i);
+      Assert.assertFalse(entry.isPut());
+      Assert.assertEquals(entry.getRegisterId(), "r" + (150 + i));
+    }
+    result = log.read(log.getEpoch(), 210, 60);
+    Assert.assertFalse(result.isHasRemain());
+    Assert.assertEquals(result.getNextSeq(), 250);
+    Assert.assertEquals(result.getEntries().size(), 40);
+    Assert.assertEquals(result.getEntries().get(39).getRegisterId(), "r249");
+
+    result = log.read(log.getEpoch(), 250, 60);
+    Assert.assertTrue(result.getEntries().isEmpty());
+    Assert.assertEquals(result.getNextSeq(), 250);
+  }
+
+  @Test
+  public void testGroupAppend() {
+    PublisherGroups groups = new PublisherGroups(testDc, 1000);
+    final SlotChangeLog log = groups.changeLog;
+    List<Publisher> pubs = TestBaseUtils.createTestPublishers(0, 3);
+    final String dataInfoId = pubs.get(0).getDataInfoId();
+    groups.put(dataInfoId, pubs);
+    Assert.assertEquals(log.getNextSeq(), 3);
+
+    // same version not append
+    groups.put(dataInfoId, pubs);
+    Assert.assertEquals(log.getNextSeq(), 3);
+
+    Publisher update = TestBaseUtils.cloneBase(pubs.get(0));
+    update.setVersion(update.getVersion() + 1);
+    groups.put(dataInfoId, Collections.singletonList(update));
+    List<DataSlotChangeLogEntry> entries = read(log, 3);
+    Assert.assertEquals(entries.size(), 1);
+    Assert.assertTrue(entries.get(0).isPut());
+    Assert.assertEquals(entries.get(0).getPublisher(), update);
+
+    // remove from session, mark unpub
+    UnPublisher unpub = UnPublisher.of(pubs.get(1));
+    groups.remove(
+        dataInfoId,
+        ServerEnv.PROCESS_ID,
+        Collections.singletonMap(unpub.getRegisterId(), unpub.registerVersion()));
+    entries = read(log, 4);
+    Assert.assertEquals(entries.size(), 1);
+    Assert.assertFalse(entries.get(0).isPut());
+    Assert.assertEquals(entries.get(0).getRegisterId(), pubs.get(1).getRegisterId());
+    Assert.assertEquals(entries.get(0).getRemovedVersion(), pubs.get(1).registerVersion());
+
+    // clean by session, the tombstone is not logged
+    groups.clean(ServerEnv.PROCESS_ID, CleanContinues.ALWAYS);
+    entries = read(log, 5);
+    Assert.assertEquals(entries.size(), 2);
+    for (DataSlotChangeLogEntry entry : entries) {
+      Assert.assertFalse(entry.isPut());
+    }
+
+    List<Publisher> pubs2 = TestBaseUtils.createTestPublishers(0, 2);
+    groups.put(pubs2.get(0).getDataInfoId(), pubs2);
+    groups.clearPublishers(pubs2.get(0).getDataInfoId());
+    entries = read(log, 7);
+    Assert.assertEquals(entries.size(), 4);
+    Assert.assertTrue(entries.get(1).isPut());
+    Assert.assertFalse(entries.get(2).isPut());
+    Assert.assertFalse(entries.get(3).isPut());
+
+    // disable
+    Assert.assertNull(new PublisherGroups(testDc).readChangeLog(0, 0, 10));
+  }
+
+  private static List<DataSlotChangeLogEntry> read(SlotChangeLog log, long fromSeq) {
+    return log.read(log.getEpoch(), fromSeq, 1000).getEntries();
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataBatchRequest;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.compress.CompressConstants;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.data.change.DataChangeEventCenter;
+import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
+import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
+import com.alipay.sofa.registry.server.data.slot.SlotAccessorDelegate;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GetMultiDataBatchHandlerTest {
+
+  private GetMultiDataBatchHandler newHandler() {
+    GetMultiDataBatchHandler handler = new GetMultiDataBatchHandler();
+    Assert.assertEquals(handler.interest(), GetMultiDataBatchRequest.class);
+    Assert.assertFalse(((GenericResponse) handler.buildFailedResponse("msg")).isSuccess());
+    handler.sessionLeaseManager = new SessionLeaseManager();
+    handler
+        .setSlotAccessor(mock(SlotAccessorDelegate.class))
+        .setDatumStorageDelegate(TestBaseUtils.newLocalDatumDelegate("testDc", true))
+        .setDataChangeEventCenter(new DataChangeEventCenter())
+        .setDataServerConfig(TestBaseUtils.newDataConfig("testDc"));
+    handler.setCompressDatumService(new CompressDatumService());
+    return handler;
+  }
+
+  @Test
+  public void testCheckParam() {
+    GetMultiDataBatchHandler handler = newHandler();
+    TestBaseUtils.assertException(
+        IllegalArgumentException.class,
+        () -> handler.checkParam(new GetMultiDataBatchRequest(ServerEnv.PROCESS_ID, null)));
+    TestBaseUtils.assertException(
+        IllegalArgumentException.class,
+        () ->
+            handler.checkParam(
+                new GetMultiDataBatchRequest(
+                    ServerEnv.PROCESS_ID, Collections.singletonList(request(null)))));
+    handler.checkParam(
+        new GetMultiDataBatchRequest(
+            ServerEnv.PROCESS_ID, Collections.singletonList(request("testDataId"))));
+  }
+
+  @Test
+  public void testHandle() {
+    GetMultiDataBatchHandler handler = newHandler();
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 8888);
+    List<Publisher> pubs = Lists.newArrayList();
+    List<GetMultiDataRequest> reqs = Lists.newArrayList();
+    for (int i = 0; i < 3; i++) {
+      Publisher pub = TestBaseUtils.createTestPublishers(i, 1).get(0);
+      pubs.add(pub);
+      handler.getDatumStorageDelegate().putPublisher("testDc", pub);
+      reqs.add(request(pub.getDataInfoId()));
+    }
+    reqs.add(request(dataInfoId("nilDataId")));
+    when(handler
+            .getSlotAccessorDelegate()
+            .checkSlotAccess(anyString(), anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept());
+
+    GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>> resp =
+        handler.doHandle(channel, new GetMultiDataBatchRequest(ServerEnv.PROCESS_ID, reqs));
+    Assert.assertTrue(resp.isSuccess());
+    List<MultiSlotAccessGenericResponse<MultiSubDatum>> list = resp.getData();
+    Assert.assertEquals(list.size(), reqs.size());
+    for (int i = 0; i < pubs.size(); i++) {
+      MultiSlotAccessGenericResponse<MultiSubDatum> res = list.get(i);
+      Assert.assertTrue(res.isSuccess());
+      Assert.assertEquals(res.getData().getDataInfoId(), pubs.get(i).getDataInfoId());
+      Assert.assertEquals(
+          res.getData().getSubDatum("testDc").mustGetPublishers().get(0).getRegisterId(),
+          pubs.get(i).getRegisterId());
+    }
+    Assert.assertTrue(list.get(pubs.size()).isSuccess());
+    Assert.assertNull(list.get(pubs.size()).getData().getSubDatum("testDc"));
+    // all the dataInfoIds are in the same slot, check access once before and once after reading
+    verify(handler.getSlotAccessorDelegate(), times(2))
+        .checkSlotAccess(anyString(), anyInt(), anyLong(), anyLong());
+  }
+
+  @Test
+  public void testHandleLeaderChange() {
+    GetMultiDataBatchHandler handler = newHandler();
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 8888);
+    List<GetMultiDataRequest> reqs =
+        Lists.newArrayList(request(dataInfoId("a")), request(dataInfoId("b")));
+    when(handler
+            .getSlotAccessorDelegate()
+            .checkSlotAccess(anyString(), anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept(), TestBaseUtils.migrating(1, 10, 100));
+    GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>> resp =
+        handler.doHandle(channel, new GetMultiDataBatchRequest(ServerEnv.PROCESS_ID, reqs));
+    for (MultiSlotAccessGenericResponse<MultiSubDatum> res : resp.getData()) {
+      Assert.assertFalse(res.isSuccess());
+      Assert.assertEquals(
+          res.getSlotAccessMap().get("testDc").getStatus(), TestBaseUtils.migrating().getStatus());
+    }
+
+    when(handler
+            .getSlotAccessorDelegate()
+            .checkSlotAccess(anyString(), anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.moved());
+    resp = handler.doHandle(channel, new GetMultiDataBatchRequest(ServerEnv.PROCESS_ID, reqs));
+    for (MultiSlotAccessGenericResponse<MultiSubDatum> res : resp.getData()) {
+      Assert.assertFalse(res.isSuccess());
+      Assert.assertNull(res.getData().getSubDatum("testDc"));
+    }
+  }
+
+  private static String dataInfoId(String dataId) {
+    return DataInfo.toDataInfoId(dataId, "testInstance", "testGroup");
+  }
+
+  private static GetMultiDataRequest request(String dataInfoId) {
+    return new GetMultiDataRequest(
+        ServerEnv.PROCESS_ID,
+        0,
+        dataInfoId,
+        CompressConstants.defaultCompressEncodes,
+        Collections.singletonMap("testDc", 10L),
+        Collections.singletonMap("testDc", 100L));
+  }
+}
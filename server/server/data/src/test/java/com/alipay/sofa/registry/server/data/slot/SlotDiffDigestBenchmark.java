@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.slot;
+
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffUtils;
+import com.alipay.sofa.registry.common.model.slot.DataSlotMerkleTree;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptAllManager;
+import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
+import com.caucho.hessian.io.Hessian2Output;
+import com.caucho.hessian.io.SerializerFactory;
+import com.google.common.collect.Maps;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * compare the flat digest request against the hash tree exchange of a slot, one round of sync. the
+ * bytes of the hessian requests and responses are printed at setup
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SlotDiffDigestBenchmark {
+  private static final SyncSlotAcceptorManager ACCEPT_ALL = new SyncSlotAcceptAllManager();
+  private static final SerializerFactory SERIALIZER_FACTORY = new SerializerFactory();
+
+  @Param({"10000", "100000", "1000000"})
+  private int dataInfoIdNum;
+
+  private Map<String, DatumDigest> followerDigests;
+  private Map<String, DatumDigest> leaderDigests;
+
+  // count the bytes of requests and responses
+  private long bytes;
+
+  @Setup
+  public void setup() throws IOException {
+    followerDigests = Maps.newHashMapWithExpectedSize(dataInfoIdNum);
+    for (int i = 0; i < dataInfoIdNum; i++) {
+      String dataInfoId =
+          "com.alipay.benchmark.service-" + i + "#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP";
+      long idSign = PublisherDigestUtil.idSign(dataInfoId);
+      followerDigests.put(
+          dataInfoId, PublisherDigestUtil.commutativeDigest(1, idSign, idSign + 1, idSign + 2));
+    }
+    // one dataInfoId changed on leader
+    leaderDigests = Maps.newHashMap(followerDigests);
+    String changed = followerDigests.keySet().iterator().next();
+    leaderDigests.put(changed, PublisherDigestUtil.commutativeDigest(2, 1, 2, 3));
+
+    bytes = 0;
+    flat(leaderDigests);
+    final long flatBytes = bytes;
+    bytes = 0;
+    merkle(leaderDigests);
+    final long merkleBytes = bytes;
+    bytes = 0;
+    merkle(followerDigests);
+    System.out.println(
+        "dataInfoIdNum="
+            + dataInfoIdNum
+            + ", flat.bytes="
+            + flatBytes
+            + ", merkle.bytes="
+            + merkleBytes
+            + ", merkleInSync.bytes="
+            + bytes);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+  public DataSlotDiffDigestResult flat() throws IOException {
+    return flat(leaderDigests);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+  public DataSlotDiffDigestResult merkle() throws IOException {
+    return merkle(leaderDigests);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+  public DataSlotDiffDigestResult merkleInSync() throws IOException {
+    return merkle(followerDigests);
+  }
+
+  private DataSlotDiffDigestResult flat(Map<String, DatumDigest> leader) throws IOException {
+    DataSlotDiffDigestRequest request =
+        DataSlotDiffDigestRequest.buildRequest(
+            "dc",
+            1,
+            1,
+            1,
+            followerDigests,
+            ACCEPT_ALL,
+            PublisherDigestUtil.DIGEST_TYPE_COMMUTATIVE);
+    serialize(request);
+    DataSlotDiffDigestResult result =
+        DataSlotDiffUtils.diffDigest(request.getDatumDigest(), leader);
+    serialize(result);
+    return result;
+  }
+
+  private DataSlotDiffDigestResult merkle(Map<String, DatumDigest> leader) throws IOException {
+    // the leader and follower build the tree in every round, same as the handler and syncer
+    DataSlotMerkleTree follower = new DataSlotMerkleTree(followerDigests);
+    Map<Integer, Long> nodes = follower.rootNodes();
+    for (int level = 0; level < DataSlotMerkleTree.DEPTH; level++) {
+      DataSlotDiffDigestRequest request =
+          DataSlotDiffDigestRequest.buildMerkleRequest(
+              "dc", 1, 1, 1, Collections.emptyMap(), ACCEPT_ALL, level, nodes);
+      serialize(request);
+      DataSlotDiffDigestResult result =
+          new DataSlotDiffDigestResult(
+              Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+      result.setMerkleNodes(new DataSlotMerkleTree(leader).diffChildren(level, nodes));
+      serialize(result);
+      nodes = follower.diffNodes(level + 1, result.getMerkleNodes());
+      if (nodes.isEmpty()) {
+        return result;
+      }
+    }
+    DataSlotDiffDigestRequest request =
+        DataSlotDiffDigestRequest.buildMerkleRequest(
+            "dc",
+            1,
+            1,
+            1,
+            DataSlotMerkleTree.filterLeaves(followerDigests, nodes.keySet()),
+            ACCEPT_ALL,
+            DataSlotMerkleTree.DEPTH,
+            nodes);
+    serialize(request);
+    DataSlotDiffDigestResult result =
+        DataSlotDiffUtils.diffDigest(
+            request.getDatumDigest(), DataSlotMerkleTree.filterLeaves(leader, nodes.keySet()));
+    serialize(result);
+    return result;
+  }
+
+  private void serialize(Object obj) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+    Hessian2Output output = new Hessian2Output(out);
+    output.setSerializerFactory(SERIALIZER_FACTORY);
+    output.writeObject(obj);
+    output.close();
+    bytes += out.size();
+  }
+}
@@ -16,17 +16,23 @@
  */
 package com.alipay.sofa.registry.server.data.slot;
 
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogRequest;
+import com.alipay.sofa.registry.common.model.slot.DataSlotChangeLogResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherResult;
+import com.alipay.sofa.registry.common.model.slot.DataSlotMerkleTree;
+import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.filter.SyncSlotAcceptorManager;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
@@ -40,6 +46,9 @@ import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
 import com.alipay.sofa.registry.server.data.pubiterator.DatumBiConsumer;
 import com.alipay.sofa.registry.server.data.remoting.DataNodeExchanger;
 import com.alipay.sofa.registry.server.data.remoting.SessionNodeExchanger;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.SlotFollowerChangeLogRequestHandler;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.SlotFollowerDiffDigestRequestHandler;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.SlotFollowerDiffPublisherRequestHandler;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.alipay.sofa.registry.server.shared.remoting.ClientSideExchanger;
 import com.google.common.collect.Lists;
@@ -48,6 +57,7 @@ import com.google.common.collect.Sets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Matchers;
@@ -477,6 +487,204 @@ public class SlotDiffSyncerTest {
     Assert.assertEquals(datum4.publisherSize(), 2);
     Assert.assertEquals(datum4.getPubMap().get(p4.get(0).getRegisterId()), p4.get(0));
     Assert.assertEquals(datum4.getPubMap().get(p4.get(1).getRegisterId()), p4.get(1));
+
+    // the mock leader not support commutative digest
+    Assert.assertTrue(syncer.isDigestFallback(ServerEnv.IP));
+  }
+
+  @Test
+  public void testSyncLeaderMerkle() {
+    MockSync mockSync = mockSync(10, DATACENTER);
+    SlotDiffSyncer syncer = mockSync.syncer;
+    DatumStorageDelegate delegate = syncer.getDatumStorageDelegate();
+    List<Publisher> p1 = mockSync.p1;
+    List<Publisher> p3 = mockSync.p3;
+    List<Publisher> p4 = mockSync.p4;
+
+    DatumStorageDelegate leaderDelegate = TestBaseUtils.newLocalDatumDelegate(DATACENTER, true);
+    leaderDelegate.putPublisher(DATACENTER, p1.get(0).getDataInfoId(), p1);
+    leaderDelegate.putPublisher(DATACENTER, mockSync.p2.get(0).getDataInfoId(), mockSync.p2);
+    leaderDelegate.putPublisher(DATACENTER, p3.get(0).getDataInfoId(), p3);
+    leaderDelegate.createEmptyDatumIfAbsent(DATACENTER, p4.get(0).getDataInfoId());
+
+    List<DataSlotDiffDigestRequest> requests = Lists.newArrayList();
+    DataNodeExchanger exchanger = mockLeader(leaderDelegate, requests);
+
+    // in sync, only the root
+    Assert.assertTrue(
+        syncer.syncSlotLeader(
+            DATACENTER, DATACENTER, true, 10, ServerEnv.IP, 10, exchanger, 10, TRUE));
+    Assert.assertEquals(requests.size(), 1);
+    Assert.assertEquals(requests.get(0).getMerkleLevel(), 0);
+    Assert.assertEquals(requests.get(0).getMerkleNodes().size(), 1);
+    Assert.assertTrue(requests.get(0).getDatumDigest().isEmpty());
+
+    // update p1.0, remove p3.all, add p5
+    Publisher p1Update = TestBaseUtils.cloneBase(p1.get(0));
+    p1Update.setVersion(p1Update.getVersion() + 1);
+    leaderDelegate.putPublisher(DATACENTER, p1Update);
+    leaderDelegate.removePublishers(DATACENTER, p3.get(0).getDataInfoId(), ServerEnv.PROCESS_ID);
+    List<Publisher> p5 = TestBaseUtils.createTestPublishers(10, 2);
+    leaderDelegate.putPublisher(DATACENTER, p5.get(0).getDataInfoId(), p5);
+
+    requests.clear();
+    Assert.assertTrue(
+        syncer.syncSlotLeader(
+            DATACENTER, DATACENTER, true, 10, ServerEnv.IP, 10, exchanger, 10, TRUE));
+    Assert.assertEquals(requests.size(), DataSlotMerkleTree.DEPTH + 1);
+    DataSlotDiffDigestRequest leaves = requests.get(DataSlotMerkleTree.DEPTH);
+    Assert.assertEquals(leaves.getMerkleLevel(), DataSlotMerkleTree.DEPTH);
+    Assert.assertTrue(leaves.getMerkleNodes().size() <= 3);
+    Assert.assertTrue(leaves.getDatumDigest().size() <= 2);
+
+    Datum datum1 = delegate.get(DATACENTER, p1Update.getDataInfoId());
+    Assert.assertEquals(datum1.getPubMap().get(p1Update.getRegisterId()), p1Update);
+    Assert.assertEquals(delegate.get(DATACENTER, p3.get(0).getDataInfoId()).publisherSize(), 0);
+    Assert.assertEquals(delegate.get(DATACENTER, p5.get(0).getDataInfoId()).publisherSize(), 2);
+    Assert.assertEquals(slotDigests(delegate), slotDigests(leaderDelegate));
+
+    requests.clear();
+    Assert.assertTrue(
+        syncer.syncSlotLeader(
+            DATACENTER, DATACENTER, true, 10, ServerEnv.IP, 10, exchanger, 10, TRUE));
+    Assert.assertEquals(requests.size(), 1);
+    Assert.assertFalse(syncer.isDigestFallback(ServerEnv.IP));
+  }
+
+  @Test
+  public void testSyncLeaderLog() {
+    MockSync mockSync = mockSync(10, DATACENTER);
+    SlotDiffSyncer syncer = mockSync.syncer;
+    DatumStorageDelegate delegate = syncer.getDatumStorageDelegate();
+    List<Publisher> p1 = mockSync.p1;
+
+    DatumStorageDelegate leaderDelegate = TestBaseUtils.newLocalDatumDelegate(DATACENTER, true);
+    leaderDelegate.putPublisher(DATACENTER, p1.get(0).getDataInfoId(), p1);
+    leaderDelegate.putPublisher(DATACENTER, mockSync.p2.get(0).getDataInfoId(), mockSync.p2);
+    leaderDelegate.putPublisher(DATACENTER, mockSync.p3.get(0).getDataInfoId(), mockSync.p3);
+    leaderDelegate.createEmptyDatumIfAbsent(DATACENTER, mockSync.p4.get(0).getDataInfoId());
+    DataNodeExchanger exchanger = mockLeader(leaderDelegate, Lists.newArrayList());
+    AtomicReference<SlotChangeLogPosition> position = new AtomicReference<>();
+
+    // no position, not pull
+    Assert.assertEquals(
+        syncer.syncSlotLeaderLog(DATACENTER, 10, ServerEnv.IP, 10, exchanger, 10, TRUE, position),
+        0);
+
+    // capture the head before the digest, the changes after the head are replayed
+    DataSlotChangeLogResult head =
+        syncer.requestChangeLogHead(DATACENTER, 10, ServerEnv.IP, 10, exchanger, 10);
+    Assert.assertTrue(head.getEntries().isEmpty());
+    Publisher p1Update = TestBaseUtils.cloneBase(p1.get(0));
+    p1Update.setVersion(p1Update.getVersion() + 1);
+    leaderDelegate.putPublisher(DATACENTER, p1Update);
+    Assert.assertTrue(
+        syncer.syncSlotLeader(
+            DATACENTER, DATACENTER, true, 10, ServerEnv.IP, 10, exchanger, 10, TRUE));
+    position.set(SlotChangeLogPosition.of(10, head.getLogEpoch(), head.getNextSeq()));
+    Assert.assertEquals(
+        syncer.syncSlotLeaderLog(DATACENTER, 10, ServerEnv.IP, 10, exchanger, 10, TRUE, position),
+        1);
+    Assert.assertEquals(slotDigests(delegate), slotDigests(leaderDelegate));
+    Assert.assertEquals(
+        delegate
+            .get(DATACENTER, p1Update.getDataInfoId())
+            .getPubMap()
+            .get(p1Update.getRegisterId()),
+        p1Update);
+
+    // put more than a pull, session remove, remove by version
+    List<Publisher> p5 = TestBaseUtils.createTestPublishers(10, 600);
+    leaderDelegate.putPublisher(DATACENTER, p5.get(0).getDataInfoId(), p5);
+    leaderDelegate.removePublishers(DATACENTER, p1.get(0).getDataInfoId(), ServerEnv.PROCESS_ID);
+    leaderDelegate.removePublishers(
+        DATACENTER,
+        p5.get(0).getDataInfoId(),
+        null,
+        Collections.singletonMap(p5.get(0).getRegisterId(), p5.get(0).registerVersion()));
+    Assert.assertEquals(
+        syncer.syncSlotLeaderLog(DATACENTER, 10, ServerEnv.IP, 10, exchanger, 10, TRUE, position),
+        600 + p1.size() + 1);
+    Assert.assertEquals(slotDigests(delegate), slotDigests(leaderDelegate));
+    Assert.assertEquals(delegate.get(DATACENTER, p1.get(0).getDataInfoId()).publisherSize(), 0);
+    Assert.assertEquals(
+        delegate.get(DATACENTER, p5.get(0).getDataInfoId()).publisherSize(), p5.size() - 1);
+    Assert.assertEquals(
+        syncer.syncSlotLeaderLog(DATACENTER, 10, ServerEnv.IP, 10, exchanger, 10, TRUE, position),
+        0);
+
+    // the position of other log is out of range
+    position.set(SlotChangeLogPosition.of(10, head.getLogEpoch() + 1, 0));
+    Assert.assertEquals(
+        syncer.syncSlotLeaderLog(DATACENTER, 10, ServerEnv.IP, 10, exchanger, 10, TRUE, position),
+        0);
+    Assert.assertTrue(SlotChangeLogPosition.isOutOfRange(position.get(), 10));
+    Assert.assertFalse(SlotChangeLogPosition.isReady(position.get(), 10));
+
+    // the leader not support
+    position.set(SlotChangeLogPosition.of(10, head.getLogEpoch(), head.getNextSeq()));
+    exchanger =
+        mockExchange(
+            DataNodeExchanger.class, failDigestResp(), DataSlotChangeLogRequest.class, null, null);
+    Assert.assertNull(syncer.requestChangeLogHead(DATACENTER, 10, ServerEnv.IP, 10, exchanger, 10));
+    Assert.assertEquals(
+        syncer.syncSlotLeaderLog(DATACENTER, 10, ServerEnv.IP, 10, exchanger, 10, TRUE, position),
+        -1);
+  }
+
+  private static Map<String, DatumDigest> slotDigests(DatumStorageDelegate delegate) {
+    Map<String, DatumDigest> digests = Maps.newHashMap();
+    delegate.foreach(
+        DATACENTER, 10, DatumBiConsumer.publisherGroupsDigestBiConsumer(digests, ACCEPT_ALL));
+    return digests;
+  }
+
+  private static DataNodeExchanger mockLeader(
+      DatumStorageDelegate leaderDelegate, List<DataSlotDiffDigestRequest> requests) {
+    SlotManager slotManager = mock(SlotManager.class);
+    when(slotManager.isLeader(anyString(), anyInt())).thenReturn(true);
+    when(slotManager.getSlot(anyString(), anyInt()))
+        .thenReturn(new Slot(10, ServerEnv.IP, 10, Collections.emptyList()));
+    SlotFollowerDiffDigestRequestHandler digestHandler = new SlotFollowerDiffDigestRequestHandler();
+    digestHandler
+        .setSlotManager(slotManager)
+        .setDatumStorageDelegate(leaderDelegate)
+        .setDataServerConfig(TestBaseUtils.newDataConfig(DATACENTER));
+    SlotFollowerDiffPublisherRequestHandler publisherHandler =
+        new SlotFollowerDiffPublisherRequestHandler();
+    publisherHandler
+        .setSlotManager(slotManager)
+        .setDatumStorageDelegate(leaderDelegate)
+        .setDataServerConfig(TestBaseUtils.newDataConfig(DATACENTER));
+    SlotFollowerChangeLogRequestHandler changeLogHandler =
+        new SlotFollowerChangeLogRequestHandler();
+    changeLogHandler
+        .setSlotManager(slotManager)
+        .setDatumStorageDelegate(leaderDelegate)
+        .setDataServerConfig(TestBaseUtils.newDataConfig(DATACENTER));
+
+    DataNodeExchanger exchanger = mock(DataNodeExchanger.class);
+    when(exchanger.requestRaw(anyString(), Matchers.any()))
+        .thenAnswer(
+            invocation -> {
+              Object request = invocation.getArguments()[1];
+              final Object result;
+              if (request instanceof DataSlotDiffDigestRequest) {
+                requests.add((DataSlotDiffDigestRequest) request);
+                result = digestHandler.doHandle(null, (DataSlotDiffDigestRequest) request);
+              } else if (request instanceof DataSlotChangeLogRequest) {
+                result = changeLogHandler.doHandle(null, (DataSlotChangeLogRequest) request);
+              } else {
+                result = publisherHandler.doHandle(null, (DataSlotDiffPublisherRequest) request);
+              }
+              return new Response() {
+                @Override
+                public Object getResult() {
+                  return result;
+                }
+              };
+            });
+    return exchanger;
   }
 
   private static <T extends ClientSideExchanger> T mockExchange(
@@ -223,6 +223,34 @@ public class SlotManagerImplTest {
     FollowerSlotStatus followerstatus = (FollowerSlotStatus) list.get(1);
     Assert.assertTrue(followerstatus.getLastSyncTaskStartTime() > 0);
     Assert.assertTrue(followerstatus.getLastLeaderSyncTime() <= 0);
+
+    // test sync leader log
+    slotState = new SlotManagerImpl.SlotState(createSelfFollower(1, 3));
+    final long leaderEpoch = slotState.slot.getLeaderEpoch();
+    kt = mock(KeyedTask.class);
+    Mockito.when(kt.isFinished()).thenReturn(true);
+    slotState.syncLeaderTask = kt;
+
+    // no position, wait for the digest
+    Assert.assertTrue(sm.sync(slotState, 1000, 1000, 100));
+    Assert.assertNull(slotState.syncLeaderLogTask);
+
+    slotState.changeLogPosition.set(SlotChangeLogPosition.of(leaderEpoch, 1, 0));
+    Assert.assertTrue(sm.sync(slotState, 1000, 1000, 100));
+    Assert.assertNotNull(slotState.syncLeaderLogTask);
+    Assert.assertTrue(slotState.syncLeaderTask == kt);
+
+    // out of range, digest immediately
+    slotState.changeLogPosition.set(SlotChangeLogPosition.outOfRange(leaderEpoch));
+    Assert.assertTrue(sm.sync(slotState, 1000, 1000, 100));
+    Assert.assertTrue(slotState.syncLeaderTask != kt);
+
+    // reset by leader changed
+    slotState.changeLogPosition.set(SlotChangeLogPosition.of(leaderEpoch, 1, 0));
+    Slot slot = slotState.slot;
+    slotState.update(
+        new Slot(slot.getId(), slot.getLeader(), leaderEpoch + 1, slot.getFollowers()));
+    Assert.assertNull(slotState.changeLogPosition.get());
   }
 
   @Test
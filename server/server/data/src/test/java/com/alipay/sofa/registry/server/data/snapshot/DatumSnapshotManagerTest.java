@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.snapshot;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumStorageDelegate;
+import com.alipay.sofa.registry.server.data.slot.SlotManager;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DatumSnapshotManagerTest {
+  private final String testDc = "testDc";
+
+  private DatumSnapshotManager newManager(File dir, DatumStorageDelegate storage, SlotManager sm) {
+    DataServerConfig config = TestBaseUtils.newDataConfig(testDc);
+    config.setDatumSnapshotDir(dir.getAbsolutePath());
+    DatumSnapshotManager manager = new DatumSnapshotManager();
+    manager.setDataServerConfig(config);
+    manager.setDatumStorageDelegate(storage);
+    manager.setSlotManager(sm);
+    return manager;
+  }
+
+  @Test
+  public void testWriteAndRestore() throws Exception {
+    File dir = Files.createTempDirectory("snapshot").toFile();
+    DatumStorageDelegate storage = TestBaseUtils.newLocalDatumDelegate(testDc, true);
+    List<Publisher> pubs1 = TestBaseUtils.createTestPublishers(1, 5);
+    List<Publisher> pubs2 = TestBaseUtils.createTestPublishers(2, 3);
+    storage.putPublisher(testDc, pubs1.get(0).getDataInfoId(), pubs1);
+    storage.putPublisher(testDc, pubs2.get(0).getDataInfoId(), pubs2);
+
+    SlotManager sm = mock(SlotManager.class);
+    when(sm.getSlotTableEpoch()).thenReturn(-1L);
+    DatumSnapshotManager manager = newManager(dir, storage, sm);
+    // not receive the slot table
+    Assert.assertEquals(0, manager.writeSnapshots());
+
+    when(sm.getSlotTableEpoch()).thenReturn(10L);
+    when(sm.isLeader(anyString(), anyInt())).thenAnswer(i -> (int) i.getArguments()[1] == 1);
+    when(sm.isFollower(anyString(), anyInt())).thenAnswer(i -> (int) i.getArguments()[1] == 2);
+    Assert.assertEquals(2, manager.writeSnapshots());
+    File dcDir = manager.snapshotDir();
+    Assert.assertTrue(SlotSnapshot.fileOf(dcDir, 1).exists());
+    Assert.assertTrue(SlotSnapshot.fileOf(dcDir, 2).exists());
+
+    // restart with empty storage
+    DatumStorageDelegate restarted = TestBaseUtils.newLocalDatumDelegate(testDc, true);
+    SlotManager restartedSm = mock(SlotManager.class);
+    when(restartedSm.getSlotTableEpoch()).thenReturn(-1L);
+    DatumSnapshotManager restartedManager = newManager(dir, restarted, restartedSm);
+    Assert.assertEquals(2, restartedManager.load());
+
+    restartedManager.getSlotChangeListener().onSlotAdd(testDc, 1, Slot.Role.Leader);
+    Assert.assertEquals(5, restarted.get(testDc, pubs1.get(0).getDataInfoId()).publisherSize());
+    Assert.assertEquals(1, restartedManager.pendingSize());
+    // only restore at the first time
+    Assert.assertEquals(0, restartedManager.restore(testDc, 1));
+
+    // slot2 is not assigned to local after restart, discard it and delete the file
+    when(restartedSm.getSlotTableEpoch()).thenReturn(11L);
+    when(restartedSm.isLeader(anyString(), anyInt()))
+        .thenAnswer(i -> (int) i.getArguments()[1] == 1);
+    Assert.assertEquals(1, restartedManager.writeSnapshots());
+    Assert.assertEquals(0, restartedManager.pendingSize());
+    Assert.assertNull(restarted.get(testDc, pubs2.get(0).getDataInfoId()));
+    Assert.assertFalse(SlotSnapshot.fileOf(dcDir, 2).exists());
+  }
+
+  @Test
+  public void testLoadExpired() throws Exception {
+    File dir = Files.createTempDirectory("snapshot").toFile();
+    DatumSnapshotManager manager =
+        newManager(dir, TestBaseUtils.newLocalDatumDelegate(testDc, true), mock(SlotManager.class));
+    Assert.assertEquals(0, manager.load());
+    SlotSnapshot.write(manager.snapshotDir(), 1, TestBaseUtils.createTestPublishers(1, 2));
+    // broken file is skipped
+    Files.write(SlotSnapshot.fileOf(manager.snapshotDir(), 2).toPath(), new byte[] {1, 2, 3});
+    Assert.assertEquals(1, manager.load());
+
+    manager.dataServerConfig.setDatumSnapshotMaxAgeSecs(-1);
+    manager.discardPending();
+    Assert.assertEquals(0, manager.load());
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.snapshot;
+
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotSnapshotTest {
+
+  @Test
+  public void testWriteRead() throws Exception {
+    File dir = Files.createTempDirectory("snapshot").toFile();
+    List<Publisher> pubs = TestBaseUtils.createTestPublishers(10, 5);
+    SlotSnapshot.write(dir, 10, pubs);
+    File file = SlotSnapshot.fileOf(dir, 10);
+    Assert.assertTrue(file.exists());
+    Assert.assertEquals(10, SlotSnapshot.slotIdOf(file));
+    Assert.assertEquals(1, dir.listFiles().length);
+
+    SlotSnapshot snapshot = SlotSnapshot.read(file);
+    Assert.assertEquals(10, snapshot.getSlotId());
+    Assert.assertTrue(snapshot.getTimestamp() <= System.currentTimeMillis());
+    Assert.assertEquals(pubs.size(), snapshot.getPublishers().size());
+    for (int i = 0; i < pubs.size(); i++) {
+      Publisher expect = pubs.get(i);
+      Publisher p = snapshot.getPublishers().get(i);
+      Assert.assertEquals(expect.getDataInfoId(), p.getDataInfoId());
+      Assert.assertEquals(expect.getRegisterId(), p.getRegisterId());
+      Assert.assertEquals(expect.registerVersion(), p.registerVersion());
+      Assert.assertEquals(expect.getSessionProcessId(), p.getSessionProcessId());
+    }
+
+    // override
+    SlotSnapshot.write(dir, 10, Collections.emptyList());
+    Assert.assertEquals(0, SlotSnapshot.read(file).getPublishers().size());
+
+    Assert.assertEquals(-1, SlotSnapshot.slotIdOf(new File(dir, "slot-x.snapshot")));
+    Assert.assertEquals(-1, SlotSnapshot.slotIdOf(new File(dir, "slot-1.snapshot.tmp")));
+  }
+
+  @Test
+  public void testBroken() throws Exception {
+    File dir = Files.createTempDirectory("snapshot").toFile();
+    SlotSnapshot.write(dir, 1, TestBaseUtils.createTestPublishers(1, 3));
+    File file = SlotSnapshot.fileOf(dir, 1);
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.seek(file.length() / 2);
+      int b = raf.read();
+      raf.seek(file.length() / 2);
+      raf.write(b + 1);
+    }
+    assertBroken(file);
+
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(10);
+    }
+    assertBroken(file);
+  }
+
+  private static void assertBroken(File file) {
+    try {
+      SlotSnapshot.read(file);
+      Assert.fail("except exception");
+    } catch (IOException e) {
+      // expect
+    }
+  }
+}
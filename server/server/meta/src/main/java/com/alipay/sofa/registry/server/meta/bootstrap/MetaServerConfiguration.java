@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.server.meta.bootstrap;
 import com.alipay.sofa.registry.jdbc.config.JdbcConfiguration;
 import com.alipay.sofa.registry.jdbc.config.JdbcElectorConfiguration;
 import com.alipay.sofa.registry.jraft.config.RaftConfiguration;
+import com.alipay.sofa.registry.jraft.config.RaftElectorConfiguration;
 import com.alipay.sofa.registry.remoting.bolt.exchange.BoltExchange;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.remoting.jersey.exchange.JerseyExchange;
@@ -104,7 +105,8 @@ import org.springframework.context.annotation.Import;
   StoreApiConfiguration.class,
   JdbcConfiguration.class,
   JdbcElectorConfiguration.class,
-  RaftConfiguration.class
+  RaftConfiguration.class,
+  RaftElectorConfiguration.class
 })
 @EnableConfigurationProperties
 public class MetaServerConfiguration {
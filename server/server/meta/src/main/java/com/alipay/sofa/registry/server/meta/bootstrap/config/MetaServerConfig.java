@@ -82,4 +82,6 @@ public interface MetaServerConfig {
   int getInterfaceMaxRemove();
 
   int getAppRevisionCountAlarmThreshold();
+
+  boolean isHeartbeatDeltaEnable();
 }
@@ -78,6 +78,8 @@ public class MetaServerConfigBean implements MetaServerConfig {
   private int interfaceMaxRemove = 2000;
   private int appRevisionCountAlarmThreshold = 20;
 
+  private boolean heartbeatDeltaEnable = true;
+
   private long metaLeaderWarmupMillis =
       SystemUtils.getSystemLong(
           "registry.elector.warm.up.millis",
@@ -567,4 +569,23 @@ public class MetaServerConfigBean implements MetaServerConfig {
   public void setAppRevisionCountAlarmThreshold(int appRevisionCountAlarmThreshold) {
     this.appRevisionCountAlarmThreshold = appRevisionCountAlarmThreshold;
   }
+
+  /**
+   * Getter method for property <tt>heartbeatDeltaEnable</tt>.
+   *
+   * @return property value of heartbeatDeltaEnable
+   */
+  @Override
+  public boolean isHeartbeatDeltaEnable() {
+    return heartbeatDeltaEnable;
+  }
+
+  /**
+   * Setter method for property <tt>heartbeatDeltaEnable</tt>.
+   *
+   * @param heartbeatDeltaEnable value to be assigned to property heartbeatDeltaEnable
+   */
+  public void setHeartbeatDeltaEnable(boolean heartbeatDeltaEnable) {
+    this.heartbeatDeltaEnable = heartbeatDeltaEnable;
+  }
 }
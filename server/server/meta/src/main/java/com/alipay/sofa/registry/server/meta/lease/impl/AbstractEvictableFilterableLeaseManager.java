@@ -22,7 +22,9 @@ import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
 import com.alipay.sofa.registry.server.meta.lease.LeaseFilter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import java.util.List;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -47,6 +49,28 @@ public abstract class AbstractEvictableFilterableLeaseManager<T extends Node>
     return new VersionedList<>(rawVersionedList.getEpoch(), leaseList);
   }
 
+  @Override
+  protected List<Lease<T>> filterEvictable(List<Lease<T>> expirations) {
+    if (leaseFilters == null || leaseFilters.isEmpty()) {
+      return expirations;
+    }
+    List<Lease<T>> leaseList = expirations;
+    for (LeaseFilter filter : leaseFilters) {
+      leaseList = filterOut(leaseList, filter);
+    }
+    if (leaseList.size() != expirations.size()) {
+      // the filtered leases are invisible and not evicted, keep them in the wheel
+      Set<Lease<T>> selected = Sets.newIdentityHashSet();
+      selected.addAll(leaseList);
+      for (Lease<T> lease : expirations) {
+        if (!selected.contains(lease)) {
+          rearm(lease);
+        }
+      }
+    }
+    return leaseList;
+  }
+
   protected List<Lease<T>> filterOut(List<Lease<T>> inputs, LeaseFilter filter) {
     List<Lease<T>> leases = Lists.newArrayListWithCapacity(inputs.size());
     for (Lease<T> lease : inputs) {
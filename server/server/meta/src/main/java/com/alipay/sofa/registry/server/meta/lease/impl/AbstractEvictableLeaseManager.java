@@ -25,6 +25,7 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.meta.lease.Evictable;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
@@ -41,6 +42,8 @@ public abstract class AbstractEvictableLeaseManager<T extends Node>
 
   private final EvictTask evictTask = new EvictTask();
 
+  private final LeaseTimingWheel<T> timingWheel = new LeaseTimingWheel<>();
+
   @Override
   public void doInitialize() throws InitializeException {
     super.doInitialize();
@@ -53,6 +56,12 @@ public abstract class AbstractEvictableLeaseManager<T extends Node>
     super.doDispose();
   }
 
+  @Override
+  public void register(Lease<T> lease) {
+    super.register(lease);
+    timingWheel.schedule(lease);
+  }
+
   @Override
   public void evict() {
     if (lastEvictTime.get() + getEvictBetweenMilli() > System.currentTimeMillis()) {
@@ -60,24 +69,49 @@ public abstract class AbstractEvictableLeaseManager<T extends Node>
       return;
     }
     lastEvictTime.set(System.currentTimeMillis());
-    List<Lease<T>> expirations = getExpiredLeases();
+    List<Lease<T>> expirations = timingWheel.poll(this::isLeaseAlive);
     if (expirations.isEmpty()) {
       return;
     }
 
-    for (Lease<T> lease : expirations) {
-      Lease<T> doubleCheck = getLease(lease.getRenewal());
-      if (doubleCheck.isExpired()) {
-        EVICT_LOG.info("[evict]{},{}", doubleCheck.getRenewal().getNodeType(), doubleCheck);
-        try {
-          cancel(lease);
-        } catch (Throwable th) {
-          logger.error("[evict] node cancel failure", th);
-        }
+    for (Lease<T> lease : filterEvictable(expirations)) {
+      // renew after poll would fail the cas, re-arm it
+      if (!lease.evictIfExpired()) {
+        timingWheel.schedule(lease);
+        continue;
+      }
+      EVICT_LOG.info("[evict]{},{}", lease.getRenewal().getNodeType(), lease);
+      try {
+        cancel(lease);
+      } catch (Throwable th) {
+        logger.error("[evict] node cancel failure", th);
       }
     }
   }
 
+  private boolean isLeaseAlive(Lease<T> lease) {
+    return getLease(lease.getRenewal()) == lease;
+  }
+
+  /**
+   * select the leases could be evicted, the others would be checked again in next evict
+   *
+   * @param expirations expirations
+   * @return evictable leases
+   */
+  protected List<Lease<T>> filterEvictable(List<Lease<T>> expirations) {
+    return expirations;
+  }
+
+  protected void rearm(Lease<T> lease) {
+    timingWheel.schedule(lease);
+  }
+
+  @VisibleForTesting
+  int timingWheelSize() {
+    return timingWheel.size();
+  }
+
   protected List<Lease<T>> getExpiredLeases() {
     List<Lease<T>> expires = Lists.newLinkedList();
     for (Lease<T> lease : getLeaseMeta().getClusterMembers()) {
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.lease.impl;
+
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.metaserver.Lease;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+/**
+ * hashed timing wheel of leases, bucketed by expireTimestamp. renew does not touch the wheel, a
+ * renewed lease is re-armed lazily when its old bucket is polled, so the cost of eviction is
+ * proportional to the expiring leases instead of all the leases
+ */
+final class LeaseTimingWheel<T extends Node> {
+  static final long DEFAULT_TICK_MILLIS = 1000;
+  static final int DEFAULT_BUCKET_NUM = 64;
+
+  private final long tickMillis;
+  private final int mask;
+  private final Queue<Lease<T>>[] buckets;
+
+  // last polled tick, only modify by poll
+  private volatile long lastTick;
+
+  LeaseTimingWheel() {
+    this(DEFAULT_TICK_MILLIS, DEFAULT_BUCKET_NUM);
+  }
+
+  @SuppressWarnings("unchecked")
+  LeaseTimingWheel(long tickMillis, int bucketNum) {
+    ParaCheckUtil.checkIsPositive(tickMillis, "tickMillis");
+    ParaCheckUtil.checkIsPositive(bucketNum, "bucketNum");
+    ParaCheckUtil.checkEquals(Integer.bitCount(bucketNum), 1, "bucketNum.bitCount");
+    this.tickMillis = tickMillis;
+    this.mask = bucketNum - 1;
+    this.buckets = new Queue[bucketNum];
+    for (int i = 0; i < bucketNum; i++) {
+      buckets[i] = new ConcurrentLinkedQueue<>();
+    }
+    this.lastTick = tickOf(System.currentTimeMillis());
+  }
+
+  void schedule(Lease<T> lease) {
+    final long expireTick = tickOf(lease.getExpireTimestamp());
+    final long nowTick = tickOf(System.currentTimeMillis());
+    bucketOf(Math.max(expireTick, nowTick)).add(lease);
+  }
+
+  /**
+   * poll the leases which are expired and alive, the not expired leases are re-armed by the latest
+   * expireTimestamp, the not alive leases are dropped
+   *
+   * @param alive alive
+   * @return the expired leases
+   */
+  synchronized List<Lease<T>> poll(Predicate<Lease<T>> alive) {
+    final long now = System.currentTimeMillis();
+    final long currentTick = tickOf(now);
+    // rescan the previous tick, the lease may be scheduled into it concurrently with last poll
+    long fromTick = Math.max(lastTick - 1, currentTick - mask);
+    List<Lease<T>> expires = Lists.newArrayList();
+    List<Lease<T>> rearms = Lists.newArrayList();
+    for (long tick = fromTick; tick <= currentTick; tick++) {
+      Queue<Lease<T>> bucket = bucketOf(tick);
+      Lease<T> lease;
+      while ((lease = bucket.poll()) != null) {
+        if (lease.isEvicted() || !alive.test(lease)) {
+          continue;
+        }
+        if (now > lease.getExpireTimestamp()) {
+          expires.add(lease);
+        } else {
+          rearms.add(lease);
+        }
+      }
+    }
+    for (Lease<T> lease : rearms) {
+      schedule(lease);
+    }
+    lastTick = currentTick;
+    return expires;
+  }
+
+  int size() {
+    int size = 0;
+    for (Queue<Lease<T>> bucket : buckets) {
+      size += bucket.size();
+    }
+    return size;
+  }
+
+  private long tickOf(long timestamp) {
+    return timestamp / tickMillis;
+  }
+
+  private Queue<Lease<T>> bucketOf(long tick) {
+    return buckets[(int) (tick & mask)];
+  }
+}
@@ -56,7 +56,8 @@ public class SimpleLeaseManager<T extends Node> extends AbstractLifecycleObserva
     lock.writeLock().lock();
     try {
       String nodeIp = lease.getRenewal().getNodeUrl().getIpAddress();
-      localRepo.putIfAbsent(nodeIp, lease);
+      // the evicted lease is waiting for cancel, replace it
+      localRepo.compute(nodeIp, (k, v) -> v == null || v.isEvicted() ? lease : v);
       refreshEpoch(DatumVersionUtil.nextId());
     } finally {
       lock.writeLock().unlock();
@@ -88,27 +89,16 @@ public class SimpleLeaseManager<T extends Node> extends AbstractLifecycleObserva
     }
     int validLeaseDuration = leaseDuration > 0 ? leaseDuration : Lease.DEFAULT_DURATION_SECS;
 
-    lock.writeLock().lock();
-    try {
-      Lease<T> lease = localRepo.get(renewal.getNodeUrl().getIpAddress());
-      if (lease == null) {
-        logger.warn(
-            "[renew][node not exist, register: {}-{}]",
-            renewal.getNodeType(),
-            renewal.getNodeUrl().getIpAddress());
-
-        register(new Lease<>(renewal, validLeaseDuration));
-        return false;
-      }
-      logger.info(
-          "[renew][renew lease] node: {}-{}, extends: {}s",
+    // renew only extends the expireTimestamp by cas, the epoch is not changed, no need to lock
+    Lease<T> lease = localRepo.get(renewal.getNodeUrl().getIpAddress());
+    if (lease == null || !lease.renew(validLeaseDuration)) {
+      logger.warn(
+          "[renew][node not exist or evicted, register: {}-{}]",
           renewal.getNodeType(),
-          renewal.getNodeUrl().getIpAddress(),
-          validLeaseDuration);
+          renewal.getNodeUrl().getIpAddress());
 
-      lease.renew(validLeaseDuration);
-    } finally {
-      lock.writeLock().unlock();
+      register(new Lease<>(renewal, validLeaseDuration));
+      return false;
     }
     return true;
   }
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.remoting.handler;
+
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedListDelta;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
+import com.alipay.sofa.registry.util.DatumVersionUtil;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * bounded history of the slot table and members served by heartbeat, build the deltas since the
+ * versions the caller holds. the deltas to the current version are cached, so in steady state the
+ * heartbeat only costs a map lookup
+ */
+public final class HeartbeatDeltaHistory {
+  public static final int DEFAULT_HISTORY_SIZE = 16;
+
+  private final History<SlotTable, SlotTableDelta> slotTables;
+
+  private final MembersHistory<MetaNode> metaNodes;
+
+  private final MembersHistory<SessionNode> sessionNodes;
+
+  public HeartbeatDeltaHistory() {
+    this(DEFAULT_HISTORY_SIZE);
+  }
+
+  public HeartbeatDeltaHistory(int historySize) {
+    ParaCheckUtil.checkIsPositive(historySize, "historySize");
+    this.slotTables = new History<>(historySize, SlotTableDelta::diff);
+    this.metaNodes = new MembersHistory<>(historySize);
+    this.sessionNodes = new MembersHistory<>(historySize);
+  }
+
+  /**
+   * @param knownEpoch the epoch of slot table which the caller holds
+   * @param current current slot table
+   * @return null if the knownEpoch is not in history, the full slot table is needed
+   */
+  public SlotTableDelta slotTableDelta(long knownEpoch, SlotTable current) {
+    return slotTables.delta(knownEpoch, current.getEpoch(), current);
+  }
+
+  /**
+   * Getter method for property <tt>metaNodes</tt>.
+   *
+   * @return property value of metaNodes
+   */
+  public MembersHistory<MetaNode> getMetaNodes() {
+    return metaNodes;
+  }
+
+  /**
+   * Getter method for property <tt>sessionNodes</tt>.
+   *
+   * @return property value of sessionNodes
+   */
+  public MembersHistory<SessionNode> getSessionNodes() {
+    return sessionNodes;
+  }
+
+  public static final class MembersHistory<T extends Node> {
+    private final History<VersionedList<T>, VersionedListDelta<T>> history;
+
+    private VersionedList<T> latest;
+
+    private long latestRevision;
+
+    MembersHistory(int historySize) {
+      this.history = new History<>(historySize, null);
+    }
+
+    /**
+     * the revision changes when the epoch or the members change, the members may be filtered
+     * without changing the epoch
+     *
+     * @param current current members
+     * @return revision of current
+     */
+    public synchronized long revisionOf(VersionedList<T> current) {
+      if (latest == null || !sameMembers(latest, current)) {
+        latestRevision = DatumVersionUtil.nextId();
+        latest = current;
+        history.record(latestRevision, current);
+      }
+      return latestRevision;
+    }
+
+    /**
+     * @param knownRevision the revision which the caller holds
+     * @param revision the revision of current
+     * @param current current members
+     * @return null if the knownRevision is not in history
+     */
+    public VersionedListDelta<T> delta(
+        long knownRevision, long revision, VersionedList<T> current) {
+      return history.delta(
+          knownRevision,
+          revision,
+          current,
+          (from, to) -> VersionedListDelta.diff(knownRevision, from, revision, to));
+    }
+
+    private static boolean sameMembers(VersionedList<?> l, VersionedList<?> r) {
+      if (l.getEpoch() != r.getEpoch()
+          || l.getClusterMembers().size() != r.getClusterMembers().size()) {
+        return false;
+      }
+      // the order is stable if the members not change, fast path
+      return l.getClusterMembers().equals(r.getClusterMembers())
+          || Sets.newHashSet(l.getClusterMembers()).equals(Sets.newHashSet(r.getClusterMembers()));
+    }
+  }
+
+  private static final class History<V, D> {
+    private final int size;
+
+    private final Differ<V, D> differ;
+
+    // version -> value, insertion ordered
+    private final LinkedHashMap<Long, V> versions = Maps.newLinkedHashMap();
+
+    // known version -> delta to currentVersion
+    private final Map<Long, D> deltas = Maps.newHashMap();
+
+    private long currentVersion = Long.MIN_VALUE;
+
+    History(int size, Differ<V, D> differ) {
+      this.size = size;
+      this.differ = differ;
+    }
+
+    synchronized void record(long version, V value) {
+      if (version <= currentVersion) {
+        return;
+      }
+      currentVersion = version;
+      versions.put(version, value);
+      deltas.clear();
+      while (versions.size() > size) {
+        Long eldest = versions.keySet().iterator().next();
+        versions.remove(eldest);
+      }
+    }
+
+    D delta(long knownVersion, long version, V current) {
+      return delta(knownVersion, version, current, differ);
+    }
+
+    synchronized D delta(long knownVersion, long version, V current, Differ<V, D> differ) {
+      record(version, current);
+      if (knownVersion == 0 || version != currentVersion) {
+        // not hold or stale read of current, response the full value
+        return null;
+      }
+      D delta = deltas.get(knownVersion);
+      if (delta != null) {
+        return delta;
+      }
+      V base = versions.get(knownVersion);
+      if (base == null) {
+        return null;
+      }
+      delta = differ.diff(base, current);
+      deltas.put(knownVersion, delta);
+      return delta;
+    }
+  }
+
+  private interface Differ<V, D> {
+    D diff(V from, V to);
+  }
+}
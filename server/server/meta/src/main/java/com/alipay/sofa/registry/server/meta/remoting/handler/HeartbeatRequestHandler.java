@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.server.meta.remoting.handler;
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedListDelta;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHeartBeatResponse;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
@@ -28,12 +29,14 @@ import com.alipay.sofa.registry.common.model.multi.cluster.DataCenterMetadata;
 import com.alipay.sofa.registry.common.model.multi.cluster.RemoteSlotTableStatus;
 import com.alipay.sofa.registry.common.model.slot.SlotConfig;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.alipay.sofa.registry.exception.MetaLeaderNotWarmupException;
 import com.alipay.sofa.registry.exception.SofaRegistryMetaLeaderException;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.meta.MetaLeaderService;
+import com.alipay.sofa.registry.server.meta.bootstrap.config.MetaServerConfig;
 import com.alipay.sofa.registry.server.meta.bootstrap.config.NodeConfig;
 import com.alipay.sofa.registry.server.meta.metaserver.impl.DefaultCurrentDcMetaServer;
 import com.alipay.sofa.registry.server.meta.monitor.data.DataMessageListener;
@@ -77,6 +80,10 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
 
   @Autowired private MultiClusterSlotTableSyncer multiClusterSlotTableSyncer;
 
+  @Autowired private MetaServerConfig metaServerConfig;
+
+  private final HeartbeatDeltaHistory deltaHistory = new HeartbeatDeltaHistory();
+
   /**
    * Do handle object.
    *
@@ -115,6 +122,9 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
                   metaLeaderService.getLeader(),
                   metaLeaderService.getLeaderEpoch(),
                   remoteSlotTableStatus);
+          if (metaServerConfig.isHeartbeatDeltaEnable()) {
+            fillDeltas(response, heartbeat, slotTable, metaServerInfo, sessionMetaInfo);
+          }
           break;
         case META:
           response =
@@ -157,6 +167,41 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
     }
   }
 
+  /**
+   * omit the slot table and members which the caller holds, carry the deltas instead. the caller
+   * not holding the versions in history gets the full ones
+   */
+  private void fillDeltas(
+      BaseHeartBeatResponse response,
+      HeartbeatRequest<Node> heartbeat,
+      SlotTable slotTable,
+      VersionedList<MetaNode> metaNodes,
+      VersionedList<SessionNode> sessionNodes) {
+    final long metaNodesRevision = deltaHistory.getMetaNodes().revisionOf(metaNodes);
+    final long sessionNodesRevision = deltaHistory.getSessionNodes().revisionOf(sessionNodes);
+    response.setMembersRevision(metaNodesRevision, sessionNodesRevision);
+
+    SlotTableDelta slotTableDelta =
+        deltaHistory.slotTableDelta(heartbeat.getKnownSlotTableEpoch(), slotTable);
+    if (slotTableDelta != null) {
+      response.setSlotTableDelta(slotTableDelta);
+    }
+    VersionedListDelta<MetaNode> metaNodesDelta =
+        deltaHistory
+            .getMetaNodes()
+            .delta(heartbeat.getKnownMetaNodesRevision(), metaNodesRevision, metaNodes);
+    if (metaNodesDelta != null) {
+      response.setMetaNodesDelta(metaNodesDelta);
+    }
+    VersionedListDelta<SessionNode> sessionNodesDelta =
+        deltaHistory
+            .getSessionNodes()
+            .delta(heartbeat.getKnownSessionNodesRevision(), sessionNodesRevision, sessionNodes);
+    if (sessionNodesDelta != null) {
+      response.setSessionNodesDelta(sessionNodesDelta);
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private void onHeartbeat(HeartbeatRequest heartbeat, Channel channel) {
     new DefaultHeartbeatListener(nodeConfig.getLocalDataCenter(), channel).onHeartbeat(heartbeat);
@@ -404,6 +449,18 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
     return this;
   }
 
+  /**
+   * Setter method for property <tt>metaServerConfig</tt>.
+   *
+   * @param metaServerConfig value to be assigned to property metaServerConfig
+   * @return HeartbeatRequestHandler
+   */
+  @VisibleForTesting
+  public HeartbeatRequestHandler setMetaServerConfig(MetaServerConfig metaServerConfig) {
+    this.metaServerConfig = metaServerConfig;
+    return this;
+  }
+
   /**
    * Setter method for property <tt>multiClusterSlotTableSyncer</tt>.
    *
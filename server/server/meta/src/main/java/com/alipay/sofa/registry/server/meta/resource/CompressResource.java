@@ -21,6 +21,8 @@ import com.alipay.sofa.registry.common.model.console.PersistenceData;
 import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.metaserver.CompressDatumSwitch;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDict;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDicts;
 import com.alipay.sofa.registry.common.model.metaserver.CompressPushSwitch;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
 import com.alipay.sofa.registry.core.model.Result;
@@ -137,4 +139,61 @@ public class CompressResource {
     }
     return JsonUtils.read(response.getEntity().getData(), CompressDatumSwitch.class);
   }
+
+  @POST
+  @Path("dict/append")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public synchronized Result appendDict(CompressDict compressDict) {
+    Result result = new Result();
+    if (compressDict == null
+        || compressDict.getDictId() <= 0
+        || StringUtils.isBlank(compressDict.getDict())) {
+      result.setSuccess(false);
+      result.setMessage("illegal compress dict");
+      return result;
+    }
+    CompressDicts compressDicts = getDicts();
+    if (!compressDicts.append(compressDict)) {
+      result.setSuccess(false);
+      result.setMessage("dict " + compressDict.getDictId() + " exists");
+      return result;
+    }
+    PersistenceData persistenceData =
+        PersistenceDataBuilder.createPersistenceData(
+            ValueConstants.COMPRESS_DICT_DATA_ID, JsonUtils.writeValueAsString(compressDicts));
+    boolean ret;
+    try {
+      ret = provideDataService.saveProvideData(persistenceData);
+      DB_LOGGER.info("compress dict {} to DB result {}", compressDict, ret);
+    } catch (Throwable e) {
+      DB_LOGGER.error("compress dict {} to DB result error", compressDict, e);
+      result.setSuccess(false);
+      result.setMessage(e.getMessage());
+      return result;
+    }
+    if (ret) {
+      ProvideDataChangeEvent provideDataChangeEvent =
+          new ProvideDataChangeEvent(
+              ValueConstants.COMPRESS_DICT_DATA_ID,
+              persistenceData.getVersion(),
+              Sets.newHashSet(Node.NodeType.DATA, Node.NodeType.SESSION));
+      provideDataNotifier.notifyProvideDataChange(provideDataChangeEvent);
+    }
+    result.setSuccess(ret);
+    return result;
+  }
+
+  @GET
+  @Path("dict/state")
+  @Produces(MediaType.APPLICATION_JSON)
+  public CompressDicts getDicts() {
+    DBResponse<PersistenceData> response =
+        provideDataService.queryProvideData(ValueConstants.COMPRESS_DICT_DATA_ID);
+    if (response.getOperationStatus() == OperationStatus.NOTFOUND
+        || StringUtils.isBlank(response.getEntity().getData())) {
+      return CompressDicts.empty();
+    }
+    return JsonUtils.read(response.getEntity().getData(), CompressDicts.class);
+  }
 }
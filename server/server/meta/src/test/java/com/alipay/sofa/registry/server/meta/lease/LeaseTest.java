@@ -36,6 +36,33 @@ public class LeaseTest extends AbstractMetaServerTestBase {
     Assert.assertFalse(lease.isExpired());
   }
 
+  @Test
+  public void testEvictIfExpired() throws InterruptedException {
+    lease = new Lease<>(new Object(), 1);
+    Assert.assertFalse(lease.evictIfExpired());
+    Assert.assertFalse(lease.isEvicted());
+
+    lease = new Lease<>(new Object(), 1, TimeUnit.MILLISECONDS);
+    Thread.sleep(2);
+    Assert.assertTrue(lease.evictIfExpired());
+    Assert.assertTrue(lease.isEvicted());
+    Assert.assertFalse(lease.evictIfExpired());
+    Assert.assertTrue(lease.isExpired());
+    // could not renew after evicted
+    Assert.assertFalse(lease.renew(10));
+    Assert.assertFalse(lease.renew());
+    Assert.assertTrue(lease.isEvicted());
+  }
+
+  @Test
+  public void testRenewExpireTimestamp() throws InterruptedException {
+    lease = new Lease<>(new Object(), 1, TimeUnit.MILLISECONDS);
+    Thread.sleep(2);
+    Assert.assertTrue(lease.renew(10));
+    Assert.assertEquals(lease.getLastUpdateTimestamp() + 10 * 1000, lease.getExpireTimestamp());
+    Assert.assertFalse(lease.evictIfExpired());
+  }
+
   @Test
   public void testGetBeginTimestamp() throws InterruptedException {
     lease = new Lease<>(new Object(), 1);
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.lease.impl;
+
+import com.alipay.sofa.registry.common.model.metaserver.Lease;
+import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LeaseManagerConcurrentTest extends AbstractMetaServerTestBase {
+
+  private AbstractEvictableLeaseManager<SimpleNode> leaseManager;
+
+  @Before
+  public void beforeLeaseManagerConcurrentTest() throws Exception {
+    makeMetaLeader();
+    leaseManager =
+        new AbstractEvictableLeaseManager<SimpleNode>() {
+          @Override
+          protected int getEvictBetweenMilli() {
+            return 0;
+          }
+
+          @Override
+          protected int getIntervalMilli() {
+            return 60 * 1000;
+          }
+        };
+    leaseManager.metaLeaderService = metaLeaderService;
+  }
+
+  @Test
+  public void testRenewNotChangeEpoch() throws Exception {
+    List<SimpleNode> nodes = registerNodes(100, 10);
+    final long epoch = leaseManager.getLeaseMeta().getEpoch();
+    AtomicInteger failed = new AtomicInteger();
+    runConcurrently(
+        8,
+        () -> {
+          for (int i = 0; i < 10000; i++) {
+            SimpleNode node = nodes.get(i % nodes.size());
+            if (!leaseManager.renew(new SimpleNode(node.getNodeUrl().getIpAddress()), 10)) {
+              failed.incrementAndGet();
+            }
+          }
+        });
+    Assert.assertEquals(0, failed.get());
+    Assert.assertEquals(epoch, leaseManager.getLeaseMeta().getEpoch());
+    Assert.assertEquals(nodes.size(), leaseManager.getLeaseMeta().getClusterMembers().size());
+  }
+
+  @Test
+  public void testRenewWithEvict() throws Exception {
+    List<SimpleNode> alives = registerNodes(50, 1);
+    List<Lease<SimpleNode>> aliveLeases = Lists.newArrayList();
+    for (SimpleNode node : alives) {
+      aliveLeases.add(leaseManager.getLease(node));
+    }
+    List<SimpleNode> deads = registerNodes(50, 1);
+
+    AtomicBoolean stop = new AtomicBoolean();
+    AtomicInteger failed = new AtomicInteger();
+    Thread evictor =
+        new Thread(
+            () -> {
+              while (!stop.get()) {
+                leaseManager.evict();
+                try {
+                  Thread.sleep(5);
+                } catch (InterruptedException e) {
+                  return;
+                }
+              }
+            });
+    evictor.start();
+    final long deadline = System.currentTimeMillis() + 2500;
+    runConcurrently(
+        8,
+        () -> {
+          int i = 0;
+          while (System.currentTimeMillis() < deadline) {
+            SimpleNode node = alives.get(i++ % alives.size());
+            if (!leaseManager.renew(node, 1)) {
+              failed.incrementAndGet();
+            }
+          }
+        });
+    stop.set(true);
+    evictor.join();
+
+    // the continuously renewed nodes are never evicted
+    Assert.assertEquals(0, failed.get());
+    for (int i = 0; i < alives.size(); i++) {
+      Lease<SimpleNode> lease = leaseManager.getLease(alives.get(i));
+      Assert.assertSame(aliveLeases.get(i), lease);
+      Assert.assertFalse(lease.isEvicted());
+    }
+    for (SimpleNode node : deads) {
+      Assert.assertNull(leaseManager.getLease(node));
+    }
+    Assert.assertEquals(alives.size(), leaseManager.getLeaseMeta().getClusterMembers().size());
+    Assert.assertEquals(alives.size(), leaseManager.timingWheelSize());
+  }
+
+  @Test
+  public void testEvictFarFutureLease() throws Exception {
+    // longer than a revolution of the wheel
+    List<SimpleNode> nodes = registerNodes(10, 100);
+    leaseManager.evict();
+    Assert.assertEquals(nodes.size(), leaseManager.getLeaseMeta().getClusterMembers().size());
+    Assert.assertEquals(nodes.size(), leaseManager.timingWheelSize());
+
+    Lease<SimpleNode> lease = new Lease<>(new SimpleNode(randomIp()), 1, TimeUnit.MILLISECONDS);
+    leaseManager.register(lease);
+    Thread.sleep(2);
+    leaseManager.evict();
+    Assert.assertTrue(lease.isEvicted());
+    Assert.assertNull(leaseManager.getLease(lease.getRenewal()));
+    Assert.assertEquals(nodes.size(), leaseManager.timingWheelSize());
+  }
+
+  private List<SimpleNode> registerNodes(int count, int durationSecs) {
+    List<SimpleNode> nodes = Lists.newArrayListWithCapacity(count);
+    for (int i = 0; i < count; i++) {
+      SimpleNode node = new SimpleNode(randomIp());
+      leaseManager.register(new Lease<>(node, durationSecs));
+      nodes.add(node);
+    }
+    return nodes;
+  }
+
+  private static void runConcurrently(int threads, Runnable runnable) throws Exception {
+    CountDownLatch latch = new CountDownLatch(threads);
+    for (int i = 0; i < threads; i++) {
+      new Thread(
+              () -> {
+                try {
+                  runnable.run();
+                } finally {
+                  latch.countDown();
+                }
+              })
+          .start();
+    }
+    Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+  }
+}
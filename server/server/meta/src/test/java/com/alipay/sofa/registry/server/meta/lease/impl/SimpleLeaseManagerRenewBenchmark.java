@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.lease.impl;
+
+import com.alipay.sofa.registry.common.model.metaserver.Lease;
+import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase.SimpleNode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * renew throughput of the lease manager, the cas renew against the renew under the write lock. run
+ * the main to bench with 1/8/64 threads
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class SimpleLeaseManagerRenewBenchmark {
+  private static final int NODE_NUM = 1024;
+
+  private SimpleLeaseManager<SimpleNode> leaseManager;
+
+  private SimpleNode[] nodes;
+
+  @State(Scope.Thread)
+  public static class Index {
+    private int next;
+
+    SimpleNode next(SimpleNode[] nodes) {
+      return nodes[(next++) & (NODE_NUM - 1)];
+    }
+  }
+
+  @Setup
+  public void setup() {
+    leaseManager = new SimpleLeaseManager<>();
+    nodes = new SimpleNode[NODE_NUM];
+    for (int i = 0; i < NODE_NUM; i++) {
+      nodes[i] = new SimpleNode("10.0." + (i >> 8) + "." + (i & 0xff));
+      leaseManager.register(new Lease<>(nodes[i], 60));
+    }
+  }
+
+  @Benchmark
+  public boolean casRenew(Index index) {
+    return leaseManager.renew(index.next(nodes), 60);
+  }
+
+  /** the renew before, lease is renewed under the write lock */
+  @Benchmark
+  public boolean lockedRenew(Index index) {
+    SimpleNode node = index.next(nodes);
+    leaseManager.lock.writeLock().lock();
+    try {
+      return leaseManager.getLease(node).renew(60);
+    } finally {
+      leaseManager.lock.writeLock().unlock();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    for (int threads : new int[] {1, 8, 64}) {
+      Options opt =
+          new OptionsBuilder()
+              .include(SimpleLeaseManagerRenewBenchmark.class.getSimpleName())
+              .threads(threads)
+              .forks(1)
+              .warmupIterations(2)
+              .measurementIterations(3)
+              .build();
+      new Runner(opt).run();
+    }
+  }
+}
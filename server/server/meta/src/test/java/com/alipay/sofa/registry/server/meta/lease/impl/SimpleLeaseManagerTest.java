@@ -21,6 +21,7 @@ import static org.junit.Assert.*;
 import com.alipay.sofa.registry.common.model.metaserver.Lease;
 import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
+import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -62,6 +63,34 @@ public class SimpleLeaseManagerTest extends AbstractMetaServerTestBase {
     Assert.assertEquals(1, leaseManager.localRepo.size());
   }
 
+  @Test
+  public void testRenewNotChangeEpoch() {
+    SimpleNode node = new SimpleNode(randomIp());
+    leaseManager.register(new Lease<>(node, 1000));
+    long epoch = leaseManager.getLeaseMeta().getEpoch();
+    Assert.assertTrue(leaseManager.renew(new SimpleNode(node.getNodeUrl().getIpAddress()), 10));
+    Assert.assertEquals(epoch, leaseManager.getLeaseMeta().getEpoch());
+  }
+
+  @Test
+  public void testRenewEvicted() throws InterruptedException {
+    SimpleNode node = new SimpleNode(randomIp());
+    Lease<SimpleNode> lease = new Lease<>(node, 1, TimeUnit.MILLISECONDS);
+    leaseManager.register(lease);
+    Thread.sleep(2);
+    Assert.assertTrue(lease.evictIfExpired());
+    long epoch = leaseManager.getLeaseMeta().getEpoch();
+    // the evicted lease could not be renewed, register a new one
+    Assert.assertFalse(leaseManager.renew(node, 10));
+    Lease<SimpleNode> newLease = leaseManager.getLease(node);
+    Assert.assertNotSame(lease, newLease);
+    Assert.assertFalse(newLease.isExpired());
+    Assert.assertTrue(leaseManager.getLeaseMeta().getEpoch() > epoch);
+    // cancel the evicted lease not remove the new one
+    Assert.assertFalse(leaseManager.cancel(lease));
+    Assert.assertSame(newLease, leaseManager.getLease(node));
+  }
+
   @Test
   public void testRefreshEpoch() {
     Assert.assertTrue(leaseManager.refreshEpoch(DatumVersionUtil.nextId()));
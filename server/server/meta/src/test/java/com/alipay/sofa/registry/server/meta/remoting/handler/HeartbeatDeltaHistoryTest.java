@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.remoting.handler;
+
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
+import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HeartbeatDeltaHistoryTest extends AbstractMetaServerTestBase {
+
+  @Test
+  public void testSlotTableHistory() {
+    HeartbeatDeltaHistory history = new HeartbeatDeltaHistory(2);
+    SlotTable table1 = new SlotTable(1, Collections.emptyList());
+    Assert.assertNull(history.slotTableDelta(0, table1));
+    SlotTableDelta delta = history.slotTableDelta(1, table1);
+    Assert.assertTrue(delta.isUnchanged());
+    // cached
+    Assert.assertSame(delta, history.slotTableDelta(1, table1));
+
+    SlotTable table2 = randomSlotTable(randomDataNodes(3));
+    table2 = new SlotTable(2, table2.getSlots());
+    delta = history.slotTableDelta(1, table2);
+    Assert.assertEquals(table2, delta.apply(table1));
+    // stale read of current
+    Assert.assertNull(history.slotTableDelta(1, table1));
+
+    SlotTable table3 = new SlotTable(3, Collections.emptyList());
+    Assert.assertTrue(history.slotTableDelta(3, table3).isUnchanged());
+    // evicted from history
+    Assert.assertNull(history.slotTableDelta(1, table3));
+    Assert.assertEquals(table3, history.slotTableDelta(2, table3).apply(table2));
+  }
+
+  @Test
+  public void testMembersRevision() {
+    HeartbeatDeltaHistory history = new HeartbeatDeltaHistory();
+    SessionNode session1 = new SessionNode(randomURL(randomIp()), getDc(), null, 0);
+    SessionNode session2 = new SessionNode(randomURL(randomIp()), getDc(), null, 0);
+    VersionedList<SessionNode> list1 = new VersionedList<>(1, Lists.newArrayList(session1));
+    long rev1 = history.getSessionNodes().revisionOf(list1);
+    Assert.assertEquals(
+        rev1,
+        history.getSessionNodes().revisionOf(new VersionedList<>(1, Lists.newArrayList(session1))));
+
+    // filtered without changing the epoch
+    VersionedList<SessionNode> list2 = new VersionedList<>(1, Lists.newArrayList(session2));
+    long rev2 = history.getSessionNodes().revisionOf(list2);
+    Assert.assertTrue(rev2 > rev1);
+    Assert.assertEquals(
+        Lists.newArrayList(session2),
+        history.getSessionNodes().delta(rev1, rev2, list2).getChanges());
+    Assert.assertTrue(history.getSessionNodes().delta(rev2, rev2, list2).isUnchanged());
+    Assert.assertNull(history.getSessionNodes().delta(0, rev2, list2));
+    Assert.assertNull(history.getSessionNodes().delta(rev1, rev1, list1));
+  }
+}
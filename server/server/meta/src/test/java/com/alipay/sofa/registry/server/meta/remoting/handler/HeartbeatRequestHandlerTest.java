@@ -20,18 +20,26 @@ import static org.mockito.Mockito.*;
 
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
+import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHeartBeatResponse;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.SlotConfig;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
 import com.alipay.sofa.registry.server.meta.MetaLeaderService;
+import com.alipay.sofa.registry.server.meta.bootstrap.config.MetaServerConfigBean;
 import com.alipay.sofa.registry.server.meta.bootstrap.config.NodeConfig;
 import com.alipay.sofa.registry.server.meta.lease.data.DataServerManager;
 import com.alipay.sofa.registry.server.meta.lease.session.SessionServerManager;
 import com.alipay.sofa.registry.server.meta.metaserver.impl.DefaultCurrentDcMetaServer;
 import com.alipay.sofa.registry.server.meta.multi.cluster.MultiClusterSlotTableSyncer;
 import com.alipay.sofa.registry.server.meta.slot.manager.DefaultSlotManager;
+import com.alipay.sofa.registry.server.shared.config.CommonConfig;
+import com.google.common.collect.Lists;
 import java.util.Collections;
 import java.util.concurrent.TimeoutException;
 import org.junit.Assert;
@@ -56,6 +64,8 @@ public class HeartbeatRequestHandlerTest extends AbstractMetaServerTestBase {
 
   @Mock private NodeConfig nodeConfig;
 
+  private MetaServerConfigBean metaServerConfig = new MetaServerConfigBean(new CommonConfig());
+
   @Mock private MultiClusterSlotTableSyncer multiClusterSlotTableSyncer;
 
   private DefaultSlotManager slotManager;
@@ -70,8 +80,13 @@ public class HeartbeatRequestHandlerTest extends AbstractMetaServerTestBase {
     when(currentDcMetaServer.getDataServerManager()).thenReturn(dataServerManager);
     when(currentDcMetaServer.getSessionServerManager()).thenReturn(sessionServerManager);
     when(currentDcMetaServer.getSlotTable()).thenReturn(slotManager.getSlotTable());
+    when(currentDcMetaServer.getClusterMeta())
+        .thenReturn(new VersionedList<>(1, Lists.newArrayList(new MetaNode(randomURL(), getDc()))));
+    when(sessionServerManager.getSessionServerMetaInfo())
+        .thenReturn(new VersionedList<>(1, Lists.newArrayList()));
 
     handler
+        .setMetaServerConfig(metaServerConfig)
         .setNodeConfig(nodeConfig)
         .setCurrentDcMetaServer(currentDcMetaServer)
         .setMetaLeaderElector(metaLeaderService)
@@ -94,6 +109,82 @@ public class HeartbeatRequestHandlerTest extends AbstractMetaServerTestBase {
     Assert.assertTrue(((GenericResponse) handler.doHandle(channel, heartbeat)).isSuccess());
   }
 
+  @Test
+  public void testDoHandleDelta() throws TimeoutException, InterruptedException {
+    makeMetaLeader();
+    slotManager.refresh(randomSlotTable(randomDataNodes(3)));
+    when(currentDcMetaServer.getSlotTable()).thenReturn(slotManager.getSlotTable());
+    final SlotTable slotTable = slotManager.getSlotTable();
+
+    // not hold, full response
+    BaseHeartBeatResponse response = handle(0, 0, 0);
+    Assert.assertEquals(slotTable, response.getSlotTable());
+    Assert.assertNull(response.getSlotTableDelta());
+    Assert.assertNull(response.getMetaNodesDelta());
+    Assert.assertNull(response.getSessionNodesDelta());
+    Assert.assertEquals(1, response.getMetaNodes().size());
+    final long metaNodesRevision = response.getMetaNodesRevision();
+    final long sessionNodesRevision = response.getSessionNodesRevision();
+    Assert.assertTrue(metaNodesRevision > 0);
+    Assert.assertTrue(sessionNodesRevision > 0);
+
+    // hold the latest, the slot table and members are omitted
+    response = handle(slotTable.getEpoch(), metaNodesRevision, sessionNodesRevision);
+    Assert.assertNull(response.getSlotTable());
+    Assert.assertTrue(response.getSlotTableDelta().isUnchanged());
+    Assert.assertTrue(response.getMetaNodesDelta().isUnchanged());
+    Assert.assertTrue(response.getSessionNodesDelta().isUnchanged());
+    Assert.assertEquals(metaNodesRevision, response.getMetaNodesRevision());
+
+    // the session nodes changed
+    SessionNode sessionNode = new SessionNode(randomURL(randomIp()), getDc(), null, 0);
+    when(sessionServerManager.getSessionServerMetaInfo())
+        .thenReturn(new VersionedList<>(2, Lists.newArrayList(sessionNode)));
+    response = handle(slotTable.getEpoch(), metaNodesRevision, sessionNodesRevision);
+    Assert.assertTrue(response.getSessionNodesRevision() > sessionNodesRevision);
+    Assert.assertEquals(
+        Lists.newArrayList(sessionNode), response.getSessionNodesDelta().getChanges());
+    Assert.assertEquals(2, response.getSessionNodesDelta().getEpoch());
+
+    // the slot table changed
+    slotManager.refresh(randomSlotTable(randomDataNodes(3)));
+    when(currentDcMetaServer.getSlotTable()).thenReturn(slotManager.getSlotTable());
+    response = handle(slotTable.getEpoch(), metaNodesRevision, sessionNodesRevision);
+    Assert.assertEquals(slotTable.getEpoch(), response.getSlotTableDelta().getFromEpoch());
+    Assert.assertEquals(slotManager.getSlotTable(), response.getSlotTableDelta().apply(slotTable));
+
+    // the known epoch is not in history
+    response = handle(slotTable.getEpoch() - 1, -1, -1);
+    Assert.assertEquals(slotManager.getSlotTable(), response.getSlotTable());
+    Assert.assertNull(response.getMetaNodesDelta());
+    Assert.assertNull(response.getSessionNodesDelta());
+
+    // disable
+    metaServerConfig.setHeartbeatDeltaEnable(false);
+    response = handle(slotManager.getSlotTable().getEpoch(), metaNodesRevision, 0);
+    Assert.assertEquals(slotManager.getSlotTable(), response.getSlotTable());
+    Assert.assertEquals(0, response.getMetaNodesRevision());
+  }
+
+  private BaseHeartBeatResponse handle(
+      long knownSlotTableEpoch, long knownMetaNodesRevision, long knownSessionNodesRevision) {
+    HeartbeatRequest<Node> heartbeat =
+        new HeartbeatRequest<Node>(
+                new DataNode(randomURL(randomIp()), getDc()),
+                0,
+                getDc(),
+                System.currentTimeMillis(),
+                new SlotConfig.SlotBasicInfo(
+                    SlotConfig.SLOT_NUM, SlotConfig.SLOT_REPLICAS, SlotConfig.FUNC),
+                Collections.emptyMap())
+            .setKnownVersions(
+                knownSlotTableEpoch, knownMetaNodesRevision, knownSessionNodesRevision);
+    GenericResponse<BaseHeartBeatResponse> resp =
+        (GenericResponse<BaseHeartBeatResponse>) handler.doHandle(channel, heartbeat);
+    Assert.assertTrue(resp.isSuccess());
+    return resp.getData();
+  }
+
   @Test
   public void testDoHandleWithErrDC() throws TimeoutException, InterruptedException {
     makeMetaLeader();
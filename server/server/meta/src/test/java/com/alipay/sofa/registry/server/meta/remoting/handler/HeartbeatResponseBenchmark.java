@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.remoting.handler;
+
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
+import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHeartBeatResponse;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
+import com.caucho.hessian.io.Hessian2Output;
+import com.caucho.hessian.io.SerializerFactory;
+import com.google.common.collect.Lists;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * hessian bytes and time of the heartbeat response on meta leader in steady state, the full
+ * response against the response with unchanged deltas. the bytes are printed at setup
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HeartbeatResponseBenchmark {
+  private static final SerializerFactory SERIALIZER_FACTORY = new SerializerFactory();
+
+  @Param({"10", "100", "1000"})
+  private int nodeNum;
+
+  private SlotTable slotTable;
+
+  private VersionedList<MetaNode> metaNodes;
+
+  private VersionedList<SessionNode> sessionNodes;
+
+  private HeartbeatDeltaHistory history;
+
+  private long metaNodesRevision;
+
+  private long sessionNodesRevision;
+
+  @Setup
+  public void setup() throws IOException {
+    List<DataNode> dataNodes = Lists.newArrayList();
+    for (int i = 0; i < Math.min(nodeNum, 256); i++) {
+      dataNodes.add(new DataNode(new URL("12.0.0." + i), "dc"));
+    }
+    slotTable = AbstractMetaServerTestBase.randomSlotTable(dataNodes, 256, 2);
+    metaNodes =
+        new VersionedList<>(
+            1,
+            Lists.newArrayList(
+                new MetaNode(new URL("10.0.0.1"), "dc"),
+                new MetaNode(new URL("10.0.0.2"), "dc"),
+                new MetaNode(new URL("10.0.0.3"), "dc")));
+    List<SessionNode> sessions = Lists.newArrayList();
+    for (int i = 0; i < nodeNum; i++) {
+      sessions.add(
+          new SessionNode(new URL("11.0." + (i >> 8) + "." + (i & 0xff)), "zone", null, 0));
+    }
+    sessionNodes = new VersionedList<>(1, sessions);
+    history = new HeartbeatDeltaHistory();
+    metaNodesRevision = history.getMetaNodes().revisionOf(metaNodes);
+    sessionNodesRevision = history.getSessionNodes().revisionOf(sessionNodes);
+    System.out.println(
+        "\nnodeNum="
+            + nodeNum
+            + ", full bytes="
+            + serialize(full()).length
+            + ", delta bytes="
+            + serialize(delta()).length);
+  }
+
+  private BaseHeartBeatResponse full() {
+    return new BaseHeartBeatResponse(
+        true, metaNodes, slotTable, sessionNodes, "10.0.0.1", 1, Collections.emptyMap());
+  }
+
+  private BaseHeartBeatResponse delta() {
+    BaseHeartBeatResponse response = full();
+    // the lease manager builds a new list for every heartbeat
+    response
+        .setMembersRevision(
+            history.getMetaNodes().revisionOf(copyOf(metaNodes)),
+            history.getSessionNodes().revisionOf(copyOf(sessionNodes)))
+        .setSlotTableDelta(history.slotTableDelta(slotTable.getEpoch(), slotTable))
+        .setMetaNodesDelta(
+            history.getMetaNodes().delta(metaNodesRevision, metaNodesRevision, metaNodes))
+        .setSessionNodesDelta(
+            history
+                .getSessionNodes()
+                .delta(sessionNodesRevision, sessionNodesRevision, sessionNodes));
+    return response;
+  }
+
+  private static <T> VersionedList<T> copyOf(VersionedList<T> list) {
+    return new VersionedList<>(list.getEpoch(), Lists.newArrayList(list.getClusterMembers()));
+  }
+
+  private static byte[] serialize(Object o) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
+    Hessian2Output out = new Hessian2Output(bos);
+    out.setSerializerFactory(SERIALIZER_FACTORY);
+    out.writeObject(o);
+    out.close();
+    return bos.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] fullResponse() throws IOException {
+    return serialize(full());
+  }
+
+  @Benchmark
+  public byte[] deltaResponse() throws IOException {
+    return serialize(delta());
+  }
+}
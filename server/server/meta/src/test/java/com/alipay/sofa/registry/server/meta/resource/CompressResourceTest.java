@@ -22,14 +22,18 @@ import static org.mockito.Mockito.*;
 
 import com.alipay.sofa.registry.common.model.console.PersistenceData;
 import com.alipay.sofa.registry.common.model.metaserver.CompressDatumSwitch;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDict;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDicts;
 import com.alipay.sofa.registry.common.model.metaserver.CompressPushSwitch;
 import com.alipay.sofa.registry.server.meta.provide.data.DefaultProvideDataNotifier;
 import com.alipay.sofa.registry.server.meta.provide.data.ProvideDataService;
 import com.alipay.sofa.registry.store.api.DBResponse;
 import com.alipay.sofa.registry.store.api.OperationStatus;
+import com.alipay.sofa.registry.util.JsonUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -75,4 +79,32 @@ public class CompressResourceTest {
   public void testGetDatumSwitch() {
     compressResource.getDatumSwitch();
   }
+
+  @Test
+  public void testAppendDict() {
+    Assert.assertFalse(compressResource.appendDict(new CompressDict()).isSuccess());
+    Assert.assertTrue(compressResource.getDicts().getDicts().isEmpty());
+
+    PersistenceData ret = new PersistenceData();
+    CompressDicts dicts = CompressDicts.empty();
+    dicts.append(new CompressDict(1, new byte[] {1}));
+    ret.setData(JsonUtils.writeValueAsString(dicts));
+    when(provideDataService.queryProvideData(anyString()))
+        .thenReturn(new DBResponse<>(ret, OperationStatus.SUCCESS));
+    Assert.assertFalse(
+        compressResource.appendDict(new CompressDict(1, new byte[] {2})).isSuccess());
+    Assert.assertTrue(compressResource.appendDict(new CompressDict(2, new byte[] {2})).isSuccess());
+    ArgumentCaptor<PersistenceData> captor = ArgumentCaptor.forClass(PersistenceData.class);
+    verify(provideDataService, times(1)).saveProvideData(captor.capture());
+    CompressDicts saved = JsonUtils.read(captor.getValue().getData(), CompressDicts.class);
+    Assert.assertEquals(2, saved.getDicts().size());
+    Assert.assertArrayEquals(new byte[] {2}, saved.getDicts().get(1).dictBytes());
+    verify(provideDataNotifier, times(1)).notifyProvideDataChange(any());
+
+    for (int i = 3; i < 10; i++) {
+      dicts.append(new CompressDict(i, new byte[] {(byte) i}));
+    }
+    Assert.assertEquals(CompressDicts.MAX_KEEP, dicts.getDicts().size());
+    Assert.assertEquals(9, dicts.getDicts().get(CompressDicts.MAX_KEEP - 1).getDictId());
+  }
 }
@@ -289,4 +289,13 @@ public class ExecutorManager {
   public ThreadPoolExecutor getScanExecutor() {
     return scanExecutor;
   }
+
+  /**
+   * Getter method for property <tt>scheduler</tt>.
+   *
+   * @return property value of scheduler
+   */
+  public ScheduledThreadPoolExecutor getScheduler() {
+    return scheduler;
+  }
 }
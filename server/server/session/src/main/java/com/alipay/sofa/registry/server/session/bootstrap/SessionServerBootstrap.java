@@ -28,6 +28,7 @@ import com.alipay.sofa.registry.metrics.TaskMetrics;
 import com.alipay.sofa.registry.net.NetUtil;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.bolt.serializer.MessageCodecCustomSerializer;
 import com.alipay.sofa.registry.remoting.bolt.serializer.ProtobufCustomSerializer;
 import com.alipay.sofa.registry.remoting.bolt.serializer.ProtobufSerializer;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
@@ -47,6 +48,7 @@ import com.github.rholder.retry.Retryer;
 import com.github.rholder.retry.RetryerBuilder;
 import com.github.rholder.retry.StopStrategies;
 import com.github.rholder.retry.WaitStrategies;
+import com.google.protobuf.MessageLite;
 import java.lang.annotation.Annotation;
 import java.util.Collection;
 import java.util.Date;
@@ -156,6 +158,7 @@ public class SessionServerBootstrap {
 
       initEnvironment();
       ReporterUtils.enablePrometheusDefaultExports();
+      MessageCodecCustomSerializer.registerAll();
 
       openSessionSyncServer();
 
@@ -396,23 +399,21 @@ public class SessionServerBootstrap {
 
   private void registerSerializer() {
     ProtobufCustomSerializer serializer = new ProtobufCustomSerializer();
-    CustomSerializerManager.registerCustomSerializer(
-        PublisherRegisterPb.class.getName(), serializer);
-    CustomSerializerManager.registerCustomSerializer(
-        SubscriberRegisterPb.class.getName(), serializer);
-    CustomSerializerManager.registerCustomSerializer(
-        SyncConfigRequestPb.class.getName(), serializer);
-    CustomSerializerManager.registerCustomSerializer(
-        SyncConfigResponsePb.class.getName(), serializer);
-    CustomSerializerManager.registerCustomSerializer(
-        RegisterResponsePb.class.getName(), serializer);
-    CustomSerializerManager.registerCustomSerializer(ResultPb.class.getName(), serializer);
-    CustomSerializerManager.registerCustomSerializer(ReceivedDataPb.class.getName(), serializer);
-    CustomSerializerManager.registerCustomSerializer(
-        ReceivedConfigDataPb.class.getName(), serializer);
-
-    CustomSerializerManager.registerCustomSerializer(
-        MultiReceivedDataPb.class.getName(), serializer);
+    for (MessageLite message :
+        new MessageLite[] {
+          PublisherRegisterPb.getDefaultInstance(),
+          SubscriberRegisterPb.getDefaultInstance(),
+          SyncConfigRequestPb.getDefaultInstance(),
+          SyncConfigResponsePb.getDefaultInstance(),
+          RegisterResponsePb.getDefaultInstance(),
+          ResultPb.getDefaultInstance(),
+          ReceivedDataPb.getDefaultInstance(),
+          ReceivedConfigDataPb.getDefaultInstance(),
+          MultiReceivedDataPb.getDefaultInstance()
+        }) {
+      CustomSerializerManager.registerCustomSerializer(message.getClass().getName(), serializer);
+      ProtobufSerializer.getInstance().registerMessage(message);
+    }
     SerializerManager.addSerializer(
         ProtobufSerializer.PROTOCOL_PROTOBUF, ProtobufSerializer.getInstance());
   }
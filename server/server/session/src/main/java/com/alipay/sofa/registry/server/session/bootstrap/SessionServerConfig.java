@@ -116,6 +116,8 @@ public interface SessionServerConfig extends ServerShareConfig {
 
   int getWatchPushTaskMaxBufferSize();
 
+  String getInvalidForeverZones();
+
   boolean isInvalidForeverZone(String zoneId);
 
   boolean isInvalidIgnored(String dataId);
@@ -132,8 +134,18 @@ public interface SessionServerConfig extends ServerShareConfig {
 
   int getDataNodeMaxBatchSize();
 
+  int getDataNodeFetchBatchWindowMillis();
+
+  int getDataNodeFetchMaxBatchSize();
+
   double getAccessLimitRate();
 
+  double getAccessLimitAppRate();
+
+  double getAccessLimitIpRate();
+
+  int getAccessLimitTopN();
+
   int getDataClientConnNum();
 
   int getDataNotifyClientConnNum();
@@ -209,4 +221,6 @@ public interface SessionServerConfig extends ServerShareConfig {
   int getScanExecutorQueueSize();
 
   long getScanTimeoutMills();
+
+  int getScanVersionConcurrencyPerLeader();
 }
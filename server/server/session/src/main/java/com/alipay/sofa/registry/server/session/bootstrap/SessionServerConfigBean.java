@@ -140,10 +140,21 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   private int dataNodeMaxBatchSize = 100;
 
+  // 0 disables batching, only enable it when all data servers support GetMultiDataBatchRequest
+  private int dataNodeFetchBatchWindowMillis = 0;
+
+  private int dataNodeFetchMaxBatchSize = 200;
+
   private int scanSubscriberIntervalMillis = 1000 * 5;
 
   private double accessLimitRate = 30000.0;
 
+  private double accessLimitAppRate = 3000.0;
+
+  private double accessLimitIpRate = 1000.0;
+
+  private int accessLimitTopN = 10;
+
   private String sessionServerRegion;
 
   private String sessionServerDataCenter;
@@ -226,6 +237,8 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   private int scanTimeoutMills = 10 * 1000;
 
+  private int scanVersionConcurrencyPerLeader = 16;
+
   /**
    * constructor
    *
@@ -479,6 +492,7 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.httpServerPort = httpServerPort;
   }
 
+  @Override
   public String getInvalidForeverZones() {
     return invalidForeverZones;
   }
@@ -490,6 +504,7 @@ public class SessionServerConfigBean implements SessionServerConfig {
    */
   public void setInvalidForeverZones(String invalidForeverZones) {
     this.invalidForeverZones = invalidForeverZones;
+    this.invalidForeverZonesSet = null;
   }
 
   public String getInvalidIgnoreDataidRegex() {
@@ -503,6 +518,7 @@ public class SessionServerConfigBean implements SessionServerConfig {
    */
   public void setInvalidIgnoreDataidRegex(String invalidIgnoreDataidRegex) {
     this.invalidIgnoreDataidRegex = invalidIgnoreDataidRegex;
+    this.invalidIgnoreDataIdPattern = null;
   }
 
   @Override
@@ -727,6 +743,63 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.accessLimitRate = accessLimitRate;
   }
 
+  /**
+   * Getter method for property <tt>accessLimitAppRate</tt>.
+   *
+   * @return property value of accessLimitAppRate
+   */
+  @Override
+  public double getAccessLimitAppRate() {
+    return accessLimitAppRate;
+  }
+
+  /**
+   * Setter method for property <tt>accessLimitAppRate</tt>.
+   *
+   * @param accessLimitAppRate value to be assigned to property accessLimitAppRate
+   */
+  public void setAccessLimitAppRate(double accessLimitAppRate) {
+    this.accessLimitAppRate = accessLimitAppRate;
+  }
+
+  /**
+   * Getter method for property <tt>accessLimitIpRate</tt>.
+   *
+   * @return property value of accessLimitIpRate
+   */
+  @Override
+  public double getAccessLimitIpRate() {
+    return accessLimitIpRate;
+  }
+
+  /**
+   * Setter method for property <tt>accessLimitIpRate</tt>.
+   *
+   * @param accessLimitIpRate value to be assigned to property accessLimitIpRate
+   */
+  public void setAccessLimitIpRate(double accessLimitIpRate) {
+    this.accessLimitIpRate = accessLimitIpRate;
+  }
+
+  /**
+   * Getter method for property <tt>accessLimitTopN</tt>.
+   *
+   * @return property value of accessLimitTopN
+   */
+  @Override
+  public int getAccessLimitTopN() {
+    return accessLimitTopN;
+  }
+
+  /**
+   * Setter method for property <tt>accessLimitTopN</tt>.
+   *
+   * @param accessLimitTopN value to be assigned to property accessLimitTopN
+   */
+  public void setAccessLimitTopN(int accessLimitTopN) {
+    this.accessLimitTopN = accessLimitTopN;
+  }
+
   /**
    * Getter method for property <tt>dataClientConnNum</tt>.
    *
@@ -757,32 +830,35 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   @Override
   public boolean isInvalidForeverZone(String zoneId) {
-    if (invalidForeverZonesSet == null) {
+    // the set is reset by the setter, read it once
+    Set<String> zones = invalidForeverZonesSet;
+    if (zones == null) {
       String[] zoneNameArr = getInvalidForeverZones().split(";");
-      Set<String> set = new HashSet<>();
+      zones = new HashSet<>();
       for (String str : zoneNameArr) {
         str = str.trim();
         if (str.length() != 0) {
-          set.add(str);
+          zones.add(str);
         }
       }
-      invalidForeverZonesSet = set;
+      invalidForeverZonesSet = zones;
     }
-    return invalidForeverZonesSet.contains(zoneId);
+    return zones.contains(zoneId);
   }
 
   @Override
   public boolean isInvalidIgnored(String dataId) {
-    if (invalidIgnoreDataIdPattern == null) {
+    Optional<Pattern> p = invalidIgnoreDataIdPattern;
+    if (p == null) {
       String invalidIgnoreDataidRegex = getInvalidIgnoreDataidRegex();
       if (StringUtils.isBlank(invalidIgnoreDataidRegex)) {
-        invalidIgnoreDataIdPattern = Optional.empty();
+        p = Optional.empty();
       } else {
-        invalidIgnoreDataIdPattern = Optional.of(Pattern.compile(invalidIgnoreDataidRegex));
+        p = Optional.of(Pattern.compile(invalidIgnoreDataidRegex));
       }
+      invalidIgnoreDataIdPattern = p;
     }
-    final Pattern p = invalidIgnoreDataIdPattern.get();
-    return p != null && p.matcher(dataId).find();
+    return p.isPresent() && p.get().matcher(dataId).find();
   }
 
   /**
@@ -958,6 +1034,24 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.dataNodeMaxBatchSize = dataNodeMaxBatchSize;
   }
 
+  @Override
+  public int getDataNodeFetchBatchWindowMillis() {
+    return dataNodeFetchBatchWindowMillis;
+  }
+
+  public void setDataNodeFetchBatchWindowMillis(int dataNodeFetchBatchWindowMillis) {
+    this.dataNodeFetchBatchWindowMillis = dataNodeFetchBatchWindowMillis;
+  }
+
+  @Override
+  public int getDataNodeFetchMaxBatchSize() {
+    return dataNodeFetchMaxBatchSize;
+  }
+
+  public void setDataNodeFetchMaxBatchSize(int dataNodeFetchMaxBatchSize) {
+    this.dataNodeFetchMaxBatchSize = dataNodeFetchMaxBatchSize;
+  }
+
   @Override
   public int getCacheCountIntervalSecs() {
     return cacheCountIntervalSecs;
@@ -1454,4 +1548,24 @@ public class SessionServerConfigBean implements SessionServerConfig {
   public void setScanTimeoutMills(int scanTimeoutMills) {
     this.scanTimeoutMills = scanTimeoutMills;
   }
+
+  /**
+   * Getter method for property <tt>scanVersionConcurrencyPerLeader</tt>.
+   *
+   * @return property value of scanVersionConcurrencyPerLeader
+   */
+  @Override
+  public int getScanVersionConcurrencyPerLeader() {
+    return scanVersionConcurrencyPerLeader;
+  }
+
+  /**
+   * Setter method for property <tt>scanVersionConcurrencyPerLeader</tt>.
+   *
+   * @param scanVersionConcurrencyPerLeader value to be assigned to property
+   *     scanVersionConcurrencyPerLeader
+   */
+  public void setScanVersionConcurrencyPerLeader(int scanVersionConcurrencyPerLeader) {
+    this.scanVersionConcurrencyPerLeader = scanVersionConcurrencyPerLeader;
+  }
 }
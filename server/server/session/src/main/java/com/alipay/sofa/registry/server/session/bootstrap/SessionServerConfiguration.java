@@ -823,6 +823,14 @@ public class SessionServerConfiguration {
       return compressPushService;
     }
 
+    @Bean
+    public FetchSystemPropertyService fetchCompressDictService(
+        SystemPropertyProcessorManager systemPropertyProcessorManager) {
+      FetchCompressDictService fetchCompressDictService = new FetchCompressDictService();
+      systemPropertyProcessorManager.addSystemDataProcessor(fetchCompressDictService);
+      return fetchCompressDictService;
+    }
+
     @Bean
     public FetchSystemPropertyService appRevisionWriteSwitchService(
         SystemPropertyProcessorManager systemPropertyProcessorManager) {
@@ -30,11 +30,13 @@ import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.exception.SofaRegistryRuntimeException;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.push.PushSnapshot;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -94,6 +96,107 @@ public final class ReceivedDataConverter {
         receivedData, Collections.singletonMap(receivedData.getSegment(), dataCenterPushInfo));
   }
 
+  /**
+   * the push data keyed by the publisher registerId for the subscribers accepting delta
+   *
+   * @param unzipDatum the datum
+   * @param scope the scope
+   * @param subscriberRegisterIdList the subscriber register id list
+   * @param regionLocal the region local
+   * @param localDataCenter localDataCenter
+   * @param pushdataPredicate pushdataPredicate
+   * @param base the snapshot which the subscribers hold, null means a full push
+   * @return received data with publisherData
+   */
+  public static PushData<ReceivedData> getDeltaReceivedData(
+      MultiSubDatum unzipDatum,
+      ScopeEnum scope,
+      List<String> subscriberRegisterIdList,
+      String regionLocal,
+      String localDataCenter,
+      Predicate<String> pushdataPredicate,
+      PushSnapshot base) {
+
+    if (null == unzipDatum || CollectionUtils.isEmpty(unzipDatum.getDatumMap())) {
+      return new PushData<>(null, Collections.EMPTY_MAP);
+    }
+    unzipDatum.mustUnzipped();
+    ParaCheckUtil.checkEquals(
+        unzipDatum.dataCenters(),
+        Collections.singleton(localDataCenter),
+        "getDeltaReceivedData.dataCenter");
+    SubDatum subDatum = unzipDatum.getSubDatum(localDataCenter);
+
+    ReceivedData receivedData = new ReceivedData();
+    receivedData.setDataId(unzipDatum.getDataId());
+    receivedData.setGroup(unzipDatum.getGroup());
+    receivedData.setInstanceId(unzipDatum.getInstanceId());
+    receivedData.setSubscriberRegistIds(subscriberRegisterIdList);
+    receivedData.setScope(scope.name());
+    receivedData.setLocalZone(regionLocal);
+    receivedData.setSegment(localDataCenter);
+    receivedData.setVersion(subDatum.getVersion());
+
+    final List<SubPublisher> publishers = subDatum.mustGetPublishers();
+    final Map<String, Map<String, List<DataBox>>> publisherData = Maps.newHashMap();
+    final Map<String, Integer> pushDataCount = Maps.newHashMap();
+    final Set<String> pushed = Sets.newHashSetWithExpectedSize(publishers.size());
+    final List<String> removed = Lists.newArrayList();
+    int dataCount = 0;
+    for (SubPublisher publisher : publishers) {
+      final String region = publisher.getCell();
+      if (pushdataPredicate != null && pushdataPredicate.test(region)) {
+        continue;
+      }
+      final String registerId = publisher.getRegisterId();
+      pushed.add(registerId);
+      final List<ServerDataBox> datas =
+          publisher.getDataList() == null ? Collections.emptyList() : publisher.getDataList();
+      pushDataCount.merge(region, datas.size(), Integer::sum);
+      dataCount += datas.size();
+
+      if (base != null) {
+        PushSnapshot.Stamp stamp = base.getPublishers().get(registerId);
+        if (stamp != null) {
+          if (stamp.sameAs(publisher)) {
+            continue;
+          }
+          if (!StringUtils.equals(stamp.getCell(), region)) {
+            // the client indexes the publisher by zone, remove it from the old zone
+            removed.add(registerId);
+          }
+        }
+      }
+      List<DataBox> regionDatas = new ArrayList<>(datas.size());
+      fillRegionDatas(regionDatas, datas);
+      publisherData.computeIfAbsent(region, k -> Maps.newHashMap()).put(registerId, regionDatas);
+    }
+    if (base != null) {
+      for (Entry<String, PushSnapshot.Stamp> e : base.getPublishers().entrySet()) {
+        if (pushed.contains(e.getKey())) {
+          continue;
+        }
+        // the client never holds the publisher filtered out
+        if (pushdataPredicate != null && pushdataPredicate.test(e.getValue().getCell())) {
+          continue;
+        }
+        removed.add(e.getKey());
+      }
+      receivedData.setBaseVersion(base.getVersion());
+      receivedData.setRemovedRegistIds(removed);
+    }
+    receivedData.setPublisherData(publisherData);
+    receivedData.setDataCount(pushDataCount);
+
+    DataCenterPushInfo dataCenterPushInfo =
+        new DataCenterPushInfo(
+            localDataCenter,
+            subDatum.getVersion(),
+            new SegmentPushInfo(localDataCenter, dataCount));
+    return new PushData<>(
+        receivedData, Collections.singletonMap(localDataCenter, dataCenterPushInfo));
+  }
+
   public static PushData<MultiReceivedData> getMultiReceivedData(
       MultiSubDatum unzipDatum,
       ScopeEnum scope,
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.limit;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+
+final class AccessLimitMetrics {
+  private AccessLimitMetrics() {}
+
+  static final String LEVEL_GLOBAL = "global";
+  static final String LEVEL_APP = "app";
+  static final String LEVEL_IP = "ip";
+
+  static final Counter REJECT_COUNTER =
+      Counter.build()
+          .namespace("session")
+          .subsystem("access_limit")
+          .name("reject_total")
+          .labelNames("level", "type")
+          .help("access rejected by limit")
+          .register();
+
+  static final Gauge TOP_REJECT_GAUGE =
+      Gauge.build()
+          .namespace("session")
+          .subsystem("access_limit")
+          .name("top_reject")
+          .labelNames("level", "key")
+          .help("rejected num of the top offenders in last period")
+          .register();
+}
@@ -21,5 +21,14 @@ package com.alipay.sofa.registry.server.session.limit;
  * @version 1.0: AccessLimitService.java, v 0.1 2019-08-26 20:35 shangyu.wh Exp $
  */
 public interface AccessLimitService {
-  boolean tryAcquire();
+
+  /**
+   * acquire a permit from the buckets of client ip, app and session server in order
+   *
+   * @param type access type, decides the priority
+   * @param app app name of client, skip the app bucket if blank
+   * @param ip ip of client, skip the ip bucket if blank
+   * @return true if acquired
+   */
+  boolean tryAcquire(AccessType type, String app, String ip);
 }
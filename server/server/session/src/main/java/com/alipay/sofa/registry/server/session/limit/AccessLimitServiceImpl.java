@@ -16,23 +16,169 @@
  */
 package com.alipay.sofa.registry.server.session.limit;
 
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
-import com.google.common.util.concurrent.RateLimiter;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import org.apache.commons.lang.StringUtils;
 
 /**
+ * hierarchical limit of client ip, app and session server, a noisy client is rejected by its own
+ * bucket before using up the shared one
+ *
  * @author shangyu.wh
  * @version 1.0: AccessLimitServiceImpl.java, v 0.1 2019-08-26 20:37 shangyu.wh Exp $
  */
 public class AccessLimitServiceImpl implements AccessLimitService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AccessLimitServiceImpl.class);
+
+  private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final SessionServerConfig sessionServerConfig;
+
+  private final TokenBucket globalBucket;
+
+  private final Map<String, TokenBucket> appBuckets = new ConcurrentHashMap<>();
+
+  private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+
+  private volatile Map<String, Map<String, Long>> topOffenders = Collections.emptyMap();
 
-  private RateLimiter rateLimiter;
+  private final OffenderLoop offenderLoop = new OffenderLoop();
 
   public AccessLimitServiceImpl(SessionServerConfig sessionServerConfig) {
-    rateLimiter = RateLimiter.create(sessionServerConfig.getAccessLimitRate());
+    this.sessionServerConfig = sessionServerConfig;
+    this.globalBucket =
+        new TokenBucket(sessionServerConfig.getAccessLimitRate(), System.nanoTime());
+  }
+
+  @PostConstruct
+  public void init() {
+    ConcurrentUtils.createDaemonThread("AccessLimitOffenderLoop", offenderLoop).start();
   }
 
   @Override
-  public boolean tryAcquire() {
-    return rateLimiter.tryAcquire();
+  public boolean tryAcquire(AccessType type, String app, String ip) {
+    final long now = System.nanoTime();
+    final int reserve = type.getReservePercent();
+    TokenBucket ipBucket =
+        getBucket(ipBuckets, ip, sessionServerConfig.getAccessLimitIpRate(), now);
+    if (ipBucket != null && !ipBucket.tryAcquire(now, reserve)) {
+      reject(AccessLimitMetrics.LEVEL_IP, type);
+      return false;
+    }
+    TokenBucket appBucket =
+        getBucket(appBuckets, app, sessionServerConfig.getAccessLimitAppRate(), now);
+    if (appBucket != null && !appBucket.tryAcquire(now, reserve)) {
+      refund(ipBucket);
+      reject(AccessLimitMetrics.LEVEL_APP, type);
+      return false;
+    }
+    if (!globalBucket.tryAcquire(now, reserve)) {
+      refund(ipBucket);
+      refund(appBucket);
+      reject(AccessLimitMetrics.LEVEL_GLOBAL, type);
+      return false;
+    }
+    return true;
+  }
+
+  private static TokenBucket getBucket(
+      Map<String, TokenBucket> buckets, String key, double rate, long now) {
+    if (StringUtils.isBlank(key)) {
+      return null;
+    }
+    // get first, computeIfAbsent locks the bin even if the key exists
+    TokenBucket bucket = buckets.get(key);
+    if (bucket != null) {
+      return bucket;
+    }
+    return buckets.computeIfAbsent(key, k -> new TokenBucket(rate, now));
+  }
+
+  private static void refund(TokenBucket bucket) {
+    if (bucket != null) {
+      bucket.refund();
+    }
+  }
+
+  private static void reject(String level, AccessType type) {
+    AccessLimitMetrics.REJECT_COUNTER.labels(level, type.name()).inc();
+  }
+
+  /**
+   * collect the top offenders of last period, and clean the idle buckets
+   *
+   * @return map: level -> key -> rejected num
+   */
+  @VisibleForTesting
+  Map<String, Map<String, Long>> refreshTopOffenders() {
+    final long now = System.nanoTime();
+    final int topN = sessionServerConfig.getAccessLimitTopN();
+    Map<String, Map<String, Long>> offenders = Maps.newHashMapWithExpectedSize(2);
+    offenders.put(AccessLimitMetrics.LEVEL_APP, collectOffenders(appBuckets, now, topN));
+    offenders.put(AccessLimitMetrics.LEVEL_IP, collectOffenders(ipBuckets, now, topN));
+
+    AccessLimitMetrics.TOP_REJECT_GAUGE.clear();
+    for (Map.Entry<String, Map<String, Long>> level : offenders.entrySet()) {
+      for (Map.Entry<String, Long> e : level.getValue().entrySet()) {
+        AccessLimitMetrics.TOP_REJECT_GAUGE.labels(level.getKey(), e.getKey()).set(e.getValue());
+      }
+      if (!level.getValue().isEmpty()) {
+        LOGGER.info("[TopOffenders]{}, {}", level.getKey(), level.getValue());
+      }
+    }
+    this.topOffenders = offenders;
+    return offenders;
+  }
+
+  private static Map<String, Long> collectOffenders(
+      Map<String, TokenBucket> buckets, long now, int topN) {
+    List<Map.Entry<String, Long>> rejected =
+        buckets.entrySet().stream()
+            .map(e -> Maps.immutableEntry(e.getKey(), e.getValue().sumRejectedThenReset()))
+            .filter(e -> e.getValue() > 0)
+            .sorted(Comparator.comparing(Map.Entry<String, Long>::getValue).reversed())
+            .limit(topN)
+            .collect(Collectors.toList());
+    // the removed bucket is full, recreate it has the same effect
+    buckets.values().removeIf(bucket -> bucket.isIdle(now, IDLE_NANOS));
+    Map<String, Long> ret = Maps.newLinkedHashMap();
+    for (Map.Entry<String, Long> e : rejected) {
+      ret.put(e.getKey(), e.getValue());
+    }
+    return ret;
+  }
+
+  /**
+   * Getter method for property <tt>topOffenders</tt>.
+   *
+   * @return property value of topOffenders
+   */
+  public Map<String, Map<String, Long>> getTopOffenders() {
+    return topOffenders;
+  }
+
+  private final class OffenderLoop extends WakeUpLoopRunnable {
+    @Override
+    public int getWaitingMillis() {
+      return 10000;
+    }
+
+    @Override
+    public void runUnthrowable() {
+      refreshTopOffenders();
+    }
   }
 }
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.limit;
+
+/**
+ * type of the client access, the priority is from low to high, the lower priority leaves more
+ * permits of the bucket to the higher
+ */
+public enum AccessType {
+  REGISTER(30),
+  UNREGISTER(20),
+  SYNC_CONFIG(10),
+  HEARTBEAT(0),
+  ;
+
+  /** percent of the bucket reserved for the higher priority types */
+  private final int reservePercent;
+
+  AccessType(int reservePercent) {
+    this.reservePercent = reservePercent;
+  }
+
+  /**
+   * Getter method for property <tt>reservePercent</tt>.
+   *
+   * @return property value of reservePercent
+   */
+  public int getReservePercent() {
+    return reservePercent;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * lock-free token bucket in the form of generic cell rate algorithm: only the theoretical arrival
+ * time of the next permit is kept, a permit is granted when it is not later than the burst window
+ */
+public final class TokenBucket {
+  private static final long BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final long intervalNanos;
+
+  private final AtomicLong theoreticalArrival;
+
+  private final LongAdder rejected = new LongAdder();
+
+  public TokenBucket(double permitsPerSecond, long nowNanos) {
+    this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+    this.theoreticalArrival = new AtomicLong(nowNanos);
+  }
+
+  /**
+   * @param nowNanos System.nanoTime
+   * @param reservePercent percent of the burst which could not be used
+   * @return true if acquired
+   */
+  public boolean tryAcquire(long nowNanos, int reservePercent) {
+    final long limit = BURST_NANOS / 100 * (100 - reservePercent);
+    while (true) {
+      final long tat = theoreticalArrival.get();
+      final long next = (tat - nowNanos > 0 ? tat : nowNanos) + intervalNanos;
+      if (next - nowNanos > limit) {
+        rejected.increment();
+        return false;
+      }
+      if (theoreticalArrival.compareAndSet(tat, next)) {
+        return true;
+      }
+    }
+  }
+
+  /** give back the permit acquired, when the upper level bucket rejects */
+  public void refund() {
+    theoreticalArrival.addAndGet(-intervalNanos);
+  }
+
+  /**
+   * @param nowNanos System.nanoTime
+   * @param idleNanos idle time
+   * @return true if the bucket is full and not accessed in idleNanos
+   */
+  public boolean isIdle(long nowNanos, long idleNanos) {
+    return nowNanos - theoreticalArrival.get() > idleNanos;
+  }
+
+  /**
+   * rejected count since last call
+   *
+   * @return long
+   */
+  public long sumRejectedThenReset() {
+    return rejected.sumThenReset();
+  }
+}
@@ -23,6 +23,7 @@ import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.remoting.exchange.ExchangeCallback;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author shangyu.wh
@@ -65,4 +66,14 @@ public interface DataNodeService {
    * @return MultiSubDatum
    */
   MultiSubDatum fetch(String dataInfoId, Set<String> dataCenters);
+
+  /**
+   * fetch publisher data without blocking, the concurrent fetches to the same data server are
+   * coalesced into one request
+   *
+   * @param dataInfoId dataInfoId
+   * @param dataCenters dataCenters
+   * @return future of MultiSubDatum
+   */
+  CompletableFuture<MultiSubDatum> fetchAsync(String dataInfoId, Set<String> dataCenters);
 }
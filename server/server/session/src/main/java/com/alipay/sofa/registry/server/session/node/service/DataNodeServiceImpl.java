@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.session.node.service;
 
 import com.alipay.sofa.registry.common.model.ClientOffPublishers;
 import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.dataserver.*;
 import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.slot.Slot;
@@ -26,7 +27,7 @@ import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.common.model.store.UnPublisher;
-import com.alipay.sofa.registry.compress.CompressConstants;
+import com.alipay.sofa.registry.compress.CompressUtils;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.CallbackHandler;
@@ -46,6 +47,7 @@ import com.alipay.sofa.registry.task.FastRejectedExecutionException;
 import com.alipay.sofa.registry.task.MetricsableThreadPoolExecutor;
 import com.alipay.sofa.registry.task.RejectedDiscardHandler;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.NamedThreadFactory;
 import com.alipay.sofa.registry.util.OsUtils;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
@@ -53,10 +55,16 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -68,15 +76,17 @@ public class DataNodeServiceImpl implements DataNodeService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DataNodeServiceImpl.class);
 
-  @Autowired private NodeExchanger dataNodeExchanger;
+  @Autowired NodeExchanger dataNodeExchanger;
 
-  @Autowired private SlotTableCache slotTableCache;
+  @Autowired SlotTableCache slotTableCache;
 
-  @Autowired private SessionServerConfig sessionServerConfig;
+  @Autowired SessionServerConfig sessionServerConfig;
 
   private Worker[] workers;
   private BlockingQueues<Req> blockingQueues;
 
+  final FetchBatcher fetchBatcher = new FetchBatcher();
+
   final RejectedDiscardHandler discardHandler = new RejectedDiscardHandler();
   private final ThreadPoolExecutor callbackExecutor =
       MetricsableThreadPoolExecutor.newExecutor(
@@ -96,6 +106,11 @@ public class DataNodeServiceImpl implements DataNodeService {
     }
   }
 
+  @PreDestroy
+  public void dispose() {
+    fetchBatcher.shutdown();
+  }
+
   private void commitReq(int slotId, Req req) {
     int idx = slotId % blockingQueues.queueNum();
     try {
@@ -207,10 +222,52 @@ public class DataNodeServiceImpl implements DataNodeService {
 
   @Override
   public MultiSubDatum fetch(String dataInfoId, Set<String> dataCenters) {
-    final Slot localSlot = getSlot(sessionServerConfig.getSessionServerDataCenter(), dataInfoId);
-    int slotId = localSlot.getId();
-    String dataNodeIp = localSlot.getLeader();
+    final int window = sessionServerConfig.getDataNodeFetchBatchWindowMillis();
+    if (window <= 0) {
+      return fetchSingle(dataInfoId, dataCenters);
+    }
+    final CompletableFuture<MultiSubDatum> future = fetchAsync(dataInfoId, dataCenters);
+    try {
+      return future.get(
+          sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis() + window,
+          TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    } catch (TimeoutException e) {
+      throw new RuntimeException(
+          StringFormatter.format("GetMultiData timeout {}, {}", dataInfoId, dataCenters), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(
+          StringFormatter.format("GetMultiData interrupted {}, {}", dataInfoId, dataCenters), e);
+    }
+  }
 
+  @Override
+  public CompletableFuture<MultiSubDatum> fetchAsync(String dataInfoId, Set<String> dataCenters) {
+    final CompletableFuture<MultiSubDatum> future;
+    try {
+      if (sessionServerConfig.getDataNodeFetchBatchWindowMillis() <= 0) {
+        return CompletableFuture.completedFuture(fetchSingle(dataInfoId, dataCenters));
+      }
+      final Slot localSlot = getSlot(sessionServerConfig.getSessionServerDataCenter(), dataInfoId);
+      final GetMultiDataRequest request =
+          newGetMultiDataRequest(localSlot, dataInfoId, dataCenters);
+      future = fetchBatcher.add(getUrl(localSlot), request);
+    } catch (Throwable e) {
+      CompletableFuture<MultiSubDatum> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+    return future;
+  }
+
+  private GetMultiDataRequest newGetMultiDataRequest(
+      Slot localSlot, String dataInfoId, Set<String> dataCenters) {
+    final int slotId = localSlot.getId();
     Map<String, Long> slotTableEpochs = Maps.newHashMapWithExpectedSize(dataCenters.size());
     Map<String, Long> slotLeaderEpochs = Maps.newHashMapWithExpectedSize(dataCenters.size());
     for (String dataCenter : dataCenters) {
@@ -219,16 +276,21 @@ public class DataNodeServiceImpl implements DataNodeService {
       slotTableEpochs.put(dataCenter, slotTableCache.getEpoch(dataCenter));
       slotLeaderEpochs.put(dataCenter, slot.getLeaderEpoch());
     }
-    try {
-      GetMultiDataRequest getMultiDataRequest =
-          new GetMultiDataRequest(
-              ServerEnv.PROCESS_ID,
-              slotId,
-              dataInfoId,
-              CompressConstants.defaultCompressEncodes,
-              slotTableEpochs,
-              slotLeaderEpochs);
+    return new GetMultiDataRequest(
+        ServerEnv.PROCESS_ID,
+        slotId,
+        dataInfoId,
+        CompressUtils.acceptEncodes(),
+        slotTableEpochs,
+        slotLeaderEpochs);
+  }
 
+  MultiSubDatum fetchSingle(String dataInfoId, Set<String> dataCenters) {
+    final Slot localSlot = getSlot(sessionServerConfig.getSessionServerDataCenter(), dataInfoId);
+    final GetMultiDataRequest getMultiDataRequest =
+        newGetMultiDataRequest(localSlot, dataInfoId, dataCenters);
+    final String dataNodeIp = localSlot.getLeader();
+    try {
       Request<GetMultiDataRequest> getDataRequestStringRequest =
           new Request<GetMultiDataRequest>() {
 
@@ -249,25 +311,10 @@ public class DataNodeServiceImpl implements DataNodeService {
           };
 
       Response response = dataNodeExchanger.request(getDataRequestStringRequest);
-      Object result = response.getResult();
-      MultiSlotAccessGenericResponse<MultiSubDatum> genericResponse =
-          (MultiSlotAccessGenericResponse<MultiSubDatum>) result;
-      if (genericResponse.isSuccess()) {
-        final MultiSubDatum datum = genericResponse.getData();
-        if (datum == null) {
-          return null;
-        }
-        return MultiSubDatum.intern(datum);
-      } else {
-        throw new RuntimeException(
-            StringFormatter.format(
-                "GetMultiData got fail response {}, {}, {}, slotId={} msg:{}",
-                dataNodeIp,
-                dataInfoId,
-                dataCenters,
-                slotId,
-                genericResponse.getMessage()));
-      }
+      return toMultiSubDatum(
+          (MultiSlotAccessGenericResponse<MultiSubDatum>) response.getResult(),
+          dataNodeIp,
+          getMultiDataRequest);
     } catch (RequestException e) {
       throw new RuntimeException(
           StringFormatter.format(
@@ -275,11 +322,33 @@ public class DataNodeServiceImpl implements DataNodeService {
               dataNodeIp,
               dataInfoId,
               dataCenters,
-              slotId),
+              localSlot.getId()),
           e);
     }
   }
 
+  private static MultiSubDatum toMultiSubDatum(
+      MultiSlotAccessGenericResponse<MultiSubDatum> genericResponse,
+      String dataNodeIp,
+      GetMultiDataRequest request) {
+    if (genericResponse.isSuccess()) {
+      final MultiSubDatum datum = genericResponse.getData();
+      if (datum == null) {
+        return null;
+      }
+      return MultiSubDatum.intern(datum);
+    } else {
+      throw new RuntimeException(
+          StringFormatter.format(
+              "GetMultiData got fail response {}, {}, {}, slotId={} msg:{}",
+              dataNodeIp,
+              request.getDataInfoId(),
+              request.getSlotTableEpochs().keySet(),
+              request.getSlotId(),
+              genericResponse.getMessage()));
+    }
+  }
+
   private CommonResponse sendRequest(Request request) throws RequestException {
     Response response = dataNodeExchanger.request(request);
     Object result = response.getResult();
@@ -477,4 +546,174 @@ public class DataNodeServiceImpl implements DataNodeService {
     }
     return ret;
   }
+
+  private static final class FetchBatch {
+    final URL url;
+    final List<GetMultiDataRequest> requests = Lists.newArrayList();
+    final List<CompletableFuture<MultiSubDatum>> futures = Lists.newArrayList();
+    final Map<String, Integer> positions = Maps.newHashMap();
+
+    FetchBatch(URL url) {
+      this.url = url;
+    }
+
+    CompletableFuture<MultiSubDatum> add(GetMultiDataRequest request) {
+      Integer pos = positions.get(request.getDataInfoId());
+      if (pos != null
+          && requests
+              .get(pos)
+              .getSlotTableEpochs()
+              .keySet()
+              .equals(request.getSlotTableEpochs().keySet())) {
+        // the same fetch is pending, share the response
+        return futures.get(pos);
+      }
+      CompletableFuture<MultiSubDatum> future = new CompletableFuture<>();
+      positions.put(request.getDataInfoId(), requests.size());
+      requests.add(request);
+      futures.add(future);
+      return future;
+    }
+
+    int size() {
+      return requests.size();
+    }
+
+    void completeExceptionally(Throwable e) {
+      for (CompletableFuture<MultiSubDatum> future : futures) {
+        future.completeExceptionally(e);
+      }
+    }
+  }
+
+  /**
+   * collect the concurrent fetches to the same data server within the window, and send them in one
+   * GetMultiDataBatchRequest
+   */
+  final class FetchBatcher {
+    private final Map<String, FetchBatch> pendings = Maps.newHashMap();
+
+    private final ScheduledExecutorService scheduler =
+        new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("FetchDatumBatcher", true));
+
+    CompletableFuture<MultiSubDatum> add(URL url, GetMultiDataRequest request) {
+      final CompletableFuture<MultiSubDatum> future;
+      FetchBatch full = null;
+      synchronized (this) {
+        FetchBatch batch = pendings.get(url.getIpAddress());
+        if (batch == null) {
+          final FetchBatch created = new FetchBatch(url);
+          pendings.put(url.getIpAddress(), created);
+          scheduler.schedule(
+              () -> flush(created),
+              sessionServerConfig.getDataNodeFetchBatchWindowMillis(),
+              TimeUnit.MILLISECONDS);
+          batch = created;
+        }
+        future = batch.add(request);
+        if (batch.size() >= sessionServerConfig.getDataNodeFetchMaxBatchSize()) {
+          full = pendings.remove(url.getIpAddress());
+        }
+      }
+      if (full != null) {
+        send(full);
+      }
+      return future;
+    }
+
+    void flush(FetchBatch batch) {
+      synchronized (this) {
+        if (!pendings.remove(batch.url.getIpAddress(), batch)) {
+          // has been sent as full
+          return;
+        }
+      }
+      send(batch);
+    }
+
+    void shutdown() {
+      scheduler.shutdownNow();
+      final List<FetchBatch> batches;
+      synchronized (this) {
+        batches = Lists.newArrayList(pendings.values());
+        pendings.clear();
+      }
+      for (FetchBatch batch : batches) {
+        batch.completeExceptionally(
+            new RuntimeException(
+                StringFormatter.format(
+                    "GetMultiDataBatch aborted by shutdown {}, num={}",
+                    batch.url.getIpAddress(),
+                    batch.size())));
+      }
+    }
+
+    void send(FetchBatch batch) {
+      final GetMultiDataBatchRequest request =
+          new GetMultiDataBatchRequest(ServerEnv.PROCESS_ID, batch.requests);
+      final CallbackHandler handler =
+          new CallbackHandler() {
+            @Override
+            public void onCallback(Channel channel, Object message) {
+              handleFetchBatchCallback(batch, message);
+            }
+
+            @Override
+            public void onException(Channel channel, Throwable exception) {
+              batch.completeExceptionally(
+                  new RuntimeException(
+                      StringFormatter.format(
+                          "GetMultiDataBatch fail {}, num={}",
+                          batch.url.getIpAddress(),
+                          batch.size()),
+                      exception));
+            }
+
+            @Override
+            public Executor getExecutor() {
+              return callbackExecutor;
+            }
+          };
+      try {
+        dataNodeExchanger.request(
+            new SimpleRequest<GetMultiDataBatchRequest>(request, batch.url, handler) {
+              @Override
+              public Integer getTimeout() {
+                return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis();
+              }
+            });
+      } catch (Throwable e) {
+        batch.completeExceptionally(
+            new RuntimeException(
+                StringFormatter.format(
+                    "GetMultiDataBatch fail {}, num={}", batch.url.getIpAddress(), batch.size()),
+                e));
+      }
+    }
+  }
+
+  void handleFetchBatchCallback(FetchBatch batch, Object message) {
+    GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>> resp =
+        (GenericResponse<List<MultiSlotAccessGenericResponse<MultiSubDatum>>>) message;
+    final String dataNodeIp = batch.url.getIpAddress();
+    if (!resp.isSuccess() || resp.getData() == null || resp.getData().size() != batch.size()) {
+      batch.completeExceptionally(
+          new RuntimeException(
+              StringFormatter.format(
+                  "GetMultiDataBatch got fail response {}, num={}, msg:{}",
+                  dataNodeIp,
+                  batch.size(),
+                  resp.getMessage())));
+      return;
+    }
+    List<MultiSlotAccessGenericResponse<MultiSubDatum>> list = resp.getData();
+    for (int i = 0; i < batch.size(); i++) {
+      final CompletableFuture<MultiSubDatum> future = batch.futures.get(i);
+      try {
+        future.complete(toMultiSubDatum(list.get(i), dataNodeIp, batch.requests.get(i)));
+      } catch (Throwable e) {
+        future.completeExceptionally(e);
+      }
+    }
+  }
 }
@@ -37,6 +37,18 @@ public final class ZonePredicate {
     return zonePredicate;
   }
 
+  /**
+   * the config state the pushDataPredicate depends on besides the clientCell, the pushes built with
+   * the same filter key and clientCell contain the same zones
+   */
+  public static String pushDataFilterKey(
+      String dataId, ScopeEnum scopeEnum, SessionServerConfig sessionServerConfig) {
+    if (ScopeEnum.zone == scopeEnum || sessionServerConfig.isInvalidIgnored(dataId)) {
+      return "";
+    }
+    return sessionServerConfig.getInvalidForeverZones();
+  }
+
   private static boolean zoneFilter(
       String dataId,
       String clientCell,
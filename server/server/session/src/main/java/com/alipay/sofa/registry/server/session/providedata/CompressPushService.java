@@ -92,6 +92,23 @@ public class CompressPushService
     return CompressUtils.find(acceptEncodes, compressPushSwitch.getForbidEncodes());
   }
 
+  /**
+   * the same key selects the same compressor for the same data, empty if the push to the client is
+   * not compressed
+   */
+  public String compressorKey(String[] acceptEncodes, String clientIp) {
+    CompressPushSwitch compressPushSwitch = getCompressSwitch();
+    if (!compressEnabled(compressPushSwitch, clientIp)) {
+      return "";
+    }
+    Compressor compressor =
+        CompressUtils.find(acceptEncodes, compressPushSwitch.getForbidEncodes());
+    if (compressor == null) {
+      return "";
+    }
+    return compressor.getEncoding() + ":" + compressPushSwitch.getCompressMinSize();
+  }
+
   private static boolean compressEnabled(CompressPushSwitch compressPushSwitch, String clientIp) {
     if (compressPushSwitch.isEnabled()) {
       return true;
@@ -16,6 +16,9 @@
  */
 package com.alipay.sofa.registry.server.session.push;
 
+import static com.alipay.sofa.registry.server.session.push.PushMetrics.Push.PUSH_DELTA_COUNTER;
+import static com.alipay.sofa.registry.server.session.push.PushMetrics.Push.PUSH_FULL_COUNTER;
+
 import com.alipay.sofa.registry.common.model.DataCenterPushInfo;
 import com.alipay.sofa.registry.common.model.SegmentPushInfo;
 import com.alipay.sofa.registry.common.model.SubscriberUtils;
@@ -27,6 +30,7 @@ import com.alipay.sofa.registry.core.model.DataBox;
 import com.alipay.sofa.registry.core.model.MultiReceivedData;
 import com.alipay.sofa.registry.core.model.ReceivedConfigData;
 import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.exception.SofaRegistryRuntimeException;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
@@ -35,8 +39,10 @@ import com.alipay.sofa.registry.server.session.converter.pb.ReceivedDataConverto
 import com.alipay.sofa.registry.server.session.multi.cluster.DataCenterMetadataCache;
 import com.alipay.sofa.registry.server.session.predicate.ZonePredicate;
 import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.alipay.sofa.registry.util.SystemUtils;
 import com.google.common.collect.Lists;
 import java.util.*;
 import java.util.Map.Entry;
@@ -46,6 +52,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.StringUtils;
 
 public class PushDataGenerator {
+  private static final String KEY_PUSH_SNAPSHOT_CAPACITY =
+      "registry.session.push_snapshot.capacity";
 
   @Autowired SessionServerConfig sessionServerConfig;
 
@@ -53,8 +61,128 @@ public class PushDataGenerator {
 
   @Autowired DataCenterMetadataCache dataCenterMetadataCache;
 
+  final PushSnapshotCache pushSnapshotCache =
+      new PushSnapshotCache(SystemUtils.getSystemInteger(KEY_PUSH_SNAPSHOT_CAPACITY, 1024 * 16));
+
   public PushData createPushData(MultiSubDatum unzipDatum, Map<String, Subscriber> subscriberMap) {
     unzipDatum.mustUnzipped();
+    final Subscriber subscriber = checkSubscribers(subscriberMap);
+    return createPushData(
+        unzipDatum,
+        subscriber,
+        sessionServerConfig.getClientCell(subscriber.getCell()),
+        Lists.newArrayList(subscriberMap.keySet()));
+  }
+
+  /**
+   * create the push data by the payload cache, the subscribers of the same datum version share the
+   * payload, the datum is decompressed only when the payload missing
+   */
+  public PushData createCachedPushData(MultiSubDatum datum, Map<String, Subscriber> subscriberMap) {
+    final Subscriber subscriber = checkSubscribers(subscriberMap);
+    final String clientCell = sessionServerConfig.getClientCell(subscriber.getCell());
+    final URL url = subscriber.getSourceAddress();
+    if (acceptDelta(subscriberMap.values())) {
+      return createDeltaPushData(
+          DatumUtils.decompressMultiSubDatum(datum),
+          subscriber,
+          clientCell,
+          Lists.newArrayList(subscriberMap.keySet()),
+          deltaBaseVersion(subscriberMap.values()));
+    }
+    PushPayloadCache.PayloadKey key =
+        new PushPayloadCache.PayloadKey(
+            datum,
+            subscriber.getScope(),
+            clientCell,
+            url.getSerializerIndex(),
+            compressPushService.compressorKey(subscriber.getAcceptEncodes(), url.getIpAddress()),
+            subscriber.acceptMulti(),
+            subscriber.acceptMulti()
+                ? dataCenterMetadataCache.dataCenterZonesOf(datum.dataCenters())
+                : null,
+            ZonePredicate.pushDataFilterKey(
+                datum.getDataId(), subscriber.getScope(), sessionServerConfig));
+    return PushPayloadCache.get(
+        key,
+        Lists.newArrayList(subscriberMap.keySet()),
+        () ->
+            createPushData(
+                DatumUtils.decompressMultiSubDatum(datum),
+                subscriber,
+                clientCell,
+                Collections.emptyList()));
+  }
+
+  /**
+   * the delta push only supports the single dataCenter push by the java serializer, the payload
+   * depends on the base version of the subscribers, so not cached
+   */
+  private static boolean acceptDelta(Collection<Subscriber> subscribers) {
+    for (Subscriber subscriber : subscribers) {
+      if (!subscriber.acceptDelta() || subscriber.acceptMulti()) {
+        return false;
+      }
+      final Byte serializerIndex = subscriber.getSourceAddress().getSerializerIndex();
+      if (serializerIndex != null && URL.PROTOBUF == serializerIndex) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** the subscribers of the task must hold the same version, otherwise full push */
+  private long deltaBaseVersion(Collection<Subscriber> subscribers) {
+    final String dataCenter = sessionServerConfig.getSessionServerDataCenter();
+    long baseVersion = -1;
+    for (Subscriber subscriber : subscribers) {
+      final long version = subscriber.getDeltaBaseVersion(dataCenter);
+      if (baseVersion != -1 && baseVersion != version) {
+        return 0;
+      }
+      baseVersion = version;
+    }
+    return Math.max(baseVersion, 0);
+  }
+
+  PushData createDeltaPushData(
+      MultiSubDatum unzipDatum,
+      Subscriber subscriber,
+      String clientCell,
+      List<String> subscriberRegisterIdList,
+      long baseVersion) {
+    final String dataCenter = sessionServerConfig.getSessionServerDataCenter();
+    final SubDatum subDatum = unzipDatum.getSubDatum(dataCenter);
+    // the zone scope filter does not depend on the config, use the same key for all the scopes
+    final String filterKey =
+        ZonePredicate.pushDataFilterKey(
+            unzipDatum.getDataId(), ScopeEnum.dataCenter, sessionServerConfig);
+    PushSnapshot base = null;
+    if (subDatum != null) {
+      if (baseVersion > 0 && baseVersion < subDatum.getVersion()) {
+        base = pushSnapshotCache.get(subDatum.getDataInfoId(), baseVersion);
+        if (base != null && !Objects.equals(base.getFilterKey(), filterKey)) {
+          // the base was pushed with another zone filter, the client holds the other publishers
+          base = null;
+        }
+      }
+      pushSnapshotCache.put(subDatum, filterKey);
+    }
+    (base == null ? PUSH_FULL_COUNTER : PUSH_DELTA_COUNTER).inc();
+    Predicate<String> pushDataPredicate =
+        ZonePredicate.pushDataPredicate(
+            unzipDatum.getDataId(), clientCell, subscriber.getScope(), sessionServerConfig);
+    return ReceivedDataConverter.getDeltaReceivedData(
+        unzipDatum,
+        subscriber.getScope(),
+        subscriberRegisterIdList,
+        clientCell,
+        dataCenter,
+        pushDataPredicate,
+        base);
+  }
+
+  private static Subscriber checkSubscribers(Map<String, Subscriber> subscriberMap) {
     if (subscriberMap.size() > 1) {
       SubscriberUtils.getAndAssertHasSameScope(subscriberMap.values());
       SubscriberUtils.getAndAssertAcceptedEncodes(subscriberMap.values());
@@ -62,28 +190,24 @@ public class PushDataGenerator {
     }
     // only supported 4.x
     SubscriberUtils.assertClientVersion(subscriberMap.values(), BaseInfo.ClientVersion.StoreData);
+    return subscriberMap.values().iterator().next();
+  }
 
-    final Subscriber subscriber = subscriberMap.values().iterator().next();
-    String clientCell = sessionServerConfig.getClientCell(subscriber.getCell());
-
+  private PushData createPushData(
+      MultiSubDatum unzipDatum,
+      Subscriber subscriber,
+      String clientCell,
+      List<String> subscriberRegisterIdList) {
     CompressorGetter compressorGetter =
         (Map<String, List<DataBox>> data) ->
             compressPushService.getCompressor(
                 data, subscriber.getAcceptEncodes(), subscriber.getSourceAddress().getIpAddress());
     if (subscriber.acceptMulti()) {
       return createMultiReceivePushData(
-          unzipDatum,
-          clientCell,
-          Lists.newArrayList(subscriberMap.keySet()),
-          subscriber,
-          compressorGetter);
+          unzipDatum, clientCell, subscriberRegisterIdList, subscriber, compressorGetter);
     }
     return createReceivePushData(
-        unzipDatum,
-        clientCell,
-        Lists.newArrayList(subscriberMap.keySet()),
-        subscriber,
-        compressorGetter);
+        unzipDatum, clientCell, subscriberRegisterIdList, subscriber, compressorGetter);
   }
 
   private PushData createMultiReceivePushData(
@@ -233,5 +233,16 @@ public final class PushMetrics {
             .name("push_reg_commit")
             .help("push reg commit count")
             .register();
+
+    private static final Counter PUSH_DELTA_MODE_COUNTER =
+        Counter.build()
+            .namespace("session")
+            .subsystem("push")
+            .name("push_delta_mode")
+            .help("push count of the subscribers accepting delta")
+            .labelNames("mode")
+            .register();
+    static final Counter.Child PUSH_DELTA_COUNTER = PUSH_DELTA_MODE_COUNTER.labels("delta");
+    static final Counter.Child PUSH_FULL_COUNTER = PUSH_DELTA_MODE_COUNTER.labels("full");
   }
 }
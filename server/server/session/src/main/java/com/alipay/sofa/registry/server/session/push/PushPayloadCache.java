@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.cache.Sizer;
+import com.alipay.sofa.registry.common.model.DataCenterPushInfo;
+import com.alipay.sofa.registry.common.model.client.pb.MultiReceivedDataPb;
+import com.alipay.sofa.registry.common.model.client.pb.ReceivedDataPb;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.PushData;
+import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.core.model.DataBox;
+import com.alipay.sofa.registry.core.model.MultiReceivedData;
+import com.alipay.sofa.registry.core.model.MultiSegmentData;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.metrics.CounterFunc;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.alipay.sofa.registry.util.SystemUtils;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * the push payloads of the same datum version are the same between the subscribers except the
+ * subscriber registerIds. the payload is built once without registerIds, and the registerIds are
+ * spliced in at send time, the encoded segment body is shared.
+ */
+public final class PushPayloadCache {
+  private static final String KEY_PUSH_PAYLOAD_CACHE_CAPACITY =
+      "registry.session.push_payload.capacity";
+
+  static final CachedExecutor<PayloadKey, Payload> payloadExecutor =
+      new CachedExecutor<>(
+          60 * 1000,
+          SystemUtils.getSystemInteger(KEY_PUSH_PAYLOAD_CACHE_CAPACITY, 1024 * 1024 * 128),
+          (PayloadKey k, Payload v) -> k.size() + v.size(),
+          true);
+
+  static {
+    CounterFunc cacheCounter =
+        CounterFunc.build()
+            .namespace("session")
+            .subsystem("push")
+            .name("payload_cache")
+            .labelNames("type")
+            .help("push payload cache hit or missing")
+            .create()
+            .register();
+    cacheCounter.labels("hit").func(payloadExecutor::getHitCount);
+    cacheCounter.labels("missing").func(payloadExecutor::getMissingCount);
+  }
+
+  private PushPayloadCache() {}
+
+  /**
+   * get the payload of the key, the loader creates the push data without the subscriber registerIds
+   * when missing
+   */
+  static PushData get(
+      PayloadKey key, List<String> subscriberRegisterIds, Callable<PushData> loader) {
+    final Payload payload;
+    try {
+      payload = payloadExecutor.execute(key, () -> new Payload(loader.call()));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    return payload.splice(subscriberRegisterIds);
+  }
+
+  static final class PayloadKey implements Sizer {
+    final String dataInfoId;
+    final Map<String, Long> versions;
+    final int pubNum;
+    final int dataBoxBytes;
+    final ScopeEnum scope;
+    final String clientCell;
+    final Byte serializerIndex;
+    final String compressorKey;
+    final boolean acceptMulti;
+    final Map<String, Set<String>> segmentZones;
+    // the zone filter config, the cached payload is stale when it changes
+    final String zoneFilterKey;
+    final int hashCode;
+
+    PayloadKey(
+        MultiSubDatum datum,
+        ScopeEnum scope,
+        String clientCell,
+        Byte serializerIndex,
+        String compressorKey,
+        boolean acceptMulti,
+        Map<String, Set<String>> segmentZones,
+        String zoneFilterKey) {
+      this.dataInfoId = datum.getDataInfoId();
+      this.versions = datum.getVersion();
+      // the fingerprint of the datum, avoid the different datum with the same version
+      this.pubNum = datum.getPubNum();
+      this.dataBoxBytes = datum.getDataBoxBytes();
+      this.scope = scope;
+      this.clientCell = clientCell;
+      this.serializerIndex = serializerIndex;
+      this.compressorKey = compressorKey;
+      this.acceptMulti = acceptMulti;
+      this.segmentZones = segmentZones;
+      this.zoneFilterKey = zoneFilterKey;
+      this.hashCode =
+          Objects.hash(
+              dataInfoId,
+              versions,
+              pubNum,
+              dataBoxBytes,
+              scope,
+              clientCell,
+              serializerIndex,
+              compressorKey,
+              acceptMulti,
+              segmentZones,
+              zoneFilterKey);
+    }
+
+    @Override
+    public int size() {
+      return dataInfoId.length()
+          + (clientCell == null ? 0 : clientCell.length())
+          + (compressorKey == null ? 0 : compressorKey.length())
+          + (zoneFilterKey == null ? 0 : zoneFilterKey.length())
+          + versions.size() * 32
+          + 64;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      PayloadKey that = (PayloadKey) o;
+      return hashCode == that.hashCode
+          && pubNum == that.pubNum
+          && dataBoxBytes == that.dataBoxBytes
+          && acceptMulti == that.acceptMulti
+          && scope == that.scope
+          && Objects.equals(dataInfoId, that.dataInfoId)
+          && Objects.equals(versions, that.versions)
+          && Objects.equals(clientCell, that.clientCell)
+          && Objects.equals(serializerIndex, that.serializerIndex)
+          && Objects.equals(compressorKey, that.compressorKey)
+          && Objects.equals(segmentZones, that.segmentZones)
+          && Objects.equals(zoneFilterKey, that.zoneFilterKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return StringFormatter.format(
+          "PayloadKey{{},ver={},scope={},cell={},serializer={},compress={},multi={},zoneFilter={}}",
+          dataInfoId,
+          versions,
+          scope,
+          clientCell,
+          serializerIndex,
+          compressorKey,
+          acceptMulti,
+          zoneFilterKey);
+    }
+  }
+
+  static final class Payload implements Sizer {
+    final Object template;
+    final Map<String, DataCenterPushInfo> dataCenterPushInfo;
+    final int size;
+
+    Payload(PushData pushData) {
+      this.template = pushData.getPayload();
+      this.dataCenterPushInfo = pushData.getDataCenterPushInfo();
+      this.size = sizeOf(template);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    PushData splice(List<String> subscriberRegisterIds) {
+      return new PushData<>(
+          spliceRegisterIds(template, subscriberRegisterIds), copy(dataCenterPushInfo));
+    }
+  }
+
+  static Object spliceRegisterIds(Object template, List<String> subscriberRegisterIds) {
+    if (template instanceof ReceivedDataPb) {
+      return ((ReceivedDataPb) template)
+          .toBuilder()
+          .addAllSubscriberRegistIds(subscriberRegisterIds)
+          .build();
+    }
+    if (template instanceof MultiReceivedDataPb) {
+      return ((MultiReceivedDataPb) template)
+          .toBuilder()
+          .addAllSubscriberRegistIds(subscriberRegisterIds)
+          .build();
+    }
+    if (template instanceof ReceivedData) {
+      ReceivedData data = (ReceivedData) template;
+      ReceivedData ret = new ReceivedData();
+      ret.setDataId(data.getDataId());
+      ret.setGroup(data.getGroup());
+      ret.setInstanceId(data.getInstanceId());
+      ret.setSegment(data.getSegment());
+      ret.setScope(data.getScope());
+      ret.setSubscriberRegistIds(subscriberRegisterIds);
+      ret.setData(unmodifiable(data.getData()));
+      ret.setVersion(data.getVersion());
+      ret.setLocalZone(data.getLocalZone());
+      ret.setDataCount(data.getDataCount());
+      return ret;
+    }
+    if (template instanceof MultiReceivedData) {
+      MultiReceivedData data = (MultiReceivedData) template;
+      MultiReceivedData ret = new MultiReceivedData();
+      ret.setDataId(data.getDataId());
+      ret.setGroup(data.getGroup());
+      ret.setInstanceId(data.getInstanceId());
+      ret.setScope(data.getScope());
+      ret.setSubscriberRegistIds(subscriberRegisterIds);
+      ret.setLocalSegment(data.getLocalSegment());
+      ret.setLocalZone(data.getLocalZone());
+      ret.setMultiData(unmodifiable(data.getMultiData()));
+      return ret;
+    }
+    return template;
+  }
+
+  /**
+   * the data of the template is shared by the spliced payloads, protect it from the modification
+   */
+  private static <K, V> Map<K, V> unmodifiable(Map<K, V> data) {
+    return data == null ? null : Collections.unmodifiableMap(data);
+  }
+
+  /** the pushVersion of the push info maybe reset by the push task, copy it for every push */
+  static Map<String, DataCenterPushInfo> copy(Map<String, DataCenterPushInfo> dataCenterPushInfo) {
+    if (dataCenterPushInfo.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<String, DataCenterPushInfo> ret =
+        Maps.newHashMapWithExpectedSize(dataCenterPushInfo.size());
+    for (Map.Entry<String, DataCenterPushInfo> e : dataCenterPushInfo.entrySet()) {
+      DataCenterPushInfo info = e.getValue();
+      ret.put(
+          e.getKey(), new DataCenterPushInfo(info.getPushVersion(), info.getSegmentPushInfos()));
+    }
+    return ret;
+  }
+
+  static int sizeOf(Object template) {
+    if (template instanceof ReceivedDataPb) {
+      return ((ReceivedDataPb) template).getSerializedSize();
+    }
+    if (template instanceof MultiReceivedDataPb) {
+      return ((MultiReceivedDataPb) template).getSerializedSize();
+    }
+    if (template instanceof ReceivedData) {
+      return sizeOf(((ReceivedData) template).getData());
+    }
+    if (template instanceof MultiReceivedData) {
+      Map<String, MultiSegmentData> multiData = ((MultiReceivedData) template).getMultiData();
+      int size = 0;
+      if (multiData != null) {
+        for (MultiSegmentData segmentData : multiData.values()) {
+          size += sizeOf(segmentData.getUnzipData());
+        }
+      }
+      return size;
+    }
+    return 128;
+  }
+
+  private static int sizeOf(Map<String, List<DataBox>> data) {
+    int size = 128;
+    if (data == null) {
+      return size;
+    }
+    for (Map.Entry<String, List<DataBox>> e : data.entrySet()) {
+      size += e.getKey().length();
+      for (DataBox box : e.getValue()) {
+        size += 32;
+        if (box.getData() != null) {
+          size += box.getData().length();
+        }
+      }
+    }
+    return size;
+  }
+}
@@ -24,6 +24,8 @@ import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
 import com.alipay.sofa.registry.common.model.store.PushData;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.Result;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.remoting.CallbackHandler;
 import com.alipay.sofa.registry.remoting.Channel;
@@ -32,7 +34,6 @@ import com.alipay.sofa.registry.remoting.exchange.RequestChannelClosedException;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.circuit.breaker.CircuitBreakerService;
 import com.alipay.sofa.registry.server.session.node.service.ClientNodeService;
-import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.task.KeyedThreadPoolExecutor;
 import com.alipay.sofa.registry.task.MetricsableThreadPoolExecutor;
 import com.alipay.sofa.registry.task.RejectedDiscardHandler;
@@ -325,6 +326,7 @@ public class PushProcessor {
 
       final PushData pushData = task.createPushData();
       task.setDataCenterPushInfos(pushData.getDataCenterPushInfo());
+      task.setDeltaPush(isDeltaPush(pushData.getPayload()));
 
       if (interruptOnPushEmpty(
           task.datum, pushData, task.trace.pushCause, task.subscriber, task.pushingTaskKey.addr)) {
@@ -360,6 +362,10 @@ public class PushProcessor {
     return false;
   }
 
+  static boolean isDeltaPush(Object payload) {
+    return payload instanceof ReceivedData && ((ReceivedData) payload).getBaseVersion() != null;
+  }
+
   void handleDoPushException(PushTask task, Throwable e) {
     // try to delete self
     pushingRecords.remove(task.pushingTaskKey);
@@ -414,8 +420,7 @@ public class PushProcessor {
     }
 
     protected PushData createPushData() {
-      return pushDataGenerator.createPushData(
-          DatumUtils.decompressMultiSubDatum(datum), subscriberMap);
+      return pushDataGenerator.createCachedPushData(datum, subscriberMap);
     }
 
     @Override
@@ -454,6 +459,10 @@ public class PushProcessor {
     @Override
     public void onCallback(Channel channel, Object message) {
       pushingRecords.remove(pushTask.pushingTaskKey);
+      if (pushTask.isDeltaPush() && message instanceof Result && !((Result) message).isSuccess()) {
+        onDeltaRejected((Result) message);
+        return;
+      }
       for (Subscriber subscriber : pushTask.subscriberMap.values()) {
         if (!circuitBreakerService.onPushSuccess(
             pushTask.datum.getVersion(), pushTask.getDataCenterPushCount(), subscriber)) {
@@ -470,6 +479,25 @@ public class PushProcessor {
           pushTask.retryCount);
     }
 
+    /** the client not holds the base version of the delta, retry with full push */
+    void onDeltaRejected(Result result) {
+      final String dataCenter = sessionServerConfig.getSessionServerDataCenter();
+      for (Subscriber subscriber : pushTask.subscriberMap.values()) {
+        subscriber.markDeltaBroken(dataCenter);
+      }
+      retry(pushTask, RetryReason.Error);
+      this.pushTask.trace.finishPush(
+          PushTrace.PushStatus.Fail,
+          pushTask.taskID,
+          pushTask.getDataCenterPushInfos(),
+          pushTask.retryCount);
+      LOGGER.warn(
+          "[PushDeltaRejected]taskId={}, {}, {}",
+          pushTask.taskID,
+          pushTask.pushingTaskKey,
+          result.getMessage());
+    }
+
     @Override
     public void onException(Channel channel, Throwable exception) {
       pushingRecords.remove(pushTask.pushingTaskKey);
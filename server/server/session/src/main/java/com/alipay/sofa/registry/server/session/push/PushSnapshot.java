@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * the publishers of a pushed datum version, the delta push is diffed against it. the publishers are
+ * not zone filtered, the filter config at push time is recorded by the filterKey
+ */
+public final class PushSnapshot {
+  private final String dataInfoId;
+  private final long version;
+  private final String filterKey;
+  private final Map<String /*registerId*/, Stamp> publishers;
+
+  PushSnapshot(String dataInfoId, long version, String filterKey, Map<String, Stamp> publishers) {
+    this.dataInfoId = dataInfoId;
+    this.version = version;
+    this.filterKey = filterKey;
+    this.publishers = Collections.unmodifiableMap(publishers);
+  }
+
+  public static PushSnapshot of(SubDatum datum, String filterKey) {
+    List<SubPublisher> pubs = datum.mustGetPublishers();
+    Map<String, Stamp> publishers = Maps.newHashMapWithExpectedSize(pubs.size());
+    for (SubPublisher pub : pubs) {
+      publishers.put(pub.getRegisterId(), new Stamp(pub.getCell(), pub.registerVersion()));
+    }
+    return new PushSnapshot(datum.getDataInfoId(), datum.getVersion(), filterKey, publishers);
+  }
+
+  /**
+   * Getter method for property <tt>dataInfoId</tt>.
+   *
+   * @return property value of dataInfoId
+   */
+  public String getDataInfoId() {
+    return dataInfoId;
+  }
+
+  /**
+   * Getter method for property <tt>version</tt>.
+   *
+   * @return property value of version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Getter method for property <tt>filterKey</tt>.
+   *
+   * @return property value of filterKey
+   */
+  public String getFilterKey() {
+    return filterKey;
+  }
+
+  /**
+   * Getter method for property <tt>publishers</tt>.
+   *
+   * @return property value of publishers
+   */
+  public Map<String, Stamp> getPublishers() {
+    return publishers;
+  }
+
+  /** the identity of the publisher data, the data changes only if the stamp changes */
+  public static final class Stamp {
+    private final String cell;
+    private final RegisterVersion registerVersion;
+
+    Stamp(String cell, RegisterVersion registerVersion) {
+      this.cell = cell;
+      this.registerVersion = registerVersion;
+    }
+
+    public boolean sameAs(SubPublisher publisher) {
+      return Objects.equals(cell, publisher.getCell())
+          && registerVersion.getVersion() == publisher.getVersion()
+          && registerVersion.getRegisterTimestamp() == publisher.getRegisterTimestamp();
+    }
+
+    /**
+     * Getter method for property <tt>cell</tt>.
+     *
+     * @return property value of cell
+     */
+    public String getCell() {
+      return cell;
+    }
+
+    /**
+     * Getter method for property <tt>registerVersion</tt>.
+     *
+     * @return property value of registerVersion
+     */
+    public RegisterVersion getRegisterVersion() {
+      return registerVersion;
+    }
+  }
+}
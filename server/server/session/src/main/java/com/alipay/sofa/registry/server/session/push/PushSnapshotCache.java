@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the snapshots of the recently pushed datum versions, only the subscribers accepting delta record
+ * and read the snapshots
+ */
+public final class PushSnapshotCache {
+  /** the subscribers of a dataInfoId are pushed to the latest version at about the same time */
+  static final int KEEP_VERSIONS = 4;
+
+  private final Cache<String /*dataInfoId*/, Deque<PushSnapshot>> cache;
+
+  public PushSnapshotCache(int maxDataInfoIds) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxDataInfoIds)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+  }
+
+  public void put(SubDatum datum, String filterKey) {
+    final Deque<PushSnapshot> snapshots;
+    try {
+      snapshots = cache.get(datum.getDataInfoId(), () -> new ArrayDeque<>(KEEP_VERSIONS));
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+    synchronized (snapshots) {
+      for (PushSnapshot snapshot : snapshots) {
+        if (snapshot.getVersion() == datum.getVersion()) {
+          return;
+        }
+      }
+      snapshots.addLast(PushSnapshot.of(datum, filterKey));
+      while (snapshots.size() > KEEP_VERSIONS) {
+        snapshots.removeFirst();
+      }
+    }
+  }
+
+  /**
+   * @param dataInfoId dataInfoId
+   * @param version version
+   * @return null if the snapshot of the version missing
+   */
+  public PushSnapshot get(String dataInfoId, long version) {
+    final Deque<PushSnapshot> snapshots = cache.getIfPresent(dataInfoId);
+    if (snapshots == null) {
+      return null;
+    }
+    synchronized (snapshots) {
+      for (PushSnapshot snapshot : snapshots) {
+        if (snapshot.getVersion() == version) {
+          return snapshot;
+        }
+      }
+    }
+    return null;
+  }
+}
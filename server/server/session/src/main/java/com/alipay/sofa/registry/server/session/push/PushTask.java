@@ -46,6 +46,7 @@ public abstract class PushTask {
 
   protected int retryCount;
   private Map<String, DataCenterPushInfo> dataCenterPushInfos;
+  private volatile boolean deltaPush;
 
   protected PushTask(
       PushCause pushCause,
@@ -152,6 +153,24 @@ public abstract class PushTask {
     this.dataCenterPushInfos = dataCenterPushInfos;
   }
 
+  /**
+   * Getter method for property <tt>deltaPush</tt>.
+   *
+   * @return property value of deltaPush
+   */
+  public boolean isDeltaPush() {
+    return deltaPush;
+  }
+
+  /**
+   * Setter method for property <tt>deltaPush</tt>.
+   *
+   * @param deltaPush value to be assigned to property deltaPush
+   */
+  public void setDeltaPush(boolean deltaPush) {
+    this.deltaPush = deltaPush;
+  }
+
   public Map<String, Integer> getDataCenterPushCount() {
     if (dataCenterPushInfos == null) {
       return Collections.EMPTY_MAP;
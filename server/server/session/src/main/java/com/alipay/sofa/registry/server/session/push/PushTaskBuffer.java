@@ -30,6 +30,9 @@ import com.google.common.collect.Sets;
 import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
 public final class PushTaskBuffer {
   private static final Logger LOGGER = LoggerFactory.getLogger(PushTaskBuffer.class);
@@ -74,6 +77,7 @@ public final class PushTaskBuffer {
     }
     if (worker.bufferMap.putIfAbsent(key, pushTask) == null) {
       // fast path
+      worker.schedule(key, pushTask);
       wakeup(worker, pushTask);
       BUFFER_NEW_COUNTER.inc();
       return true;
@@ -84,6 +88,7 @@ public final class PushTaskBuffer {
       if (prev == null) {
         if (worker.bufferMap.putIfAbsent(key, pushTask) == null) {
           // prev has remove at this time
+          worker.schedule(key, pushTask);
           wakeup(worker, pushTask);
           BUFFER_NEW_COUNTER.inc();
           return true;
@@ -94,6 +99,10 @@ public final class PushTaskBuffer {
           // update the expireTimestamp as prev's, avoid the push block by the continues fire
           pushTask.expireTimestamp = prev.expireTimestamp;
           if (worker.bufferMap.replace(key, prev, pushTask)) {
+            // the due of prev is inherited, only the noDelay task need to be scheduled again
+            if (pushTask.trace.pushCause.pushType.noDelay) {
+              worker.schedule(key, pushTask);
+            }
             wakeup(worker, pushTask);
             BUFFER_REPLACE_COUNTER.inc();
             return true;
@@ -127,6 +136,9 @@ public final class PushTaskBuffer {
 
   final class BufferWorker extends WakeUpLoopRunnable {
     final Map<BufferTaskKey, PushTask> bufferMap = new ConcurrentHashMap<>(4096);
+    // the due time of the buffered keys, avoid scanning the whole bufferMap.
+    // an entry maybe stale if the task has been transferred, it is dropped when polled
+    final DelayQueue<DueKey> dueQueue = new DelayQueue<>();
 
     public void setWaitingMillis(int waitingMillis) {
       this.waitingMillis = waitingMillis;
@@ -141,25 +153,80 @@ public final class PushTaskBuffer {
 
     @Override
     public int getWaitingMillis() {
-      return waitingMillis;
+      final DueKey head = dueQueue.peek();
+      if (head == null) {
+        return waitingMillis;
+      }
+      final long delay = head.dueTimestamp - System.currentTimeMillis();
+      return (int) Math.max(0, Math.min(waitingMillis, delay));
+    }
+
+    void schedule(BufferTaskKey key, PushTask task) {
+      final long dueTimestamp =
+          task.trace.pushCause.pushType.noDelay ? System.currentTimeMillis() : task.expireTimestamp;
+      final DueKey due = new DueKey(key, dueTimestamp);
+      dueQueue.offer(due);
+      // the worker is waiting for a later due, wake up to recalculate the waiting time
+      if (dueQueue.peek() == due) {
+        wakeup();
+      }
     }
 
     private List<PushTask> transferAndMerge() {
-      if (bufferMap.isEmpty()) {
+      final List<DueKey> dues = new ArrayList<>();
+      // only drain the expired entries
+      dueQueue.drainTo(dues);
+      if (dues.isEmpty()) {
         return Collections.emptyList();
       }
-      List<PushTask> pending = Lists.newArrayListWithCapacity(1024);
+      List<PushTask> pending = Lists.newArrayListWithCapacity(dues.size());
       final long now = System.currentTimeMillis();
-      for (Map.Entry<BufferTaskKey, PushTask> e : bufferMap.entrySet()) {
-        final PushTask task = e.getValue();
+      for (DueKey due : dues) {
+        transfer(due.key, now, pending);
+      }
+      return pending;
+    }
+
+    private void transfer(BufferTaskKey key, long now, List<PushTask> pending) {
+      for (; ; ) {
+        final PushTask task = bufferMap.get(key);
+        if (task == null) {
+          // stale entry, the task has been transferred
+          return;
+        }
         // no delay or expire, push immediately
-        if (task.trace.pushCause.pushType.noDelay || task.expireTimestamp <= now) {
+        if (!task.trace.pushCause.pushType.noDelay && task.expireTimestamp > now) {
+          // the noDelay task has been replaced by a delay one, or the key has been buffered again
+          // after the transfer, wait to its expireTimestamp
+          dueQueue.offer(new DueKey(key, task.expireTimestamp));
+          return;
+        }
+        // the task maybe update
+        if (bufferMap.remove(key, task)) {
           pending.add(task);
-          // the task maybe update
-          bufferMap.remove(e.getKey(), task);
+          return;
         }
       }
-      return pending;
+    }
+  }
+
+  static final class DueKey implements Delayed {
+    final BufferTaskKey key;
+    final long dueTimestamp;
+
+    DueKey(BufferTaskKey key, long dueTimestamp) {
+      this.key = key;
+      this.dueTimestamp = dueTimestamp;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(dueTimestamp - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+      return Long.compare(dueTimestamp, ((DueKey) o).dueTimestamp);
     }
   }
 
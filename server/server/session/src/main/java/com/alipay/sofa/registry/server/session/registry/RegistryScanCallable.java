@@ -21,24 +21,32 @@ import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.exchange.ExchangeCallback;
+import com.alipay.sofa.registry.server.session.bootstrap.ExecutorManager;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
 import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
-import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.TreeMap;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
 
 /**
+ * scan the versions of the interests by slot, the result of a slot is executed as soon as it
+ * responds, the fetches to a leader are limited by scanVersionConcurrencyPerLeader, and the slots
+ * not responding before the deadline of the round are abandoned
+ *
  * @author xiaojian.xj
  * @version : RegistryScanCallable.java, v 0.1 2022年06月25日 11:59 xiaojian.xj Exp $
  */
@@ -53,186 +61,256 @@ public class RegistryScanCallable {
   /** transfer data to DataNode */
   @Autowired private DataNodeService dataNodeService;
 
-  public void scanVersions(
+  @Autowired private ExecutorManager executorManager;
+
+  /**
+   * @param round round
+   * @param dataCenter dataCenter
+   * @param interestVersions interestVersions grouped by slotId
+   * @param callable execute on the callback thread when a slot responds
+   * @return future completed when all slots finish or the deadline reaches, never exceptionally
+   */
+  public CompletableFuture<Void> scanVersions(
       long round,
       String dataCenter,
-      Map<String, DatumVersion> interestVersions,
+      Map<Integer, Map<String, DatumVersion>> interestVersions,
       ScanCallable callable) {
-    Map<Integer, Map<String, DatumVersion>> interestVersionsGroup = groupBySlot(interestVersions);
-
-    Map<Integer, FetchVersionResult> resultMap =
-        Maps.newHashMapWithExpectedSize(interestVersions.size());
-    for (Map.Entry<Integer, Map<String, DatumVersion>> group : interestVersionsGroup.entrySet()) {
-      final Integer slotId = group.getKey();
-      try {
-        final FetchVersionResult result =
-            fetchDataVersionAsync(dataCenter, slotId, group.getValue(), round);
-        if (result != null) {
-          resultMap.put(slotId, result);
-        }
-      } catch (Throwable e) {
-        SCAN_VER_LOGGER.info(
-            "[fetchSlotVer]round={},{},{},leader={},interests={},gets={},success={}",
-            round,
-            slotId,
-            dataCenter,
-            slotTableCache.getLeader(dataCenter, slotId),
-            interestVersions.size(),
-            0,
-            "N");
+    if (CollectionUtils.isEmpty(interestVersions)) {
+      return CompletableFuture.completedFuture(null);
+    }
 
-        SCAN_VER_LOGGER.error(
-            "round={}, failed to fetch versions slotId={}, size={}",
-            round,
-            slotId,
-            group.getValue().size(),
-            e);
+    Map<String, LeaderQueue> leaderQueues = Maps.newHashMap();
+    List<SlotFetch> fetches = Lists.newArrayListWithCapacity(interestVersions.size());
+    for (Map.Entry<Integer, Map<String, DatumVersion>> group : interestVersions.entrySet()) {
+      final int slotId = group.getKey();
+      final String leader = slotTableCache.getLeader(dataCenter, slotId);
+      if (StringUtils.isBlank(leader)) {
+        SCAN_VER_LOGGER.error("[NoLeader]slotId={}, round={}", slotId, round);
+        continue;
       }
+      SlotFetch fetch =
+          new SlotFetch(round, dataCenter, slotId, leader, group.getValue(), callable);
+      fetches.add(fetch);
+      leaderQueues.computeIfAbsent(leader, k -> new LeaderQueue()).pending.add(fetch);
     }
-    final int timeoutMillis = sessionServerConfig.getDataNodeExchangeTimeoutMillis();
-    final long waitDeadline = System.currentTimeMillis() + timeoutMillis + 2000;
-    // wait async finish
-    ConcurrentUtils.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
-    // check callback result, use for.count to avoid the clock skew
-    for (int i = 0; i < (timeoutMillis * 2) / 50; i++) {
-      handleFetchResult(round, dataCenter, resultMap, callable);
-      if (resultMap.isEmpty() || System.currentTimeMillis() > waitDeadline) {
-        break;
-      }
-      ConcurrentUtils.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+    if (fetches.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
     }
-    handleFetchResult(round, dataCenter, resultMap, callable);
-    if (!resultMap.isEmpty()) {
-      SCAN_VER_LOGGER.error(
-          "[fetchSlotVerTimeout]round={},callbacks={},{}", round, resultMap.size(), resultMap);
+    final CompletableFuture<Void> all =
+        CompletableFuture.allOf(
+            fetches.stream().map(f -> f.future).toArray(CompletableFuture[]::new));
+
+    // one deadline for all the outstanding slots of the round
+    final int timeoutMillis = sessionServerConfig.getDataNodeExchangeTimeoutMillis() + 2000;
+    final ScheduledFuture<?> deadline =
+        executorManager
+            .getScheduler()
+            .schedule(() -> expire(round, fetches), timeoutMillis, TimeUnit.MILLISECONDS);
+    all.whenComplete((v, e) -> deadline.cancel(false));
+
+    final int concurrency = Math.max(1, sessionServerConfig.getScanVersionConcurrencyPerLeader());
+    for (LeaderQueue queue : leaderQueues.values()) {
+      for (int i = 0; i < concurrency; i++) {
+        queue.next();
+      }
     }
+    return all;
   }
 
-  int handleFetchResult(
-      long round,
-      String dataCenter,
-      Map<Integer, FetchVersionResult> resultMap,
-      ScanCallable callable) {
-    int count = 0;
-    final Iterator<Entry<Integer, FetchVersionResult>> it = resultMap.entrySet().iterator();
-    while (it.hasNext()) {
-      final Map.Entry<Integer, FetchVersionResult> e = it.next();
-      FetchVersionResult result = e.getValue();
-      if (result.callback == null) {
-        // not finish
-        continue;
-      }
-      it.remove();
-      count++;
-      // success
-      if (result.callback.versions != null) {
-        final long now = System.currentTimeMillis();
-
-        // execute
-        result.callback.versions.forEach(
-            (dataInfoId, version) ->
-                callable.execute(
-                    new ScanCallableInfo(
-                        round, dataCenter, e.getKey(), result.leader, dataInfoId, version, now)));
+  private void expire(long round, List<SlotFetch> fetches) {
+    List<SlotFetch> expired = Lists.newArrayList();
+    for (SlotFetch fetch : fetches) {
+      if (fetch.finish()) {
+        expired.add(fetch);
       }
     }
-    return count;
+    if (!expired.isEmpty()) {
+      SCAN_VER_LOGGER.error(
+          "[fetchSlotVerTimeout]round={},callbacks={},{}", round, expired.size(), expired);
+    }
   }
 
-  private Map<Integer, Map<String, DatumVersion>> groupBySlot(
-      Map<String, DatumVersion> interestVersions) {
-    if (CollectionUtils.isEmpty(interestVersions)) {
-      return Collections.emptyMap();
-    }
-    TreeMap<Integer, Map<String, DatumVersion>> ret = Maps.newTreeMap();
-    for (Map.Entry<String, DatumVersion> interestVersion : interestVersions.entrySet()) {
-      final String dataInfoId = interestVersion.getKey();
-      Map<String, DatumVersion> map =
-          ret.computeIfAbsent(
-              slotTableCache.slotOf(dataInfoId), k -> Maps.newHashMapWithExpectedSize(256));
-      map.put(dataInfoId, interestVersion.getValue());
+  /** the fetches to the same leader in a round, the next one is sent when one finishes */
+  private static final class LeaderQueue {
+    final Queue<SlotFetch> pending = new ConcurrentLinkedQueue<>();
+
+    void next() {
+      SlotFetch fetch;
+      while ((fetch = pending.poll()) != null) {
+        // skip the expired
+        if (!fetch.future.isDone()) {
+          fetch.future.whenComplete((v, e) -> next());
+          fetch.send();
+          return;
+        }
+      }
     }
-    return ret;
   }
 
-  private static final class FetchVersionResult {
-    final String leader;
+  private final class SlotFetch {
+    final long round;
+    final String dataCenter;
     final int slotId;
-    volatile FetchVersionCallback callback;
+    final String leader;
+    final Map<String, DatumVersion> interestVersions;
+    final ScanCallable callable;
+    final AtomicBoolean finished = new AtomicBoolean(false);
+    final CompletableFuture<Void> future = new CompletableFuture<>();
 
-    FetchVersionResult(int slotId, String leader) {
-      this.leader = leader;
+    SlotFetch(
+        long round,
+        String dataCenter,
+        int slotId,
+        String leader,
+        Map<String, DatumVersion> interestVersions,
+        ScanCallable callable) {
+      this.round = round;
+      this.dataCenter = dataCenter;
       this.slotId = slotId;
+      this.leader = leader;
+      this.interestVersions = interestVersions;
+      this.callable = callable;
     }
 
-    @Override
-    public String toString() {
-      return StringFormatter.format(
-          "FetchResult{slotId={},{},finish={}}", slotId, leader, callback != null);
+    /** @return true if this call finishes the fetch, the callback and timeout race on it */
+    boolean finish() {
+      if (finished.compareAndSet(false, true)) {
+        future.complete(null);
+        return true;
+      }
+      return false;
     }
-  }
 
-  private static final class FetchVersionCallback {
-    final Map<String, DatumVersion> versions;
+    void send() {
+      try {
+        fetchDataVersionAsync(this);
+      } catch (Throwable e) {
+        if (finished.get()) {
+          return;
+        }
+        logFetch(this, 0, false);
+        SCAN_VER_LOGGER.error(
+            "round={}, failed to fetch versions slotId={}, size={}",
+            round,
+            slotId,
+            interestVersions.size(),
+            e);
+        finish();
+      }
+    }
 
-    FetchVersionCallback(Map<String, DatumVersion> versions) {
-      this.versions = versions;
+    void onVersions(Map<String, DatumVersion> versions) {
+      if (!finished.compareAndSet(false, true)) {
+        // the round is expired
+        return;
+      }
+      try {
+        final long now = System.currentTimeMillis();
+        versions.forEach(
+            (dataInfoId, version) ->
+                callable.execute(
+                    new ScanCallableInfo(
+                        round, dataCenter, slotId, leader, dataInfoId, version, now)));
+      } finally {
+        future.complete(null);
+      }
     }
-  }
 
-  FetchVersionResult fetchDataVersionAsync(
-      String dataCenter, int slotId, Map<String, DatumVersion> interestVersions, long round) {
-    final String leader = slotTableCache.getLeader(dataCenter, slotId);
-    if (StringUtils.isBlank(leader)) {
-      SCAN_VER_LOGGER.error("[NoLeader]slotId={}, round={}", slotId, round);
-      return null;
+    @Override
+    public String toString() {
+      return StringFormatter.format(
+          "FetchResult{slotId={},{},finish={}}", slotId, leader, finished.get());
     }
-    final FetchVersionResult result = new FetchVersionResult(slotId, leader);
+  }
+
+  private void fetchDataVersionAsync(SlotFetch fetch) {
     dataNodeService.fetchDataVersion(
-        dataCenter,
-        slotId,
-        interestVersions,
+        fetch.dataCenter,
+        fetch.slotId,
+        fetch.interestVersions,
         new ExchangeCallback<Map<String, DatumVersion>>() {
           @Override
           public void onCallback(Channel channel, Map<String, DatumVersion> message) {
+            logFetch(fetch, message.size(), true);
             // merge the version
-            Map<String, DatumVersion> mergedVersions = new HashMap<>(interestVersions);
+            Map<String, DatumVersion> mergedVersions = new HashMap<>(fetch.interestVersions);
             mergedVersions.putAll(message);
-            result.callback = new FetchVersionCallback(mergedVersions);
-            SCAN_VER_LOGGER.info(
-                "[fetchSlotVer]round={},{},{},leader={},interests={},gets={},success={}",
-                round,
-                slotId,
-                dataCenter,
-                leader,
-                interestVersions.size(),
-                message.size(),
-                "Y");
+            fetch.onVersions(mergedVersions);
           }
 
           @Override
           public void onException(Channel channel, Throwable e) {
-            result.callback = new FetchVersionCallback(null);
-            SCAN_VER_LOGGER.info(
-                "[fetchSlotVer]round={},{},{},leader={},interests={},gets={},success={}",
-                round,
-                slotId,
-                dataCenter,
-                leader,
-                interestVersions.size(),
-                0,
-                "N");
-
+            logFetch(fetch, 0, false);
             SCAN_VER_LOGGER.error(
                 "round={},failed to fetch versions,slotId={},leader={},size={}",
-                round,
-                slotId,
-                leader,
-                interestVersions.size(),
+                fetch.round,
+                fetch.slotId,
+                fetch.leader,
+                fetch.interestVersions.size(),
                 e);
+            fetch.finish();
           }
         });
-    return result;
+  }
+
+  private static void logFetch(SlotFetch fetch, int gets, boolean success) {
+    SCAN_VER_LOGGER.info(
+        "[fetchSlotVer]round={},{},{},leader={},interests={},gets={},success={}",
+        fetch.round,
+        fetch.slotId,
+        fetch.dataCenter,
+        fetch.leader,
+        fetch.interestVersions.size(),
+        gets,
+        success ? "Y" : "N");
+  }
+
+  /**
+   * Setter method for property <tt>sessionServerConfig</tt>.
+   *
+   * @param sessionServerConfig value to be assigned to property sessionServerConfig
+   * @return RegistryScanCallable
+   */
+  @VisibleForTesting
+  public RegistryScanCallable setSessionServerConfig(SessionServerConfig sessionServerConfig) {
+    this.sessionServerConfig = sessionServerConfig;
+    return this;
+  }
+
+  /**
+   * Setter method for property <tt>slotTableCache</tt>.
+   *
+   * @param slotTableCache value to be assigned to property slotTableCache
+   * @return RegistryScanCallable
+   */
+  @VisibleForTesting
+  public RegistryScanCallable setSlotTableCache(SlotTableCache slotTableCache) {
+    this.slotTableCache = slotTableCache;
+    return this;
+  }
+
+  /**
+   * Setter method for property <tt>dataNodeService</tt>.
+   *
+   * @param dataNodeService value to be assigned to property dataNodeService
+   * @return RegistryScanCallable
+   */
+  @VisibleForTesting
+  public RegistryScanCallable setDataNodeService(DataNodeService dataNodeService) {
+    this.dataNodeService = dataNodeService;
+    return this;
+  }
+
+  /**
+   * Setter method for property <tt>executorManager</tt>.
+   *
+   * @param executorManager value to be assigned to property executorManager
+   * @return RegistryScanCallable
+   */
+  @VisibleForTesting
+  public RegistryScanCallable setExecutorManager(ExecutorManager executorManager) {
+    this.executorManager = executorManager;
+    return this;
   }
 
   public interface ScanCallable {
@@ -54,6 +54,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -393,58 +394,65 @@ public class SessionRegistry implements Registry {
 
     Map<String, Future<Boolean>> futures = Maps.newHashMapWithExpectedSize(dataCenters.size());
     for (String dataCenter : dataCenters) {
-      Future<Boolean> future =
-          executorManager
-              .getScanExecutor()
-              .submit(
-                  () -> {
-                    try {
-                      Map<String, DatumVersion> vers = selectSubscriber.versions.get(dataCenter);
-                      List<Subscriber> pushEmpty = selectSubscriber.toPushEmpty.get(dataCenter);
-                      SCAN_VER_LOGGER.info(
-                          "[scan]dataCenter={}, round={}, interestSize={}, pushEmptySize={}",
-                          dataCenter,
-                          round,
-                          vers.size(),
-                          pushEmpty.size(),
-                          System.currentTimeMillis() - start);
-                      registryScanCallable.scanVersions(
-                          round,
-                          dataCenter,
-                          vers,
-                          callableInfo -> {
-                            if (sessionInterests.checkInterestVersion(
-                                    callableInfo.getDataCenter(),
-                                    callableInfo.getDataInfoId(),
-                                    callableInfo.getVersion().getValue())
-                                .interested) {
-                              TriggerPushContext ctx =
-                                  new TriggerPushContext(
-                                      callableInfo.getDataCenter(),
-                                      callableInfo.getVersion().getValue(),
-                                      callableInfo.getLeader(),
-                                      callableInfo.getCurrentTs());
-                              firePushService.fireOnChange(callableInfo.getDataInfoId(), ctx);
-                              SCAN_VER_LOGGER.info(
-                                  "[fetchSlotVerNotify]round={},{},{},{},{}",
-                                  callableInfo.getRound(),
-                                  callableInfo.getVersion(),
-                                  callableInfo.getDataInfoId(),
-                                  callableInfo.getDataCenter(),
-                                  callableInfo.getVersion().getValue());
-                            }
-                          });
+      CompletableFuture<Boolean> future;
+      try {
+        Map<Integer, Map<String, DatumVersion>> vers =
+            selectSubscriber.slotVersions.get(dataCenter);
+        List<Subscriber> pushEmpty = selectSubscriber.toPushEmpty.get(dataCenter);
+        SCAN_VER_LOGGER.info(
+            "[scan]dataCenter={}, round={}, interestSize={}, pushEmptySize={}",
+            dataCenter,
+            round,
+            vers.values().stream().mapToInt(Map::size).sum(),
+            pushEmpty.size(),
+            System.currentTimeMillis() - start);
+        // not park the scan thread, the slot results are executed on the callback
+        future =
+            registryScanCallable
+                .scanVersions(
+                    round,
+                    dataCenter,
+                    vers,
+                    callableInfo -> {
+                      if (sessionInterests.checkInterestVersion(
+                              callableInfo.getDataCenter(),
+                              callableInfo.getDataInfoId(),
+                              callableInfo.getVersion().getValue())
+                          .interested) {
+                        TriggerPushContext ctx =
+                            new TriggerPushContext(
+                                callableInfo.getDataCenter(),
+                                callableInfo.getVersion().getValue(),
+                                callableInfo.getLeader(),
+                                callableInfo.getCurrentTs());
+                        firePushService.fireOnChange(callableInfo.getDataInfoId(), ctx);
+                        SCAN_VER_LOGGER.info(
+                            "[fetchSlotVerNotify]round={},{},{},{},{}",
+                            callableInfo.getRound(),
+                            callableInfo.getVersion(),
+                            callableInfo.getDataInfoId(),
+                            callableInfo.getDataCenter(),
+                            callableInfo.getVersion().getValue());
+                      }
+                    })
+                .thenApplyAsync(
+                    v -> {
                       handlePushEmptySubscribers(dataCenter, pushEmpty);
-
                       return true;
-                    } catch (Throwable th) {
-                      SCAN_VER_LOGGER.error(
-                          "failed to scan version, dataCenter:{}, round:{}", dataCenter, round, th);
-                      return false;
-                    }
-                  });
-
-      futures.put(dataCenter, future);
+                    },
+                    executorManager.getScanExecutor());
+      } catch (Throwable th) {
+        future = new CompletableFuture<>();
+        future.completeExceptionally(th);
+      }
+      futures.put(
+          dataCenter,
+          future.exceptionally(
+              th -> {
+                SCAN_VER_LOGGER.error(
+                    "failed to scan version, dataCenter:{}, round:{}", dataCenter, round, th);
+                return false;
+              }));
     }
 
     for (Entry<String, Future<Boolean>> entry : futures.entrySet()) {
@@ -512,27 +520,44 @@ public class SessionRegistry implements Registry {
   }
 
   public static class SelectSubscriber {
-    final Map<String /*dataCenter*/, Map<String /*dataInfoId*/, DatumVersion>> versions;
+    final Map<String /*dataCenter*/, Map<Integer /*slotId*/, Map<String, DatumVersion>>>
+        slotVersions;
 
     final Map<String /*dataCenter*/, List<Subscriber>> toPushEmpty;
 
     final List<Subscriber> toRegisterMulti;
 
     public SelectSubscriber(
-        Map<String, Map<String, DatumVersion>> versions,
+        Map<String, Map<Integer, Map<String, DatumVersion>>> slotVersions,
         Map<String, List<Subscriber>> toPushEmpty,
         List<Subscriber> toRegisterMulti) {
-      this.versions = versions;
+      this.slotVersions = slotVersions;
       this.toPushEmpty = toPushEmpty;
       this.toRegisterMulti = toRegisterMulti;
     }
 
     /**
-     * Getter method for property <tt>versions</tt>.
+     * Getter method for property <tt>slotVersions</tt>.
      *
-     * @return property value of versions
+     * @return property value of slotVersions
+     */
+    public Map<String, Map<Integer, Map<String, DatumVersion>>> getSlotVersions() {
+      return slotVersions;
+    }
+
+    /**
+     * the versions of dataInfoIds without slot grouping
+     *
+     * @return dataCenter -> dataInfoId -> version
      */
     public Map<String, Map<String, DatumVersion>> getVersions() {
+      Map<String, Map<String, DatumVersion>> versions =
+          Maps.newHashMapWithExpectedSize(slotVersions.size());
+      for (Map.Entry<String, Map<Integer, Map<String, DatumVersion>>> e : slotVersions.entrySet()) {
+        Map<String, DatumVersion> vers = Maps.newHashMap();
+        e.getValue().values().forEach(vers::putAll);
+        versions.put(e.getKey(), vers);
+      }
       return versions;
     }
 
@@ -71,7 +71,8 @@ public class DataSlotDiffDigestRequestHandler
               request.getLocalDataCenter(),
               request.getSlotId(),
               request.getDatumDigest(),
-              sessionDataStore.getDataInfoIdPublishers(request.getSlotId()));
+              sessionDataStore.getDataInfoIdPublishers(request.getSlotId()),
+              request.getDigestType());
       result.setSlotTableEpoch(slotTableCache.getEpoch(request.getLocalDataCenter()));
       result.setSessionProcessId(ServerEnv.PROCESS_ID);
       return new GenericResponse().fillSucceed(result);
@@ -92,10 +93,12 @@ public class DataSlotDiffDigestRequestHandler
       String requestDataCenter,
       int targetSlot,
       Map<String, DatumDigest> digestMap,
-      Map<String, Map<String, Publisher>> existingPublishers) {
+      Map<String, Map<String, Publisher>> existingPublishers,
+      byte digestType) {
 
     DataSlotDiffDigestResult result =
-        DataSlotDiffUtils.diffDigestResult(digestMap, existingPublishers, syncSlotAcceptAllManager);
+        DataSlotDiffUtils.diffDigestResult(
+            digestMap, existingPublishers, syncSlotAcceptAllManager, digestType);
     DataSlotDiffUtils.logDiffResult(requestDataCenter, result, targetSlot, LOGGER);
     return result;
   }
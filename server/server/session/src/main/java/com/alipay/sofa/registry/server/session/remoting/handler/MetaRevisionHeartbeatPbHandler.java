@@ -18,9 +18,14 @@ package com.alipay.sofa.registry.server.session.remoting.handler;
 
 import com.alipay.sofa.registry.common.model.client.pb.MetaHeartbeatRequest;
 import com.alipay.sofa.registry.common.model.client.pb.MetaHeartbeatResponse;
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.session.limit.AccessLimitService;
+import com.alipay.sofa.registry.server.session.limit.AccessType;
+import com.alipay.sofa.registry.server.shared.remoting.RemotingHelper;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * @author xiaojian.xj
@@ -29,6 +34,8 @@ import java.util.List;
 public class MetaRevisionHeartbeatPbHandler
     extends AbstractClientMetadataRequestHandler<MetaHeartbeatRequest> {
 
+  @Autowired AccessLimitService accessLimitService;
+
   @Override
   public void checkParam(MetaHeartbeatRequest request) {
     ParaCheckUtil.checkNotNull(request, "request");
@@ -37,6 +44,13 @@ public class MetaRevisionHeartbeatPbHandler
 
   @Override
   public Object doHandle(Channel channel, MetaHeartbeatRequest request) {
+    if (!accessLimitService.tryAcquire(
+        AccessType.HEARTBEAT, null, RemotingHelper.getRemoteHostAddress(channel))) {
+      return MetaHeartbeatResponse.newBuilder()
+          .setStatusCode(ValueConstants.METADATA_STATUS_PROCESS_ERROR)
+          .setMessage("revision heartbeat access limit for session server!")
+          .build();
+    }
     List<String> revisions = request.getRevisionsList();
     MetaHeartbeatResponse response = appRevisionHandlerStrategy.heartbeat(revisions);
     return response;
@@ -19,7 +19,10 @@ package com.alipay.sofa.registry.server.session.remoting.handler;
 import com.alipay.sofa.registry.core.model.SyncConfigRequest;
 import com.alipay.sofa.registry.core.model.SyncConfigResponse;
 import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.session.limit.AccessLimitService;
+import com.alipay.sofa.registry.server.session.limit.AccessType;
 import com.alipay.sofa.registry.server.session.strategy.SyncConfigHandlerStrategy;
+import com.alipay.sofa.registry.server.shared.remoting.RemotingHelper;
 import java.util.concurrent.Executor;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -30,9 +33,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 public class SyncConfigHandler extends AbstractClientDataRequestHandler<SyncConfigRequest> {
   @Autowired SyncConfigHandlerStrategy syncConfigHandlerStrategy;
 
+  @Autowired AccessLimitService accessLimitService;
+
   @Override
   public Object doHandle(Channel channel, SyncConfigRequest request) {
     SyncConfigResponse response = new SyncConfigResponse();
+    if (!accessLimitService.tryAcquire(
+        AccessType.SYNC_CONFIG, null, RemotingHelper.getRemoteHostAddress(channel))) {
+      response.setSuccess(false);
+      response.setMessage("SyncConfig access limit for session server!");
+      return response;
+    }
     response.setSuccess(true);
     syncConfigHandlerStrategy.handleSyncConfigResponse(response);
     return response;
@@ -39,7 +39,7 @@ public abstract class AbstractDataManager<T extends BaseInfo>
 
   protected final Logger logger;
 
-  final ConnectDataIndexer connectDataIndexer = new ConnectDataIndexer(getClass().getName());
+  final ConnectDataIndexer connectDataIndexer = new ConnectDataIndexer();
 
   @Autowired protected SessionServerConfig sessionServerConfig;
 
@@ -80,7 +80,15 @@ public abstract class AbstractDataManager<T extends BaseInfo>
   }
 
   protected Tuple<T, Boolean> addData(T data) {
-    return connectDataIndexer.add(data.connectId(), DataPos.of(data), () -> addDataToStore(data));
+    Tuple<T, Boolean> ret =
+        connectDataIndexer.add(data.connectId(), DataPos.of(data), () -> addDataToStore(data));
+    final T existing = ret.getFirst();
+    if (existing != null && !existing.connectId().equals(data.connectId())) {
+      // the registerId moves between connections, unlink the one not kept by the store
+      final T discarded = ret.getSecond() ? existing : data;
+      connectDataIndexer.remove(discarded.connectId(), DataPos.of(discarded));
+    }
+    return ret;
   }
 
   @Override
@@ -94,6 +102,8 @@ public abstract class AbstractDataManager<T extends BaseInfo>
 
     if (dataToDelete == null) {
       logger.warn("Delete but not registered, {}, {}", dataInfoId, registerId);
+    } else {
+      connectDataIndexer.remove(dataToDelete.connectId(), DataPos.of(dataToDelete));
     }
     return dataToDelete;
   }
@@ -104,16 +114,15 @@ public abstract class AbstractDataManager<T extends BaseInfo>
     Map<String, T> ret = Maps.newHashMapWithExpectedSize(128);
     for (DataPos pos : connectDataIndexer.queryByKey(connectId)) {
       Map<String, T> dataMap = store.get(pos.getDataInfoId());
-      if (CollectionUtils.isEmpty(dataMap)) {
-        continue;
-      }
-      T data = dataMap.get(pos.getRegisterId());
-      if (data == null || !data.connectId().equals(connectId)) {
-        continue;
-      }
-      if (dataMap.remove(pos.getRegisterId(), data)) {
-        ret.put(data.getRegisterId(), data);
+      if (!CollectionUtils.isEmpty(dataMap)) {
+        T data = dataMap.get(pos.getRegisterId());
+        if (data != null
+            && data.connectId().equals(connectId)
+            && dataMap.remove(pos.getRegisterId(), data)) {
+          ret.put(data.getRegisterId(), data);
+        }
       }
+      connectDataIndexer.remove(connectId, pos);
     }
     return ret;
   }
@@ -235,22 +244,10 @@ public abstract class AbstractDataManager<T extends BaseInfo>
 
   class ConnectDataIndexer extends DataIndexer<ConnectId, DataPos> {
 
-    public ConnectDataIndexer(String name) {
-      super(name);
-    }
-
     @Override
-    protected void dataStoreForEach(BiConsumer<ConnectId, DataPos> consumer) {
-      Store<T> store = getStore();
-      if (store == null) {
-        return;
-      }
-      store.forEach(
-          (dataInfoId, datum) -> {
-            for (T data : datum.values()) {
-              consumer.accept(data.connectId(), DataPos.of(data));
-            }
-          });
+    protected boolean dataStoreContains(ConnectId connectId, DataPos pos) {
+      T data = queryById(pos.getRegisterId(), pos.getDataInfoId());
+      return data != null && data.connectId().equals(connectId);
     }
   }
 }
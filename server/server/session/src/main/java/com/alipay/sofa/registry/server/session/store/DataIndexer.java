@@ -17,49 +17,52 @@
 package com.alipay.sofa.registry.server.session.store;
 
 import com.alipay.sofa.registry.concurrent.UnThrowableCallable;
-import com.alipay.sofa.registry.log.Logger;
-import com.alipay.sofa.registry.log.LoggerFactory;
-import com.alipay.sofa.registry.util.ConcurrentUtils;
-import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
-import java.util.*;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.BiConsumer;
 
+/**
+ * index maintained incrementally with the data store. every mutation of a key runs inside the
+ * compute of that key, so an add (index insert + store write) and a remove (store check + index
+ * delete) on the same key never interleave, and no periodic rebuild is needed
+ */
 public abstract class DataIndexer<K, V> {
-  private static final Logger LOG = LoggerFactory.getLogger("SRV-CONNECT");
-
-  private volatile Map<K, Set<V>> index = new ConcurrentHashMap<>(1024);
-  private volatile Map<K, Set<V>> tempIndex = new ConcurrentHashMap<>(1024);
-  private volatile Term lastTerm = new Term();
-  private volatile boolean doubleWrite = false;
 
-  private final IndexerRefresher indexerRefresher = new IndexerRefresher();
-
-  public DataIndexer(String name) {
-    ConcurrentUtils.createDaemonThread(name + "-IndexerRefresher", indexerRefresher).start();
-  }
+  private final Map<K, Set<V>> index = new ConcurrentHashMap<>(1024);
 
+  @SuppressWarnings("unchecked")
   public <R> R add(K key, V val, UnThrowableCallable<R> dataStoreCaller) {
-    Term term = lastTerm;
-    term.start.incrementAndGet();
-    try {
-      if (doubleWrite) {
-        insert(tempIndex, key, val);
-      }
-      insert(index, key, val);
-      return dataStoreCaller.call();
-    } finally {
-      term.done.incrementAndGet();
-    }
+    final Object[] ret = new Object[1];
+    index.compute(
+        key,
+        (k, s) -> {
+          if (s == null) {
+            s = Sets.newConcurrentHashSet();
+          }
+          s.add(val);
+          ret[0] = dataStoreCaller.call();
+          return s;
+        });
+    return (R) ret[0];
   }
 
-  private void insert(Map<K, Set<V>> d, K key, V val) {
-    d.computeIfAbsent(key, k -> Sets.newConcurrentHashSet()).add(val);
+  /**
+   * remove the val from the key if the data store no longer holds it under the key
+   *
+   * @param key key
+   * @param val val
+   */
+  public void remove(K key, V val) {
+    index.computeIfPresent(
+        key,
+        (k, s) -> {
+          if (!dataStoreContains(k, val)) {
+            s.remove(val);
+          }
+          return s.isEmpty() ? null : s;
+        });
   }
 
   public Set<V> queryByKey(K key) {
@@ -67,78 +70,12 @@ public abstract class DataIndexer<K, V> {
     if (s == null) {
       return Collections.emptySet();
     }
-    return new HashSet<>(s);
+    return Collections.unmodifiableSet(s);
   }
 
   public Set<K> getKeys() {
-    return new HashSet<>(index.keySet());
-  }
-
-  private void refresh() {
-    tempIndex = new ConcurrentHashMap<>(this.index.size());
-    Term prevTerm = lastTerm;
-    doubleWrite = true;
-    try {
-      lastTerm = new Term();
-      long startTime = System.currentTimeMillis();
-      boolean timeout = !prevTerm.waitAllDone();
-      long waitTime = System.currentTimeMillis();
-      if (timeout) {
-        LOG.error("[IndexBuildTimeout]index refresh timeout span={}ms", waitTime - startTime);
-      }
-      dataStoreForEach(
-          (key, val) -> {
-            insert(tempIndex, key, val);
-          });
-      LOG.info(
-          "index refresh finished waitSpan={}ms, buildSpan={}ms, indexSize={}",
-          waitTime - startTime,
-          System.currentTimeMillis() - waitTime,
-          tempIndex.size());
-      index = tempIndex;
-    } finally {
-      doubleWrite = false;
-    }
-  }
-
-  @VisibleForTesting
-  public void triggerRefresh() {
-    indexerRefresher.wakeup();
+    return Collections.unmodifiableSet(index.keySet());
   }
 
-  protected abstract void dataStoreForEach(BiConsumer<K, V> consumer);
-
-  private static final class Term {
-    private final AtomicLong start = new AtomicLong(0);
-    private final AtomicLong done = new AtomicLong(0);
-    private static final long timeoutMillis = 10000;
-
-    private boolean waitAllDone() {
-      long startTs = System.currentTimeMillis();
-      for (; ; ) {
-        long doneCount = this.done.get();
-        long startCount = this.start.get();
-        if (startCount == doneCount) {
-          return true;
-        }
-        if (System.currentTimeMillis() - startTs > timeoutMillis) {
-          return false;
-        }
-        ConcurrentUtils.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
-      }
-    }
-  }
-
-  private final class IndexerRefresher extends WakeUpLoopRunnable {
-
-    @Override
-    public void runUnthrowable() {
-      refresh();
-    }
-
-    @Override
-    public int getWaitingMillis() {
-      return (int) ((ThreadLocalRandom.current().nextDouble() * 30 + 30) * 1000);
-    }
-  }
+  protected abstract boolean dataStoreContains(K key, V val);
 }
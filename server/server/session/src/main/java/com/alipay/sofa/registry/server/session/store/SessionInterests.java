@@ -16,8 +16,11 @@
  */
 package com.alipay.sofa.registry.server.session.store;
 
+import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunction;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -25,10 +28,14 @@ import com.alipay.sofa.registry.server.session.registry.SessionRegistry.SelectSu
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.util.CollectionUtils;
@@ -47,13 +54,31 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
 
   private final Store<Subscriber> store = new SimpleStore<>(1024 * 16, 256);
 
+  private final SlotFunction slotFunction = SlotFunctionRegistry.getFunc();
+
+  /** dataInfoIds of which the subscribers or push contexts changed since the last select */
+  private final Set<String> changedDataInfoIds = ConcurrentHashMap.newKeySet();
+
+  private final Subscriber.PushContextListener pushContextListener =
+      subscriber -> changedDataInfoIds.add(subscriber.getDataInfoId());
+
+  /** slotId -> dataInfoId -> summary, only accessed in selectSubscribers */
+  private final Map<Integer, Map<String, InterestSummary>> summaries = Maps.newHashMap();
+
+  /** the dataCenters which the summaries are built for */
+  private Set<String> summaryDataCenters = Collections.emptySet();
+
   @Override
   public boolean add(Subscriber subscriber) {
     ParaCheckUtil.checkNotNull(subscriber.getScope(), "subscriber.scope");
     ParaCheckUtil.checkNotNull(subscriber.getClientVersion(), "subscriber.clientVersion");
 
     Subscriber.internSubscriber(subscriber);
+    subscriber.setPushContextListener(pushContextListener);
     Tuple<Subscriber, Boolean> ret = addData(subscriber);
+    if (ret.o2) {
+      changedDataInfoIds.add(subscriber.getDataInfoId());
+    }
     return ret.o2;
   }
 
@@ -78,59 +103,155 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
   }
 
   @Override
-  public SelectSubscriber selectSubscribers(Set<String> dataCenters) {
+  public synchronized SelectSubscriber selectSubscribers(Set<String> dataCenters) {
     final String localDataCenter = sessionServerConfig.getSessionServerDataCenter();
+    if (!summaryDataCenters.equals(dataCenters)) {
+      // the summaries depend on the dataCenters, rebuild all
+      changedDataInfoIds.clear();
+      summaries.clear();
+      store.forEach(
+          (String dataInfoId, Map<String, Subscriber> subs) ->
+              refreshSummary(dataInfoId, subs, dataCenters, localDataCenter));
+      summaryDataCenters = Sets.newHashSet(dataCenters);
+    } else {
+      final Iterator<String> it = changedDataInfoIds.iterator();
+      while (it.hasNext()) {
+        final String dataInfoId = it.next();
+        // remove before refresh, the change during refresh is handled in next round
+        it.remove();
+        refreshSummary(dataInfoId, store.get(dataInfoId), dataCenters, localDataCenter);
+      }
+    }
 
-    Store<Subscriber> store = getStore();
-    int dataInfoIdSize = store.getDataInfoIds().size();
-    final Map<String, Map<String, DatumVersion>> versions =
+    final Map<String, Map<Integer, Map<String, DatumVersion>>> versions =
         Maps.newHashMapWithExpectedSize(dataCenters.size());
     final Map<String, List<Subscriber>> toPushEmptySubscribers =
         Maps.newHashMapWithExpectedSize(dataCenters.size());
     final List<Subscriber> toRegisterMultiSubscribers = Lists.newArrayListWithCapacity(128);
-
     for (String dataCenter : dataCenters) {
-      versions.put(dataCenter, Maps.newHashMapWithExpectedSize(dataInfoIdSize));
+      versions.put(dataCenter, Maps.newHashMapWithExpectedSize(summaries.size()));
       toPushEmptySubscribers.put(dataCenter, Lists.newArrayListWithCapacity(256));
     }
+    for (Map.Entry<Integer, Map<String, InterestSummary>> slot : summaries.entrySet()) {
+      final Integer slotId = slot.getKey();
+      for (Map.Entry<String, InterestSummary> e : slot.getValue().entrySet()) {
+        final InterestSummary summary = e.getValue();
+        toRegisterMultiSubscribers.addAll(summary.toRegisterMulti);
+        for (Map.Entry<String, DatumVersion> version : summary.versions.entrySet()) {
+          versions
+              .get(version.getKey())
+              .computeIfAbsent(slotId, k -> Maps.newHashMapWithExpectedSize(256))
+              .put(e.getKey(), version.getValue());
+        }
+        for (Map.Entry<String, List<Subscriber>> pushEmpty : summary.toPushEmpty.entrySet()) {
+          toPushEmptySubscribers.get(pushEmpty.getKey()).addAll(pushEmpty.getValue());
+        }
+      }
+    }
+    return new SelectSubscriber(versions, toPushEmptySubscribers, toRegisterMultiSubscribers);
+  }
 
-    store.forEach(
-        (String dataInfoId, Map<String, Subscriber> subs) -> {
-          if (CollectionUtils.isEmpty(subs)) {
-            return;
-          }
-          for (Subscriber sub : subs.values()) {
-
-            if (!sub.hasPushed()) {
-              toRegisterMultiSubscribers.add(sub);
-              continue;
-            }
+  private void refreshSummary(
+      String dataInfoId,
+      Map<String, Subscriber> subs,
+      Set<String> dataCenters,
+      String localDataCenter) {
+    final Integer slotId = slotFunction.slotOf(dataInfoId);
+    final InterestSummary summary =
+        CollectionUtils.isEmpty(subs)
+            ? null
+            : InterestSummary.of(subs.values(), dataCenters, localDataCenter);
+    if (summary == null || summary.isEmpty()) {
+      Map<String, InterestSummary> slotSummaries = summaries.get(slotId);
+      if (slotSummaries != null) {
+        slotSummaries.remove(dataInfoId);
+        if (slotSummaries.isEmpty()) {
+          summaries.remove(slotId);
+        }
+      }
+      return;
+    }
+    summaries.computeIfAbsent(slotId, k -> Maps.newHashMap()).put(dataInfoId, summary);
+  }
 
-            for (String dataCenter : dataCenters) {
-              Map<String, DatumVersion> vers = versions.get(dataCenter);
-              List<Subscriber> pushEmpty = toPushEmptySubscribers.get(dataCenter);
+  /** the view of the subscribers of a dataInfoId which the version scan needs */
+  static final class InterestSummary {
+    final Map<String /*dataCenter*/, DatumVersion> versions;
+    final Map<String /*dataCenter*/, List<Subscriber>> toPushEmpty;
+    final List<Subscriber> toRegisterMulti;
 
-              final boolean isLocalDataCenter = localDataCenter.equals(dataCenter);
-              // not multi sub and not local dataCenter, not interest the other dataCenter's pub
-              if (!sub.acceptMulti() && !isLocalDataCenter) {
-                continue;
-              }
+    private InterestSummary(
+        Map<String, DatumVersion> versions,
+        Map<String, List<Subscriber>> toPushEmpty,
+        List<Subscriber> toRegisterMulti) {
+      this.versions = versions;
+      this.toPushEmpty = toPushEmpty;
+      this.toRegisterMulti = toRegisterMulti;
+    }
 
-              if (sub.isMarkedPushEmpty(dataCenter)) {
-                if (sub.needPushEmpty(dataCenter)) {
-                  pushEmpty.add(sub);
-                }
-                continue;
-              }
-              final long pushVersion = sub.getPushedVersion(dataCenter);
-              DatumVersion maxVersion = vers.computeIfAbsent(dataInfoId, k -> new DatumVersion(0));
-              if (maxVersion.getValue() < pushVersion) {
-                vers.put(dataInfoId, new DatumVersion(pushVersion));
+    static InterestSummary of(
+        Collection<Subscriber> subs, Set<String> dataCenters, String localDataCenter) {
+      Map<String, DatumVersion> versions = Collections.emptyMap();
+      Map<String, List<Subscriber>> toPushEmpty = Collections.emptyMap();
+      List<Subscriber> toRegisterMulti = Collections.emptyList();
+      for (Subscriber sub : subs) {
+        if (!sub.hasPushed()) {
+          if (toRegisterMulti.isEmpty()) {
+            toRegisterMulti = Lists.newArrayListWithCapacity(4);
+          }
+          toRegisterMulti.add(sub);
+          continue;
+        }
+        for (String dataCenter : dataCenters) {
+          // not multi sub and not local dataCenter, not interest the other dataCenter's pub
+          if (!sub.acceptMulti() && !localDataCenter.equals(dataCenter)) {
+            continue;
+          }
+          if (sub.isMarkedPushEmpty(dataCenter)) {
+            if (sub.needPushEmpty(dataCenter)) {
+              if (toPushEmpty.isEmpty()) {
+                toPushEmpty = Maps.newHashMapWithExpectedSize(dataCenters.size());
               }
+              toPushEmpty
+                  .computeIfAbsent(dataCenter, k -> Lists.newArrayListWithCapacity(4))
+                  .add(sub);
             }
+            continue;
           }
-        });
-    return new SelectSubscriber(versions, toPushEmptySubscribers, toRegisterMultiSubscribers);
+          final long pushVersion = sub.getPushedVersion(dataCenter);
+          if (versions.isEmpty()) {
+            versions = Maps.newHashMapWithExpectedSize(dataCenters.size());
+          }
+          DatumVersion maxVersion = versions.get(dataCenter);
+          if (maxVersion == null || maxVersion.getValue() < pushVersion) {
+            versions.put(dataCenter, new DatumVersion(pushVersion));
+          }
+        }
+      }
+      return new InterestSummary(versions, toPushEmpty, toRegisterMulti);
+    }
+
+    boolean isEmpty() {
+      return versions.isEmpty() && toPushEmpty.isEmpty() && toRegisterMulti.isEmpty();
+    }
+  }
+
+  @Override
+  public Subscriber deleteById(String registerId, String dataInfoId) {
+    Subscriber deleted = super.deleteById(registerId, dataInfoId);
+    if (deleted != null) {
+      changedDataInfoIds.add(dataInfoId);
+    }
+    return deleted;
+  }
+
+  @Override
+  public Map<String, Subscriber> deleteByConnectId(ConnectId connectId) {
+    Map<String, Subscriber> deleted = super.deleteByConnectId(connectId);
+    for (Subscriber subscriber : deleted.values()) {
+      changedDataInfoIds.add(subscriber.getDataInfoId());
+    }
+    return deleted;
   }
 
   @Override
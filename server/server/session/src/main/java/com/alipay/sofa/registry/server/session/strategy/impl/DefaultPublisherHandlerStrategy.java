@@ -28,6 +28,8 @@ import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.session.converter.PublisherConverter;
+import com.alipay.sofa.registry.server.session.limit.AccessLimitService;
+import com.alipay.sofa.registry.server.session.limit.AccessType;
 import com.alipay.sofa.registry.server.session.registry.Registry;
 import com.alipay.sofa.registry.server.session.strategy.PublisherHandlerStrategy;
 import com.alipay.sofa.registry.server.shared.remoting.RemotingHelper;
@@ -44,6 +46,7 @@ public class DefaultPublisherHandlerStrategy implements PublisherHandlerStrategy
   private static final Logger PUB_LOGGER =
       Hack.hackLoggerDisruptor(LoggerFactory.getLogger("PUB-RECEIVE"));
   @Autowired protected Registry sessionRegistry;
+  @Autowired protected AccessLimitService accessLimitService;
 
   @Override
   public void handlePublisherRegister(
@@ -85,6 +88,15 @@ public class DefaultPublisherHandlerStrategy implements PublisherHandlerStrategy
     if (EventTypeConstants.REGISTER.equals(eventType)) {
       sessionRegistry.register(publisher, channel);
     } else if (EventTypeConstants.UNREGISTER.equals(eventType)) {
+      if (!accessLimitService.tryAcquire(
+          AccessType.UNREGISTER,
+          publisher.getAppName(),
+          publisher.getSourceAddress().getIpAddress())) {
+        throw new RuntimeException(
+            String.format(
+                "UnRegister access limit for session server!dataInfoId=%s,connectId=%s",
+                publisher.getDataInfoId(), publisher.getSourceAddress()));
+      }
       sessionRegistry.unRegister(publisher);
     } else {
       RegisterLogs.REGISTER_LOGGER.warn("unsupported publisher.eventType:{}", eventType);
@@ -29,6 +29,8 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.bolt.BoltUtil;
 import com.alipay.sofa.registry.server.session.converter.SubscriberConverter;
+import com.alipay.sofa.registry.server.session.limit.AccessLimitService;
+import com.alipay.sofa.registry.server.session.limit.AccessType;
 import com.alipay.sofa.registry.server.session.registry.Registry;
 import com.alipay.sofa.registry.server.session.strategy.SubscriberHandlerStrategy;
 import com.alipay.sofa.registry.server.shared.remoting.RemotingHelper;
@@ -45,6 +47,7 @@ public class DefaultSubscriberHandlerStrategy implements SubscriberHandlerStrate
       Hack.hackLoggerDisruptor(LoggerFactory.getLogger("SUB-RECEIVE"));
 
   @Autowired protected Registry sessionRegistry;
+  @Autowired protected AccessLimitService accessLimitService;
 
   @Override
   public void handleSubscriberRegister(
@@ -88,6 +91,15 @@ public class DefaultSubscriberHandlerStrategy implements SubscriberHandlerStrate
     if (EventTypeConstants.REGISTER.equals(eventType)) {
       sessionRegistry.register(subscriber, channel);
     } else if (EventTypeConstants.UNREGISTER.equals(eventType)) {
+      if (!accessLimitService.tryAcquire(
+          AccessType.UNREGISTER,
+          subscriber.getAppName(),
+          subscriber.getSourceAddress().getIpAddress())) {
+        throw new RuntimeException(
+            String.format(
+                "UnRegister access limit for session server!dataInfoId=%s,connectId=%s",
+                subscriber.getDataInfoId(), subscriber.getSourceAddress()));
+      }
       sessionRegistry.unRegister(subscriber);
     } else {
       RegisterLogs.REGISTER_LOGGER.warn("unsupported subscriber.eventType:{}", eventType);
@@ -28,6 +28,8 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.bolt.BoltUtil;
 import com.alipay.sofa.registry.server.session.converter.SubscriberConverter;
+import com.alipay.sofa.registry.server.session.limit.AccessLimitService;
+import com.alipay.sofa.registry.server.session.limit.AccessType;
 import com.alipay.sofa.registry.server.session.registry.Registry;
 import com.alipay.sofa.registry.server.session.strategy.WatcherHandlerStrategy;
 import org.apache.commons.lang.StringUtils;
@@ -41,6 +43,7 @@ public class DefaultWatcherHandlerStrategy implements WatcherHandlerStrategy {
   private static final Logger WATCH_LOGGER = LoggerFactory.getLogger("WATCH-RECEIVE");
 
   @Autowired protected Registry sessionRegistry;
+  @Autowired protected AccessLimitService accessLimitService;
 
   @Override
   public void handleConfiguratorRegister(
@@ -79,6 +82,13 @@ public class DefaultWatcherHandlerStrategy implements WatcherHandlerStrategy {
     if (EventTypeConstants.REGISTER.equals(eventType)) {
       sessionRegistry.register(watcher, channel);
     } else if (EventTypeConstants.UNREGISTER.equals(eventType)) {
+      if (!accessLimitService.tryAcquire(
+          AccessType.UNREGISTER, watcher.getAppName(), watcher.getSourceAddress().getIpAddress())) {
+        throw new RuntimeException(
+            String.format(
+                "UnRegister access limit for session server!dataInfoId=%s,connectId=%s",
+                watcher.getDataInfoId(), watcher.getSourceAddress()));
+      }
       sessionRegistry.unRegister(watcher);
     } else {
       RegisterLogs.REGISTER_LOGGER.warn("unsupported watch.eventType:{}", eventType);
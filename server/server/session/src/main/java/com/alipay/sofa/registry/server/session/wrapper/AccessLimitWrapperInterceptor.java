@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.store.BaseInfo;
 import com.alipay.sofa.registry.common.model.wrapper.WrapperInterceptor;
 import com.alipay.sofa.registry.common.model.wrapper.WrapperInvocation;
 import com.alipay.sofa.registry.server.session.limit.AccessLimitService;
+import com.alipay.sofa.registry.server.session.limit.AccessType;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -38,7 +39,8 @@ public class AccessLimitWrapperInterceptor
     RegisterInvokeData registerInvokeData = invocation.getParameterSupplier().get();
     BaseInfo baseInfo = (BaseInfo) registerInvokeData.getStoreData();
 
-    if (!accessLimitService.tryAcquire()) {
+    if (!accessLimitService.tryAcquire(
+        AccessType.REGISTER, baseInfo.getAppName(), baseInfo.getSourceAddress().getIpAddress())) {
       throw new RuntimeException(
           String.format(
               "Register access limit for session server!dataInfoId=%s,connectId=%s",
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.limit;
+
+import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AccessLimitServiceImplTest {
+
+  private static AccessLimitServiceImpl newService(double global, double app, double ip) {
+    SessionServerConfigBean config = TestUtils.newSessionConfig("testDc");
+    config.setAccessLimitRate(global);
+    config.setAccessLimitAppRate(app);
+    config.setAccessLimitIpRate(ip);
+    return new AccessLimitServiceImpl(config);
+  }
+
+  private static int acquireUntilReject(
+      AccessLimitServiceImpl service, AccessType type, String app, String ip) {
+    int count = 0;
+    while (service.tryAcquire(type, app, ip)) {
+      count++;
+    }
+    return count;
+  }
+
+  @Test
+  public void testNoisyIp() {
+    AccessLimitServiceImpl service = newService(100000, 100000, 10);
+    int acquired = acquireUntilReject(service, AccessType.REGISTER, "app", "1.1.1.1");
+    Assert.assertTrue(acquired > 0 && acquired <= 10);
+    // other client is not affected
+    Assert.assertTrue(service.tryAcquire(AccessType.REGISTER, "app", "2.2.2.2"));
+    // the reserved permits are left for heartbeat
+    Assert.assertTrue(service.tryAcquire(AccessType.HEARTBEAT, "app", "1.1.1.1"));
+
+    Map<String, Map<String, Long>> offenders = service.refreshTopOffenders();
+    Assert.assertEquals(1, offenders.get(AccessLimitMetrics.LEVEL_IP).get("1.1.1.1").longValue());
+    Assert.assertTrue(offenders.get(AccessLimitMetrics.LEVEL_APP).isEmpty());
+    Assert.assertEquals(offenders, service.getTopOffenders());
+    // reset after refresh
+    Assert.assertTrue(service.refreshTopOffenders().get(AccessLimitMetrics.LEVEL_IP).isEmpty());
+  }
+
+  @Test
+  public void testNoisyApp() {
+    AccessLimitServiceImpl service = newService(100000, 10, 100000);
+    acquireUntilReject(service, AccessType.REGISTER, "app1", "1.1.1.1");
+    Assert.assertFalse(service.tryAcquire(AccessType.REGISTER, "app1", "2.2.2.2"));
+    Assert.assertTrue(service.tryAcquire(AccessType.REGISTER, "app2", "2.2.2.2"));
+    Assert.assertTrue(service.tryAcquire(AccessType.REGISTER, null, "2.2.2.2"));
+  }
+
+  @Test
+  public void testGlobalRefund() {
+    AccessLimitServiceImpl service = newService(10, 100000, 100);
+    int register = acquireUntilReject(service, AccessType.REGISTER, "app", "1.1.1.1");
+    int heartbeat = acquireUntilReject(service, AccessType.HEARTBEAT, "app", "2.2.2.2");
+    Assert.assertTrue(register > heartbeat);
+    Assert.assertTrue(heartbeat > 0);
+    // ip bucket of 2.2.2.2 is refunded when the global rejects, only global is exhausted
+    Assert.assertFalse(service.tryAcquire(AccessType.HEARTBEAT, "app", "3.3.3.3"));
+    Map<String, Map<String, Long>> offenders = service.refreshTopOffenders();
+    Assert.assertTrue(offenders.get(AccessLimitMetrics.LEVEL_IP).isEmpty());
+  }
+
+  @Test
+  public void testTokenBucket() {
+    long now = System.nanoTime();
+    TokenBucket bucket = new TokenBucket(10, now);
+    int count = 0;
+    while (bucket.tryAcquire(now, 0)) {
+      count++;
+    }
+    Assert.assertEquals(10, count);
+    Assert.assertEquals(1, bucket.sumRejectedThenReset());
+    bucket.refund();
+    Assert.assertTrue(bucket.tryAcquire(now, 0));
+    // refill after 100ms
+    Assert.assertTrue(bucket.tryAcquire(now + 100_000_000L, 0));
+    Assert.assertFalse(bucket.isIdle(now, 1000));
+    Assert.assertTrue(bucket.isIdle(now + 2_000_000_000L, 1000));
+  }
+}
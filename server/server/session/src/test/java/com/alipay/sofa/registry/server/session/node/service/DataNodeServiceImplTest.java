@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.node.service;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataBatchRequest;
+import com.alipay.sofa.registry.common.model.dataserver.GetMultiDataRequest;
+import com.alipay.sofa.registry.common.model.slot.MultiSlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.remoting.exchange.NodeExchanger;
+import com.alipay.sofa.registry.remoting.exchange.message.Request;
+import com.alipay.sofa.registry.remoting.exchange.message.Response;
+import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DataNodeServiceImplTest {
+  private static final Set<String> DATA_CENTERS = Collections.singleton("testDc");
+
+  private DataNodeServiceImpl service;
+  private SessionServerConfigBean config;
+  private final AtomicInteger batchRequests = new AtomicInteger();
+  private final AtomicInteger singleRequests = new AtomicInteger();
+
+  @Before
+  public void before() {
+    service = new DataNodeServiceImpl();
+    config = TestUtils.newSessionConfig("testDc");
+    config.setDataNodeFetchBatchWindowMillis(200);
+    service.sessionServerConfig = config;
+    service.slotTableCache = mock(SlotTableCache.class);
+    when(service.slotTableCache.getSlot(anyString(), anyString()))
+        .thenReturn(new Slot(1, "192.168.0.1", 10, Collections.emptyList()));
+    when(service.slotTableCache.getSlot(anyString(), anyInt()))
+        .thenReturn(new Slot(1, "192.168.0.1", 10, Collections.emptyList()));
+    service.dataNodeExchanger = mock(NodeExchanger.class);
+    when(service.dataNodeExchanger.request(any(Request.class)))
+        .thenAnswer(
+            invocation -> {
+              Request request = (Request) invocation.getArguments()[0];
+              Object body = request.getRequestBody();
+              if (body instanceof GetMultiDataRequest) {
+                singleRequests.incrementAndGet();
+                MultiSlotAccessGenericResponse<MultiSubDatum> resp =
+                    response((GetMultiDataRequest) body);
+                return (Response) () -> resp;
+              }
+              batchRequests.incrementAndGet();
+              List<MultiSlotAccessGenericResponse<MultiSubDatum>> list = Lists.newArrayList();
+              for (GetMultiDataRequest req : ((GetMultiDataBatchRequest) body).getRequests()) {
+                list.add(response(req));
+              }
+              new Thread(
+                      () ->
+                          request
+                              .getCallBackHandler()
+                              .onCallback(null, new GenericResponse<>().fillSucceed(list)))
+                  .start();
+              return (Response) () -> Response.ResultStatus.SUCCESSFUL;
+            });
+  }
+
+  @After
+  public void after() {
+    service.dispose();
+  }
+
+  private static MultiSlotAccessGenericResponse<MultiSubDatum> response(GetMultiDataRequest req) {
+    if (req.getDataInfoId().startsWith("fail")) {
+      return MultiSlotAccessGenericResponse.failedResponse("mock fail");
+    }
+    return new MultiSlotAccessGenericResponse<>(
+        true,
+        "",
+        new MultiSubDatum(req.getDataInfoId(), Collections.emptyMap()),
+        Collections.emptyMap());
+  }
+
+  private static String dataInfoId(String dataId) {
+    return DataInfo.toDataInfoId(dataId, "testInstance", "testGroup");
+  }
+
+  @Test
+  public void testFetchCoalesced() throws Exception {
+    List<CompletableFuture<MultiSubDatum>> futures =
+        Collections.synchronizedList(Lists.newArrayList());
+    List<Thread> threads = Lists.newArrayList();
+    for (int i = 0; i < 20; i++) {
+      final String dataInfoId = dataInfoId("dataId" + i);
+      Thread t = new Thread(() -> futures.add(service.fetchAsync(dataInfoId, DATA_CENTERS)));
+      threads.add(t);
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    Set<String> dataInfoIds = Sets.newHashSet();
+    for (CompletableFuture<MultiSubDatum> future : futures) {
+      dataInfoIds.add(future.get().getDataInfoId());
+    }
+    Assert.assertEquals(20, dataInfoIds.size());
+    Assert.assertEquals(1, batchRequests.get());
+    Assert.assertEquals(0, singleRequests.get());
+
+    // the sync fetch goes through the batcher too
+    Assert.assertEquals(
+        dataInfoId("dataId"), service.fetch(dataInfoId("dataId"), DATA_CENTERS).getDataInfoId());
+    Assert.assertEquals(2, batchRequests.get());
+  }
+
+  @Test
+  public void testFetchMaxBatch() throws Exception {
+    config.setDataNodeFetchMaxBatchSize(5);
+    List<CompletableFuture<MultiSubDatum>> futures = Lists.newArrayList();
+    for (int i = 0; i < 12; i++) {
+      futures.add(service.fetchAsync(dataInfoId("dataId" + i), DATA_CENTERS));
+    }
+    // two full batches are sent at once
+    Assert.assertEquals(2, batchRequests.get());
+    for (int i = 0; i < 12; i++) {
+      Assert.assertEquals(dataInfoId("dataId" + i), futures.get(i).get().getDataInfoId());
+    }
+    Assert.assertEquals(3, batchRequests.get());
+  }
+
+  @Test
+  public void testFetchFailAndShare() throws Exception {
+    CompletableFuture<MultiSubDatum> ok = service.fetchAsync(dataInfoId("ok"), DATA_CENTERS);
+    CompletableFuture<MultiSubDatum> shared = service.fetchAsync(dataInfoId("ok"), DATA_CENTERS);
+    CompletableFuture<MultiSubDatum> fail = service.fetchAsync(dataInfoId("fail"), DATA_CENTERS);
+    Assert.assertSame(ok, shared);
+    Assert.assertEquals(dataInfoId("ok"), ok.get().getDataInfoId());
+    try {
+      fail.get();
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause().getMessage().contains("mock fail"));
+    }
+    Assert.assertEquals(1, batchRequests.get());
+    try {
+      service.fetch(dataInfoId("fail"), DATA_CENTERS);
+      Assert.fail();
+    } catch (RuntimeException e) {
+      Assert.assertTrue(e.getMessage().contains("mock fail"));
+    }
+  }
+
+  @Test
+  public void testFetchSingle() {
+    // batching is opt-in, data servers of older versions do not handle GetMultiDataBatchRequest
+    Assert.assertEquals(
+        0, TestUtils.newSessionConfig("testDc").getDataNodeFetchBatchWindowMillis());
+    config.setDataNodeFetchBatchWindowMillis(0);
+    Assert.assertEquals(
+        dataInfoId("dataId"), service.fetch(dataInfoId("dataId"), DATA_CENTERS).getDataInfoId());
+    Assert.assertEquals(1, singleRequests.get());
+    Assert.assertEquals(0, batchRequests.get());
+  }
+
+  @Test
+  public void testDispose() throws Exception {
+    CompletableFuture<MultiSubDatum> future = service.fetchAsync(dataInfoId("ok"), DATA_CENTERS);
+    service.dispose();
+    try {
+      future.get();
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause().getMessage().contains("shutdown"));
+    }
+    Assert.assertEquals(0, batchRequests.get());
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.providedata;
+
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.common.model.store.SubPublisherList;
+import com.alipay.sofa.registry.compress.CompressConstants;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.compress.Compressor;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * compress the hessian serialized publishers of the synthetic datum with plain zstd and with a zstd
+ * dict trained from other datum, the compression ratio is printed in the setup
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+public class CompressDictBenchmark {
+  private static final int DATUM_NUM = 1024;
+
+  @Param({"1", "10", "100"})
+  private int publishers;
+
+  @Param({"zstd", "zstd-dict"})
+  private String encoding;
+
+  private Compressor compressor;
+
+  private List<byte[]> payloads;
+
+  private List<byte[]> compressed;
+
+  private int next;
+
+  @Setup
+  public void setup() throws Exception {
+    Random random = new Random(1);
+    List<byte[]> samples = Lists.newArrayListWithCapacity(DATUM_NUM);
+    for (int i = 0; i < DATUM_NUM; i++) {
+      samples.add(newPayload(random, i, publishers));
+    }
+    payloads = Lists.newArrayListWithCapacity(DATUM_NUM);
+    for (int i = 0; i < DATUM_NUM; i++) {
+      // the payloads are not in the samples, the dataIds and ips are different
+      payloads.add(newPayload(random, DATUM_NUM + i, publishers));
+    }
+    if ("zstd".equals(encoding)) {
+      compressor = CompressUtils.mustGet(CompressConstants.encodingZstd);
+    } else {
+      byte[] dict = CompressUtils.trainZstdDict(samples, CompressConstants.defaultZstdDictSize);
+      CompressUtils.registerZstdDict(publishers, dict);
+      compressor = CompressUtils.mustGet(CompressUtils.zstdDictEncoding(publishers));
+    }
+    compressed = Lists.newArrayListWithCapacity(DATUM_NUM);
+    long src = 0;
+    long dst = 0;
+    for (byte[] payload : payloads) {
+      byte[] zdata = compressor.compress(payload);
+      compressed.add(zdata);
+      src += payload.length;
+      dst += zdata.length;
+    }
+    System.out.println(
+        StringFormatter.format(
+            "{} publishers={}, avg src={}, avg dst={}, ratio={}",
+            encoding,
+            publishers,
+            src / DATUM_NUM,
+            dst / DATUM_NUM,
+            String.format("%.2f", (double) src / dst)));
+  }
+
+  private static byte[] newPayload(Random random, int datum, int publishers) throws Exception {
+    final String dataId = "com.alipay.test.facade.TestService" + datum + ":1.0@DEFAULT";
+    final String app = "app" + random.nextInt(200);
+    List<SubPublisher> pubs = Lists.newArrayListWithCapacity(publishers);
+    for (int i = 0; i < publishers; i++) {
+      final String ip =
+          StringFormatter.format("11.{}.{}.{}", random.nextInt(256), random.nextInt(256), i);
+      final String url =
+          StringFormatter.format(
+              "{}:12200?_TIMEOUT=3000&p=1&_SERIALIZETYPE=hessian2&app_name={}&v=4.0"
+                  + "&_WARMUPTIME=0&_WARMUPWEIGHT=10&zone=GZ00{}&_CONNECTTIMEOUT=1000"
+                  + "&_WEIGHT=100&startTime={}&interface={}",
+              ip,
+              app,
+              (char) ('A' + random.nextInt(6)),
+              1600000000000L + random.nextInt(Integer.MAX_VALUE),
+              dataId);
+      pubs.add(
+          new SubPublisher(
+              StringFormatter.format("{}-{}-{}", dataId, ip, random.nextLong()),
+              "GZ00" + (char) ('A' + random.nextInt(6)),
+              Lists.newArrayList(new ServerDataBox(url)),
+              ip + ":" + (10000 + random.nextInt(50000)),
+              random.nextInt(100),
+              ip + ":" + (10000 + random.nextInt(50000)),
+              System.currentTimeMillis(),
+              PublishSource.CLIENT));
+    }
+    return DatumUtils.serializer.serialize(new SubPublisherList(pubs));
+  }
+
+  @Benchmark
+  public byte[] compress() throws Exception {
+    return compressor.compress(payloads.get((next++) & (DATUM_NUM - 1)));
+  }
+
+  @Benchmark
+  public byte[] decompress() throws Exception {
+    final int i = (next++) & (DATUM_NUM - 1);
+    return compressor.decompress(compressed.get(i), payloads.get(i).length);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt =
+        new OptionsBuilder()
+            .include(CompressDictBenchmark.class.getSimpleName())
+            .warmupIterations(2)
+            .measurementIterations(3)
+            .build();
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.providedata;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDict;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDicts;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.compress.Compressor;
+import com.alipay.sofa.registry.util.JsonUtils;
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FetchCompressDictServiceTest extends FetchCompressDictService {
+
+  @Test
+  public void test() throws Exception {
+    Assert.assertTrue(getCompressDicts().getDicts().isEmpty());
+    Assert.assertTrue(
+        doProcess(
+            storage.get(),
+            new ProvideData(new ServerDataBox(""), ValueConstants.COMPRESS_DICT_DATA_ID, 1L)));
+    Assert.assertFalse(
+        doProcess(
+            storage.get(),
+            new ProvideData(new ServerDataBox("{"), ValueConstants.COMPRESS_DICT_DATA_ID, 1L)));
+
+    final int dictId = 20000 + (int) (System.nanoTime() % 10000);
+    final String encoding = CompressUtils.zstdDictEncoding(dictId);
+    byte[] dict =
+        "bolt://127.0.0.1:12200?_TIMEOUT=3000&p=1&_SERIALIZETYPE=hessian2&app_name=test"
+            .getBytes(StandardCharsets.UTF_8);
+    CompressDicts dicts = CompressDicts.empty();
+    dicts.append(new CompressDict(dictId, dict));
+    Assert.assertTrue(
+        doProcess(
+            storage.get(),
+            new ProvideData(
+                new ServerDataBox(JsonUtils.writeValueAsString(dicts)),
+                ValueConstants.COMPRESS_DICT_DATA_ID,
+                2L)));
+    Assert.assertEquals(1, getCompressDicts().getDicts().size());
+    Assert.assertEquals(encoding, CompressUtils.acceptEncodes()[0]);
+
+    Compressor compressor = CompressUtils.find(new String[] {encoding, "zstd"});
+    Assert.assertEquals(encoding, compressor.getEncoding());
+    byte[] src =
+        "bolt://127.0.0.2:12200?_TIMEOUT=3000&p=1&_SERIALIZETYPE=hessian2&app_name=test2"
+            .getBytes(StandardCharsets.UTF_8);
+    Assert.assertArrayEquals(src, compressor.decompress(compressor.compress(src), src.length));
+  }
+}
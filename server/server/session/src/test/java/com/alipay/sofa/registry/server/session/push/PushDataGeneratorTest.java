@@ -29,12 +29,14 @@ import com.alipay.sofa.registry.core.model.ReceivedConfigData;
 import com.alipay.sofa.registry.core.model.ReceivedData;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
 import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
 import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.assertj.core.util.Sets;
@@ -177,4 +179,225 @@ public class PushDataGeneratorTest {
     Assert.assertNotEquals(0, pushData.getPayload().getBody().size());
     Assert.assertNotEquals(0, pushData.getPayload().getOriginBodySize());
   }
+
+  @Test
+  public void testCachedPushData() {
+    PushDataGenerator generator = new PushDataGenerator();
+    generator.sessionServerConfig = TestUtils.newSessionConfig("testDc", zone);
+    generator.compressPushService = new CompressPushService();
+    Subscriber sub1 = TestUtils.newZoneSubscriber(zone);
+    Subscriber sub2 = TestUtils.newZoneSubscriber(zone);
+    SubPublisher pub = TestUtils.newSubPublisher(10, 20, "TESTZONE");
+    SubPublisher pub2 = TestUtils.newSubPublisher(10, 20, "TESTZONE");
+    SubDatum subDatum =
+        TestUtils.newSubDatum("testDc", "testCachedDataId", 200, Lists.newArrayList(pub, pub2));
+
+    final long hit = PushPayloadCache.payloadExecutor.getHitCount();
+    final long missing = PushPayloadCache.payloadExecutor.getMissingCount();
+    PushData<ReceivedData> pushData1 =
+        generator.createCachedPushData(
+            MultiSubDatum.of(subDatum), Collections.singletonMap(sub1.getRegisterId(), sub1));
+    PushData<ReceivedData> pushData2 =
+        generator.createCachedPushData(
+            MultiSubDatum.of(subDatum), Collections.singletonMap(sub2.getRegisterId(), sub2));
+    Assert.assertEquals(missing + 1, PushPayloadCache.payloadExecutor.getMissingCount());
+    Assert.assertEquals(hit + 1, PushPayloadCache.payloadExecutor.getHitCount());
+
+    Assert.assertEquals(
+        Lists.newArrayList(sub1.getRegisterId()), pushData1.getPayload().getSubscriberRegistIds());
+    Assert.assertEquals(
+        Lists.newArrayList(sub2.getRegisterId()), pushData2.getPayload().getSubscriberRegistIds());
+    // the data is shared and read only
+    Assert.assertEquals(pushData1.getPayload().getData(), pushData2.getPayload().getData());
+    try {
+      pushData1.getPayload().getData().clear();
+      Assert.fail();
+    } catch (UnsupportedOperationException e) {
+      // ignore
+    }
+    Assert.assertEquals(
+        2, pushData2.getPayload().getData().values().stream().mapToInt(List::size).sum());
+    // the push info is copied
+    DataCenterPushInfo info1 = pushData1.getDataCenterPushInfo().get("testDc");
+    DataCenterPushInfo info2 = pushData2.getDataCenterPushInfo().get("testDc");
+    Assert.assertTrue(info1 != info2);
+    info1.setPushVersion(0);
+    Assert.assertEquals(subDatum.getVersion(), info2.getPushVersion());
+    Assert.assertEquals(2, info2.getPushNum().get("testDc").intValue());
+
+    // same as the uncached
+    PushData<ReceivedData> uncached =
+        generator.createPushData(
+            MultiSubDatum.of(subDatum), Collections.singletonMap(sub2.getRegisterId(), sub2));
+    Assert.assertEquals(uncached.getPayload().toString(), pushData2.getPayload().toString());
+
+    // new version, missing
+    SubDatum subDatum2 =
+        TestUtils.newSubDatum("testDc", "testCachedDataId", 201, Lists.newArrayList(pub));
+    PushData<ReceivedData> pushData3 =
+        generator.createCachedPushData(
+            MultiSubDatum.of(subDatum2), Collections.singletonMap(sub1.getRegisterId(), sub1));
+    Assert.assertEquals(missing + 2, PushPayloadCache.payloadExecutor.getMissingCount());
+    Assert.assertEquals(201, pushData3.getPayload().getVersion().longValue());
+  }
+
+  @Test
+  public void testCachedPushDataZoneFilter() {
+    PushDataGenerator generator = new PushDataGenerator();
+    SessionServerConfigBean config = TestUtils.newSessionConfig("testDc", zone);
+    generator.sessionServerConfig = config;
+    generator.compressPushService = new CompressPushService();
+    Subscriber sub = TestUtils.newZoneSubscriber("testZoneFilterDataId", zone);
+    sub.setScope(ScopeEnum.dataCenter);
+    SubPublisher pub = TestUtils.newSubPublisher(10, 20, "TESTZONE");
+    SubPublisher pub2 = TestUtils.newSubPublisher(10, 20, "OTHERZONE");
+    SubDatum subDatum =
+        TestUtils.newSubDatum("testDc", "testZoneFilterDataId", 200, Lists.newArrayList(pub, pub2));
+
+    PushData<ReceivedData> pushData =
+        generator.createCachedPushData(
+            MultiSubDatum.of(subDatum), Collections.singletonMap(sub.getRegisterId(), sub));
+    Assert.assertEquals(2, pushData.getPayload().getData().size());
+
+    // the zone filter config changed, the cached payload is not used
+    final long missing = PushPayloadCache.payloadExecutor.getMissingCount();
+    config.setInvalidForeverZones("OTHERZONE");
+    pushData =
+        generator.createCachedPushData(
+            MultiSubDatum.of(subDatum), Collections.singletonMap(sub.getRegisterId(), sub));
+    Assert.assertEquals(missing + 1, PushPayloadCache.payloadExecutor.getMissingCount());
+    Assert.assertEquals(
+        Collections.singleton("TESTZONE"), pushData.getPayload().getData().keySet());
+  }
+
+  @Test
+  public void testCachedPbPushData() {
+    PushDataGenerator generator = new PushDataGenerator();
+    generator.sessionServerConfig = TestUtils.newSessionConfig("testDc", zone);
+    generator.compressPushService = spy(new CompressPushService());
+    CompressPushSwitch compressPushSwitch = new CompressPushSwitch();
+    compressPushSwitch.setEnabled(true);
+    when(generator.compressPushService.getCompressSwitch()).thenReturn(compressPushSwitch);
+    Subscriber sub1 = TestUtils.newZonePbSubscriber(zone);
+    Subscriber sub2 = TestUtils.newZonePbSubscriber(zone);
+    Subscriber sub3 = TestUtils.newZonePbSubscriber(zone);
+    sub1.internAcceptEncoding("zstd");
+    sub2.internAcceptEncoding("zstd");
+    List<SubPublisher> list = Lists.newArrayListWithExpectedSize(1000);
+    for (int i = 0; i < 1000; i++) {
+      list.add(TestUtils.newSubPublisher(10, 20, "TESTZONE"));
+    }
+    SubDatum subDatum = TestUtils.newSubDatum("testDc", "testCachedPbDataId", 200, list);
+
+    final long missing = PushPayloadCache.payloadExecutor.getMissingCount();
+    PushData<ReceivedDataPb> pushData1 =
+        generator.createCachedPushData(
+            MultiSubDatum.of(subDatum), Collections.singletonMap(sub1.getRegisterId(), sub1));
+    PushData<ReceivedDataPb> pushData2 =
+        generator.createCachedPushData(
+            MultiSubDatum.of(subDatum), Collections.singletonMap(sub2.getRegisterId(), sub2));
+    Assert.assertEquals(missing + 1, PushPayloadCache.payloadExecutor.getMissingCount());
+    Assert.assertEquals(sub1.getRegisterId(), pushData1.getPayload().getSubscriberRegistIds(0));
+    Assert.assertEquals(sub2.getRegisterId(), pushData2.getPayload().getSubscriberRegistIds(0));
+    Assert.assertEquals(1, pushData2.getPayload().getSubscriberRegistIdsCount());
+    Assert.assertEquals("zstd", pushData2.getPayload().getEncoding());
+    Assert.assertTrue(pushData1.getPayload().getBody() == pushData2.getPayload().getBody());
+
+    // not accept the encoding, another payload
+    PushData<ReceivedDataPb> pushData3 =
+        generator.createCachedPushData(
+            MultiSubDatum.of(subDatum), Collections.singletonMap(sub3.getRegisterId(), sub3));
+    Assert.assertEquals(missing + 2, PushPayloadCache.payloadExecutor.getMissingCount());
+    Assert.assertEquals(0, pushData3.getPayload().getBody().size());
+    Assert.assertEquals(1000, pushData3.getPayload().getDataMap().get("TESTZONE").getDataCount());
+  }
+
+  @Test
+  public void testDeltaPushData() {
+    PushDataGenerator generator = new PushDataGenerator();
+    SessionServerConfigBean config = TestUtils.newSessionConfig("testDc", zone);
+    generator.sessionServerConfig = config;
+    generator.compressPushService = new CompressPushService();
+    Subscriber sub = TestUtils.newZoneSubscriber(zone);
+    sub.setAcceptDelta(true);
+    Map<String, Subscriber> subscriberMap = Collections.singletonMap(sub.getRegisterId(), sub);
+    SubPublisher pub1 = TestUtils.newSubPublisher(10, 20, "TESTZONE");
+    SubPublisher pub2 = TestUtils.newSubPublisher(10, 20, "TESTZONE");
+    SubPublisher pub3 = TestUtils.newSubPublisher(10, 20, "TESTZONE");
+    SubDatum v1 =
+        TestUtils.newSubDatum("testDc", "testDeltaDataId", 100, Lists.newArrayList(pub1, pub2));
+
+    // nothing pushed yet, full push
+    PushData<ReceivedData> full =
+        generator.createCachedPushData(MultiSubDatum.of(v1), subscriberMap);
+    Assert.assertNull(full.getPayload().getBaseVersion());
+    Assert.assertEquals(2, full.getPayload().getPublisherData().get("TESTZONE").size());
+    sub.checkAndUpdateCtx(
+        Collections.singletonMap("testDc", 100L), Collections.singletonMap("testDc", 2));
+
+    // pub1 changed, pub2 removed, pub3 added
+    SubPublisher pub1Changed =
+        new SubPublisher(
+            pub1.getRegisterId(),
+            pub1.getCell(),
+            pub1.getDataList(),
+            pub1.getClientId(),
+            11,
+            pub1.getSrcAddressString(),
+            21,
+            pub1.getPublishSource());
+    SubDatum v2 =
+        TestUtils.newSubDatum(
+            "testDc", "testDeltaDataId", 200, Lists.newArrayList(pub1Changed, pub3));
+    PushData<ReceivedData> delta =
+        generator.createCachedPushData(MultiSubDatum.of(v2), subscriberMap);
+    ReceivedData payload = delta.getPayload();
+    Assert.assertEquals(100, payload.getBaseVersion().longValue());
+    Assert.assertEquals(200, payload.getVersion().longValue());
+    Assert.assertEquals(
+        Sets.newLinkedHashSet(pub1.getRegisterId(), pub3.getRegisterId()),
+        payload.getPublisherData().get("TESTZONE").keySet());
+    Assert.assertEquals(Lists.newArrayList(pub2.getRegisterId()), payload.getRemovedRegistIds());
+    Assert.assertEquals(2, payload.getDataCount().get("TESTZONE").intValue());
+    Assert.assertTrue(PushProcessor.isDeltaPush(payload));
+
+    // the client rejected the delta, fallback to full push
+    sub.markDeltaBroken("testDc");
+    full = generator.createCachedPushData(MultiSubDatum.of(v2), subscriberMap);
+    Assert.assertNull(full.getPayload().getBaseVersion());
+    Assert.assertFalse(PushProcessor.isDeltaPush(full.getPayload()));
+    Assert.assertEquals(2, full.getPayload().getPublisherData().get("TESTZONE").size());
+
+    // base snapshot unknown, full push
+    sub.checkAndUpdateCtx(
+        Collections.singletonMap("testDc", 150L), Collections.singletonMap("testDc", 2));
+    full = generator.createCachedPushData(MultiSubDatum.of(v2), subscriberMap);
+    Assert.assertNull(full.getPayload().getBaseVersion());
+
+    // the zone filter changed after the base pushed, full push
+    sub.setScope(ScopeEnum.dataCenter);
+    sub.checkAndUpdateCtx(
+        Collections.singletonMap("testDc", 200L), Collections.singletonMap("testDc", 2));
+    SubPublisher pub4 = TestUtils.newSubPublisher(10, 20, "OTHERZONE");
+    SubDatum v3 =
+        TestUtils.newSubDatum(
+            "testDc", "testDeltaDataId", 300, Lists.newArrayList(pub1Changed, pub3, pub4));
+    config.setInvalidForeverZones("OTHERZONE");
+    full = generator.createCachedPushData(MultiSubDatum.of(v3), subscriberMap);
+    Assert.assertNull(full.getPayload().getBaseVersion());
+    Assert.assertEquals(
+        Collections.singleton("TESTZONE"), full.getPayload().getPublisherData().keySet());
+    Assert.assertEquals(2, full.getPayload().getPublisherData().get("TESTZONE").size());
+
+    // pushed with the same filter, delta again
+    sub.checkAndUpdateCtx(
+        Collections.singletonMap("testDc", 300L), Collections.singletonMap("testDc", 2));
+    SubDatum v4 =
+        TestUtils.newSubDatum(
+            "testDc", "testDeltaDataId", 400, Lists.newArrayList(pub1Changed, pub3, pub4));
+    delta = generator.createCachedPushData(MultiSubDatum.of(v4), subscriberMap);
+    Assert.assertEquals(300, delta.getPayload().getBaseVersion().longValue());
+    Assert.assertTrue(delta.getPayload().getPublisherData().isEmpty());
+    Assert.assertTrue(delta.getPayload().getRemovedRegistIds().isEmpty());
+  }
 }
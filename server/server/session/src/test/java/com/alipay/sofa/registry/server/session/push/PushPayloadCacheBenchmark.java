@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.PushData;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
+import com.alipay.sofa.registry.server.shared.config.CommonConfig;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * one datum version pushes to many subscribers, build the push data for every subscriber against
+ * the shared payload
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+public class PushPayloadCacheBenchmark {
+  private static final int SUBSCRIBER_NUM = 1024;
+
+  @Param({"hessian", "protobuf"})
+  private String serializer;
+
+  @Param({"100", "1000"})
+  private int publishers;
+
+  private PushDataGenerator generator;
+
+  private MultiSubDatum datum;
+
+  private List<Map<String, Subscriber>> subscribers;
+
+  private int next;
+
+  @Setup
+  public void setup() {
+    generator = new PushDataGenerator();
+    // not mock the config, the mock invocation is much slower than the push data building
+    generator.sessionServerConfig =
+        new SessionServerConfigBean(
+            new CommonConfig() {
+              @Override
+              public String getLocalDataCenter() {
+                return "testDc";
+              }
+
+              @Override
+              public String getLocalRegion() {
+                return "testZone";
+              }
+            });
+    generator.compressPushService = new CompressPushService();
+    List<SubPublisher> list = Lists.newArrayListWithCapacity(publishers);
+    for (int i = 0; i < publishers; i++) {
+      list.add(TestUtils.newSubPublisher(10, 20, "TESTZONE"));
+    }
+    SubDatum subDatum = TestUtils.newSubDatum("testDc", "benchDataId", 200, list);
+    datum = MultiSubDatum.of(subDatum);
+    subscribers = Lists.newArrayListWithCapacity(SUBSCRIBER_NUM);
+    for (int i = 0; i < SUBSCRIBER_NUM; i++) {
+      Subscriber subscriber =
+          "protobuf".equals(serializer)
+              ? TestUtils.newZonePbSubscriber("testZone")
+              : TestUtils.newZoneSubscriber("testZone");
+      subscribers.add(Collections.singletonMap(subscriber.getRegisterId(), subscriber));
+    }
+  }
+
+  private Map<String, Subscriber> nextSubscriber() {
+    return subscribers.get((next++) & (SUBSCRIBER_NUM - 1));
+  }
+
+  /** the payload is built for every subscriber */
+  @Benchmark
+  public PushData rebuild() {
+    return generator.createPushData(DatumUtils.decompressMultiSubDatum(datum), nextSubscriber());
+  }
+
+  @Benchmark
+  public PushData cached() {
+    return generator.createCachedPushData(datum, nextSubscriber());
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt =
+        new OptionsBuilder()
+            .include(PushPayloadCacheBenchmark.class.getSimpleName())
+            .warmupIterations(2)
+            .measurementIterations(3)
+            .build();
+    new Runner(opt).run();
+  }
+}
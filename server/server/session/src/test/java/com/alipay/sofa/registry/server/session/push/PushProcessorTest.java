@@ -34,6 +34,7 @@ import com.alipay.sofa.registry.server.session.TestUtils;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
 import com.alipay.sofa.registry.server.session.circuit.breaker.CircuitBreakerService;
 import com.alipay.sofa.registry.server.session.node.service.ClientNodeService;
+import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
 import com.alipay.sofa.registry.task.RejectedDiscardHandler;
 import com.alipay.sofa.registry.util.BackOffTimes;
 import java.util.Collections;
@@ -162,8 +163,9 @@ public class PushProcessorTest {
 
     task = worker.bufferMap.values().iterator().next();
     Assert.assertEquals(task.trace.pushCause.pushType, PushType.Sub);
-    // make task expire
+    // make task expire, the due of buffered key need to schedule again
     task.expireTimestamp = System.currentTimeMillis();
+    worker.schedule(processor.taskBuffer.bufferTaskKey(task), task);
 
     Assert.assertEquals(processor.taskBuffer.watchBuffer(worker), 1);
     Assert.assertEquals(processor.taskBuffer.watchBuffer(worker), 0);
@@ -427,6 +429,7 @@ public class PushProcessorTest {
     processor.circuitBreakerService = circuitBreakerService;
     processor.pushDataGenerator = new PushDataGenerator();
     processor.pushDataGenerator.sessionServerConfig = config;
+    processor.pushDataGenerator.compressPushService = new CompressPushService();
     processor.intTaskBuffer();
     processor.taskBuffer.suspend();
     Assert.assertEquals(1, processor.taskBuffer.workers.length);
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.common.model.store.MultiSubDatum;
+import com.alipay.sofa.registry.common.model.store.PushData;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.net.NetUtil;
+import com.alipay.sofa.registry.server.session.TestUtils;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * push latency of a due task while 100k tasks are buffered and waiting, the sample mode reports the
+ * percentiles, the cpu time of the buffer workers is printed when the trial is finished
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Dregistry.session.push_task.max_buffered=200000"})
+public class PushTaskBufferBenchmark {
+  @Param({"100000"})
+  private int buffered;
+
+  private PushTaskBuffer buffer;
+
+  private Subscriber hotSubscriber;
+
+  private long version;
+
+  private long pushes;
+
+  private long cpuStart;
+
+  private long wallStart;
+
+  @Setup
+  public void setup() {
+    buffer = new PushTaskBuffer(4);
+    final long expireTimestamp = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+    for (int i = 0; i < buffered; i++) {
+      BenchTask task = newTask(TestUtils.newZoneSubscriber("benchDataId" + i, "region"), 1);
+      task.expireTimestamp = expireTimestamp;
+      if (!buffer.buffer(task)) {
+        throw new IllegalStateException("buffer full: " + i);
+      }
+    }
+    hotSubscriber = TestUtils.newZoneSubscriber("benchHotDataId", "region");
+    cpuStart = workerCpuNanos();
+    wallStart = System.nanoTime();
+  }
+
+  @TearDown
+  public void tearDown() {
+    final long cpu = workerCpuNanos() - cpuStart;
+    final long wall = System.nanoTime() - wallStart;
+    System.out.println(
+        String.format(
+            "%nbuffered=%d, pushes=%d, workerCpu=%dms, wall=%dms, cpuUsage=%.2f%%",
+            buffer.size(),
+            pushes,
+            TimeUnit.NANOSECONDS.toMillis(cpu),
+            TimeUnit.NANOSECONDS.toMillis(wall),
+            cpu * 100.0 / wall));
+  }
+
+  /** buffer a due task, wait until it is committed by the worker */
+  @Benchmark
+  public boolean pushDue() {
+    BenchTask task = newTask(hotSubscriber, ++version);
+    task.expireTimestamp = System.currentTimeMillis();
+    buffer.buffer(task);
+    while (!task.committed) {
+      LockSupport.parkNanos(10000);
+    }
+    pushes++;
+    return task.committed;
+  }
+
+  @Benchmark
+  public void idle() throws InterruptedException {
+    Thread.sleep(100);
+  }
+
+  private static long workerCpuNanos() {
+    ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+    long nanos = 0;
+    for (Thread t : Thread.getAllStackTraces().keySet()) {
+      if (t.getName().startsWith("PushTaskBuffer-")) {
+        nanos += mxBean.getThreadCpuTime(t.getId());
+      }
+    }
+    return nanos;
+  }
+
+  private static BenchTask newTask(Subscriber subscriber, long version) {
+    SubDatum datum =
+        TestUtils.newSubDatum(subscriber.getDataId(), version, Collections.emptyList());
+    return new BenchTask(
+        new PushCause(null, PushType.Sub, Collections.singletonMap(datum.getDataCenter(), version)),
+        NetUtil.getLocalSocketAddress(),
+        Collections.singletonMap(subscriber.getRegisterId(), subscriber),
+        datum);
+  }
+
+  private static final class BenchTask extends PushTask {
+    volatile boolean committed;
+
+    BenchTask(
+        PushCause pushCause,
+        InetSocketAddress addr,
+        Map<String, Subscriber> subscriberMap,
+        SubDatum datum) {
+      super(pushCause, addr, subscriberMap, MultiSubDatum.of(datum));
+    }
+
+    @Override
+    protected boolean commit() {
+      committed = true;
+      return true;
+    }
+
+    @Override
+    protected PushData createPushData() {
+      return null;
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt =
+        new OptionsBuilder()
+            .include(PushTaskBufferBenchmark.class.getSimpleName())
+            .warmupIterations(1)
+            .measurementIterations(3)
+            .build();
+    new Runner(opt).run();
+  }
+}
@@ -23,7 +23,9 @@ import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.net.NetUtil;
 import com.alipay.sofa.registry.server.session.TestUtils;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
@@ -64,7 +66,151 @@ public class PushTaskBufferTest {
     Assert.assertTrue(buffer.buffer(task1));
   }
 
+  @Test
+  public void testTransferByDue() throws InterruptedException {
+    PushTaskBuffer buffer = new PushTaskBuffer(1);
+    buffer.suspend();
+    PushTaskBuffer.BufferWorker worker = buffer.workers[0];
+    final long now = System.currentTimeMillis();
+    MockTask later = newTask("testDataIdLater", 100, PushType.Sub);
+    later.expireTimestamp = now + 60000;
+    MockTask expired = newTask("testDataIdExpired", 100, PushType.Sub);
+    expired.expireTimestamp = now - 1;
+    Assert.assertTrue(buffer.buffer(later));
+    Assert.assertTrue(buffer.buffer(expired));
+    Assert.assertEquals(2, worker.dueQueue.size());
+    Assert.assertTrue(worker.getWaitingMillis() <= 200);
+
+    Assert.assertEquals(1, buffer.watchBuffer(worker));
+    Assert.assertEquals(1, expired.commitCount);
+    Assert.assertEquals(0, later.commitCount);
+    Assert.assertEquals(1, buffer.size());
+    // only the later key is waiting, not scan it again
+    Assert.assertEquals(1, worker.dueQueue.size());
+    Assert.assertEquals(0, buffer.watchBuffer(worker));
+    Assert.assertEquals(0, later.commitCount);
+  }
+
+  @Test
+  public void testReplaceInheritDue() {
+    PushTaskBuffer buffer = new PushTaskBuffer(1);
+    buffer.suspend();
+    PushTaskBuffer.BufferWorker worker = buffer.workers[0];
+    Subscriber subscriber = TestUtils.newZoneSubscriber("testDataId", "region");
+    MockTask task = newTask(subscriber, 100, PushType.Sub);
+    task.expireTimestamp = System.currentTimeMillis() - 1;
+    Assert.assertTrue(buffer.buffer(task));
+    MockTask task1 = newTask(subscriber, 101, PushType.Sub);
+    task1.expireTimestamp = System.currentTimeMillis() + 60000;
+    Assert.assertTrue(buffer.buffer(task1));
+    // replaced task use the due of prev
+    Assert.assertEquals(1, worker.dueQueue.size());
+
+    Assert.assertEquals(1, buffer.watchBuffer(worker));
+    Assert.assertEquals(0, task.commitCount);
+    Assert.assertEquals(1, task1.commitCount);
+    Assert.assertEquals(0, buffer.size());
+    Assert.assertEquals(0, worker.dueQueue.size());
+  }
+
+  @Test
+  public void testNoDelay() {
+    PushTaskBuffer buffer = new PushTaskBuffer(1);
+    buffer.suspend();
+    PushTaskBuffer.BufferWorker worker = buffer.workers[0];
+    Subscriber subscriber = TestUtils.newZoneSubscriber("testDataId", "region");
+    MockTask task = newTask(subscriber, 100, PushType.Sub);
+    task.expireTimestamp = System.currentTimeMillis() + 60000;
+    Assert.assertTrue(buffer.buffer(task));
+    Assert.assertEquals(0, buffer.watchBuffer(worker));
+
+    MockTask empty = newTask(subscriber, 101, PushType.Empty);
+    empty.expireTimestamp = System.currentTimeMillis() + 60000;
+    Assert.assertTrue(buffer.buffer(empty));
+    Assert.assertEquals(0, worker.getWaitingMillis());
+    Assert.assertEquals(1, buffer.watchBuffer(worker));
+    Assert.assertEquals(1, empty.commitCount);
+    Assert.assertEquals(0, buffer.size());
+  }
+
+  @Test
+  public void testNoDelayReplacedByDelay() {
+    PushTaskBuffer buffer = new PushTaskBuffer(1);
+    buffer.suspend();
+    PushTaskBuffer.BufferWorker worker = buffer.workers[0];
+    Subscriber subscriber = TestUtils.newZoneSubscriber("testDataId", "region");
+    MockTask empty = newTask(subscriber, 100, PushType.Empty);
+    empty.expireTimestamp = System.currentTimeMillis() + 60000;
+    Assert.assertTrue(buffer.buffer(empty));
+    MockTask task = newTask(subscriber, 101, PushType.Sub);
+    Assert.assertTrue(buffer.buffer(task));
+
+    // the delay task is rescheduled to its expireTimestamp, not lost
+    Assert.assertEquals(0, buffer.watchBuffer(worker));
+    Assert.assertEquals(1, buffer.size());
+    Assert.assertEquals(1, worker.dueQueue.size());
+    Assert.assertEquals(empty.expireTimestamp, worker.dueQueue.peek().dueTimestamp);
+  }
+
+  @Test
+  public void testConcurrentBuffer() throws Exception {
+    PushTaskBuffer buffer = new PushTaskBuffer(2);
+    final int keys = 200;
+    final Subscriber[] subscribers = new Subscriber[keys];
+    for (int i = 0; i < keys; i++) {
+      subscribers[i] = TestUtils.newZoneSubscriber("testDataId" + i, "region");
+    }
+    final List<MockTask> tasks = Collections.synchronizedList(new ArrayList<>());
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      final int round = t;
+      threads[t] =
+          new Thread(
+              () -> {
+                for (int i = 0; i < keys; i++) {
+                  MockTask task = newTask(subscribers[i], 100 + round, PushType.Sub);
+                  task.expireTimestamp = System.currentTimeMillis() + (i % 20);
+                  tasks.add(task);
+                  buffer.buffer(task);
+                }
+              });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (int i = 0; i < 100 && buffer.size() != 0; i++) {
+      Thread.sleep(50);
+    }
+    Assert.assertEquals(0, buffer.size());
+    for (PushTaskBuffer.BufferWorker worker : buffer.workers) {
+      Assert.assertEquals(0, worker.bufferMap.size());
+    }
+    int committed = 0;
+    synchronized (tasks) {
+      for (MockTask task : tasks) {
+        committed += task.commitCount;
+      }
+    }
+    Assert.assertTrue(committed >= keys);
+  }
+
+  private static MockTask newTask(String dataId, long version, PushType pushType) {
+    return newTask(TestUtils.newZoneSubscriber(dataId, "region"), version, pushType);
+  }
+
+  private static MockTask newTask(Subscriber subscriber, long version, PushType pushType) {
+    SubDatum datum =
+        TestUtils.newSubDatum(subscriber.getDataId(), version, Collections.emptyList());
+    return new MockTask(
+        new PushCause(null, pushType, Collections.singletonMap(datum.getDataCenter(), version)),
+        NetUtil.getLocalSocketAddress(),
+        Collections.singletonMap(subscriber.getRegisterId(), subscriber),
+        datum);
+  }
+
   private static final class MockTask extends PushTask {
+    volatile int commitCount;
 
     MockTask(
         PushCause pushCause,
@@ -76,7 +222,8 @@ public class PushTaskBufferTest {
 
     @Override
     protected boolean commit() {
-      return false;
+      commitCount++;
+      return true;
     }
 
     @Override
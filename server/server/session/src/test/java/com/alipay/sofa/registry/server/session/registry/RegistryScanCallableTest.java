@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.registry;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.remoting.exchange.ExchangeCallback;
+import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.ExecutorManager;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
+import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RegistryScanCallableTest {
+  private static final String DC = "testDc";
+
+  private RegistryScanCallable scanCallable;
+  private SessionServerConfigBean config;
+  private ExecutorManager executorManager;
+  private final Map<Integer, ExchangeCallback<Map<String, DatumVersion>>> callbacks =
+      new ConcurrentHashMap<>();
+  private final AtomicInteger inflight = new AtomicInteger();
+  private final AtomicInteger maxInflight = new AtomicInteger();
+
+  @Before
+  public void before() {
+    config = TestUtils.newSessionConfig(DC);
+    config.setDataNodeExchangeTimeoutMillis(100);
+    executorManager = new ExecutorManager(config);
+    SlotTableCache slotTableCache = mock(SlotTableCache.class);
+    when(slotTableCache.getLeader(anyString(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              int slotId = (Integer) invocation.getArguments()[1];
+              return slotId < 0 ? null : "leader" + slotId % 2;
+            });
+    DataNodeService dataNodeService = mock(DataNodeService.class);
+    doAnswer(
+            invocation -> {
+              int slotId = (Integer) invocation.getArguments()[1];
+              if (slotId == 99) {
+                throw new RuntimeException("expect exception");
+              }
+              maxInflight.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+              callbacks.put(slotId, (ExchangeCallback) invocation.getArguments()[3]);
+              return null;
+            })
+        .when(dataNodeService)
+        .fetchDataVersion(anyString(), anyInt(), anyMap(), any());
+    scanCallable =
+        new RegistryScanCallable()
+            .setSessionServerConfig(config)
+            .setSlotTableCache(slotTableCache)
+            .setDataNodeService(dataNodeService)
+            .setExecutorManager(executorManager);
+  }
+
+  @After
+  public void after() {
+    executorManager.stopScheduler();
+  }
+
+  private void respond(int slotId, long version) {
+    ExchangeCallback<Map<String, DatumVersion>> callback = callbacks.remove(slotId);
+    inflight.decrementAndGet();
+    callback.onCallback(
+        null, Collections.singletonMap(String.valueOf(slotId), DatumVersion.of(version)));
+  }
+
+  private static Map<Integer, Map<String, DatumVersion>> interests(int... slotIds) {
+    Map<Integer, Map<String, DatumVersion>> ret = Maps.newLinkedHashMap();
+    for (int slotId : slotIds) {
+      ret.put(slotId, Collections.singletonMap(String.valueOf(slotId), DatumVersion.of(1)));
+    }
+    return ret;
+  }
+
+  @Test
+  public void testExecuteOnRespond() throws Exception {
+    Set<String> executed = Sets.newConcurrentHashSet();
+    CompletableFuture<Void> future =
+        scanCallable.scanVersions(
+            1, DC, interests(0, 1, 2, 99, -1), info -> executed.add(info.getDataInfoId()));
+    Assert.assertEquals(Sets.newHashSet(0, 1, 2), callbacks.keySet());
+
+    respond(1, 10);
+    // executed before the other slots respond
+    Assert.assertEquals(Sets.newHashSet("1"), executed);
+    Assert.assertFalse(future.isDone());
+    respond(0, 10);
+    callbacks.remove(2).onException(null, new RuntimeException("expect exception"));
+    // finished as soon as the slowest slot, not waiting the deadline
+    future.get(100, TimeUnit.MILLISECONDS);
+    Assert.assertEquals(Sets.newHashSet("0", "1"), executed);
+  }
+
+  @Test
+  public void testDeadline() throws Exception {
+    Set<String> executed = Sets.newConcurrentHashSet();
+    CompletableFuture<Void> future =
+        scanCallable.scanVersions(
+            1, DC, interests(0, 1), info -> executed.add(info.getDataInfoId()));
+    respond(0, 10);
+    Assert.assertFalse(future.isDone());
+    future.get(5, TimeUnit.SECONDS);
+    // the late callback is dropped
+    respond(1, 10);
+    Assert.assertEquals(Sets.newHashSet("0"), executed);
+  }
+
+  @Test
+  public void testConcurrencyPerLeader() throws Exception {
+    config.setScanVersionConcurrencyPerLeader(1);
+    Set<String> executed = Sets.newConcurrentHashSet();
+    CompletableFuture<Void> future =
+        scanCallable.scanVersions(
+            1, DC, interests(0, 2, 4, 1, 3), info -> executed.add(info.getDataInfoId()));
+    // one for each leader
+    Assert.assertEquals(2, callbacks.size());
+    for (int i = 0; i < 5; i++) {
+      int slotId = callbacks.keySet().iterator().next();
+      respond(slotId, 10);
+    }
+    future.get(100, TimeUnit.MILLISECONDS);
+    Assert.assertEquals(5, executed.size());
+    Assert.assertEquals(2, maxInflight.get());
+  }
+
+  @Test
+  public void testEmpty() throws Exception {
+    scanCallable.scanVersions(1, DC, Collections.emptyMap(), info -> {}).get(0, TimeUnit.SECONDS);
+  }
+}
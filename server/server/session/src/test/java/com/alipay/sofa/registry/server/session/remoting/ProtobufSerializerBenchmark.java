@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting;
+
+import com.alipay.sofa.registry.common.model.client.pb.BaseRegisterPb;
+import com.alipay.sofa.registry.common.model.client.pb.DataBoxPb;
+import com.alipay.sofa.registry.common.model.client.pb.DataBoxesPb;
+import com.alipay.sofa.registry.common.model.client.pb.PublisherRegisterPb;
+import com.alipay.sofa.registry.common.model.client.pb.ReceivedDataPb;
+import com.alipay.sofa.registry.remoting.bolt.serializer.ProtobufSerializer;
+import com.google.protobuf.MessageLite;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * the client register and push path of the session: compare the registered parsers against the
+ * reflective serializer it replaced
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+public class ProtobufSerializerBenchmark {
+  @Param({"publisherRegister", "receivedData"})
+  private String message;
+
+  private MessageLite msg;
+  private String className;
+  private byte[] bytes;
+
+  @Setup
+  public void setup() {
+    switch (message) {
+      case "publisherRegister":
+        msg = newPublisherRegister();
+        break;
+      case "receivedData":
+        msg = newReceivedData(100);
+        break;
+      default:
+        throw new IllegalArgumentException(message);
+    }
+    ProtobufSerializer.getInstance().registerMessage(PublisherRegisterPb.getDefaultInstance());
+    ProtobufSerializer.getInstance().registerMessage(ReceivedDataPb.getDefaultInstance());
+    className = msg.getClass().getName();
+    bytes = msg.toByteArray();
+    System.out.println("message=" + message + ", bytes=" + bytes.length);
+  }
+
+  private static PublisherRegisterPb newPublisherRegister() {
+    return PublisherRegisterPb.newBuilder()
+        .addDataList(DataBoxPb.newBuilder().setData("bolt://192.168.1.2:12200?v=4.0&p=1"))
+        .setBaseRegister(
+            BaseRegisterPb.newBuilder()
+                .setInstanceId("DEFAULT_INSTANCE_ID")
+                .setZone("RZ00A")
+                .setAppName("benchmark-app")
+                .setDataId("com.alipay.benchmark.service")
+                .setGroup("DEFAULT_GROUP")
+                .setProcessId("192.168.1.2-1000-1")
+                .setRegistId("c4b1b3c8-4d4b-4d52-9a8e-1a6c0ed5f9a1")
+                .setClientId("client-1")
+                .setDataInfoId("com.alipay.benchmark.service#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP")
+                .setIp("192.168.1.2")
+                .setPort(12200)
+                .setEventType("REGISTER")
+                .setVersion(1)
+                .setTimestamp(System.currentTimeMillis()))
+        .build();
+  }
+
+  private static ReceivedDataPb newReceivedData(int publishers) {
+    DataBoxesPb.Builder boxes = DataBoxesPb.newBuilder();
+    for (int i = 0; i < publishers; i++) {
+      boxes.addData(DataBoxPb.newBuilder().setData("bolt://192.168.2." + i + ":12200?v=4.0&p=1"));
+    }
+    return ReceivedDataPb.newBuilder()
+        .setDataId("com.alipay.benchmark.service")
+        .setGroup("DEFAULT_GROUP")
+        .setInstanceId("DEFAULT_INSTANCE_ID")
+        .setSegment("RZ00A")
+        .setScope("zone")
+        .addSubscriberRegistIds("c4b1b3c8-4d4b-4d52-9a8e-1a6c0ed5f9a1")
+        .putData("RZ00A", boxes.build())
+        .setVersion(System.currentTimeMillis())
+        .setLocalZone("RZ00A")
+        .build();
+  }
+
+  @Benchmark
+  @Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+  public byte[] encode() throws Exception {
+    return ProtobufSerializer.getInstance().serialize(msg);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+  public Object decode() throws Exception {
+    return ProtobufSerializer.getInstance().deserialize(bytes, className);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+  public byte[] reflectEncode() throws Exception {
+    return ReflectSerializer.serialize(msg);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+  @Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+  public Object reflectDecode() throws Exception {
+    return ReflectSerializer.deserialize(bytes, className);
+  }
+
+  /** the previous implementation: Class.forName, interface walk and reflective calls */
+  private static final class ReflectSerializer {
+    private static final ConcurrentHashMap<Class, Method> PARSE_METHODS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Class, Method> TO_BYTES_METHODS =
+        new ConcurrentHashMap<>();
+
+    static byte[] serialize(Object object) throws Exception {
+      if (!isMessageLite(object.getClass())) {
+        throw new IllegalArgumentException(object.getClass().getName());
+      }
+      Method method =
+          TO_BYTES_METHODS.computeIfAbsent(
+              object.getClass(),
+              clazz -> {
+                try {
+                  return clazz.getMethod("toByteArray");
+                } catch (NoSuchMethodException e) {
+                  throw new IllegalStateException(e);
+                }
+              });
+      return (byte[]) method.invoke(object);
+    }
+
+    static Object deserialize(byte[] bytes, String className) throws Exception {
+      Class clazz = Class.forName(className);
+      if (!isMessageLite(clazz)) {
+        throw new IllegalArgumentException(className);
+      }
+      Method method =
+          PARSE_METHODS.computeIfAbsent(
+              clazz,
+              c -> {
+                try {
+                  return ((Class<?>) c).getMethod("parseFrom", byte[].class);
+                } catch (NoSuchMethodException e) {
+                  throw new IllegalStateException(e);
+                }
+              });
+      return method.invoke(null, bytes);
+    }
+
+    private static boolean isMessageLite(Class<?> clazz) {
+      while (clazz != null && clazz != Object.class) {
+        for (Class<?> i : clazz.getInterfaces()) {
+          if (MessageLite.class.getCanonicalName().equalsIgnoreCase(i.getCanonicalName())) {
+            return true;
+          }
+        }
+        clazz = clazz.getSuperclass();
+      }
+      return false;
+    }
+  }
+}
@@ -24,6 +24,7 @@ import com.alipay.sofa.registry.common.model.client.pb.MetaHeartbeatRequest;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.server.session.TestUtils;
 import com.alipay.sofa.registry.server.session.bootstrap.ExecutorManager;
+import com.alipay.sofa.registry.server.session.limit.AccessLimitServiceImpl;
 import com.alipay.sofa.registry.server.session.strategy.AppRevisionHandlerStrategy;
 import org.junit.Assert;
 import org.junit.Test;
@@ -44,6 +45,7 @@ public class MetaRevisionHeartbeatPbHandlerTest {
     Assert.assertEquals(handler.getType(), ChannelHandler.HandlerType.PROCESSER);
     Assert.assertEquals(handler.getInvokeType(), ChannelHandler.InvokeType.SYNC);
     handler.appRevisionHandlerStrategy = mock(AppRevisionHandlerStrategy.class);
+    handler.accessLimitService = new AccessLimitServiceImpl(TestUtils.newSessionConfig("testDc"));
     return handler;
   }
 
@@ -24,6 +24,7 @@ import com.alipay.sofa.registry.core.model.SyncConfigResponse;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.server.session.TestUtils;
 import com.alipay.sofa.registry.server.session.bootstrap.ExecutorManager;
+import com.alipay.sofa.registry.server.session.limit.AccessLimitServiceImpl;
 import com.alipay.sofa.registry.server.session.strategy.impl.DefaultSyncConfigHandlerStrategy;
 import org.junit.Assert;
 import org.junit.Test;
@@ -39,6 +40,7 @@ public class SyncConfigHandlerTest {
     Assert.assertEquals(handler.getType(), ChannelHandler.HandlerType.PROCESSER);
     Assert.assertEquals(handler.getInvokeType(), ChannelHandler.InvokeType.SYNC);
     handler.syncConfigHandlerStrategy = new DefaultSyncConfigHandlerStrategy();
+    handler.accessLimitService = new AccessLimitServiceImpl(TestUtils.newSessionConfig("testDc"));
     return handler;
   }
 
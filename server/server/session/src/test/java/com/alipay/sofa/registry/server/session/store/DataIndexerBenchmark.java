@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.store;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.slot.SlotTableCacheImpl;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** query the connect index of the session store while the registrations churn */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+public class DataIndexerBenchmark {
+  private static final int CONNECT_NUM = 1024;
+
+  @Param({"10", "100"})
+  private int pubsPerConnect;
+
+  private SessionDataStore store;
+
+  private List<ConnectId> connectIds;
+
+  private List<Publisher> publishers;
+
+  private int nextConnect;
+
+  private int nextPublisher;
+
+  @Setup
+  public void setup() {
+    store = new SessionDataStore();
+    store.slotTableCache = new SlotTableCacheImpl();
+    connectIds = Lists.newArrayListWithCapacity(CONNECT_NUM);
+    publishers = Lists.newArrayListWithCapacity(CONNECT_NUM * pubsPerConnect);
+    URL targetAddress = new URL("192.168.0.2", 9600);
+    for (int i = 0; i < CONNECT_NUM; i++) {
+      URL sourceAddress = new URL("10.0." + (i >> 8) + "." + (i & 0xff), 12200);
+      for (int j = 0; j < pubsPerConnect; j++) {
+        Publisher pub = TestUtils.createTestPublisher("dataId-" + j);
+        pub.setSourceAddress(sourceAddress);
+        pub.setTargetAddress(targetAddress);
+        store.addData(pub);
+        publishers.add(pub);
+      }
+      connectIds.add(publishers.get(publishers.size() - 1).connectId());
+    }
+  }
+
+  @Benchmark
+  public Map<String, Publisher> query() {
+    return store.queryByConnectId(connectIds.get((nextConnect++) & (CONNECT_NUM - 1)));
+  }
+
+  /** unregister and register again the same publisher */
+  @Benchmark
+  public Publisher churn() {
+    Publisher pub = publishers.get(nextPublisher++ % publishers.size());
+    store.deleteById(pub.getRegisterId(), pub.getDataInfoId());
+    store.addData(pub);
+    return pub;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt =
+        new OptionsBuilder()
+            .include(DataIndexerBenchmark.class.getSimpleName())
+            .warmupIterations(2)
+            .measurementIterations(3)
+            .build();
+    new Runner(opt).run();
+  }
+}
@@ -189,7 +189,6 @@ public class SessionDataStoreTest {
             0,
             TimeUnit.SECONDS,
             new LinkedBlockingDeque<>(clientOffs.size()));
-    Timer refreshTimer = new Timer();
 
     for (Publisher pub : pubs) {
       pubExecutor.execute(
@@ -213,34 +212,61 @@ public class SessionDataStoreTest {
             latch.countDown();
           });
     }
-    refreshTimer.scheduleAtFixedRate(
-        new TimerTask() {
-          @Override
-          public void run() {
-            store.connectDataIndexer.triggerRefresh();
-          }
-        },
-        0,
-        50);
     latch.await();
-    for (Publisher publisher : store.getDataList()) {
-      Assert.assertTrue(
-          store.queryByConnectId(publisher.connectId()).containsKey(publisher.getRegisterId()));
-    }
-    Assert.assertTrue(store.getConnectIds().size() >= urls.size() - clientOffs.size());
+    assertIndexConsistent(store);
     for (ConnectId connectId : clientOffs) {
       store.deleteByConnectId(connectId);
     }
+    assertIndexConsistent(store);
+    for (ConnectId connectId : clientOffs) {
+      Assert.assertTrue(store.queryByConnectId(connectId).isEmpty());
+    }
     for (Publisher publisher : store.getDataList()) {
-      Assert.assertTrue(
-          store.queryByConnectId(publisher.connectId()).containsKey(publisher.getRegisterId()));
+      store.deleteById(publisher.getRegisterId(), publisher.getDataInfoId());
     }
-    Assert.assertTrue(store.getConnectIds().size() >= urls.size() - clientOffs.size());
+    Assert.assertTrue(store.getConnectIds().isEmpty());
 
     pubExecutor.shutdown();
     unpubExecutor.shutdown();
     clientOffExecutor.shutdown();
-    refreshTimer.cancel();
+  }
+
+  private static void assertIndexConsistent(SessionDataStore store) {
+    Set<ConnectId> connectIds = new HashSet<>();
+    int indexed = 0;
+    for (Publisher publisher : store.getDataList()) {
+      connectIds.add(publisher.connectId());
+      Assert.assertTrue(
+          store.queryByConnectId(publisher.connectId()).containsKey(publisher.getRegisterId()));
+    }
+    for (ConnectId connectId : store.getConnectIds()) {
+      indexed += store.connectDataIndexer.queryByKey(connectId).size();
+    }
+    // no stale position is left behind by unregister or replace
+    Assert.assertEquals(connectIds, store.getConnectIds());
+    Assert.assertEquals(store.getDataList().size(), indexed);
+  }
+
+  @Test
+  public void testIndexReplaceAcrossConnect() {
+    SessionDataStore store = new SessionDataStore();
+    store.slotTableCache = Mockito.mock(SlotTableCache.class);
+    Publisher pub = TestUtils.createTestPublisher("dataId");
+    store.addData(pub);
+    Publisher newPub = PublisherUtils.clonePublisher(pub);
+    newPub.setVersion(pub.getVersion() + 1);
+    newPub.setSourceAddress(new URL("192.168.1.2", 9600));
+    Assert.assertTrue(store.addData(newPub).getSecond());
+
+    Assert.assertEquals(Collections.singleton(newPub.connectId()), store.getConnectIds());
+    Assert.assertTrue(store.queryByConnectId(pub.connectId()).isEmpty());
+    Assert.assertEquals(1, store.queryByConnectId(newPub.connectId()).size());
+    // the older version is rejected and must not be indexed
+    Assert.assertFalse(store.addData(pub).getSecond());
+    Assert.assertEquals(Collections.singleton(newPub.connectId()), store.getConnectIds());
+
+    store.deleteById(newPub.getRegisterId(), newPub.getDataInfoId());
+    Assert.assertTrue(store.getConnectIds().isEmpty());
   }
 
   public static <T> List<T> pickSample(List<T> population, int nSamplesNeeded, Random r) {
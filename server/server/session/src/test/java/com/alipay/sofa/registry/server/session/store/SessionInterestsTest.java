@@ -196,6 +196,37 @@ public class SessionInterestsTest extends AbstractSessionServerTestBase {
     Assert.assertEquals(versionMap.get(subscriber.getDataInfoId()).getValue(), 0);
   }
 
+  @Test
+  public void testSelectIncrementally() {
+    Subscriber subscriber = randomSubscriber();
+    interests.add(subscriber);
+    SelectSubscriber selectSubscriber = interests.selectSubscribers(Collections.singleton(getDc()));
+    Assert.assertEquals(1, selectSubscriber.getToRegisterMulti().size());
+    Assert.assertEquals(0, selectSubscriber.getVersions().get(getDc()).size());
+
+    // the push updates the version without touching the store
+    subscriber.checkAndUpdateCtx(
+        Collections.singletonMap(getDc(), 10L), Collections.singletonMap(getDc(), 1));
+    selectSubscriber = interests.selectSubscribers(Collections.singleton(getDc()));
+    Assert.assertEquals(0, selectSubscriber.getToRegisterMulti().size());
+    Map<Integer, Map<String, DatumVersion>> slotVersions =
+        selectSubscriber.getSlotVersions().get(getDc());
+    Assert.assertEquals(1, slotVersions.size());
+    Assert.assertEquals(
+        10, slotVersions.values().iterator().next().get(subscriber.getDataInfoId()).getValue());
+
+    subscriber.markPushEmpty(getDc(), 20);
+    selectSubscriber = interests.selectSubscribers(Collections.singleton(getDc()));
+    Assert.assertEquals(0, selectSubscriber.getVersions().get(getDc()).size());
+    Assert.assertEquals(
+        Collections.singletonList(subscriber), selectSubscriber.getToPushEmpty().get(getDc()));
+
+    interests.deleteById(subscriber.getRegisterId(), subscriber.getDataInfoId());
+    selectSubscriber = interests.selectSubscribers(Collections.singleton(getDc()));
+    Assert.assertEquals(0, selectSubscriber.getToPushEmpty().get(getDc()).size());
+    Assert.assertEquals(0, selectSubscriber.getSlotVersions().get(getDc()).size());
+  }
+
   @Test
   public void testFilterIPs() {
     Assert.assertEquals(0, interests.filterIPs("", 0).size());
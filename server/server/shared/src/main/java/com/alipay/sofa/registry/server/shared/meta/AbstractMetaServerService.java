@@ -27,10 +27,13 @@ import com.alipay.sofa.registry.common.model.metaserver.FetchSystemPropertyResul
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
 import com.alipay.sofa.registry.common.model.metaserver.SlotTableChangeEvent;
 import com.alipay.sofa.registry.common.model.metaserver.blacklist.RegistryForbiddenServerRequest;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHeartBeatResponse;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.GetSlotTableStatusRequest;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
 import com.alipay.sofa.registry.common.model.slot.SlotTableStatusResponse;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.log.Logger;
@@ -63,6 +66,9 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
 
   protected volatile State state = State.NULL;
 
+  // the resolved slot table and members of last heartbeat response, the base of the deltas
+  private volatile DeltaBase deltaBase = DeltaBase.NULL;
+
   final Renewer renewer = new Renewer();
   private Thread renewerThread;
   final AtomicInteger renewFailCounter = new AtomicInteger(0);
@@ -145,7 +151,7 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
     final long startTimestamp = System.currentTimeMillis();
     boolean success = true;
     try {
-      HeartbeatRequest heartbeatRequest = createRequest();
+      HeartbeatRequest heartbeatRequest = fillKnownVersions(createRequest());
       GenericResponse<T> resp =
           (GenericResponse<T>)
               metaLeaderExchanger
@@ -185,6 +191,7 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
     }
     String localDataCenter = commonConfig.getLocalDataCenter();
     if (resp.isSuccess()) {
+      resolveDeltas(resp.getData());
       updateState(resp.getData());
       BaseHeartBeatResponse data = resp.getData();
       metaLeaderExchanger.learn(
@@ -217,6 +224,37 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
     }
   }
 
+  HeartbeatRequest fillKnownVersions(HeartbeatRequest request) {
+    final DeltaBase base = this.deltaBase;
+    return request.setKnownVersions(
+        base.slotTable == null ? 0 : base.slotTable.getEpoch(),
+        base.metaNodesRevision,
+        base.sessionNodesRevision);
+  }
+
+  void resolveDeltas(T response) {
+    final DeltaBase base = this.deltaBase;
+    try {
+      response.resolveDeltas(
+          base.slotTable,
+          base.metaNodes,
+          base.metaNodesRevision,
+          base.sessionNodes,
+          base.sessionNodesRevision);
+    } catch (RuntimeException e) {
+      // the base not matched the deltas, request the full ones in next heartbeat
+      this.deltaBase = DeltaBase.NULL;
+      throw e;
+    }
+    this.deltaBase =
+        new DeltaBase(
+            response.getSlotTable(),
+            response.getVersionedMetaNodes(),
+            response.getMetaNodesRevision(),
+            response.getVersionedSessionNodes(),
+            response.getSessionNodesRevision());
+  }
+
   void handleHeartbeatFailed(String leaderIp, Throwable e) {
     renewFailCounter.incrementAndGet();
     RENEWER_LOGGER.error(
@@ -435,6 +473,28 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
     }
   }
 
+  private static final class DeltaBase {
+    static final DeltaBase NULL = new DeltaBase(null, null, 0, null, 0);
+    final SlotTable slotTable;
+    final VersionedList<MetaNode> metaNodes;
+    final long metaNodesRevision;
+    final VersionedList<SessionNode> sessionNodes;
+    final long sessionNodesRevision;
+
+    DeltaBase(
+        SlotTable slotTable,
+        VersionedList<MetaNode> metaNodes,
+        long metaNodesRevision,
+        VersionedList<SessionNode> sessionNodes,
+        long sessionNodesRevision) {
+      this.slotTable = slotTable;
+      this.metaNodes = metaNodes;
+      this.metaNodesRevision = metaNodesRevision;
+      this.sessionNodes = sessionNodes;
+      this.sessionNodesRevision = sessionNodesRevision;
+    }
+  }
+
   /**
    * Setter method for property <tt>metaLeaderExchanger</tt>.
    *
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.shared.providedata;
+
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDict;
+import com.alipay.sofa.registry.common.model.metaserver.CompressDicts;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.util.JsonUtils;
+import org.apache.commons.lang.StringUtils;
+
+public abstract class BaseCompressDictService
+    extends AbstractFetchSystemPropertyService<BaseCompressDictService.CompressDictStorage> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BaseCompressDictService.class);
+
+  public BaseCompressDictService() {
+    super(
+        ValueConstants.COMPRESS_DICT_DATA_ID,
+        new CompressDictStorage(INIT_VERSION, CompressDicts.empty()));
+  }
+
+  @Override
+  protected boolean doProcess(CompressDictStorage expect, ProvideData data) {
+    final String dictsString = ProvideData.toString(data);
+    if (StringUtils.isBlank(dictsString)) {
+      LOGGER.info("Fetch compress dict content empty");
+      return true;
+    }
+    try {
+      CompressDicts compressDicts = JsonUtils.read(dictsString, CompressDicts.class);
+      // register before publishing the storage, the dicts are advertised by
+      // CompressUtils.acceptEncodes only after they could be decompressed
+      for (CompressDict dict : compressDicts.getDicts()) {
+        CompressUtils.registerZstdDict(dict.getDictId(), dict.dictBytes());
+      }
+      CompressDictStorage update = new CompressDictStorage(data.getVersion(), compressDicts);
+      if (!compareAndSet(expect, update)) {
+        return false;
+      }
+      LOGGER.info("Fetch compress dict, prev={}, current={}", expect.compressDicts, compressDicts);
+      return true;
+    } catch (Throwable e) {
+      LOGGER.error("Fetch compress dict error", e);
+    }
+    return false;
+  }
+
+  public CompressDicts getCompressDicts() {
+    return storage.get().compressDicts;
+  }
+
+  protected static class CompressDictStorage extends SystemDataStorage {
+    protected final CompressDicts compressDicts;
+
+    public CompressDictStorage(long version, CompressDicts compressDicts) {
+      super(version);
+      this.compressDicts = compressDicts;
+    }
+  }
+}
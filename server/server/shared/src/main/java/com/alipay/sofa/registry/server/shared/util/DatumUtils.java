@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.shared.util;
 
 import com.alipay.remoting.serialization.HessianSerializer;
 import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.codec.MessageCodecs;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.*;
@@ -98,19 +99,7 @@ public final class DatumUtils {
   public static SubDatum of(Datum datum) {
     List<SubPublisher> publishers = Lists.newArrayListWithCapacity(datum.publisherSize());
     for (Publisher publisher : datum.getPubMap().values()) {
-      final URL srcAddress = publisher.getSourceAddress();
-      // temp publisher the srcAddress maybe null
-      final String srcAddressString = srcAddress == null ? null : srcAddress.buildAddressString();
-      publishers.add(
-          new SubPublisher(
-              publisher.getRegisterId(),
-              publisher.getCell(),
-              publisher.getDataList(),
-              publisher.getClientId(),
-              publisher.getVersion(),
-              srcAddressString,
-              publisher.getRegisterTimestamp(),
-              publisher.getPublishSource()));
+      publishers.add(of(publisher));
     }
     return SubDatum.normalOf(
         datum.getDataInfoId(),
@@ -123,6 +112,21 @@ public final class DatumUtils {
         datum.getRecentVersions());
   }
 
+  public static SubPublisher of(Publisher publisher) {
+    final URL srcAddress = publisher.getSourceAddress();
+    // temp publisher the srcAddress maybe null
+    final String srcAddressString = srcAddress == null ? null : srcAddress.buildAddressString();
+    return new SubPublisher(
+        publisher.getRegisterId(),
+        publisher.getCell(),
+        publisher.getDataList(),
+        publisher.getClientId(),
+        publisher.getVersion(),
+        srcAddressString,
+        publisher.getRegisterTimestamp(),
+        publisher.getPublishSource());
+  }
+
   public static long DataBoxListSize(List<DataBox> boxes) {
     if (CollectionUtils.isEmpty(boxes)) {
       return 0;
@@ -152,6 +156,40 @@ public final class DatumUtils {
     return sum;
   }
 
+  /**
+   * serialize the publishers of an unzipped datum, the output is the input of the compressor and is
+   * also used as the sample of training compress dict
+   *
+   * @param datum datum
+   * @return byte[]
+   * @throws Exception serialize failed
+   */
+  public static byte[] serializePublishers(SubDatum datum) throws Exception {
+    List<SubPublisher> pubs = datum.mustGetPublishers();
+    SubPublisherList list = new SubPublisherList(pubs);
+    if (MessageCodecs.isEncodeEnabled()) {
+      byte[] bytes = MessageCodecs.encode(list);
+      if (bytes != null) {
+        return bytes;
+      }
+    }
+    return serializer.serialize(list);
+  }
+
+  /**
+   * the decompressed bytes maybe from an old server which is still using hessian
+   *
+   * @param data data
+   * @return SubPublisherList
+   * @throws Exception deserialize failed
+   */
+  public static SubPublisherList deserializePublishers(byte[] data) throws Exception {
+    if (MessageCodecs.isEncoded(data)) {
+      return (SubPublisherList) MessageCodecs.decode(data);
+    }
+    return serializer.deserialize(data, SubPublisherList.className);
+  }
+
   public static SubDatum compressSubDatum(SubDatum datum, Compressor compressor) {
     if (compressor == null || datum == null) {
       return datum;
@@ -162,8 +200,7 @@ public final class DatumUtils {
           compressCachedExecutor.execute(
               datum.compressKey(compressor.getEncoding()),
               () -> {
-                List<SubPublisher> pubs = datum.mustGetPublishers();
-                byte[] data = serializer.serialize(new SubPublisherList(pubs));
+                byte[] data = serializePublishers(datum);
                 byte[] compressed = compressor.compress(data);
                 return new CompressedItem(compressed, data.length, compressor.getEncoding());
               });
@@ -208,7 +245,7 @@ public final class DatumUtils {
               datum.compressKey(compressor.getEncoding()),
               () -> {
                 byte[] data = compressor.decompress(zip.getCompressedData(), zip.getOriginSize());
-                return serializer.deserialize(data, SubPublisherList.className);
+                return deserializePublishers(data);
               });
     } catch (Throwable e) {
       throw new RuntimeException("decompress publishers failed", e);
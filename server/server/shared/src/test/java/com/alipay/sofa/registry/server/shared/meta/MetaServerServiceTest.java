@@ -29,11 +29,13 @@ import com.alipay.sofa.registry.common.model.elector.LeaderInfo;
 import com.alipay.sofa.registry.common.model.metaserver.FetchSystemPropertyResult;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
 import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedListDelta;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHeartBeatResponse;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.remoting.exchange.message.Response;
 import com.alipay.sofa.registry.server.shared.TestUtils;
@@ -283,6 +285,79 @@ public class MetaServerServiceTest {
     Assert.assertTrue(zones.contains("192.168.1.2"));
   }
 
+  @Test
+  public void testResolveDeltas() {
+    MockServerService mockServerService = new MockServerService();
+    mockServerService
+        .setMetaLeaderExchanger(mock(MetaLeaderExchanger.class))
+        .setCommonConfig(commonConfig);
+    HeartbeatRequest request =
+        mockServerService.fillKnownVersions(mockServerService.createRequest());
+    Assert.assertEquals(0, request.getKnownSlotTableEpoch());
+    Assert.assertEquals(0, request.getKnownMetaNodesRevision());
+    Assert.assertEquals(0, request.getKnownSessionNodesRevision());
+
+    SessionNode session1 =
+        new SessionNode(new URL("192.168.1.2"), "zoneA", ServerEnv.PROCESS_ID, 0);
+    SessionNode session2 =
+        new SessionNode(new URL("192.168.1.3"), "zoneB", new ProcessId("test", 1, 1, 1), 0);
+    SlotTable slotTable = new SlotTable(10, Collections.emptyList());
+    VersionedList<MetaNode> metaNodes =
+        new VersionedList<>(2, Lists.newArrayList(new MetaNode(new URL("192.168.1.1"), "dc1")));
+    BaseHeartBeatResponse full =
+        new BaseHeartBeatResponse(
+                true,
+                metaNodes,
+                slotTable,
+                new VersionedList<>(1, Lists.newArrayList(session1)),
+                "test",
+                100,
+                Collections.emptyMap())
+            .setMembersRevision(20, 30);
+    mockServerService.handleHeartbeatResponse(
+        new GenericResponse<BaseHeartBeatResponse>().fillSucceed(full));
+    request = mockServerService.fillKnownVersions(mockServerService.createRequest());
+    Assert.assertEquals(10, request.getKnownSlotTableEpoch());
+    Assert.assertEquals(20, request.getKnownMetaNodesRevision());
+    Assert.assertEquals(30, request.getKnownSessionNodesRevision());
+
+    // session2 added
+    BaseHeartBeatResponse delta =
+        new BaseHeartBeatResponse(true, null, null, null, "test", 100, Collections.emptyMap())
+            .setSlotTableDelta(SlotTableDelta.diff(slotTable, slotTable))
+            .setMetaNodesDelta(VersionedListDelta.diff(20, metaNodes, 20, metaNodes))
+            .setSessionNodesDelta(
+                new VersionedListDelta<>(
+                    30, 31, 2, Lists.newArrayList(session2), Collections.emptyList()))
+            .setMembersRevision(20, 31);
+    mockServerService.handleHeartbeatResponse(
+        new GenericResponse<BaseHeartBeatResponse>().fillSucceed(delta));
+    Assert.assertSame(slotTable, delta.getSlotTable());
+    Assert.assertEquals(2, mockServerService.getSessionServerEpoch());
+    Assert.assertEquals(
+        Sets.newHashSet("192.168.1.2", "192.168.1.3"), mockServerService.getSessionServerList());
+    Assert.assertEquals(Sets.newHashSet("dc1"), mockServerService.getDataCenters());
+    request = mockServerService.fillKnownVersions(mockServerService.createRequest());
+    Assert.assertEquals(31, request.getKnownSessionNodesRevision());
+
+    // the delta not matched, request full next time
+    BaseHeartBeatResponse mismatch =
+        new BaseHeartBeatResponse(true, metaNodes, slotTable, null, "test", 100, null)
+            .setSessionNodesDelta(
+                new VersionedListDelta<>(
+                    30, 32, 3, Collections.emptyList(), Lists.newArrayList("192.168.1.2")))
+            .setMembersRevision(20, 32);
+    TestUtils.assertRunException(
+        IllegalArgumentException.class,
+        () ->
+            mockServerService.handleHeartbeatResponse(
+                new GenericResponse<BaseHeartBeatResponse>().fillSucceed(mismatch)));
+    request = mockServerService.fillKnownVersions(mockServerService.createRequest());
+    Assert.assertEquals(0, request.getKnownSlotTableEpoch());
+    Assert.assertEquals(0, request.getKnownSessionNodesRevision());
+    Assert.assertEquals(2, mockServerService.getSessionServerEpoch());
+  }
+
   @Test
   public void testFetchSystemProperty() {
     MockServerService mockServerService = new MockServerService();
@@ -315,7 +390,8 @@ public class MetaServerServiceTest {
 
     @Override
     protected HeartbeatRequest createRequest() {
-      return null;
+      return new HeartbeatRequest(
+          null, 0, TEST_DATA_CENTER, System.currentTimeMillis(), null, Collections.emptyMap());
     }
 
     @Override
@@ -18,11 +18,13 @@ package com.alipay.sofa.registry.server.shared.util;
 
 import com.alipay.sofa.registry.common.model.PublishSource;
 import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.codec.MessageCodecs;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubPublisherList;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.compress.CompressUtils;
 import com.alipay.sofa.registry.core.model.DataBox;
@@ -137,4 +139,36 @@ public class DatumUtilsTest {
     Assert.assertEquals(1, unzip.getPubNum());
     Assert.assertEquals("testRegisterId", unzip.mustGetPublishers().get(0).getRegisterId());
   }
+
+  @Test
+  public void testSerializePublishers() throws Exception {
+    Datum datum = new Datum();
+    Publisher publisher = new Publisher();
+    publisher.setRegisterId("testRegisterId");
+    publisher.setCell("testCell");
+    publisher.setDataList(Lists.newArrayList(new ServerDataBox(new byte[] {1})));
+    publisher.setVersion(100);
+    publisher.setRegisterTimestamp(System.currentTimeMillis());
+    datum.addPublisher(publisher);
+    datum.setDataCenter("testDc");
+    datum.setDataInfoId("testDataInfoId");
+    SubDatum subDatum = DatumUtils.of(datum);
+
+    byte[] hessian = DatumUtils.serializePublishers(subDatum);
+    Assert.assertFalse(MessageCodecs.isEncoded(hessian));
+    MessageCodecs.setEncodeEnabled(true);
+    try {
+      byte[] codec = DatumUtils.serializePublishers(subDatum);
+      Assert.assertTrue(MessageCodecs.isEncoded(codec));
+      Assert.assertTrue(codec.length < hessian.length);
+      for (byte[] bytes : new byte[][] {hessian, codec}) {
+        SubPublisherList list = DatumUtils.deserializePublishers(bytes);
+        Assert.assertEquals(1, list.getPubs().size());
+        Assert.assertEquals("testRegisterId", list.getPubs().get(0).getRegisterId());
+        Assert.assertEquals(publisher.getDataList(), list.getPubs().get(0).getDataList());
+      }
+    } finally {
+      MessageCodecs.setEncodeEnabled(false);
+    }
+  }
 }
@@ -32,4 +32,8 @@ public interface MetadataConfig {
   int getClientManagerExecutorPoolSize();
 
   int getClientManagerExecutorQueueSize();
+
+  int getRevisionWriteWindowMillis();
+
+  int getRevisionWriteBatchSize();
 }
@@ -37,6 +37,9 @@ public class MetadataConfigBean implements MetadataConfig {
   private int clientManagerExecutorPoolSize = OsUtils.getCpuCount() * 6;
   private int clientManagerExecutorQueueSize = 3000;
 
+  private int revisionWriteWindowMillis = 100;
+  private int revisionWriteBatchSize = 500;
+
   public int getRevisionRenewIntervalMinutes() {
     return revisionRenewIntervalMinutes;
   }
@@ -113,4 +116,32 @@ public class MetadataConfigBean implements MetadataConfig {
   public void setClientManagerExecutorPoolSize(int clientManagerExecutorPoolSize) {
     this.clientManagerExecutorPoolSize = clientManagerExecutorPoolSize;
   }
+
+  @Override
+  public int getRevisionWriteWindowMillis() {
+    return revisionWriteWindowMillis;
+  }
+
+  /**
+   * Setter method for property <tt>revisionWriteWindowMillis</tt>.
+   *
+   * @param revisionWriteWindowMillis value to be assigned to property revisionWriteWindowMillis
+   */
+  public void setRevisionWriteWindowMillis(int revisionWriteWindowMillis) {
+    this.revisionWriteWindowMillis = revisionWriteWindowMillis;
+  }
+
+  @Override
+  public int getRevisionWriteBatchSize() {
+    return revisionWriteBatchSize;
+  }
+
+  /**
+   * Setter method for property <tt>revisionWriteBatchSize</tt>.
+   *
+   * @param revisionWriteBatchSize value to be assigned to property revisionWriteBatchSize
+   */
+  public void setRevisionWriteBatchSize(int revisionWriteBatchSize) {
+    this.revisionWriteBatchSize = revisionWriteBatchSize;
+  }
 }
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.domain;
+
+import java.util.Objects;
+
+/** checksum of the alive rows not larger than a id, used to verify the informer container */
+public class ChecksumDomain {
+
+  /** count of the alive rows */
+  private long entryCount;
+
+  /** sum of the id of alive rows */
+  private long idSum;
+
+  public ChecksumDomain() {}
+
+  public ChecksumDomain(long entryCount, long idSum) {
+    this.entryCount = entryCount;
+    this.idSum = idSum;
+  }
+
+  /**
+   * Getter method for property <tt>entryCount</tt>.
+   *
+   * @return property value of entryCount
+   */
+  public long getEntryCount() {
+    return entryCount;
+  }
+
+  /**
+   * Setter method for property <tt>entryCount</tt>.
+   *
+   * @param entryCount value to be assigned to property entryCount
+   */
+  public void setEntryCount(long entryCount) {
+    this.entryCount = entryCount;
+  }
+
+  /**
+   * Getter method for property <tt>idSum</tt>.
+   *
+   * @return property value of idSum
+   */
+  public long getIdSum() {
+    return idSum;
+  }
+
+  /**
+   * Setter method for property <tt>idSum</tt>.
+   *
+   * @param idSum value to be assigned to property idSum
+   */
+  public void setIdSum(long idSum) {
+    this.idSum = idSum;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ChecksumDomain)) {
+      return false;
+    }
+    ChecksumDomain that = (ChecksumDomain) o;
+    return entryCount == that.entryCount && idSum == that.idSum;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(entryCount, idSum);
+  }
+
+  @Override
+  public String toString() {
+    return "ChecksumDomain{" + "entryCount=" + entryCount + ", idSum=" + idSum + '}';
+  }
+}
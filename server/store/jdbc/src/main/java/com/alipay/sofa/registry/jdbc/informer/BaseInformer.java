@@ -16,25 +16,47 @@
  */
 package com.alipay.sofa.registry.jdbc.informer;
 
+import com.alipay.sofa.registry.jdbc.domain.ChecksumDomain;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.store.api.meta.DbEntry;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import org.apache.commons.collections.CollectionUtils;
 
+/**
+ * informer of the rows of a table, keep a container of the rows in memory:
+ *
+ * <p>1. the watch loop applies the rows after the last stable id at once, the stable id only
+ * advances on the rows older than DB_INSERT_DELAY_MS, so the rows committed out of order are
+ * re-scanned in the next watch
+ *
+ * <p>2. the list loop verifies the checksum of the alive rows against the storage, and only lists
+ * the whole table when they are different, or at the first time
+ */
 public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer<T>> {
 
   private volatile long lastLoadId;
 
   protected volatile C container = containerFactory();
 
+  /** map: <row key, id> of the alive rows in container */
+  private Map<String, Long> aliveEntries = Maps.newHashMap();
+
+  /** ids of the rows which is applied but larger than lastLoadId */
+  private final Set<Long> unstableApplied = Sets.newHashSet();
+
   private final Lock listLock = new ReentrantLock();
 
   protected final WatchLoop watchLoop = new WatchLoop();
@@ -42,14 +64,16 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
   private volatile boolean enabled;
   private volatile boolean listLoopGotLock;
   private boolean started;
+  private volatile boolean listed;
   private volatile long syncStartVersion;
   private volatile long syncEndVersion;
 
-  protected int watchLoopIntervalMs = 1000;
-  protected int listLoopIntervalMs = 1000 * 60 * 30;
+  protected int watchLoopIntervalMs = 500;
+  protected int listLoopIntervalMs = 1000 * 60 * 5;
   private final String name;
   private final Logger logger;
   private static final int DB_INSERT_DELAY_MS = 1000;
+  private static final int WATCH_PAGE_SIZE = 100;
   private volatile boolean allSynced = false;
 
   public BaseInformer(String name, Logger logger) {
@@ -79,21 +103,43 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
   private void watch() {
     syncStart();
     try {
-      long start = lastLoadId;
-      if (listStableEntries(start, 1).size() == 0) {
-        return;
+      final long start = lastLoadId;
+      final long now = getNow().getTime();
+      long stableId = start;
+      boolean stable = true;
+      long curStart = start;
+      Set<Long> scanned = Sets.newHashSet();
+      while (true) {
+        List<T> entries = listFromStorage(curStart, WATCH_PAGE_SIZE);
+        for (T entry : entries) {
+          scanned.add(entry.getId());
+          if (unstableApplied.add(entry.getId())) {
+            applyEntry(container, aliveEntries, entry);
+            logger.info("watch received entry: {}", entry);
+          }
+          // rows with small id may be committed later, stop at the first unstable row
+          stable = stable && entry.getGmtCreate().getTime() < now - DB_INSERT_DELAY_MS;
+          if (stable) {
+            stableId = entry.getId();
+          }
+          curStart = Math.max(curStart, entry.getId());
+        }
+        if (entries.size() < WATCH_PAGE_SIZE) {
+          break;
+        }
+      }
+      allSynced = true;
+      if (stableId != start) {
+        final long id = stableId;
+        unstableApplied.removeIf(applied -> applied <= id);
+        lastLoadId = stableId;
+        logger.info("watch from {} to {}, unstable={}", start, stableId, unstableApplied.size());
+      }
+      if (!scanned.containsAll(unstableApplied)) {
+        // the applied row is deleted before stable, it could only be dropped by list
+        logger.warn("{}-unstable rows disappeared, start list", name);
+        listWakeup();
       }
-      logger.info("start watch from {}", start);
-      long maxId =
-          listToTail(
-              (T entry) -> {
-                container.onEntry(entry);
-                logger.info("watch received entry: {}", entry);
-              },
-              start,
-              100);
-      logger.info("end watch to {}", maxId);
-      lastLoadId = maxId;
     } finally {
       syncEnd();
     }
@@ -103,16 +149,72 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
     syncStart();
     try {
       C newContainer = containerFactory();
-      long maxId = listToTail(newContainer::onEntry, 0, 1000);
+      Map<String, Long> newAliveEntries = Maps.newHashMap();
+      long maxId = listToTail(entry -> applyEntry(newContainer, newAliveEntries, entry), 0, 1000);
       logger.info("end list to {}", maxId);
       preList(newContainer);
       this.container = newContainer;
+      this.aliveEntries = newAliveEntries;
+      unstableApplied.clear();
       lastLoadId = maxId;
+      listed = true;
     } finally {
       syncEnd();
     }
   }
 
+  /**
+   * compare the checksum of the stable rows, list the whole table when not match
+   *
+   * @return true if the checksum matched
+   */
+  @VisibleForTesting
+  public boolean verify() {
+    listLock.lock();
+    try {
+      // catch up with the storage before checksum
+      watch();
+      final long maxId = lastLoadId;
+      ChecksumDomain expect = checksumFromStorage(maxId);
+      ChecksumDomain actual = localChecksum(maxId);
+      if (expect.equals(actual)) {
+        logger.info("{}-checksum verified at {}, {}", name, maxId, actual);
+        return true;
+      }
+      logger.warn(
+          "{}-checksum mismatch at {}, storage={}, local={}, start list",
+          name,
+          maxId,
+          expect,
+          actual);
+      list();
+      return false;
+    } finally {
+      listLock.unlock();
+    }
+  }
+
+  private ChecksumDomain localChecksum(long maxId) {
+    long count = 0;
+    long sum = 0;
+    for (long id : aliveEntries.values()) {
+      if (id <= maxId) {
+        count++;
+        sum += id;
+      }
+    }
+    return new ChecksumDomain(count, sum);
+  }
+
+  private void applyEntry(C target, Map<String, Long> alives, T entry) {
+    target.onEntry(entry);
+    if (isTombstone(entry)) {
+      alives.remove(entryKey(entry));
+    } else {
+      alives.put(entryKey(entry), entry.getId());
+    }
+  }
+
   private long listToTail(EntryCallable<T> callable, final long start, final int page) {
     long curStart = start;
     while (true) {
@@ -158,7 +260,9 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
     }
   }
 
+  /** list the whole table in the next loop */
   public void listWakeup() {
+    listed = false;
     listLoop.wakeup();
   }
 
@@ -188,12 +292,47 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
 
   protected abstract Date getNow();
 
+  /**
+   * the unique key of the row in table
+   *
+   * @param entry entry
+   * @return String
+   */
+  protected abstract String entryKey(T entry);
+
+  /**
+   * the row marks the key removed, excluded from the checksum
+   *
+   * @param entry entry
+   * @return boolean
+   */
+  protected abstract boolean isTombstone(T entry);
+
+  /**
+   * checksum of the alive rows which id not larger than maxId
+   *
+   * @param maxId maxId
+   * @return ChecksumDomain
+   */
+  protected abstract ChecksumDomain checksumFromStorage(long maxId);
+
   protected void preList(C newContainer) {}
 
   public void watchWakeup() {
     watchLoop.wakeup();
   }
 
+  /**
+   * the storage has been changed to the version, wake up the watch if the informer is behind
+   *
+   * @param version the max id of the changed rows
+   */
+  public void notifyVersion(long version) {
+    if (version > lastLoadId) {
+      watchLoop.wakeup();
+    }
+  }
+
   private final class WatchLoop extends WakeUpLoopRunnable {
 
     @Override
@@ -234,7 +373,11 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
       listLock.lock();
       listLoopGotLock = true;
       try {
-        list();
+        if (listed) {
+          verify();
+        } else {
+          list();
+        }
       } finally {
         listLock.unlock();
       }
@@ -17,6 +17,8 @@
 package com.alipay.sofa.registry.jdbc.mapper;
 
 import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
+import com.alipay.sofa.registry.jdbc.domain.ChecksumDomain;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -45,8 +47,37 @@ public interface AppRevisionMapper {
 
   int heartbeat(@Param("dataCenter") String dataCenter, @Param("revision") String revision);
 
+  /**
+   * heartbeat multi revisions in one statement
+   *
+   * @param dataCenter dataCenter
+   * @param revisions revisions
+   * @return effect rows
+   */
+  int batchHeartbeat(
+      @Param("dataCenter") String dataCenter, @Param("revisions") Collection<String> revisions);
+
+  /**
+   * query the revisions which exist and not deleted
+   *
+   * @param dataCenter dataCenter
+   * @param revisions revisions
+   * @return List
+   */
+  List<String> queryAliveRevisions(
+      @Param("dataCenter") String dataCenter, @Param("revisions") Collection<String> revisions);
+
   void replace(AppRevisionDomain domain);
 
+  /**
+   * checksum of the not deleted revisions which id not larger than maxId
+   *
+   * @param dataCenter dataCenter
+   * @param maxId maxId
+   * @return ChecksumDomain
+   */
+  ChecksumDomain checksum(@Param("dataCenter") String dataCenter, @Param("maxId") long maxId);
+
   List<AppRevisionDomain> getExpired(
       @Param("dataCenter") String dataCenter,
       @Param("beforeTime") Date beforeTime,
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.jdbc.mapper;
 
+import com.alipay.sofa.registry.jdbc.domain.ChecksumDomain;
 import com.alipay.sofa.registry.jdbc.domain.ClientManagerAddressDomain;
 import java.util.Date;
 import java.util.List;
@@ -40,6 +41,15 @@ public interface ClientManagerAddressMapper {
       @Param("maxId") long maxId,
       @Param("limit") long limit);
 
+  /**
+   * checksum of the clientOff and reduce rows which id not larger than maxId
+   *
+   * @param dataCenter dataCenter
+   * @param maxId maxId
+   * @return ChecksumDomain
+   */
+  ChecksumDomain checksum(@Param("dataCenter") String dataCenter, @Param("maxId") long maxId);
+
   /**
    * @param clientManagerAddress clientManagerAddress
    * @return effect rows
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.jdbc.mapper;
 
+import com.alipay.sofa.registry.jdbc.domain.ChecksumDomain;
 import com.alipay.sofa.registry.jdbc.domain.InterfaceAppsIndexDomain;
 import java.util.Date;
 import java.util.List;
@@ -57,6 +58,16 @@ public interface InterfaceAppsIndexMapper {
       @Param("maxId") long maxId,
       @Param("limitCount") int limitCount);
 
+  /**
+   * checksum of the referenced rows which id not larger than maxId
+   *
+   * @param dataCenters dataCenters
+   * @param maxId maxId
+   * @return ChecksumDomain
+   */
+  ChecksumDomain checksum(
+      @Param("dataCenters") Set<String> dataCenters, @Param("maxId") long maxId);
+
   int cleanDeleted(
       @Param("dataCenter") String dataCenter,
       @Param("beforeTime") Date beforeTime,
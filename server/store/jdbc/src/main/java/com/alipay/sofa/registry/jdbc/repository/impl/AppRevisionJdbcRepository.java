@@ -23,9 +23,11 @@ import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.Regi
 import com.alipay.sofa.registry.cache.CacheCleaner;
 import com.alipay.sofa.registry.common.model.store.AppRevision;
 import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.jdbc.config.MetadataConfig;
 import com.alipay.sofa.registry.jdbc.constant.TableEnum;
 import com.alipay.sofa.registry.jdbc.convertor.AppRevisionDomainConvertor;
 import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
+import com.alipay.sofa.registry.jdbc.domain.ChecksumDomain;
 import com.alipay.sofa.registry.jdbc.exception.RevisionNotExistException;
 import com.alipay.sofa.registry.jdbc.informer.BaseInformer;
 import com.alipay.sofa.registry.jdbc.mapper.AppRevisionMapper;
@@ -52,6 +54,7 @@ import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
 
@@ -63,6 +66,8 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
 
   private static final Logger LOG = LoggerFactory.getLogger("METADATA-EXCHANGE", "[AppRevision]");
 
+  private static final int REFRESH_TIMEOUT_SECS = 10;
+
   /** map: <revision, AppRevision> */
   private final LoadingCache<String, AppRevision> registry;
 
@@ -82,6 +87,12 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
 
   @Autowired private DefaultCommonConfig defaultCommonConfig;
 
+  @Autowired private MetadataConfig metadataConfig;
+
+  @Autowired private SqlSessionFactory sqlSessionFactory;
+
+  private volatile AppRevisionWriteBuffer writeBuffer;
+
   private final Informer informer = new Informer();
 
   private Set<String> dataCenters = Sets.newConcurrentHashSet();
@@ -116,6 +127,13 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
 
   @PostConstruct
   public void init() {
+    synchronized (this) {
+      if (writeBuffer == null) {
+        writeBuffer =
+            new AppRevisionWriteBuffer(appRevisionMapper, sqlSessionFactory, metadataConfig);
+        writeBuffer.start();
+      }
+    }
 
     revisionDigestService.scheduleAtFixedRate(
         () -> {
@@ -188,14 +206,16 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
     return informer.getContainer().containsRevisionId(revision);
   }
 
+  /**
+   * write behind, the heartbeats are merged into multi rows update in the next flush window
+   *
+   * @param revision revision
+   * @return boolean
+   */
   @Override
   public boolean heartbeatDB(String revision) {
-    int effect =
-        appRevisionMapper.heartbeat(defaultCommonConfig.getClusterId(tableName()), revision);
-    if (effect == 0) {
-      LOG.error("revision: {} heartbeat fail.", revision);
-    }
-    return effect > 0;
+    writeBuffer.heartbeat(defaultCommonConfig.getClusterId(tableName()), revision);
+    return true;
   }
 
   @VisibleForTesting
@@ -231,9 +251,9 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
       cachedExecutor.execute(
           entry.getRevision(),
           () -> {
-            if (appRevisionMapper.heartbeat(entry.getDataCenter(), entry.getRevision()) == 0) {
-              appRevisionMapper.replace(entry);
-            }
+            // coalesced with the concurrent registers, return after flushed
+            writeBuffer.insert(entry).get(REFRESH_TIMEOUT_SECS, TimeUnit.SECONDS);
+            informer.watchWakeup();
             LOG.info("insert revision {}, succeed", entry.getRevision());
             return true;
           });
@@ -324,6 +344,21 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
           defaultCommonConfig.getDefaultClusterId(), start, limit);
     }
 
+    @Override
+    protected String entryKey(AppRevisionDomain entry) {
+      return entry.getRevision();
+    }
+
+    @Override
+    protected boolean isTombstone(AppRevisionDomain entry) {
+      return entry.isDeleted();
+    }
+
+    @Override
+    protected ChecksumDomain checksumFromStorage(long maxId) {
+      return appRevisionMapper.checksum(defaultCommonConfig.getDefaultClusterId(), maxId);
+    }
+
     @Override
     protected Date getNow() {
       return dateNowRepository.getNow();
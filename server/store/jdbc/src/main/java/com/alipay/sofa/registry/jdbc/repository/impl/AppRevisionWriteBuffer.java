@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.repository.impl;
+
+import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.Write.HEARTBEAT_FLUSH_LATENCY;
+import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.Write.HEARTBEAT_FLUSH_SIZE;
+import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.Write.INSERT_FLUSH_LATENCY;
+import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.Write.INSERT_FLUSH_SIZE;
+
+import com.alipay.sofa.registry.jdbc.config.MetadataConfig;
+import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
+import com.alipay.sofa.registry.jdbc.mapper.AppRevisionMapper;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * buffer the writes of app_revision in a short window, and flush them in batch:
+ *
+ * <p>1. heartbeats are written behind, as multi rows update with revision in (...)
+ *
+ * <p>2. inserts are blocked until flushed, so they wake up the flusher at once and the inserts
+ * arriving during a flush are merged into the next one. The alive revisions are heartbeat and the
+ * others are replaced in a batch executor
+ */
+public class AppRevisionWriteBuffer {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger("METADATA-EXCHANGE", "[AppRevisionWriteBuffer]");
+
+  private final AppRevisionMapper appRevisionMapper;
+
+  private final SqlSessionFactory sqlSessionFactory;
+
+  private final MetadataConfig metadataConfig;
+
+  private final Flusher flusher = new Flusher();
+
+  /** map: <dataCenter, revisions> */
+  private Map<String, Set<String>> heartbeats = Maps.newHashMap();
+
+  /** map: <revision, pending insert> */
+  private Map<String, PendingInsert> inserts = Maps.newLinkedHashMap();
+
+  private int pendingSize;
+
+  public AppRevisionWriteBuffer(
+      AppRevisionMapper appRevisionMapper,
+      SqlSessionFactory sqlSessionFactory,
+      MetadataConfig metadataConfig) {
+    this.appRevisionMapper = appRevisionMapper;
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.metadataConfig = metadataConfig;
+  }
+
+  public void start() {
+    ConcurrentUtils.createDaemonThread("AppRevisionWriteFlusher", flusher).start();
+  }
+
+  /**
+   * write behind, the heartbeat is flushed in the next window
+   *
+   * @param dataCenter dataCenter
+   * @param revision revision
+   */
+  public void heartbeat(String dataCenter, String revision) {
+    ParaCheckUtil.checkNotBlank(revision, "revision");
+    boolean full;
+    synchronized (this) {
+      if (heartbeats.computeIfAbsent(dataCenter, k -> Sets.newHashSet()).add(revision)) {
+        pendingSize++;
+      }
+      full = pendingSize >= metadataConfig.getRevisionWriteBatchSize();
+    }
+    if (full) {
+      flusher.wakeup();
+    }
+  }
+
+  /**
+   * the future completes after the revision is written into the storage
+   *
+   * @param domain domain
+   * @return CompletableFuture
+   */
+  public CompletableFuture<Boolean> insert(AppRevisionDomain domain) {
+    ParaCheckUtil.checkNotNull(domain, "domain");
+    PendingInsert pending;
+    synchronized (this) {
+      pending = inserts.get(domain.getRevision());
+      if (pending == null) {
+        pending = new PendingInsert(domain);
+        inserts.put(domain.getRevision(), pending);
+        pendingSize++;
+      }
+    }
+    flusher.wakeup();
+    return pending.future;
+  }
+
+  @VisibleForTesting
+  void flush() {
+    Map<String, Set<String>> heartbeatBatch;
+    Map<String, PendingInsert> insertBatch;
+    synchronized (this) {
+      if (pendingSize == 0) {
+        return;
+      }
+      heartbeatBatch = heartbeats;
+      insertBatch = inserts;
+      heartbeats = Maps.newHashMap();
+      inserts = Maps.newLinkedHashMap();
+      pendingSize = 0;
+    }
+    if (!insertBatch.isEmpty()) {
+      flushInserts(insertBatch.values());
+    }
+    if (!heartbeatBatch.isEmpty()) {
+      flushHeartbeats(heartbeatBatch);
+    }
+  }
+
+  private void flushHeartbeats(Map<String, Set<String>> heartbeatBatch) {
+    for (Map.Entry<String, Set<String>> entry : heartbeatBatch.entrySet()) {
+      for (List<String> revisions :
+          Lists.partition(
+              Lists.newArrayList(entry.getValue()), metadataConfig.getRevisionWriteBatchSize())) {
+        long start = System.currentTimeMillis();
+        try {
+          int effect = appRevisionMapper.batchHeartbeat(entry.getKey(), revisions);
+          if (effect < revisions.size()) {
+            LOG.error(
+                "revisions heartbeat fail, dataCenter={}, size={}, effect={}",
+                entry.getKey(),
+                revisions.size(),
+                effect);
+          }
+        } catch (Throwable e) {
+          LOG.error(
+              "revisions heartbeat error, dataCenter={}, size={}",
+              entry.getKey(),
+              revisions.size(),
+              e);
+        } finally {
+          HEARTBEAT_FLUSH_LATENCY.observe(System.currentTimeMillis() - start);
+          HEARTBEAT_FLUSH_SIZE.observe(revisions.size());
+        }
+      }
+    }
+  }
+
+  private void flushInserts(Collection<PendingInsert> insertBatch) {
+    Map<String, List<PendingInsert>> dataCenterInserts = Maps.newHashMap();
+    for (PendingInsert pending : insertBatch) {
+      dataCenterInserts
+          .computeIfAbsent(pending.domain.getDataCenter(), k -> Lists.newArrayList())
+          .add(pending);
+    }
+    for (Map.Entry<String, List<PendingInsert>> entry : dataCenterInserts.entrySet()) {
+      for (List<PendingInsert> pendings :
+          Lists.partition(entry.getValue(), metadataConfig.getRevisionWriteBatchSize())) {
+        long start = System.currentTimeMillis();
+        try {
+          doInserts(entry.getKey(), pendings);
+          for (PendingInsert pending : pendings) {
+            pending.future.complete(true);
+          }
+        } catch (Throwable e) {
+          LOG.error(
+              "revisions insert error, dataCenter={}, size={}", entry.getKey(), pendings.size(), e);
+          for (PendingInsert pending : pendings) {
+            pending.future.completeExceptionally(e);
+          }
+        } finally {
+          INSERT_FLUSH_LATENCY.observe(System.currentTimeMillis() - start);
+          INSERT_FLUSH_SIZE.observe(pendings.size());
+        }
+      }
+    }
+  }
+
+  private void doInserts(String dataCenter, List<PendingInsert> pendings) {
+    List<String> revisions = Lists.newArrayListWithCapacity(pendings.size());
+    for (PendingInsert pending : pendings) {
+      revisions.add(pending.domain.getRevision());
+    }
+    Set<String> alives =
+        Sets.newHashSet(appRevisionMapper.queryAliveRevisions(dataCenter, revisions));
+    if (!alives.isEmpty()) {
+      appRevisionMapper.batchHeartbeat(dataCenter, alives);
+    }
+    if (alives.size() == pendings.size()) {
+      return;
+    }
+    try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      AppRevisionMapper batchMapper = session.getMapper(AppRevisionMapper.class);
+      for (PendingInsert pending : pendings) {
+        if (!alives.contains(pending.domain.getRevision())) {
+          batchMapper.replace(pending.domain);
+        }
+      }
+      session.flushStatements();
+      session.commit();
+    }
+  }
+
+  private static final class PendingInsert {
+    final AppRevisionDomain domain;
+    final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+    PendingInsert(AppRevisionDomain domain) {
+      this.domain = domain;
+    }
+  }
+
+  private final class Flusher extends WakeUpLoopRunnable {
+
+    @Override
+    public void runUnthrowable() {
+      flush();
+    }
+
+    @Override
+    public int getWaitingMillis() {
+      return metadataConfig.getRevisionWriteWindowMillis();
+    }
+  }
+}
@@ -26,6 +26,7 @@ import com.alipay.sofa.registry.common.model.metaserver.ClientManagerResult;
 import com.alipay.sofa.registry.exception.SofaRegistryRuntimeException;
 import com.alipay.sofa.registry.jdbc.config.MetadataConfig;
 import com.alipay.sofa.registry.jdbc.constant.TableEnum;
+import com.alipay.sofa.registry.jdbc.domain.ChecksumDomain;
 import com.alipay.sofa.registry.jdbc.domain.ClientManagerAddressDomain;
 import com.alipay.sofa.registry.jdbc.informer.BaseInformer;
 import com.alipay.sofa.registry.jdbc.mapper.ClientManagerAddressMapper;
@@ -215,6 +216,7 @@ public class ClientManagerAddressJdbcRepository
         maxId = tuple.o2;
       }
     }
+    informer.notifyVersion(maxId);
 
     return maxId;
   }
@@ -245,6 +247,22 @@ public class ClientManagerAddressJdbcRepository
     protected Date getNow() {
       return dateNowRepository.getNow();
     }
+
+    @Override
+    protected String entryKey(ClientManagerAddressDomain entry) {
+      return entry.getAddress();
+    }
+
+    @Override
+    protected boolean isTombstone(ClientManagerAddressDomain entry) {
+      return ValueConstants.CLIENT_OPEN.equals(entry.getOperation());
+    }
+
+    @Override
+    protected ChecksumDomain checksumFromStorage(long maxId) {
+      return clientManagerAddressMapper.checksum(
+          defaultCommonConfig.getClusterId(tableName()), maxId);
+    }
   }
 
   /**
@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
 import com.alipay.sofa.registry.concurrent.CachedExecutor;
 import com.alipay.sofa.registry.jdbc.constant.TableEnum;
+import com.alipay.sofa.registry.jdbc.domain.ChecksumDomain;
 import com.alipay.sofa.registry.jdbc.domain.InterfaceAppsIndexDomain;
 import com.alipay.sofa.registry.jdbc.informer.BaseInformer;
 import com.alipay.sofa.registry.jdbc.mapper.InterfaceAppsIndexMapper;
@@ -131,6 +132,8 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
           () -> {
             if (interfaceAppsIndexMapper.update(entry) == 0) {
               interfaceAppsIndexMapper.replace(entry);
+              // new row, watch it at once
+              informer.watchWakeup();
             }
             LOG.info(
                 "insert interface app mapping {}=>{} succeed,entry:{}",
@@ -211,6 +214,21 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
       return dateNowRepository.getNow();
     }
 
+    @Override
+    protected String entryKey(InterfaceAppsIndexDomain entry) {
+      return entry.getDataCenter() + "#" + entry.getAppName() + "#" + entry.getInterfaceName();
+    }
+
+    @Override
+    protected boolean isTombstone(InterfaceAppsIndexDomain entry) {
+      return !entry.isReference();
+    }
+
+    @Override
+    protected ChecksumDomain checksumFromStorage(long maxId) {
+      return interfaceAppsIndexMapper.checksum(dataCenters, maxId);
+    }
+
     @VisibleForTesting
     public void setConflictCallback(ConflictCallback runnable) {
       conflictCallback = runnable;
@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.jdbc.repository.impl;
 
 import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
 
 /**
  * @author xiaojian.xj
@@ -94,4 +95,34 @@ public class MetadataMetrics {
             .help("clientManager_query")
             .register();
   }
+
+  static final class Write {
+    static final Histogram REVISION_FLUSH_LATENCY_HISTOGRAM =
+        Histogram.build()
+            .namespace("metadata")
+            .subsystem("revision")
+            .name("write_flush_latency_ms")
+            .help("latency of flushing the buffered revision writes")
+            .labelNames("type")
+            .buckets(5, 10, 20, 50, 100, 200, 500, 1000, 3000)
+            .register();
+
+    static final Histogram REVISION_FLUSH_SIZE_HISTOGRAM =
+        Histogram.build()
+            .namespace("metadata")
+            .subsystem("revision")
+            .name("write_flush_size")
+            .help("revisions of flushing the buffered revision writes")
+            .labelNames("type")
+            .buckets(1, 5, 10, 50, 100, 200, 500, 1000, 5000)
+            .register();
+
+    static final Histogram.Child HEARTBEAT_FLUSH_LATENCY =
+        REVISION_FLUSH_LATENCY_HISTOGRAM.labels("heartbeat");
+    static final Histogram.Child INSERT_FLUSH_LATENCY =
+        REVISION_FLUSH_LATENCY_HISTOGRAM.labels("insert");
+    static final Histogram.Child HEARTBEAT_FLUSH_SIZE =
+        REVISION_FLUSH_SIZE_HISTOGRAM.labels("heartbeat");
+    static final Histogram.Child INSERT_FLUSH_SIZE = REVISION_FLUSH_SIZE_HISTOGRAM.labels("insert");
+  }
 }
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.repository.impl;
+
+import com.alipay.sofa.registry.common.model.store.AppRevision;
+import com.alipay.sofa.registry.jdbc.AbstractH2DbTestBase;
+import com.alipay.sofa.registry.jdbc.config.MetadataConfig;
+import com.alipay.sofa.registry.jdbc.convertor.AppRevisionDomainConvertor;
+import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
+import com.alipay.sofa.registry.jdbc.mapper.AppRevisionMapper;
+import com.alipay.sofa.registry.store.api.config.DefaultCommonConfig;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class AppRevisionWriteBufferTest extends AbstractH2DbTestBase {
+
+  private static final int SIZE = 100;
+
+  private static final StatementCounter STATEMENT_COUNTER = new StatementCounter();
+
+  @Autowired private AppRevisionMapper appRevisionMapper;
+
+  @Autowired private SqlSessionFactory sqlSessionFactory;
+
+  @Autowired private MetadataConfig metadataConfig;
+
+  @Autowired private DefaultCommonConfig defaultCommonConfig;
+
+  private AppRevisionWriteBuffer writeBuffer;
+
+  @Before
+  public void beforeAppRevisionWriteBufferTest() {
+    synchronized (STATEMENT_COUNTER) {
+      if (!sqlSessionFactory.getConfiguration().getInterceptors().contains(STATEMENT_COUNTER)) {
+        sqlSessionFactory.getConfiguration().addInterceptor(STATEMENT_COUNTER);
+      }
+    }
+    // not started, flush by the test
+    writeBuffer = new AppRevisionWriteBuffer(appRevisionMapper, sqlSessionFactory, metadataConfig);
+  }
+
+  private List<AppRevisionDomain> buildDomains() {
+    List<AppRevisionDomain> domains = Lists.newArrayList();
+    for (AppRevision appRevision : buildAppRevisions(SIZE)) {
+      domains.add(
+          AppRevisionDomainConvertor.convert2Domain(
+              defaultCommonConfig.getDefaultClusterId(), appRevision));
+    }
+    return domains;
+  }
+
+  @Test
+  public void testInsert() throws Exception {
+    List<AppRevisionDomain> domains = buildDomains();
+
+    STATEMENT_COUNTER.reset();
+    List<CompletableFuture<Boolean>> futures = Lists.newArrayList();
+    for (AppRevisionDomain domain : domains) {
+      futures.add(writeBuffer.insert(domain));
+    }
+    // the same revision shares the pending write
+    Assert.assertSame(futures.get(0), writeBuffer.insert(domains.get(0)));
+    writeBuffer.flush();
+    for (CompletableFuture<Boolean> future : futures) {
+      Assert.assertTrue(future.get(1, TimeUnit.SECONDS));
+    }
+    // one select for the alive revisions, one batch for the replace
+    Assert.assertEquals(2, STATEMENT_COUNTER.get());
+
+    Set<String> dataCenters = Sets.newHashSet(defaultCommonConfig.getDefaultClusterId());
+    for (AppRevisionDomain domain : domains) {
+      Assert.assertEquals(
+          1, appRevisionMapper.queryRevision(dataCenters, domain.getRevision()).size());
+    }
+
+    // insert again, the alive revisions are heartbeat in one statement
+    STATEMENT_COUNTER.reset();
+    for (AppRevisionDomain domain : domains) {
+      futures.add(writeBuffer.insert(domain));
+    }
+    writeBuffer.flush();
+    for (CompletableFuture<Boolean> future : futures) {
+      Assert.assertTrue(future.get(1, TimeUnit.SECONDS));
+    }
+    Assert.assertEquals(2, STATEMENT_COUNTER.get());
+  }
+
+  @Test
+  public void testHeartbeat() throws Exception {
+    List<AppRevisionDomain> domains = buildDomains();
+    for (AppRevisionDomain domain : domains) {
+      writeBuffer.insert(domain);
+    }
+    writeBuffer.flush();
+
+    // heartbeat one by one
+    STATEMENT_COUNTER.reset();
+    for (AppRevisionDomain domain : domains) {
+      Assert.assertEquals(
+          1, appRevisionMapper.heartbeat(domain.getDataCenter(), domain.getRevision()));
+    }
+    Assert.assertEquals(SIZE, STATEMENT_COUNTER.get());
+
+    // heartbeat in batch
+    STATEMENT_COUNTER.reset();
+    for (AppRevisionDomain domain : domains) {
+      writeBuffer.heartbeat(domain.getDataCenter(), domain.getRevision());
+      writeBuffer.heartbeat(domain.getDataCenter(), domain.getRevision());
+    }
+    writeBuffer.flush();
+    Assert.assertEquals(1, STATEMENT_COUNTER.get());
+
+    // nothing to flush
+    writeBuffer.flush();
+    Assert.assertEquals(1, STATEMENT_COUNTER.get());
+  }
+
+  @Test
+  public void testHeartbeatRenew() throws Exception {
+    List<AppRevisionDomain> domains = buildDomains();
+    for (AppRevisionDomain domain : domains) {
+      writeBuffer.insert(domain);
+    }
+    writeBuffer.flush();
+    AppRevisionDomain domain = domains.get(0);
+    Set<String> dataCenters = Sets.newHashSet(domain.getDataCenter());
+    long before =
+        appRevisionMapper
+            .queryRevision(dataCenters, domain.getRevision())
+            .get(0)
+            .getGmtModify()
+            .getTime();
+
+    Thread.sleep(10);
+    writeBuffer.heartbeat(domain.getDataCenter(), domain.getRevision());
+    writeBuffer.flush();
+    long after =
+        appRevisionMapper
+            .queryRevision(dataCenters, domain.getRevision())
+            .get(0)
+            .getGmtModify()
+            .getTime();
+    Assert.assertTrue(after > before);
+  }
+
+  /** count the prepared statements of app_revision in the test thread */
+  @Intercepts({
+    @Signature(
+        type = StatementHandler.class,
+        method = "prepare",
+        args = {Connection.class, Integer.class})
+  })
+  private static final class StatementCounter implements Interceptor {
+    private final AtomicInteger count = new AtomicInteger();
+
+    private volatile Thread thread;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      Object id =
+          SystemMetaObject.forObject(invocation.getTarget())
+              .getValue("delegate.mappedStatement.id");
+      if (Thread.currentThread() == thread
+          && String.valueOf(id).startsWith(AppRevisionMapper.class.getName())
+          && !String.valueOf(id).endsWith("queryRevision")) {
+        count.incrementAndGet();
+      }
+      return invocation.proceed();
+    }
+
+    void reset() {
+      thread = Thread.currentThread();
+      count.set(0);
+    }
+
+    int get() {
+      return count.get();
+    }
+  }
+}
@@ -33,7 +33,9 @@ import com.alipay.sofa.registry.util.TimestampUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -129,6 +131,69 @@ public class InterfaceAppsJdbcRepositoryTest extends AbstractH2DbTestBase {
     }
   }
 
+  @Test
+  public void testWatchAndVerify() throws Exception {
+    InterfaceAppsJdbcRepository impl = (InterfaceAppsJdbcRepository) interfaceAppsJdbcRepository;
+    impl.startSynced();
+    impl.waitSynced();
+    String service = "watchService-" + System.currentTimeMillis();
+    impl.register("watchApp", Collections.singleton(service));
+    // visible before the row is older than the insert delay
+    waitUntil(() -> impl.getAppNames(service).getApps().contains("watchApp"));
+    // wait the row stable, then it is counted in the checksum
+    long id = rowId(impl, service);
+    waitUntil(
+        () -> {
+          impl.informer.watchWakeup();
+          return impl.informer.getLastLoadId() >= id;
+        });
+    Assert.assertTrue(impl.informer.verify());
+
+    // physically deleted row is invisible for the watch, the checksum catches it
+    dataSource = applicationContext.getBean(DataSource.class);
+    executeSqlScript("delete from interface_apps_index where interface_name = '" + service + "'");
+    Assert.assertFalse(impl.informer.verify());
+    Assert.assertTrue(impl.getAppNames(service).getApps().isEmpty());
+    Assert.assertTrue(impl.informer.verify());
+  }
+
+  @Test
+  public void testUnstableDeleted() throws Exception {
+    InterfaceAppsJdbcRepository impl = (InterfaceAppsJdbcRepository) interfaceAppsJdbcRepository;
+    impl.startSynced();
+    impl.waitSynced();
+    String service = "unstableService-" + System.currentTimeMillis();
+    impl.register("unstableApp", Collections.singleton(service));
+    waitUntil(() -> impl.getAppNames(service).getApps().contains("unstableApp"));
+    long id = rowId(impl, service);
+    // the row is applied by the watch, but not stable yet
+    Assert.assertTrue(impl.informer.getLastLoadId() < id);
+
+    // deleted before stable, the watch misses the row and wakes up the list
+    dataSource = applicationContext.getBean(DataSource.class);
+    executeSqlScript("delete from interface_apps_index where interface_name = '" + service + "'");
+    impl.informer.watchWakeup();
+    waitUntil(() -> impl.getAppNames(service).getApps().isEmpty());
+    Assert.assertTrue(impl.informer.verify());
+  }
+
+  private static long rowId(InterfaceAppsJdbcRepository impl, String service) {
+    for (InterfaceAppsIndexDomain domain : impl.informer.listFromStorage(0, 10000)) {
+      if (service.equals(domain.getInterfaceName())) {
+        return domain.getId();
+      }
+    }
+    throw new AssertionError("row not found: " + service);
+  }
+
+  private static void waitUntil(Callable<Boolean> condition) throws Exception {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (!condition.call()) {
+      Assert.assertTrue("wait timeout", System.currentTimeMillis() < deadline);
+      Thread.sleep(20);
+    }
+  }
+
   @Test
   public void testCleaned() {
     interfaceAppsJdbcRepository.renew("testInterfaceName", "testApp");
@@ -17,8 +17,17 @@
 package com.alipay.sofa.registry.jraft.config;
 
 import com.alipay.sofa.registry.jraft.repository.impl.AppRevisionRaftRepository;
+import com.alipay.sofa.registry.jraft.repository.impl.ClientManagerAddressRaftRepository;
+import com.alipay.sofa.registry.jraft.repository.impl.DateNowRaftRepository;
+import com.alipay.sofa.registry.jraft.repository.impl.DistributeLockRaftRepository;
 import com.alipay.sofa.registry.jraft.repository.impl.InterfaceAppsRaftRepository;
+import com.alipay.sofa.registry.jraft.repository.impl.ProvideDataRaftRepository;
+import com.alipay.sofa.registry.jraft.store.MetadataRaftServer;
 import com.alipay.sofa.registry.store.api.config.StoreApiConfiguration;
+import com.alipay.sofa.registry.store.api.date.DateNowRepository;
+import com.alipay.sofa.registry.store.api.elector.DistributeLockRepository;
+import com.alipay.sofa.registry.store.api.meta.ClientManagerAddressRepository;
+import com.alipay.sofa.registry.store.api.meta.ProvideDataRepository;
 import com.alipay.sofa.registry.store.api.repository.AppRevisionRepository;
 import com.alipay.sofa.registry.store.api.repository.InterfaceAppsRepository;
 import com.alipay.sofa.registry.store.api.spring.SpringContext;
@@ -40,6 +49,19 @@ import org.springframework.context.annotation.Import;
     havingValue = SpringContext.META_STORE_API_RAFT)
 public class RaftConfiguration {
 
+  @Configuration
+  public static class RaftServerBeanConfiguration {
+    @Bean
+    public RaftStoreConfig raftStoreConfig() {
+      return new RaftStoreConfigBean();
+    }
+
+    @Bean
+    public MetadataRaftServer metadataRaftServer(RaftStoreConfig raftStoreConfig) {
+      return new MetadataRaftServer(raftStoreConfig);
+    }
+  }
+
   @Configuration
   public static class RepositoryBeanConfiguration {
     @Bean
@@ -51,5 +73,25 @@ public class RaftConfiguration {
     public InterfaceAppsRepository interfaceAppsRaftRepository() {
       return new InterfaceAppsRaftRepository();
     }
+
+    @Bean
+    public ProvideDataRepository provideDataRaftRepository() {
+      return new ProvideDataRaftRepository();
+    }
+
+    @Bean
+    public ClientManagerAddressRepository clientManagerAddressRaftRepository() {
+      return new ClientManagerAddressRaftRepository();
+    }
+
+    @Bean
+    public DistributeLockRepository distributeLockRepository() {
+      return new DistributeLockRaftRepository();
+    }
+
+    @Bean
+    public DateNowRepository dateNowRaftRepository() {
+      return new DateNowRaftRepository();
+    }
   }
 }
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.config;
+
+import com.alipay.sofa.registry.jraft.elector.MetaRaftLeaderElector;
+import com.alipay.sofa.registry.store.api.elector.LeaderElector;
+import com.alipay.sofa.registry.store.api.spring.SpringContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties
+@ConditionalOnProperty(
+    value = SpringContext.PERSISTENCE_PROFILE_ACTIVE,
+    havingValue = SpringContext.META_STORE_API_RAFT)
+public class RaftElectorConfiguration {
+
+  @Configuration
+  public static class RaftElectorBeanConfiguration {
+
+    @Bean
+    public LeaderElector leaderElector() {
+      return new MetaRaftLeaderElector();
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.config;
+
+import com.alipay.sofa.registry.net.NetUtil;
+import java.io.File;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = RaftStoreConfigBean.PRE_FIX)
+public class RaftStoreConfigBean implements RaftStoreConfig {
+
+  public static final String PRE_FIX = "meta.server.raft";
+
+  private String groupId = "RegistryMetadataGroup";
+
+  /** ip:port of the local raft endpoint */
+  private String serverAddress = NetUtil.getLocalAddress().getHostAddress() + ":9630";
+
+  /** ip:port,ip:port,ip:port of all the meta servers */
+  private String initialServerList = serverAddress;
+
+  private String dataPath =
+      System.getProperty("user.home") + File.separator + "raft" + File.separator + "metadata";
+
+  private int electionTimeoutMs = 1000;
+
+  private int snapshotIntervalSecs = 3600;
+
+  private int commandTimeoutMs = 5000;
+
+  private int commandBatchSize = 256;
+
+  private long lockExpireDuration = 20 * 1000;
+
+  @Override
+  public String getGroupId() {
+    return groupId;
+  }
+
+  /**
+   * Setter method for property <tt>groupId</tt>.
+   *
+   * @param groupId value to be assigned to property groupId
+   */
+  public void setGroupId(String groupId) {
+    this.groupId = groupId;
+  }
+
+  @Override
+  public String getServerAddress() {
+    return serverAddress;
+  }
+
+  /**
+   * Setter method for property <tt>serverAddress</tt>.
+   *
+   * @param serverAddress value to be assigned to property serverAddress
+   */
+  public void setServerAddress(String serverAddress) {
+    this.serverAddress = serverAddress;
+  }
+
+  @Override
+  public String getInitialServerList() {
+    return initialServerList;
+  }
+
+  /**
+   * Setter method for property <tt>initialServerList</tt>.
+   *
+   * @param initialServerList value to be assigned to property initialServerList
+   */
+  public void setInitialServerList(String initialServerList) {
+    this.initialServerList = initialServerList;
+  }
+
+  @Override
+  public String getDataPath() {
+    return dataPath;
+  }
+
+  /**
+   * Setter method for property <tt>dataPath</tt>.
+   *
+   * @param dataPath value to be assigned to property dataPath
+   */
+  public void setDataPath(String dataPath) {
+    this.dataPath = dataPath;
+  }
+
+  @Override
+  public int getElectionTimeoutMs() {
+    return electionTimeoutMs;
+  }
+
+  /**
+   * Setter method for property <tt>electionTimeoutMs</tt>.
+   *
+   * @param electionTimeoutMs value to be assigned to property electionTimeoutMs
+   */
+  public void setElectionTimeoutMs(int electionTimeoutMs) {
+    this.electionTimeoutMs = electionTimeoutMs;
+  }
+
+  @Override
+  public int getSnapshotIntervalSecs() {
+    return snapshotIntervalSecs;
+  }
+
+  /**
+   * Setter method for property <tt>snapshotIntervalSecs</tt>.
+   *
+   * @param snapshotIntervalSecs value to be assigned to property snapshotIntervalSecs
+   */
+  public void setSnapshotIntervalSecs(int snapshotIntervalSecs) {
+    this.snapshotIntervalSecs = snapshotIntervalSecs;
+  }
+
+  @Override
+  public int getCommandTimeoutMs() {
+    return commandTimeoutMs;
+  }
+
+  /**
+   * Setter method for property <tt>commandTimeoutMs</tt>.
+   *
+   * @param commandTimeoutMs value to be assigned to property commandTimeoutMs
+   */
+  public void setCommandTimeoutMs(int commandTimeoutMs) {
+    this.commandTimeoutMs = commandTimeoutMs;
+  }
+
+  @Override
+  public int getCommandBatchSize() {
+    return commandBatchSize;
+  }
+
+  /**
+   * Setter method for property <tt>commandBatchSize</tt>.
+   *
+   * @param commandBatchSize value to be assigned to property commandBatchSize
+   */
+  public void setCommandBatchSize(int commandBatchSize) {
+    this.commandBatchSize = commandBatchSize;
+  }
+
+  @Override
+  public long getLockExpireDuration() {
+    return lockExpireDuration;
+  }
+
+  /**
+   * Setter method for property <tt>lockExpireDuration</tt>.
+   *
+   * @param lockExpireDuration value to be assigned to property lockExpireDuration
+   */
+  public void setLockExpireDuration(long lockExpireDuration) {
+    this.lockExpireDuration = lockExpireDuration;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.elector;
+
+import com.alipay.sofa.registry.common.model.elector.DistributeLockInfo;
+import com.alipay.sofa.registry.jraft.config.RaftStoreConfig;
+import com.alipay.sofa.registry.jraft.store.MetadataCommands;
+import com.alipay.sofa.registry.jraft.store.MetadataRaftServer;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.store.api.config.DefaultCommonConfig;
+import com.alipay.sofa.registry.store.api.elector.AbstractLeaderElector;
+import com.google.common.annotations.VisibleForTesting;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * compete the META-MASTER lock replicated by raft, the semantic is the same as the jdbc elector:
+ * the owner renews the lock, and the others take over the lock after it expires
+ */
+public class MetaRaftLeaderElector extends AbstractLeaderElector {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger("META-ELECTOR", "[MetaRaftLeaderElector]");
+
+  public static final String lockName = "META-MASTER";
+
+  @Autowired MetadataRaftServer metadataRaftServer;
+
+  @Autowired RaftStoreConfig raftStoreConfig;
+
+  @Autowired DefaultCommonConfig defaultCommonConfig;
+
+  /**
+   * start elect, return current leader
+   *
+   * @return LeaderInfo
+   */
+  @Override
+  protected LeaderInfo doElect() {
+    DistributeLockInfo lock = queryLock();
+
+    /** compete and return leader */
+    if (lock == null) {
+      metadataRaftServer.submit(
+          MetadataCommands.competeLockOnInsert(
+              lockName, myself(), raftStoreConfig.getLockExpireDuration()));
+      lock = queryLock();
+      LOG.info("meta: {} compete on insert, leader is: {}.", myself(), lock.getOwner());
+      return leaderFrom(lock);
+    }
+
+    if (amILeader(lock.getOwner())) {
+      /** as leader, do heartbeat */
+      metadataRaftServer.submit(MetadataCommands.ownerHeartbeat(lockName, myself()));
+      LOG.info("leader heartbeat: {}", myself());
+    } else if (lock.expire()) {
+      /** as follow, do compete if lock expire */
+      LOG.info("lock expire: {}, meta elector start: {}", lock, myself());
+      metadataRaftServer.submit(
+          MetadataCommands.competeLockOnUpdate(
+              lockName, lock.getOwner(), lock.getTerm(), lock.getTermDuration(), myself()));
+    }
+    LeaderInfo result = leaderFrom(queryLock());
+    LOG.info("meta: {}, leaderInfo: {}", myself(), result);
+    return result;
+  }
+
+  /**
+   * query current leader
+   *
+   * @return LeaderInfo
+   */
+  @Override
+  protected LeaderInfo doQuery() {
+    DistributeLockInfo lock = queryLock();
+    if (lock == null) {
+      return LeaderInfo.HAS_NO_LEADER;
+    }
+    return leaderFrom(lock);
+  }
+
+  private DistributeLockInfo queryLock() {
+    return metadataRaftServer
+        .getState()
+        .queryDistLock(defaultCommonConfig.getDefaultClusterId(), lockName);
+  }
+
+  public static LeaderInfo leaderFrom(DistributeLockInfo lock) {
+    return calcLeaderInfo(
+        lock.getOwner(),
+        lock.getGmtModifiedUnixMillis(),
+        lock.getGmtModifiedUnixMillis(),
+        lock.getDuration());
+  }
+
+  @VisibleForTesting
+  public MetaRaftLeaderElector setMetadataRaftServer(MetadataRaftServer metadataRaftServer) {
+    this.metadataRaftServer = metadataRaftServer;
+    return this;
+  }
+
+  @VisibleForTesting
+  public MetaRaftLeaderElector setRaftStoreConfig(RaftStoreConfig raftStoreConfig) {
+    this.raftStoreConfig = raftStoreConfig;
+    return this;
+  }
+
+  @VisibleForTesting
+  public MetaRaftLeaderElector setDefaultCommonConfig(DefaultCommonConfig defaultCommonConfig) {
+    this.defaultCommonConfig = defaultCommonConfig;
+    return this;
+  }
+}
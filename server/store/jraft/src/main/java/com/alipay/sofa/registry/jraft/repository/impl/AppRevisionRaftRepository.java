@@ -16,30 +16,64 @@
  */
 package com.alipay.sofa.registry.jraft.repository.impl;
 
+import com.alipay.sofa.registry.cache.CacheCleaner;
 import com.alipay.sofa.registry.common.model.store.AppRevision;
+import com.alipay.sofa.registry.jraft.config.RaftStoreConfig;
+import com.alipay.sofa.registry.jraft.store.MetadataCommands;
+import com.alipay.sofa.registry.jraft.store.MetadataRaftServer;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.store.api.repository.AppRevisionRepository;
+import com.alipay.sofa.registry.store.api.repository.InterfaceAppsRepository;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Sets;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * @author xiaojian.xj
  * @version $Id: AppRevisionRaftRepository.java, v 0.1 2021年01月17日 15:57 xiaojian.xj Exp $
  */
 public class AppRevisionRaftRepository implements AppRevisionRepository {
+  private static final Logger LOG = LoggerFactory.getLogger("METADATA-EXCHANGE", "[AppRevision]");
 
-  /** map: <revision, AppRevision> */
-  private final Map<String, AppRevision> registry = new ConcurrentHashMap<>();
+  private final Cache<String, Boolean> localRevisions =
+      CacheBuilder.newBuilder().expireAfterWrite(2, TimeUnit.MINUTES).build();
+
+  @Autowired private MetadataRaftServer metadataRaftServer;
+
+  @Autowired private InterfaceAppsRepository interfaceAppsRaftRepository;
+
+  @Autowired private RaftStoreConfig raftStoreConfig;
+
+  private Set<String> dataCenters = Sets.newConcurrentHashSet();
+
+  public AppRevisionRaftRepository() {
+    CacheCleaner.autoClean(localRevisions, 1000 * 60 * 10);
+  }
 
   @Override
   public void register(AppRevision appRevision) {
-    if (this.registry.containsKey(appRevision.getRevision())) {
+    if (appRevision == null) {
+      throw new RuntimeException("raft register app revision error, appRevision is null.");
+    }
+    interfaceAppsRaftRepository.register(
+        appRevision.getAppName(), appRevision.getInterfaceMap().keySet());
+
+    localRevisions.put(appRevision.getRevision(), true);
+    if (metadataRaftServer.getState().containsRevision(appRevision.getRevision())) {
       return;
     }
+    metadataRaftServer.submit(MetadataCommands.registerRevision(appRevision));
+    LOG.info("insert revision {}, succeed", appRevision.getRevision());
   }
 
   /**
@@ -50,68 +84,108 @@ public class AppRevisionRaftRepository implements AppRevisionRepository {
    */
   @Override
   public boolean exist(String revisionId) {
-    return false;
+    return metadataRaftServer.getState().containsRevision(revisionId);
   }
 
   @Override
   public AppRevision queryRevision(String revision) {
-    return registry.get(revision);
+    return metadataRaftServer.getState().getRevision(revision);
   }
 
   @Override
   public boolean heartbeat(String revision) {
-    return false;
+    localRevisions.put(revision, true);
+    return metadataRaftServer.getState().containsRevision(revision);
   }
 
   @Override
   public boolean heartbeatDB(String revision) {
-    return false;
+    boolean success =
+        (Boolean) metadataRaftServer.submit(MetadataCommands.heartbeatRevision(revision));
+    if (!success) {
+      LOG.error("revision: {} heartbeat fail.", revision);
+    }
+    return success;
   }
 
   @Override
-  public void waitSynced() {}
+  public void waitSynced() {
+    if (!metadataRaftServer.waitSynced(raftStoreConfig.getCommandTimeoutMs())) {
+      LOG.warn("wait synced timeout");
+    }
+  }
 
   @Override
   public List<AppRevision> getExpired(Date beforeTime, int limit) {
-    return null;
+    return metadataRaftServer.getState().getExpiredRevisions(beforeTime.getTime(), limit);
   }
 
   @Override
-  public void replace(AppRevision appRevision) {}
+  public void replace(AppRevision appRevision) {
+    metadataRaftServer.submit(MetadataCommands.replaceRevision(appRevision));
+  }
 
   @Override
   public int cleanDeleted(Date beforeTime, int limit) {
-    return 0;
+    return (Integer)
+        metadataRaftServer.submit(
+            MetadataCommands.cleanDeletedRevisions(beforeTime.getTime(), limit));
   }
 
   @Override
   public Map<String, Integer> countByApp() {
-    return Collections.emptyMap();
+    return metadataRaftServer.getState().countByApp();
   }
 
   @Override
   public Set<String> allRevisionIds() {
-    return null;
+    return metadataRaftServer.getState().allRevisionIds();
   }
 
   @Override
   public Collection<String> availableRevisions() {
-    return Collections.EMPTY_LIST;
+    return localRevisions.asMap().keySet();
   }
 
   @Override
   public List<AppRevision> listFromStorage(long start, int limit) {
-    return null;
+    return metadataRaftServer.getState().listRevisions(start, limit);
   }
 
   @Override
-  public void startSynced() {}
+  public void startSynced() {
+    waitSynced();
+  }
 
   @Override
   public Set<String> dataCenters() {
-    return null;
+    return new HashSet<>(dataCenters);
   }
 
   @Override
-  public void setDataCenters(Set<String> dataCenters) {}
+  public synchronized void setDataCenters(Set<String> dataCenters) {
+    if (!this.dataCenters.equals(dataCenters)) {
+      LOG.info("dataCenters change from {} to {}", this.dataCenters, dataCenters);
+      this.dataCenters = dataCenters;
+    }
+  }
+
+  @VisibleForTesting
+  public AppRevisionRaftRepository setMetadataRaftServer(MetadataRaftServer metadataRaftServer) {
+    this.metadataRaftServer = metadataRaftServer;
+    return this;
+  }
+
+  @VisibleForTesting
+  public AppRevisionRaftRepository setInterfaceAppsRaftRepository(
+      InterfaceAppsRepository interfaceAppsRaftRepository) {
+    this.interfaceAppsRaftRepository = interfaceAppsRaftRepository;
+    return this;
+  }
+
+  @VisibleForTesting
+  public AppRevisionRaftRepository setRaftStoreConfig(RaftStoreConfig raftStoreConfig) {
+    this.raftStoreConfig = raftStoreConfig;
+    return this;
+  }
 }
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.repository.impl;
+
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.common.model.metaserver.ClientManagerAddress;
+import com.alipay.sofa.registry.common.model.metaserver.ClientManagerAddress.AddressVersion;
+import com.alipay.sofa.registry.common.model.metaserver.ClientManagerResult;
+import com.alipay.sofa.registry.jraft.config.RaftStoreConfig;
+import com.alipay.sofa.registry.jraft.store.MetadataCommands;
+import com.alipay.sofa.registry.jraft.store.MetadataRaftServer;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.store.api.meta.ClientManagerAddressRepository;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.CollectionUtils;
+
+public class ClientManagerAddressRaftRepository implements ClientManagerAddressRepository {
+  private static final Logger LOG = LoggerFactory.getLogger("CLIENT-MANAGER", "[ClientManager]");
+
+  @Autowired private MetadataRaftServer metadataRaftServer;
+
+  @Autowired private RaftStoreConfig raftStoreConfig;
+
+  @Override
+  public ClientManagerResult clientOpen(Set<AddressVersion> ipSet) {
+    return doStorage(ipSet, ValueConstants.CLIENT_OPEN);
+  }
+
+  @Override
+  public ClientManagerResult clientOff(Set<AddressVersion> ipSet) {
+    return doStorage(ipSet, ValueConstants.CLIENT_OFF);
+  }
+
+  @Override
+  public ClientManagerResult reduce(Set<AddressVersion> ipSet) {
+    return doStorage(ipSet, ValueConstants.REDUCE);
+  }
+
+  private ClientManagerResult doStorage(Set<AddressVersion> ipSet, String operation) {
+    try {
+      // all the addresses in one command
+      long maxId =
+          (Long)
+              metadataRaftServer.submit(MetadataCommands.updateClientAddresses(ipSet, operation));
+      LOG.info("{} addresses: {}, maxId: {}", operation, ipSet, maxId);
+      return ClientManagerResult.buildSuccess(maxId);
+    } catch (Throwable t) {
+      LOG.error("{}:{} error.", operation, ipSet, t);
+      return ClientManagerResult.buildFailRet();
+    }
+  }
+
+  @Override
+  public ClientManagerAddress queryClientOffData() {
+    return metadataRaftServer.getState().queryClientManagerAddress();
+  }
+
+  @Override
+  public void waitSynced() {
+    if (!metadataRaftServer.waitSynced(raftStoreConfig.getCommandTimeoutMs())) {
+      LOG.warn("wait synced timeout");
+    }
+  }
+
+  @Override
+  public List<String> getExpireAddress(Date date, int limit) {
+    return metadataRaftServer.getState().getExpireClientAddresses(date.getTime(), limit);
+  }
+
+  @Override
+  public int cleanExpired(List<String> expireAddress) {
+    if (CollectionUtils.isEmpty(expireAddress)) {
+      return 0;
+    }
+    return (Integer)
+        metadataRaftServer.submit(MetadataCommands.cleanClientAddresses(expireAddress));
+  }
+
+  @Override
+  public int getClientOffSizeBefore(Date date) {
+    return metadataRaftServer.getState().getClientOffSizeBefore(date.getTime());
+  }
+
+  @Override
+  public void wakeup() {
+    // the replica is updated by the raft log, nothing to wakeup
+  }
+
+  @VisibleForTesting
+  public ClientManagerAddressRaftRepository setMetadataRaftServer(
+      MetadataRaftServer metadataRaftServer) {
+    this.metadataRaftServer = metadataRaftServer;
+    return this;
+  }
+
+  @VisibleForTesting
+  public ClientManagerAddressRaftRepository setRaftStoreConfig(RaftStoreConfig raftStoreConfig) {
+    this.raftStoreConfig = raftStoreConfig;
+    return this;
+  }
+}
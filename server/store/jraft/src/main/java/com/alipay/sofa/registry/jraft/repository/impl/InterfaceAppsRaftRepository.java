@@ -17,68 +17,136 @@
 package com.alipay.sofa.registry.jraft.repository.impl;
 
 import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
+import com.alipay.sofa.registry.jraft.config.RaftStoreConfig;
+import com.alipay.sofa.registry.jraft.store.MetadataCommands;
+import com.alipay.sofa.registry.jraft.store.MetadataRaftServer;
+import com.alipay.sofa.registry.jraft.store.MetadataState;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.store.api.config.DefaultCommonConfig;
 import com.alipay.sofa.registry.store.api.repository.InterfaceAppsRepository;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * @author xiaojian.xj
  * @version $Id: InterfaceAppsRaftRepository.java, v 0.1 2021年01月24日 19:44 xiaojian.xj Exp $
  */
 public class InterfaceAppsRaftRepository implements InterfaceAppsRepository {
-  protected static final Logger LOG = LoggerFactory.getLogger(InterfaceAppsRaftRepository.class);
+  protected static final Logger LOG =
+      LoggerFactory.getLogger("METADATA-EXCHANGE", "[InterfaceApps]");
 
-  /** map: interface, appNames */
-  protected final Map<String, InterfaceMapping> interfaceApps = new ConcurrentHashMap<>();
+  @Autowired private MetadataRaftServer metadataRaftServer;
+
+  @Autowired private DefaultCommonConfig defaultCommonConfig;
+
+  @Autowired private RaftStoreConfig raftStoreConfig;
+
+  private Set<String> dataCenters = Sets.newConcurrentHashSet();
 
   @Override
   public InterfaceMapping getAppNames(String dataInfoId) {
-    final InterfaceMapping ret = interfaceApps.get(dataInfoId);
-    return ret;
+    InterfaceMapping mapping = metadataRaftServer.getState().getInterfaceMapping(dataInfoId);
+    return mapping == null ? new InterfaceMapping(-1) : mapping;
   }
 
   @Override
   public void register(String appName, Set<String> interfaceNames) {
+    MetadataState state = metadataRaftServer.getState();
+    List<String> registers = Lists.newArrayListWithCapacity(interfaceNames.size());
     for (String interfaceName : interfaceNames) {
-      InterfaceMapping interfaceMapping =
-          interfaceApps.computeIfAbsent(interfaceName, k -> new InterfaceMapping(-1));
-      interfaceMapping.getApps().add(appName);
+      if (!state.containsInterfaceApp(interfaceName, appName)) {
+        registers.add(interfaceName);
+      }
+    }
+    if (registers.isEmpty()) {
+      return;
     }
+    // all the new mappings of the app in one command
+    metadataRaftServer.submit(MetadataCommands.registerInterfaceApps(appName, registers));
+    LOG.info("insert interface app mapping {}=>{} succeed", registers, appName);
   }
 
   @Override
-  public void renew(String interfaceName, String appName) {}
+  public void renew(String interfaceName, String appName) {
+    metadataRaftServer.submit(
+        MetadataCommands.registerInterfaceApps(appName, Collections.singletonList(interfaceName)));
+  }
 
   @Override
   public int cleanDeleted(Date beforeTime, int limit) {
-    return 0;
+    return (Integer)
+        metadataRaftServer.submit(MetadataCommands.cleanInterfaceApps(beforeTime.getTime(), limit));
   }
 
   @Override
-  public void startSynced() {}
+  public void startSynced() {
+    waitSynced();
+  }
 
   @Override
-  public void waitSynced() {}
+  public void waitSynced() {
+    if (!metadataRaftServer.waitSynced(raftStoreConfig.getCommandTimeoutMs())) {
+      LOG.warn("wait synced timeout");
+    }
+  }
 
   @Override
   public long getDataVersion() {
-    return 0;
+    return metadataRaftServer.getState().getInterfaceAppsVersion();
   }
 
   @Override
   public Map<String, Map<String, InterfaceMapping>> allServiceMapping() {
-    return null;
+    // the raft group serves the local data center only
+    String dataCenter = defaultCommonConfig.getDefaultClusterId();
+    Map<String, InterfaceMapping> mappings = metadataRaftServer.getState().allInterfaceMappings();
+    Map<String, Map<String, InterfaceMapping>> ret =
+        Maps.newHashMapWithExpectedSize(mappings.size());
+    for (Map.Entry<String, InterfaceMapping> e : mappings.entrySet()) {
+      ret.put(e.getKey(), Collections.singletonMap(dataCenter, e.getValue()));
+    }
+    return ret;
   }
 
   @Override
   public Set<String> dataCenters() {
-    return null;
+    return new HashSet<>(dataCenters);
   }
 
   @Override
-  public void setDataCenters(Set<String> dataCenters) {}
+  public synchronized void setDataCenters(Set<String> dataCenters) {
+    if (!this.dataCenters.equals(dataCenters)) {
+      LOG.info("dataCenters change from {} to {}", this.dataCenters, dataCenters);
+      this.dataCenters = dataCenters;
+    }
+  }
+
+  @VisibleForTesting
+  public InterfaceAppsRaftRepository setMetadataRaftServer(MetadataRaftServer metadataRaftServer) {
+    this.metadataRaftServer = metadataRaftServer;
+    return this;
+  }
+
+  @VisibleForTesting
+  public InterfaceAppsRaftRepository setDefaultCommonConfig(
+      DefaultCommonConfig defaultCommonConfig) {
+    this.defaultCommonConfig = defaultCommonConfig;
+    return this;
+  }
+
+  @VisibleForTesting
+  public InterfaceAppsRaftRepository setRaftStoreConfig(RaftStoreConfig raftStoreConfig) {
+    this.raftStoreConfig = raftStoreConfig;
+    return this;
+  }
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.repository.impl;
+
+import com.alipay.sofa.registry.common.model.console.PersistenceData;
+import com.alipay.sofa.registry.jraft.store.MetadataCommands;
+import com.alipay.sofa.registry.jraft.store.MetadataRaftServer;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.store.api.meta.ProvideDataRepository;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class ProvideDataRaftRepository implements ProvideDataRepository {
+  private static final Logger LOG = LoggerFactory.getLogger("META-PROVIDEDATA", "[ProvideData]");
+
+  @Autowired private MetadataRaftServer metadataRaftServer;
+
+  @Override
+  public boolean put(PersistenceData persistenceData) {
+    return put(persistenceData, -1);
+  }
+
+  @Override
+  public boolean put(PersistenceData persistenceData, long expectVersion) {
+    if (persistenceData == null) {
+      LOG.error("update provide data is null.");
+      return false;
+    }
+    try {
+      boolean success =
+          (Boolean)
+              metadataRaftServer.submit(
+                  MetadataCommands.putProvideData(persistenceData, expectVersion));
+      LOG.info(
+          "put provide data:{}, expectVersion:{}, success:{}",
+          persistenceData,
+          expectVersion,
+          success);
+      return success;
+    } catch (Throwable t) {
+      LOG.error("put provide data:{} error.", persistenceData, t);
+      return false;
+    }
+  }
+
+  @Override
+  public PersistenceData get(String key) {
+    return metadataRaftServer.getState().getProvideData(key);
+  }
+
+  @Override
+  public boolean remove(String key, long version) {
+    boolean success =
+        (Boolean) metadataRaftServer.submit(MetadataCommands.removeProvideData(key, version));
+    LOG.info("remove provideData, key: {}, version: {}, success: {}", key, version, success);
+    return success;
+  }
+
+  @Override
+  public Map<String, PersistenceData> getAll() {
+    return metadataRaftServer.getState().allProvideData();
+  }
+
+  @VisibleForTesting
+  public ProvideDataRaftRepository setMetadataRaftServer(MetadataRaftServer metadataRaftServer) {
+    this.metadataRaftServer = metadataRaftServer;
+    return this;
+  }
+}
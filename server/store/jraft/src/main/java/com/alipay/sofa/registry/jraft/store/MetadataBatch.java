@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.store;
+
+import com.google.common.collect.Lists;
+import java.io.Serializable;
+import java.util.List;
+
+/** the commands collected in one raft log entry */
+public class MetadataBatch implements Serializable {
+
+  private long timestamp;
+
+  private List<MetadataCommand> commands;
+
+  public MetadataBatch() {}
+
+  public MetadataBatch(List<MetadataCommand> commands) {
+    this.commands = Lists.newArrayList(commands);
+  }
+
+  /**
+   * Getter method for property <tt>timestamp</tt>.
+   *
+   * @return property value of timestamp
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Setter method for property <tt>timestamp</tt>.
+   *
+   * @param timestamp value to be assigned to property timestamp
+   */
+  public void setTimestamp(long timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  /**
+   * Getter method for property <tt>commands</tt>.
+   *
+   * @return property value of commands
+   */
+  public List<MetadataCommand> getCommands() {
+    return commands;
+  }
+
+  @Override
+  public String toString() {
+    return "MetadataBatch{timestamp=" + timestamp + ", commands=" + commands.size() + '}';
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.store;
+
+import com.alipay.sofa.jraft.entity.PeerId;
+import com.alipay.sofa.jraft.rpc.RpcContext;
+import com.alipay.sofa.jraft.rpc.RpcProcessor;
+import com.alipay.sofa.registry.jraft.command.ProcessResponse;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+
+/** the leader handles the batch forwarded by the followers */
+public class MetadataBatchProcessor implements RpcProcessor<MetadataBatch> {
+  private static final Logger LOG = LoggerFactory.getLogger("META-RAFT", "[BatchProcessor]");
+
+  static final String NOT_LEADER = "Not leader";
+
+  private final MetadataRaftServer raftServer;
+
+  public MetadataBatchProcessor(MetadataRaftServer raftServer) {
+    this.raftServer = raftServer;
+  }
+
+  @Override
+  public void handleRequest(RpcContext rpcCtx, MetadataBatch request) {
+    if (!raftServer.isLeader()) {
+      PeerId leader = raftServer.getLeaderId();
+      rpcCtx.sendResponse(
+          leader == null || leader.isEmpty()
+              ? ProcessResponse.fail(NOT_LEADER).build()
+              : ProcessResponse.redirect(leader.toString()).build());
+      return;
+    }
+    try {
+      raftServer.applyOnLeader(
+          request,
+          (result, e) -> {
+            if (e != null) {
+              rpcCtx.sendResponse(ProcessResponse.fail(e.getMessage()).build());
+            } else {
+              rpcCtx.sendResponse(ProcessResponse.ok(result).build());
+            }
+          });
+    } catch (Throwable e) {
+      LOG.error(
+          "failed to apply forwarded batch from {}: {}", rpcCtx.getRemoteAddress(), request, e);
+      rpcCtx.sendResponse(ProcessResponse.fail(e.getMessage()).build());
+    }
+  }
+
+  @Override
+  public String interest() {
+    return MetadataBatch.class.getName();
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.store;
+
+import java.io.Serializable;
+import java.util.List;
+
+/** the results of a MetadataBatch, in the order of the commands */
+public class MetadataBatchResult implements Serializable {
+
+  private final long index;
+
+  private final List<Object> results;
+
+  public MetadataBatchResult(long index, List<Object> results) {
+    this.index = index;
+    this.results = results;
+  }
+
+  /**
+   * Getter method for property <tt>index</tt>.
+   *
+   * @return property value of index
+   */
+  public long getIndex() {
+    return index;
+  }
+
+  /**
+   * Getter method for property <tt>results</tt>.
+   *
+   * @return property value of results
+   */
+  public List<Object> getResults() {
+    return results;
+  }
+
+  @Override
+  public String toString() {
+    return "MetadataBatchResult{index=" + index + ", results=" + results.size() + '}';
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.store;
+
+import com.alipay.sofa.registry.common.model.console.PersistenceData;
+import com.alipay.sofa.registry.common.model.metaserver.ClientManagerAddress.AddressVersion;
+import com.alipay.sofa.registry.common.model.store.AppRevision;
+import com.google.common.collect.Lists;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+
+/** the factory of all the MetadataCommand */
+public final class MetadataCommands {
+  private MetadataCommands() {}
+
+  public static MetadataCommand registerRevision(AppRevision appRevision) {
+    return new RegisterRevision(appRevision);
+  }
+
+  public static MetadataCommand heartbeatRevision(String revision) {
+    return new HeartbeatRevision(revision);
+  }
+
+  public static MetadataCommand replaceRevision(AppRevision appRevision) {
+    return new ReplaceRevision(appRevision);
+  }
+
+  public static MetadataCommand cleanDeletedRevisions(long beforeTime, int limit) {
+    return new CleanDeletedRevisions(beforeTime, limit);
+  }
+
+  public static MetadataCommand registerInterfaceApps(
+      String appName, Collection<String> interfaceNames) {
+    return new RegisterInterfaceApps(appName, Lists.newArrayList(interfaceNames));
+  }
+
+  public static MetadataCommand cleanInterfaceApps(long beforeTime, int limit) {
+    return new CleanInterfaceApps(beforeTime, limit);
+  }
+
+  public static MetadataCommand putProvideData(PersistenceData data, long expectVersion) {
+    return new PutProvideData(data, expectVersion);
+  }
+
+  public static MetadataCommand removeProvideData(String dataInfoId, long version) {
+    return new RemoveProvideData(dataInfoId, version);
+  }
+
+  public static MetadataCommand updateClientAddresses(
+      Collection<AddressVersion> addresses, String operation) {
+    List<ClientAddress> list = Lists.newArrayListWithCapacity(addresses.size());
+    for (AddressVersion address : addresses) {
+      list.add(new ClientAddress(address.getAddress(), address.isPub(), address.isSub()));
+    }
+    return new UpdateClientAddresses(list, operation);
+  }
+
+  public static MetadataCommand cleanClientAddresses(Collection<String> addresses) {
+    return new CleanClientAddresses(Lists.newArrayList(addresses));
+  }
+
+  public static MetadataCommand competeLockOnInsert(String lockName, String owner, long duration) {
+    return new CompeteLockOnInsert(lockName, owner, duration);
+  }
+
+  public static MetadataCommand competeLockOnUpdate(
+      String lockName, String owner, long term, long termDuration, String newOwner) {
+    return new CompeteLockOnUpdate(lockName, owner, term, termDuration, newOwner);
+  }
+
+  public static MetadataCommand ownerHeartbeat(String lockName, String owner) {
+    return new OwnerHeartbeat(lockName, owner);
+  }
+
+  static final class ClientAddress implements Serializable {
+    final String address;
+    final boolean pub;
+    final boolean sub;
+
+    ClientAddress(String address, boolean pub, boolean sub) {
+      this.address = address;
+      this.pub = pub;
+      this.sub = sub;
+    }
+
+    String getAddress() {
+      return address;
+    }
+
+    boolean isPub() {
+      return pub;
+    }
+
+    boolean isSub() {
+      return sub;
+    }
+  }
+
+  static final class RegisterRevision extends MetadataCommand {
+    private final AppRevision appRevision;
+
+    RegisterRevision(AppRevision appRevision) {
+      this.appRevision = appRevision;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      return state.registerRevision(appRevision, timestamp);
+    }
+  }
+
+  static final class HeartbeatRevision extends MetadataCommand {
+    private final String revision;
+
+    HeartbeatRevision(String revision) {
+      this.revision = revision;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      return state.heartbeatRevision(revision, timestamp);
+    }
+  }
+
+  static final class ReplaceRevision extends MetadataCommand {
+    private final AppRevision appRevision;
+
+    ReplaceRevision(AppRevision appRevision) {
+      this.appRevision = appRevision;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      state.replaceRevision(appRevision, timestamp);
+      return true;
+    }
+  }
+
+  static final class CleanDeletedRevisions extends MetadataCommand {
+    private final long beforeTime;
+    private final int limit;
+
+    CleanDeletedRevisions(long beforeTime, int limit) {
+      this.beforeTime = beforeTime;
+      this.limit = limit;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      return state.cleanDeletedRevisions(beforeTime, limit);
+    }
+  }
+
+  static final class RegisterInterfaceApps extends MetadataCommand {
+    private final String appName;
+    private final List<String> interfaceNames;
+
+    RegisterInterfaceApps(String appName, List<String> interfaceNames) {
+      this.appName = appName;
+      this.interfaceNames = interfaceNames;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      return state.registerInterfaceApps(appName, interfaceNames, timestamp);
+    }
+  }
+
+  static final class CleanInterfaceApps extends MetadataCommand {
+    private final long beforeTime;
+    private final int limit;
+
+    CleanInterfaceApps(long beforeTime, int limit) {
+      this.beforeTime = beforeTime;
+      this.limit = limit;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      return state.cleanInterfaceApps(beforeTime, limit, timestamp);
+    }
+  }
+
+  static final class PutProvideData extends MetadataCommand {
+    private final PersistenceData data;
+    private final long expectVersion;
+
+    PutProvideData(PersistenceData data, long expectVersion) {
+      this.data = data;
+      this.expectVersion = expectVersion;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      return state.putProvideData(data, expectVersion);
+    }
+  }
+
+  static final class RemoveProvideData extends MetadataCommand {
+    private final String dataInfoId;
+    private final long version;
+
+    RemoveProvideData(String dataInfoId, long version) {
+      this.dataInfoId = dataInfoId;
+      this.version = version;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      return state.removeProvideData(dataInfoId, version);
+    }
+  }
+
+  static final class UpdateClientAddresses extends MetadataCommand {
+    private final List<ClientAddress> addresses;
+    private final String operation;
+
+    UpdateClientAddresses(List<ClientAddress> addresses, String operation) {
+      this.addresses = addresses;
+      this.operation = operation;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      return state.updateClientAddresses(addresses, operation, timestamp);
+    }
+  }
+
+  static final class CleanClientAddresses extends MetadataCommand {
+    private final List<String> addresses;
+
+    CleanClientAddresses(List<String> addresses) {
+      this.addresses = addresses;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      return state.cleanClientAddresses(addresses);
+    }
+  }
+
+  static final class CompeteLockOnInsert extends MetadataCommand {
+    private final String lockName;
+    private final String owner;
+    private final long duration;
+
+    CompeteLockOnInsert(String lockName, String owner, long duration) {
+      this.lockName = lockName;
+      this.owner = owner;
+      this.duration = duration;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      state.competeLockOnInsert(lockName, owner, duration, timestamp);
+      return true;
+    }
+  }
+
+  static final class CompeteLockOnUpdate extends MetadataCommand {
+    private final String lockName;
+    private final String owner;
+    private final long term;
+    private final long termDuration;
+    private final String newOwner;
+
+    CompeteLockOnUpdate(
+        String lockName, String owner, long term, long termDuration, String newOwner) {
+      this.lockName = lockName;
+      this.owner = owner;
+      this.term = term;
+      this.termDuration = termDuration;
+      this.newOwner = newOwner;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      state.competeLockOnUpdate(lockName, owner, term, termDuration, newOwner, timestamp);
+      return true;
+    }
+  }
+
+  static final class OwnerHeartbeat extends MetadataCommand {
+    private final String lockName;
+    private final String owner;
+
+    OwnerHeartbeat(String lockName, String owner) {
+      this.lockName = lockName;
+      this.owner = owner;
+    }
+
+    @Override
+    Object apply(MetadataState state, long timestamp) {
+      state.ownerHeartbeat(lockName, owner, timestamp);
+      return true;
+    }
+  }
+}
@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.store;
+
+import com.alipay.sofa.jraft.JRaftUtils;
+import com.alipay.sofa.jraft.Node;
+import com.alipay.sofa.jraft.RaftGroupService;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.closure.ReadIndexClosure;
+import com.alipay.sofa.jraft.conf.Configuration;
+import com.alipay.sofa.jraft.entity.PeerId;
+import com.alipay.sofa.jraft.entity.Task;
+import com.alipay.sofa.jraft.option.CliOptions;
+import com.alipay.sofa.jraft.option.NodeOptions;
+import com.alipay.sofa.jraft.rpc.RaftRpcServerFactory;
+import com.alipay.sofa.jraft.rpc.RpcServer;
+import com.alipay.sofa.jraft.rpc.impl.cli.CliClientServiceImpl;
+import com.alipay.sofa.jraft.util.BytesUtil;
+import com.alipay.sofa.registry.exception.SofaRegistryRuntimeException;
+import com.alipay.sofa.registry.jraft.command.CommandCodec;
+import com.alipay.sofa.registry.jraft.command.ProcessResponse;
+import com.alipay.sofa.registry.jraft.config.RaftStoreConfig;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.LoopRunnable;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.collect.Lists;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * the embedded raft node of the metadata. the reads are served by the local replica through {@link
+ * #getState()}, the writes are queued and the committer packs the queued commands into one log
+ * entry. a follower forwards the packed entry to the leader, and waits for the local replica
+ * applying it, so the caller could read its own write on the local replica.
+ */
+public class MetadataRaftServer {
+  private static final Logger LOG = LoggerFactory.getLogger("META-RAFT", "[RaftServer]");
+
+  private final RaftStoreConfig raftStoreConfig;
+
+  private final MetadataStateMachine stateMachine = new MetadataStateMachine();
+
+  private final BlockingQueue<PendingCommand> pendings = new ArrayBlockingQueue<>(1024 * 16);
+
+  private final Committer committer = new Committer();
+
+  private RaftGroupService raftGroupService;
+
+  private Node node;
+
+  private CliClientServiceImpl cliClientService;
+
+  public MetadataRaftServer(RaftStoreConfig raftStoreConfig) {
+    this.raftStoreConfig = raftStoreConfig;
+  }
+
+  @PostConstruct
+  public synchronized void start() throws IOException {
+    if (node != null) {
+      return;
+    }
+    PeerId serverId = JRaftUtils.getPeerId(raftStoreConfig.getServerAddress());
+    Configuration initialConf = JRaftUtils.getConfiguration(raftStoreConfig.getInitialServerList());
+    ParaCheckUtil.checkIsPositive(initialConf.size(), "initialServerList");
+
+    File dataPath = new File(raftStoreConfig.getDataPath());
+    FileUtils.forceMkdir(dataPath);
+    NodeOptions nodeOptions = new NodeOptions();
+    nodeOptions.setElectionTimeoutMs(raftStoreConfig.getElectionTimeoutMs());
+    nodeOptions.setSnapshotIntervalSecs(raftStoreConfig.getSnapshotIntervalSecs());
+    nodeOptions.setInitialConf(initialConf);
+    nodeOptions.setFsm(stateMachine);
+    nodeOptions.setLogUri(new File(dataPath, "log").getPath());
+    nodeOptions.setRaftMetaUri(new File(dataPath, "raft_meta").getPath());
+    nodeOptions.setSnapshotUri(new File(dataPath, "snapshot").getPath());
+
+    RpcServer rpcServer = RaftRpcServerFactory.createRaftRpcServer(serverId.getEndpoint());
+    rpcServer.registerProcessor(new MetadataBatchProcessor(this));
+    raftGroupService =
+        new RaftGroupService(raftStoreConfig.getGroupId(), serverId, nodeOptions, rpcServer);
+    node = raftGroupService.start();
+
+    cliClientService = new CliClientServiceImpl();
+    cliClientService.init(new CliOptions());
+    ConcurrentUtils.createDaemonThread("MetadataRaftCommitter", committer).start();
+    LOG.info("raft server started, serverId={}, conf={}", serverId, initialConf);
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    if (node == null) {
+      return;
+    }
+    committer.close();
+    raftGroupService.shutdown();
+    cliClientService.shutdown();
+    node = null;
+    Throwable closed = new SofaRegistryRuntimeException("raft server is shutdown");
+    for (PendingCommand pending : pendings) {
+      pending.future.completeExceptionally(closed);
+    }
+    LOG.info("raft server shutdown");
+  }
+
+  /**
+   * submit the command to the raft group, and return after the local replica applied it
+   *
+   * @param command command
+   * @return the result of the command
+   */
+  public Object submit(MetadataCommand command) {
+    ParaCheckUtil.checkNotNull(command, "command");
+    final long timeoutMs = raftStoreConfig.getCommandTimeoutMs();
+    final long deadline = System.currentTimeMillis() + timeoutMs;
+    try {
+      for (; ; ) {
+        PendingCommand pending = new PendingCommand(command);
+        if (!pendings.offer(pending)) {
+          throw new SofaRegistryRuntimeException("too many pending raft commands");
+        }
+        MetadataBatchResult result;
+        try {
+          result =
+              pending.future.get(
+                  Math.max(deadline - System.currentTimeMillis(), 1), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+          // the batch never reached a leader, safe to retry during leader changing
+          if (e.getCause() instanceof LeaderUnavailableException
+              && System.currentTimeMillis() < deadline) {
+            ConcurrentUtils.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+            continue;
+          }
+          throw new SofaRegistryRuntimeException(
+              "failed to submit raft command: " + command.getClass().getSimpleName(), e.getCause());
+        }
+        long remain = Math.max(deadline - System.currentTimeMillis(), 0);
+        if (!stateMachine.waitApplied(result.getIndex(), remain)) {
+          throw new SofaRegistryRuntimeException(
+              "wait for applying raft log timeout, index=" + result.getIndex());
+        }
+        return result.getResults().get(pending.position);
+      }
+    } catch (TimeoutException e) {
+      throw new SofaRegistryRuntimeException(
+          "submit raft command timeout: " + command.getClass().getSimpleName(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SofaRegistryRuntimeException(e);
+    }
+  }
+
+  /**
+   * wait until the local replica catches up with the committed log of the leader
+   *
+   * @param timeoutMs timeoutMs
+   * @return false if timeout
+   */
+  public boolean waitSynced(long timeoutMs) {
+    final long deadline = System.currentTimeMillis() + timeoutMs;
+    while (System.currentTimeMillis() < deadline) {
+      CompletableFuture<Status> future = new CompletableFuture<>();
+      node.readIndex(
+          BytesUtil.EMPTY_BYTES,
+          new ReadIndexClosure() {
+            @Override
+            public void run(Status status, long index, byte[] reqCtx) {
+              future.complete(status);
+            }
+          });
+      try {
+        Status status =
+            future.get(Math.max(deadline - System.currentTimeMillis(), 1), TimeUnit.MILLISECONDS);
+        if (status.isOk()) {
+          return true;
+        }
+        LOG.warn("read index failed: {}", status);
+      } catch (TimeoutException e) {
+        break;
+      } catch (Throwable e) {
+        LOG.error("read index failed", e);
+      }
+      ConcurrentUtils.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+    }
+    return false;
+  }
+
+  void applyOnLeader(MetadataBatch batch, BiConsumer<MetadataBatchResult, Throwable> callback) {
+    // the time of all the replicas comes from the leader
+    batch.setTimestamp(System.currentTimeMillis());
+    Task task =
+        new Task(
+            ByteBuffer.wrap(CommandCodec.encodeCommand(batch)),
+            new MetadataStateMachine.ApplyClosure(callback));
+    node.apply(task);
+  }
+
+  private void forwardToLeader(
+      MetadataBatch batch, BiConsumer<MetadataBatchResult, Throwable> callback) {
+    PeerId leader = node.getLeaderId();
+    if (leader == null || leader.isEmpty()) {
+      callback.accept(null, new LeaderUnavailableException("raft leader not found"));
+      return;
+    }
+    try {
+      cliClientService
+          .getRpcClient()
+          .invokeAsync(
+              leader.getEndpoint(),
+              batch,
+              (result, e) -> {
+                if (e != null) {
+                  callback.accept(null, e);
+                  return;
+                }
+                ProcessResponse response = (ProcessResponse) result;
+                if (response.getSuccess()) {
+                  callback.accept((MetadataBatchResult) response.getEntity(), null);
+                } else if (response.getRedirect() != null
+                    || MetadataBatchProcessor.NOT_LEADER.equals(response.getEntity())) {
+                  callback.accept(
+                      null,
+                      new LeaderUnavailableException(
+                          "leader changed, redirect=" + response.getRedirect()));
+                } else {
+                  callback.accept(
+                      null,
+                      new SofaRegistryRuntimeException(
+                          "forward to leader failed: "
+                              + response.getEntity()
+                              + ", redirect="
+                              + response.getRedirect()));
+                }
+              },
+              raftStoreConfig.getCommandTimeoutMs());
+    } catch (Throwable e) {
+      callback.accept(null, e);
+    }
+  }
+
+  private void commit(List<PendingCommand> batch) {
+    List<MetadataCommand> commands = Lists.newArrayListWithCapacity(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      PendingCommand pending = batch.get(i);
+      pending.position = i;
+      commands.add(pending.command);
+    }
+    BiConsumer<MetadataBatchResult, Throwable> callback =
+        (result, e) -> {
+          for (PendingCommand pending : batch) {
+            if (e != null) {
+              pending.future.completeExceptionally(e);
+            } else {
+              pending.future.complete(result);
+            }
+          }
+        };
+    MetadataBatch metadataBatch = new MetadataBatch(commands);
+    if (isLeader()) {
+      applyOnLeader(metadataBatch, callback);
+    } else {
+      forwardToLeader(metadataBatch, callback);
+    }
+  }
+
+  /** the batch is rejected before it reaches the leader */
+  private static final class LeaderUnavailableException extends SofaRegistryRuntimeException {
+    LeaderUnavailableException(String message) {
+      super(message);
+    }
+  }
+
+  private final class Committer extends LoopRunnable {
+    @Override
+    public void runUnthrowable() {
+      PendingCommand first;
+      try {
+        first = pendings.poll(100, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (first == null) {
+        return;
+      }
+      List<PendingCommand> batch = Lists.newArrayList(first);
+      pendings.drainTo(batch, raftStoreConfig.getCommandBatchSize() - 1);
+      try {
+        commit(batch);
+      } catch (Throwable e) {
+        LOG.error("failed to commit raft commands, size={}", batch.size(), e);
+        for (PendingCommand pending : batch) {
+          pending.future.completeExceptionally(e);
+        }
+      }
+    }
+
+    @Override
+    public void waitingUnthrowable() {}
+  }
+
+  private static final class PendingCommand {
+    final MetadataCommand command;
+    final CompletableFuture<MetadataBatchResult> future = new CompletableFuture<>();
+    volatile int position;
+
+    PendingCommand(MetadataCommand command) {
+      this.command = command;
+    }
+  }
+
+  public boolean isLeader() {
+    return node != null && node.isLeader();
+  }
+
+  public PeerId getLeaderId() {
+    return node == null ? null : node.getLeaderId();
+  }
+
+  public MetadataState getState() {
+    return stateMachine.getState();
+  }
+
+  public MetadataStateMachine getStateMachine() {
+    return stateMachine;
+  }
+}
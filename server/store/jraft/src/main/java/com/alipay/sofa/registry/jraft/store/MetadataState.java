@@ -0,0 +1,577 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.store;
+
+import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
+import com.alipay.sofa.registry.common.model.console.PersistenceData;
+import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.common.model.elector.DistributeLockInfo;
+import com.alipay.sofa.registry.common.model.metaserver.ClientManagerAddress;
+import com.alipay.sofa.registry.common.model.metaserver.ClientManagerAddress.AddressVersion;
+import com.alipay.sofa.registry.common.model.store.AppRevision;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * the replicated metadata of the meta servers. all the mutations are invoked by the single apply
+ * thread of the state machine, with the timestamp stamped by the raft leader, so every replica
+ * applies the same log into the same state. the reads are served from the local replica by any
+ * thread.
+ */
+public final class MetadataState {
+
+  /** map: <revision, RevisionEntry> */
+  private final Map<String, RevisionEntry> revisions = Maps.newConcurrentMap();
+
+  /** map: <id, revision>, ordered for paging */
+  private final ConcurrentSkipListMap<Long, String> revisionIds = new ConcurrentSkipListMap<>();
+
+  /** map: <interfaceName, InterfaceAppsEntry> */
+  private final Map<String, InterfaceAppsEntry> interfaceApps = Maps.newConcurrentMap();
+
+  /** map: <dataInfoId, PersistenceData> */
+  private final Map<String, PersistenceData> provideData = Maps.newConcurrentMap();
+
+  /** map: <address, ClientAddressEntry> */
+  private final Map<String, ClientAddressEntry> clientAddresses = Maps.newConcurrentMap();
+
+  /** map: <lockName, LockEntry> */
+  private final Map<String, LockEntry> locks = Maps.newConcurrentMap();
+
+  private volatile long revisionSeq;
+
+  private volatile long interfaceAppsVersion;
+
+  private volatile long clientAddressSeq;
+
+  // ------------------------------ app revision ------------------------------
+
+  boolean registerRevision(AppRevision appRevision, long timestamp) {
+    RevisionEntry exist = revisions.get(appRevision.getRevision());
+    if (exist != null && !exist.deleted) {
+      putRevision(exist.id, exist.revision, false, timestamp);
+      return false;
+    }
+    putRevision(++revisionSeq, appRevision, false, timestamp);
+    return true;
+  }
+
+  boolean heartbeatRevision(String revision, long timestamp) {
+    RevisionEntry exist = revisions.get(revision);
+    if (exist == null || exist.deleted) {
+      return false;
+    }
+    putRevision(exist.id, exist.revision, false, timestamp);
+    return true;
+  }
+
+  void replaceRevision(AppRevision appRevision, long timestamp) {
+    putRevision(++revisionSeq, appRevision, appRevision.isDeleted(), timestamp);
+  }
+
+  int cleanDeletedRevisions(long beforeTime, int limit) {
+    int count = 0;
+    for (RevisionEntry entry : revisions.values()) {
+      if (count >= limit) {
+        break;
+      }
+      if (entry.deleted && entry.gmtModified < beforeTime) {
+        revisions.remove(entry.revision.getRevision());
+        revisionIds.remove(entry.id);
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private void putRevision(long id, AppRevision revision, boolean deleted, long timestamp) {
+    RevisionEntry prev =
+        revisions.put(revision.getRevision(), new RevisionEntry(id, revision, deleted, timestamp));
+    if (prev != null && prev.id != id) {
+      revisionIds.remove(prev.id);
+    }
+    revisionIds.put(id, revision.getRevision());
+  }
+
+  public AppRevision getRevision(String revision) {
+    RevisionEntry entry = revisions.get(revision);
+    return entry == null || entry.deleted ? null : entry.revision;
+  }
+
+  public boolean containsRevision(String revision) {
+    return getRevision(revision) != null;
+  }
+
+  public Set<String> allRevisionIds() {
+    Set<String> ret = Sets.newHashSetWithExpectedSize(revisions.size());
+    for (RevisionEntry entry : revisions.values()) {
+      if (!entry.deleted) {
+        ret.add(entry.revision.getRevision());
+      }
+    }
+    return ret;
+  }
+
+  public Map<String, Integer> countByApp() {
+    Map<String, Integer> counts = Maps.newHashMap();
+    for (RevisionEntry entry : revisions.values()) {
+      if (!entry.deleted) {
+        counts.merge(entry.revision.getAppName(), 1, Integer::sum);
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * list the revisions whose id is larger than start, ordered by id
+   *
+   * @param start start
+   * @param limit limit
+   * @return List
+   */
+  public List<AppRevision> listRevisions(long start, int limit) {
+    List<AppRevision> ret = Lists.newArrayListWithCapacity(limit);
+    for (String revision : revisionIds.tailMap(start, false).values()) {
+      if (ret.size() >= limit) {
+        break;
+      }
+      RevisionEntry entry = revisions.get(revision);
+      if (entry != null) {
+        ret.add(entry.copy());
+      }
+    }
+    return ret;
+  }
+
+  public List<AppRevision> getExpiredRevisions(long beforeTime, int limit) {
+    List<AppRevision> ret = Lists.newArrayList();
+    for (RevisionEntry entry : revisions.values()) {
+      if (ret.size() >= limit) {
+        break;
+      }
+      if (!entry.deleted && entry.gmtModified < beforeTime) {
+        ret.add(entry.copy());
+      }
+    }
+    return ret;
+  }
+
+  // ------------------------------ interface apps ------------------------------
+
+  int registerInterfaceApps(String appName, Collection<String> interfaceNames, long timestamp) {
+    int count = 0;
+    for (String interfaceName : interfaceNames) {
+      InterfaceAppsEntry exist = interfaceApps.get(interfaceName);
+      Map<String, Long> apps =
+          exist == null ? Maps.newHashMapWithExpectedSize(1) : Maps.newHashMap(exist.apps);
+      long version = exist == null ? 0 : exist.version;
+      if (apps.put(appName, timestamp) == null) {
+        version = nextInterfaceAppsVersion(timestamp);
+        count++;
+      }
+      interfaceApps.put(interfaceName, new InterfaceAppsEntry(version, apps));
+    }
+    return count;
+  }
+
+  int cleanInterfaceApps(long beforeTime, int limit, long timestamp) {
+    int count = 0;
+    for (Map.Entry<String, InterfaceAppsEntry> e : interfaceApps.entrySet()) {
+      if (count >= limit) {
+        break;
+      }
+      Map<String, Long> apps = null;
+      for (Map.Entry<String, Long> app : e.getValue().apps.entrySet()) {
+        if (count < limit && app.getValue() < beforeTime) {
+          if (apps == null) {
+            apps = Maps.newHashMap(e.getValue().apps);
+          }
+          apps.remove(app.getKey());
+          count++;
+        }
+      }
+      if (apps != null) {
+        e.setValue(new InterfaceAppsEntry(nextInterfaceAppsVersion(timestamp), apps));
+      }
+    }
+    return count;
+  }
+
+  private long nextInterfaceAppsVersion(long timestamp) {
+    // nanos version like the gmt_create of jdbc, and keep it increasing on the same millis
+    interfaceAppsVersion = Math.max(interfaceAppsVersion + 1, timestamp * 1000000L);
+    return interfaceAppsVersion;
+  }
+
+  public InterfaceMapping getInterfaceMapping(String interfaceName) {
+    InterfaceAppsEntry entry = interfaceApps.get(interfaceName);
+    return entry == null ? null : entry.toMapping();
+  }
+
+  public boolean containsInterfaceApp(String interfaceName, String appName) {
+    InterfaceAppsEntry entry = interfaceApps.get(interfaceName);
+    return entry != null && entry.apps.containsKey(appName);
+  }
+
+  public Map<String, InterfaceMapping> allInterfaceMappings() {
+    Map<String, InterfaceMapping> ret = Maps.newHashMapWithExpectedSize(interfaceApps.size());
+    for (Map.Entry<String, InterfaceAppsEntry> e : interfaceApps.entrySet()) {
+      ret.put(e.getKey(), e.getValue().toMapping());
+    }
+    return ret;
+  }
+
+  public long getInterfaceAppsVersion() {
+    return interfaceAppsVersion;
+  }
+
+  // ------------------------------ provide data ------------------------------
+
+  /**
+   * put the data with cas on the version, the semantic is the same as BaseConfigRepository
+   *
+   * @param data data
+   * @param expectVersion the version of the exist data, -1 means the current one
+   * @return boolean
+   */
+  boolean putProvideData(PersistenceData data, long expectVersion) {
+    String dataInfoId = PersistenceDataBuilder.getDataInfoId(data);
+    PersistenceData exist = provideData.get(dataInfoId);
+    if (expectVersion < 0) {
+      if (exist == null) {
+        provideData.put(dataInfoId, data);
+        return true;
+      }
+      expectVersion = exist.getVersion();
+    }
+    if (data.getVersion() <= expectVersion) {
+      return false;
+    }
+    if (expectVersion == 0) {
+      if (exist != null) {
+        return false;
+      }
+      provideData.put(dataInfoId, data);
+      return true;
+    }
+    if (exist == null || exist.getVersion() != expectVersion) {
+      return false;
+    }
+    provideData.put(dataInfoId, data);
+    return true;
+  }
+
+  boolean removeProvideData(String dataInfoId, long version) {
+    PersistenceData exist = provideData.get(dataInfoId);
+    if (exist == null || exist.getVersion() != version) {
+      return false;
+    }
+    provideData.remove(dataInfoId);
+    return true;
+  }
+
+  public PersistenceData getProvideData(String dataInfoId) {
+    return provideData.get(dataInfoId);
+  }
+
+  public Map<String, PersistenceData> allProvideData() {
+    return Maps.newHashMap(provideData);
+  }
+
+  // ------------------------------ client manager ------------------------------
+
+  long updateClientAddresses(
+      Collection<MetadataCommands.ClientAddress> addresses, String operation, long timestamp) {
+    long maxId = 0;
+    for (MetadataCommands.ClientAddress address : addresses) {
+      ClientAddressEntry exist = clientAddresses.get(address.getAddress());
+      if (exist != null && exist.operation.equals(operation) && exist.sub == address.isSub()) {
+        clientAddresses.put(address.getAddress(), exist.touch(timestamp));
+        continue;
+      }
+      long id = ++clientAddressSeq;
+      clientAddresses.put(
+          address.getAddress(),
+          new ClientAddressEntry(
+              id, operation, address.isPub(), address.isSub(), timestamp, timestamp));
+      maxId = id;
+    }
+    return maxId;
+  }
+
+  int cleanClientAddresses(Collection<String> addresses) {
+    int count = 0;
+    for (String address : addresses) {
+      if (clientAddresses.remove(address) != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  public ClientManagerAddress queryClientManagerAddress() {
+    Map<String, AddressVersion> clientOff = Maps.newHashMap();
+    Set<String> reduces = Sets.newHashSet();
+    for (Map.Entry<String, ClientAddressEntry> e : clientAddresses.entrySet()) {
+      ClientAddressEntry entry = e.getValue();
+      if (ValueConstants.CLIENT_OFF.equals(entry.operation)) {
+        clientOff.put(e.getKey(), new AddressVersion(entry.gmtCreate, e.getKey(), entry.sub));
+      } else if (ValueConstants.REDUCE.equals(entry.operation)) {
+        reduces.add(e.getKey());
+      }
+    }
+    return new ClientManagerAddress(
+        clientAddressSeq, clientOff, Collections.unmodifiableSet(reduces));
+  }
+
+  public List<String> getExpireClientAddresses(long beforeTime, int limit) {
+    List<String> ret = Lists.newArrayList();
+    for (Map.Entry<String, ClientAddressEntry> e : clientAddresses.entrySet()) {
+      if (ret.size() >= limit) {
+        break;
+      }
+      ClientAddressEntry entry = e.getValue();
+      if (entry.gmtModified < beforeTime
+          && (ValueConstants.CLIENT_OPEN.equals(entry.operation)
+              || ValueConstants.REDUCE.equals(entry.operation))) {
+        ret.add(e.getKey());
+      }
+    }
+    return ret;
+  }
+
+  public int getClientOffSizeBefore(long beforeTime) {
+    int count = 0;
+    for (ClientAddressEntry entry : clientAddresses.values()) {
+      if (entry.gmtModified < beforeTime && ValueConstants.CLIENT_OFF.equals(entry.operation)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  // ------------------------------ distribute lock ------------------------------
+
+  void competeLockOnInsert(String lockName, String owner, long duration, long timestamp) {
+    if (!locks.containsKey(lockName)) {
+      locks.put(lockName, new LockEntry(owner, duration, timestamp, timestamp, 0, 0));
+    }
+  }
+
+  void competeLockOnUpdate(
+      String lockName,
+      String owner,
+      long term,
+      long termDuration,
+      String newOwner,
+      long timestamp) {
+    LockEntry exist = locks.get(lockName);
+    if (exist == null
+        || !exist.owner.equals(owner)
+        || exist.term != term
+        || exist.termDuration != termDuration
+        || timestamp <= exist.gmtModified + exist.duration) {
+      return;
+    }
+    locks.put(
+        lockName,
+        new LockEntry(newOwner, exist.duration, exist.gmtCreate, timestamp, exist.term + 1, 0));
+  }
+
+  void ownerHeartbeat(String lockName, String owner, long timestamp) {
+    LockEntry exist = locks.get(lockName);
+    if (exist == null || !exist.owner.equals(owner)) {
+      return;
+    }
+    locks.put(
+        lockName,
+        new LockEntry(
+            owner, exist.duration, exist.gmtCreate, timestamp, exist.term, exist.termDuration + 1));
+  }
+
+  public DistributeLockInfo queryDistLock(String dataCenter, String lockName) {
+    LockEntry entry = locks.get(lockName);
+    if (entry == null) {
+      return null;
+    }
+    DistributeLockInfo lock =
+        new DistributeLockInfo(dataCenter, lockName, entry.owner, entry.duration);
+    lock.setGmtCreate(new Date(entry.gmtCreate));
+    lock.setGmtModified(new Date(entry.gmtModified));
+    lock.setGmtModifiedUnixNanos(entry.gmtModified * 1000000L);
+    lock.setGmtDbServerTime(new Date());
+    lock.setTerm(entry.term);
+    lock.setTermDuration(entry.termDuration);
+    return lock;
+  }
+
+  // ------------------------------ snapshot ------------------------------
+
+  Snapshot snapshot() {
+    Snapshot snapshot = new Snapshot();
+    snapshot.revisions = new HashMap<>(revisions);
+    snapshot.interfaceApps = new HashMap<>(interfaceApps);
+    snapshot.provideData = new HashMap<>(provideData);
+    snapshot.clientAddresses = new HashMap<>(clientAddresses);
+    snapshot.locks = new HashMap<>(locks);
+    snapshot.revisionSeq = revisionSeq;
+    snapshot.interfaceAppsVersion = interfaceAppsVersion;
+    snapshot.clientAddressSeq = clientAddressSeq;
+    return snapshot;
+  }
+
+  void load(Snapshot snapshot) {
+    revisions.clear();
+    revisionIds.clear();
+    revisions.putAll(snapshot.revisions);
+    for (RevisionEntry entry : snapshot.revisions.values()) {
+      revisionIds.put(entry.id, entry.revision.getRevision());
+    }
+    interfaceApps.clear();
+    interfaceApps.putAll(snapshot.interfaceApps);
+    provideData.clear();
+    provideData.putAll(snapshot.provideData);
+    clientAddresses.clear();
+    clientAddresses.putAll(snapshot.clientAddresses);
+    locks.clear();
+    locks.putAll(snapshot.locks);
+    revisionSeq = snapshot.revisionSeq;
+    interfaceAppsVersion = snapshot.interfaceAppsVersion;
+    clientAddressSeq = snapshot.clientAddressSeq;
+  }
+
+  static final class Snapshot implements Serializable {
+    private Map<String, RevisionEntry> revisions;
+    private Map<String, InterfaceAppsEntry> interfaceApps;
+    private Map<String, PersistenceData> provideData;
+    private Map<String, ClientAddressEntry> clientAddresses;
+    private Map<String, LockEntry> locks;
+    private long revisionSeq;
+    private long interfaceAppsVersion;
+    private long clientAddressSeq;
+  }
+
+  static final class RevisionEntry implements Serializable {
+    private long id;
+    private AppRevision revision;
+    private boolean deleted;
+    private long gmtModified;
+
+    RevisionEntry(long id, AppRevision revision, boolean deleted, long gmtModified) {
+      this.id = id;
+      this.revision = revision;
+      this.deleted = deleted;
+      this.gmtModified = gmtModified;
+    }
+
+    AppRevision copy() {
+      AppRevision ret = new AppRevision();
+      ret.setId(id);
+      ret.setDataCenter(revision.getDataCenter());
+      ret.setRevision(revision.getRevision());
+      ret.setAppName(revision.getAppName());
+      ret.setClientVersion(revision.getClientVersion());
+      ret.setBaseParams(revision.getBaseParams());
+      ret.setInterfaceMap(revision.getInterfaceMap());
+      ret.setSize(revision.getSize());
+      ret.setDeleted(deleted);
+      ret.setLastHeartbeat(new Date(gmtModified));
+      return ret;
+    }
+  }
+
+  static final class InterfaceAppsEntry implements Serializable {
+    private long version;
+
+    /** map: <appName, gmtModified> */
+    private Map<String, Long> apps;
+
+    private transient volatile InterfaceMapping mapping;
+
+    InterfaceAppsEntry(long version, Map<String, Long> apps) {
+      this.version = version;
+      this.apps = apps;
+    }
+
+    InterfaceMapping toMapping() {
+      InterfaceMapping ret = mapping;
+      if (ret == null) {
+        ret = new InterfaceMapping(version, Sets.newHashSet(apps.keySet()));
+        mapping = ret;
+      }
+      return ret;
+    }
+  }
+
+  static final class ClientAddressEntry implements Serializable {
+    private long id;
+    private String operation;
+    private boolean pub;
+    private boolean sub;
+    private long gmtCreate;
+    private long gmtModified;
+
+    ClientAddressEntry(
+        long id, String operation, boolean pub, boolean sub, long gmtCreate, long gmtModified) {
+      this.id = id;
+      this.operation = operation;
+      this.pub = pub;
+      this.sub = sub;
+      this.gmtCreate = gmtCreate;
+      this.gmtModified = gmtModified;
+    }
+
+    ClientAddressEntry touch(long timestamp) {
+      return new ClientAddressEntry(id, operation, pub, sub, gmtCreate, timestamp);
+    }
+  }
+
+  static final class LockEntry implements Serializable {
+    private String owner;
+    private long duration;
+    private long gmtCreate;
+    private long gmtModified;
+    private long term;
+    private long termDuration;
+
+    LockEntry(
+        String owner,
+        long duration,
+        long gmtCreate,
+        long gmtModified,
+        long term,
+        long termDuration) {
+      this.owner = owner;
+      this.duration = duration;
+      this.gmtCreate = gmtCreate;
+      this.gmtModified = gmtModified;
+      this.term = term;
+      this.termDuration = termDuration;
+    }
+  }
+}
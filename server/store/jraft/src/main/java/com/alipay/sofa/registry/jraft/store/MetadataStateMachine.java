@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.store;
+
+import com.alipay.sofa.jraft.Closure;
+import com.alipay.sofa.jraft.Iterator;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.core.StateMachineAdapter;
+import com.alipay.sofa.jraft.error.RaftError;
+import com.alipay.sofa.jraft.storage.snapshot.SnapshotReader;
+import com.alipay.sofa.jraft.storage.snapshot.SnapshotWriter;
+import com.alipay.sofa.registry.jraft.command.CommandCodec;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.google.common.collect.Lists;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import org.apache.commons.io.FileUtils;
+
+public class MetadataStateMachine extends StateMachineAdapter {
+  private static final Logger LOG = LoggerFactory.getLogger("META-RAFT", "[StateMachine]");
+
+  static final String SNAPSHOT_FILE = "metadata";
+
+  private final MetadataState state = new MetadataState();
+
+  private volatile long leaderTerm = -1;
+
+  private volatile long appliedIndex;
+
+  private final Object appliedLock = new Object();
+
+  @Override
+  public void onApply(Iterator iter) {
+    while (iter.hasNext()) {
+      ByteBuffer data = iter.getData();
+      byte[] bytes = new byte[data.remaining()];
+      data.get(bytes);
+      // always decode the log, the leader and the followers own the same copy of the commands
+      MetadataBatch batch = CommandCodec.decodeCommand(bytes, MetadataBatch.class);
+      List<Object> results = apply(batch);
+      long index = iter.getIndex();
+      setAppliedIndex(index);
+      Closure done = iter.done();
+      if (done != null) {
+        ((ApplyClosure) done).results = new MetadataBatchResult(index, results);
+        done.run(Status.OK());
+      }
+      iter.next();
+    }
+  }
+
+  private List<Object> apply(MetadataBatch batch) {
+    List<Object> results = Lists.newArrayListWithCapacity(batch.getCommands().size());
+    for (MetadataCommand command : batch.getCommands()) {
+      Object result = null;
+      try {
+        result = command.apply(state, batch.getTimestamp());
+      } catch (Throwable e) {
+        // deterministic, the other replicas fail on the same command
+        LOG.error("failed to apply command: {}", command.getClass().getSimpleName(), e);
+      }
+      results.add(result);
+    }
+    return results;
+  }
+
+  private void setAppliedIndex(long index) {
+    synchronized (appliedLock) {
+      appliedIndex = index;
+      appliedLock.notifyAll();
+    }
+  }
+
+  /**
+   * wait until the log of index is applied on the local replica
+   *
+   * @param index index
+   * @param timeoutMs timeoutMs
+   * @return false if timeout
+   * @throws InterruptedException InterruptedException
+   */
+  public boolean waitApplied(long index, long timeoutMs) throws InterruptedException {
+    if (appliedIndex >= index) {
+      return true;
+    }
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    synchronized (appliedLock) {
+      while (appliedIndex < index) {
+        long wait = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (wait <= 0) {
+          return false;
+        }
+        appliedLock.wait(wait);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void onSnapshotSave(SnapshotWriter writer, Closure done) {
+    try {
+      byte[] bytes = CommandCodec.encodeCommand(state.snapshot());
+      FileUtils.writeByteArrayToFile(new File(writer.getPath(), SNAPSHOT_FILE), bytes);
+      if (writer.addFile(SNAPSHOT_FILE)) {
+        LOG.info("save snapshot, size={}, path={}", bytes.length, writer.getPath());
+        done.run(Status.OK());
+      } else {
+        done.run(new Status(RaftError.EIO, "failed to add file %s", SNAPSHOT_FILE));
+      }
+    } catch (Throwable e) {
+      LOG.error("failed to save snapshot, path={}", writer.getPath(), e);
+      done.run(new Status(RaftError.EIO, "failed to save snapshot: %s", e.getMessage()));
+    }
+  }
+
+  @Override
+  public boolean onSnapshotLoad(SnapshotReader reader) {
+    if (isLeader()) {
+      LOG.warn("leader is not supposed to load snapshot");
+      return false;
+    }
+    if (reader.getFileMeta(SNAPSHOT_FILE) == null) {
+      LOG.error("failed to find snapshot file, path={}", reader.getPath());
+      return false;
+    }
+    try {
+      byte[] bytes = FileUtils.readFileToByteArray(new File(reader.getPath(), SNAPSHOT_FILE));
+      state.load(CommandCodec.decodeCommand(bytes, MetadataState.Snapshot.class));
+      setAppliedIndex(reader.load().getLastIncludedIndex());
+      LOG.info("load snapshot, size={}, index={}", bytes.length, appliedIndex);
+      return true;
+    } catch (IOException e) {
+      LOG.error("failed to load snapshot, path={}", reader.getPath(), e);
+      return false;
+    }
+  }
+
+  @Override
+  public void onLeaderStart(long term) {
+    this.leaderTerm = term;
+    super.onLeaderStart(term);
+  }
+
+  @Override
+  public void onLeaderStop(Status status) {
+    this.leaderTerm = -1;
+    super.onLeaderStop(status);
+  }
+
+  public boolean isLeader() {
+    return leaderTerm > 0;
+  }
+
+  /**
+   * Getter method for property <tt>state</tt>.
+   *
+   * @return property value of state
+   */
+  public MetadataState getState() {
+    return state;
+  }
+
+  /**
+   * Getter method for property <tt>appliedIndex</tt>.
+   *
+   * @return property value of appliedIndex
+   */
+  public long getAppliedIndex() {
+    return appliedIndex;
+  }
+
+  static final class ApplyClosure implements Closure {
+    private final BiConsumer<MetadataBatchResult, Throwable> callback;
+    private volatile MetadataBatchResult results;
+
+    ApplyClosure(BiConsumer<MetadataBatchResult, Throwable> callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void run(Status status) {
+      if (status.isOk()) {
+        callback.accept(results, null);
+      } else {
+        callback.accept(null, new IllegalStateException("failed to apply: " + status));
+      }
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft;
+
+import com.alipay.sofa.registry.jraft.config.RaftStoreConfigBean;
+import com.alipay.sofa.registry.jraft.store.MetadataRaftServer;
+import com.alipay.sofa.registry.store.api.config.DefaultCommonConfigBean;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.google.common.collect.Lists;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+
+/** start a 3 nodes raft group in process */
+public abstract class AbstractRaftClusterTest {
+
+  protected static final int NODE_SIZE = 3;
+
+  protected final List<RaftStoreConfigBean> configs = Lists.newArrayList();
+
+  protected final List<MetadataRaftServer> servers = Lists.newArrayList();
+
+  protected DefaultCommonConfigBean defaultCommonConfig;
+
+  private File dataPath;
+
+  @Before
+  public void beforeRaftCluster() throws Exception {
+    defaultCommonConfig = new DefaultCommonConfigBean();
+    defaultCommonConfig.setClusterId("DEFAULT_DATACENTER");
+    dataPath = Files.createTempDirectory("raft-metadata").toFile();
+
+    List<String> addresses = Lists.newArrayList();
+    for (int i = 0; i < NODE_SIZE; i++) {
+      addresses.add("127.0.0.1:" + freePort());
+    }
+    String serverList = String.join(",", addresses);
+    for (int i = 0; i < NODE_SIZE; i++) {
+      RaftStoreConfigBean config = new RaftStoreConfigBean();
+      config.setServerAddress(addresses.get(i));
+      config.setInitialServerList(serverList);
+      config.setDataPath(new File(dataPath, "node" + i).getPath());
+      config.setElectionTimeoutMs(500);
+      config.setLockExpireDuration(2000);
+      configs.add(config);
+      servers.add(new MetadataRaftServer(config));
+    }
+    for (MetadataRaftServer server : servers) {
+      server.start();
+    }
+    waitConditionUntilTimeOut(
+        () ->
+            leader() != null
+                && servers.stream()
+                    .allMatch(s -> s.getLeaderId() != null && !s.getLeaderId().isEmpty()),
+        10000);
+    waitAllSynced();
+  }
+
+  @After
+  public void afterRaftCluster() throws IOException {
+    for (MetadataRaftServer server : servers) {
+      server.shutdown();
+    }
+    FileUtils.deleteDirectory(dataPath);
+  }
+
+  protected MetadataRaftServer leader() {
+    for (MetadataRaftServer server : servers) {
+      if (server.isLeader()) {
+        return server;
+      }
+    }
+    return null;
+  }
+
+  protected MetadataRaftServer follower() {
+    for (MetadataRaftServer server : servers) {
+      if (!server.isLeader()) {
+        return server;
+      }
+    }
+    return null;
+  }
+
+  protected void waitAllSynced() {
+    for (MetadataRaftServer server : servers) {
+      Assert.assertTrue(server.waitSynced(5000));
+    }
+  }
+
+  protected static void waitConditionUntilTimeOut(BooleanSupplier condition, long timeoutMs) {
+    long deadline = System.currentTimeMillis() + timeoutMs;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        Assert.fail("wait condition timeout");
+      }
+      ConcurrentUtils.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
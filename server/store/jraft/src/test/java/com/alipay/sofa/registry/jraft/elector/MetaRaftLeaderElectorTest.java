@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.elector;
+
+import com.alipay.sofa.registry.jraft.AbstractRaftClusterTest;
+import com.alipay.sofa.registry.jraft.store.MetadataRaftServer;
+import com.google.common.collect.Lists;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetaRaftLeaderElectorTest extends AbstractRaftClusterTest {
+
+  private final List<MetaRaftLeaderElector> electors = Lists.newArrayList();
+
+  @Before
+  public void beforeMetaRaftLeaderElectorTest() {
+    for (int i = 0; i < servers.size(); i++) {
+      MetadataRaftServer server = servers.get(i);
+      MetaRaftLeaderElector elector =
+          new MetaRaftLeaderElector()
+              .setMetadataRaftServer(server)
+              .setRaftStoreConfig(configs.get(i))
+              .setDefaultCommonConfig(defaultCommonConfig);
+      elector.setAddress("meta-" + i);
+      elector.change2Follow();
+      electors.add(elector);
+    }
+  }
+
+  @Test
+  public void testElect() {
+    for (MetaRaftLeaderElector elector : electors) {
+      elector.elect();
+    }
+    Assert.assertTrue(electors.get(0).amILeader());
+    for (MetaRaftLeaderElector elector : electors) {
+      Assert.assertEquals("meta-0", elector.getLeaderInfo().getLeader());
+    }
+    Assert.assertFalse(electors.get(1).amILeader());
+    Assert.assertFalse(electors.get(2).amILeader());
+
+    // leader heartbeat keeps the lock
+    long expireTimestamp = electors.get(0).getLeaderInfo().getExpireTimestamp();
+    electors.get(0).elect();
+    Assert.assertTrue(electors.get(0).amILeader());
+    Assert.assertTrue(electors.get(0).getLeaderInfo().getExpireTimestamp() >= expireTimestamp);
+  }
+
+  @Test
+  public void testTakeOverAfterExpire() throws InterruptedException {
+    electors.get(0).elect();
+    Assert.assertTrue(electors.get(0).amILeader());
+
+    electors.get(1).elect();
+    Assert.assertFalse(electors.get(1).amILeader());
+
+    // meta-0 stops heartbeat, the lock expires after lockExpireDuration
+    Thread.sleep(configs.get(0).getLockExpireDuration() + 200);
+    electors.get(1).elect();
+    Assert.assertTrue(electors.get(1).amILeader());
+
+    electors.get(0).elect();
+    Assert.assertFalse(electors.get(0).amILeader());
+    Assert.assertEquals("meta-1", electors.get(0).getLeaderInfo().getLeader());
+  }
+}
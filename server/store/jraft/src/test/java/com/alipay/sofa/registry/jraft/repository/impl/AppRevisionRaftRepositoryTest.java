@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.repository.impl;
+
+import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.common.model.store.AppRevision;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.core.model.AppRevisionInterface;
+import com.alipay.sofa.registry.jraft.AbstractRaftClusterTest;
+import com.alipay.sofa.registry.jraft.store.MetadataRaftServer;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AppRevisionRaftRepositoryTest extends AbstractRaftClusterTest {
+
+  private static final int APP_REVISION_SIZE = 20;
+
+  private List<AppRevision> appRevisionList;
+
+  private AppRevisionRaftRepository appRevisionRepository;
+
+  private InterfaceAppsRaftRepository interfaceAppsRepository;
+
+  @Before
+  public void beforeAppRevisionRaftRepositoryTest() {
+    appRevisionList = buildAppRevisions(APP_REVISION_SIZE);
+    interfaceAppsRepository = interfaceAppsRepository(follower());
+    appRevisionRepository = appRevisionRepository(follower(), interfaceAppsRepository);
+  }
+
+  private InterfaceAppsRaftRepository interfaceAppsRepository(MetadataRaftServer server) {
+    return new InterfaceAppsRaftRepository()
+        .setMetadataRaftServer(server)
+        .setDefaultCommonConfig(defaultCommonConfig)
+        .setRaftStoreConfig(configs.get(servers.indexOf(server)));
+  }
+
+  private AppRevisionRaftRepository appRevisionRepository(
+      MetadataRaftServer server, InterfaceAppsRaftRepository interfaceAppsRepository) {
+    return new AppRevisionRaftRepository()
+        .setMetadataRaftServer(server)
+        .setInterfaceAppsRaftRepository(interfaceAppsRepository)
+        .setRaftStoreConfig(configs.get(servers.indexOf(server)));
+  }
+
+  private void register() throws Exception {
+    for (AppRevision appRevision : appRevisionList) {
+      appRevisionRepository.register(appRevision);
+    }
+  }
+
+  @Test
+  public void registerAndQuery() throws Exception {
+    register();
+    waitAllSynced();
+    for (MetadataRaftServer server : servers) {
+      InterfaceAppsRaftRepository interfaceApps = interfaceAppsRepository(server);
+      AppRevisionRaftRepository appRevisions = appRevisionRepository(server, interfaceApps);
+      for (AppRevision appRevision : appRevisionList) {
+        AppRevision revision = appRevisions.queryRevision(appRevision.getRevision());
+        Assert.assertEquals(appRevision.getAppName(), revision.getAppName());
+        Assert.assertTrue(appRevisions.exist(appRevision.getRevision()));
+
+        for (String dataInfoId : appRevision.getInterfaceMap().keySet()) {
+          InterfaceMapping appNames = interfaceApps.getAppNames(dataInfoId);
+          Assert.assertTrue(appNames.getNanosVersion() > 0);
+          Assert.assertEquals(1, appNames.getApps().size());
+          Assert.assertTrue(appNames.getApps().contains(appRevision.getAppName()));
+        }
+      }
+      Assert.assertEquals(APP_REVISION_SIZE, appRevisions.allRevisionIds().size());
+      Map<String, Map<String, InterfaceMapping>> mappings = interfaceApps.allServiceMapping();
+      Assert.assertEquals(APP_REVISION_SIZE * 2, mappings.size());
+      for (Map<String, InterfaceMapping> mapping : mappings.values()) {
+        Assert.assertTrue(mapping.containsKey("DEFAULT_DATACENTER"));
+      }
+    }
+    Assert.assertEquals(-1, interfaceAppsRepository.getAppNames("not-exist").getNanosVersion());
+    Assert.assertNull(appRevisionRepository.queryRevision("not-exist"));
+  }
+
+  @Test
+  public void registerTwiceKeepVersion() throws Exception {
+    register();
+    AppRevision appRevision = appRevisionList.get(0);
+    String dataInfoId = appRevision.getInterfaceMap().keySet().iterator().next();
+    long version = interfaceAppsRepository.getAppNames(dataInfoId).getNanosVersion();
+    long dataVersion = interfaceAppsRepository.getDataVersion();
+
+    appRevisionRepository.register(appRevision);
+    Assert.assertEquals(version, interfaceAppsRepository.getAppNames(dataInfoId).getNanosVersion());
+    Assert.assertEquals(dataVersion, interfaceAppsRepository.getDataVersion());
+  }
+
+  @Test
+  public void heartbeatAndClean() throws Exception {
+    register();
+    AppRevision expired = appRevisionList.get(0);
+    Date beforeTime = new Date(System.currentTimeMillis() + 1);
+    Thread.sleep(10);
+    for (AppRevision appRevision : appRevisionList.subList(1, APP_REVISION_SIZE)) {
+      Assert.assertTrue(appRevisionRepository.heartbeatDB(appRevision.getRevision()));
+    }
+    Assert.assertFalse(appRevisionRepository.heartbeatDB("not-exist"));
+
+    List<AppRevision> expiredList = appRevisionRepository.getExpired(beforeTime, 100);
+    Assert.assertEquals(1, expiredList.size());
+    Assert.assertEquals(expired.getRevision(), expiredList.get(0).getRevision());
+
+    // mark deleted, then clean up
+    AppRevision deleted = expiredList.get(0);
+    deleted.setDeleted(true);
+    appRevisionRepository.replace(deleted);
+    Assert.assertFalse(appRevisionRepository.exist(expired.getRevision()));
+    Assert.assertEquals(
+        1, appRevisionRepository.cleanDeleted(new Date(System.currentTimeMillis() + 1), 100));
+    Assert.assertEquals(APP_REVISION_SIZE - 1, appRevisionRepository.allRevisionIds().size());
+
+    waitAllSynced();
+    for (MetadataRaftServer server : servers) {
+      Assert.assertNull(server.getState().getRevision(expired.getRevision()));
+    }
+  }
+
+  @Test
+  public void listFromStorage() throws Exception {
+    register();
+    List<AppRevision> first = appRevisionRepository.listFromStorage(0, 10);
+    Assert.assertEquals(10, first.size());
+    List<AppRevision> second =
+        appRevisionRepository.listFromStorage(first.get(9).getId(), APP_REVISION_SIZE);
+    Assert.assertEquals(APP_REVISION_SIZE - 10, second.size());
+
+    Map<String, Integer> countByApp = appRevisionRepository.countByApp();
+    Assert.assertEquals(APP_REVISION_SIZE, countByApp.size());
+  }
+
+  private static List<AppRevision> buildAppRevisions(int size) {
+    List<AppRevision> appRevisionList = Lists.newArrayList();
+    for (int i = 1; i <= size; i++) {
+      String suffix = System.currentTimeMillis() + "-" + i;
+
+      AppRevision appRevision = new AppRevision();
+      appRevision.setAppName("foo" + suffix);
+      appRevision.setRevision("1111" + suffix);
+      appRevision.setClientVersion("1.0");
+
+      Map<String, List<String>> baseParams = Maps.newHashMap();
+      baseParams.put("metaBaseParam1", Lists.newArrayList("metaBaseValue1"));
+      appRevision.setBaseParams(baseParams);
+
+      Map<String, AppRevisionInterface> interfaceMap = Maps.newHashMap();
+      AppRevisionInterface inf1 = new AppRevisionInterface();
+      inf1.setId("1");
+      AppRevisionInterface inf2 = new AppRevisionInterface();
+      inf2.setId("2");
+      interfaceMap.put(
+          DataInfo.toDataInfoId(
+              "func1" + suffix, ValueConstants.DEFAULT_GROUP, ValueConstants.DEFAULT_INSTANCE_ID),
+          inf1);
+      interfaceMap.put(
+          DataInfo.toDataInfoId(
+              "func2" + suffix, ValueConstants.DEFAULT_GROUP, ValueConstants.DEFAULT_INSTANCE_ID),
+          inf2);
+      appRevision.setInterfaceMap(interfaceMap);
+      appRevisionList.add(appRevision);
+    }
+    return appRevisionList;
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.repository.impl;
+
+import com.alipay.sofa.registry.common.model.metaserver.ClientManagerAddress;
+import com.alipay.sofa.registry.common.model.metaserver.ClientManagerAddress.AddressVersion;
+import com.alipay.sofa.registry.common.model.metaserver.ClientManagerResult;
+import com.alipay.sofa.registry.jraft.AbstractRaftClusterTest;
+import com.alipay.sofa.registry.jraft.store.MetadataRaftServer;
+import com.google.common.collect.Sets;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClientManagerAddressRaftRepositoryTest extends AbstractRaftClusterTest {
+
+  private static final Set<AddressVersion> clientOffSet =
+      Sets.newHashSet(new AddressVersion("1.1.1.1", true), new AddressVersion("2.2.2.2", false));
+
+  private static final Set<AddressVersion> clientOffWithSubSet =
+      Sets.newHashSet(new AddressVersion("1.1.1.1", true), new AddressVersion("2.2.2.2", true));
+
+  private static final Set<AddressVersion> clientOpenSet =
+      Sets.newHashSet(new AddressVersion("2.2.2.2", true), new AddressVersion("3.3.3.3", true));
+
+  private ClientManagerAddressRaftRepository clientManagerAddressRepository;
+
+  @Before
+  public void beforeClientManagerAddressRaftRepositoryTest() {
+    clientManagerAddressRepository = repository(follower());
+  }
+
+  private ClientManagerAddressRaftRepository repository(MetadataRaftServer server) {
+    return new ClientManagerAddressRaftRepository()
+        .setMetadataRaftServer(server)
+        .setRaftStoreConfig(configs.get(servers.indexOf(server)));
+  }
+
+  private static void check(ClientManagerAddress query, Set<AddressVersion> expects) {
+    for (AddressVersion addressVersion : expects) {
+      AddressVersion queryVersion = query.getClientOffAddress().get(addressVersion.getAddress());
+      Assert.assertEquals(addressVersion.isPub(), queryVersion.isPub());
+      Assert.assertEquals(addressVersion.isSub(), queryVersion.isSub());
+    }
+  }
+
+  @Test
+  public void testClientManagerWithSub() {
+    ClientManagerResult clientOff = clientManagerAddressRepository.clientOff(clientOffSet);
+    Assert.assertTrue(clientOff.isSuccess());
+    Assert.assertTrue(clientOff.getVersion() > 0);
+    check(clientManagerAddressRepository.queryClientOffData(), clientOffSet);
+
+    clientOff = clientManagerAddressRepository.clientOff(clientOffWithSubSet);
+    Assert.assertTrue(clientOff.isSuccess());
+    check(clientManagerAddressRepository.queryClientOffData(), clientOffWithSubSet);
+
+    waitAllSynced();
+    for (MetadataRaftServer server : servers) {
+      check(repository(server).queryClientOffData(), clientOffWithSubSet);
+    }
+  }
+
+  @Test
+  public void testClientOffTwice() {
+    ClientManagerResult clientOff = clientManagerAddressRepository.clientOff(clientOffSet);
+    Assert.assertTrue(clientOff.isSuccess());
+    long version = clientManagerAddressRepository.queryClientOffData().getVersion();
+
+    // same operation on the same addresses only touches the rows
+    clientOff = clientManagerAddressRepository.clientOff(clientOffSet);
+    Assert.assertTrue(clientOff.isSuccess());
+    Assert.assertEquals(0, clientOff.getVersion());
+    Assert.assertEquals(version, clientManagerAddressRepository.queryClientOffData().getVersion());
+  }
+
+  @Test
+  public void testClientOpen() {
+    Assert.assertTrue(clientManagerAddressRepository.clientOff(clientOffSet).isSuccess());
+    ClientManagerResult clientOpen = clientManagerAddressRepository.clientOpen(clientOpenSet);
+    Assert.assertTrue(clientOpen.isSuccess());
+
+    ClientManagerAddress query = clientManagerAddressRepository.queryClientOffData();
+    Assert.assertEquals(1, query.getClientOffAddress().size());
+    Assert.assertTrue(query.getClientOffAddress().containsKey("1.1.1.1"));
+    Assert.assertTrue(query.getReduces().isEmpty());
+  }
+
+  @Test
+  public void testReduceAndClean() {
+    Assert.assertTrue(clientManagerAddressRepository.clientOff(clientOffSet).isSuccess());
+    Assert.assertTrue(clientManagerAddressRepository.reduce(clientOffSet).isSuccess());
+    ClientManagerAddress query = clientManagerAddressRepository.queryClientOffData();
+    Assert.assertEquals(0, query.getClientOffAddress().size());
+    Assert.assertEquals(2, query.getReduces().size());
+
+    Date date = new Date(System.currentTimeMillis() + 1);
+    List<String> expireAddress = clientManagerAddressRepository.getExpireAddress(date, 100);
+    Assert.assertEquals(2, expireAddress.size());
+    Assert.assertEquals(2, clientManagerAddressRepository.cleanExpired(expireAddress));
+    Assert.assertEquals(0, clientManagerAddressRepository.getClientOffSizeBefore(date));
+  }
+}
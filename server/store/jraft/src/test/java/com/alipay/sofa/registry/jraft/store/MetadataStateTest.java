@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.store;
+
+import com.alipay.sofa.registry.common.model.console.PersistenceData;
+import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.common.model.store.AppRevision;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.jraft.command.CommandCodec;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetadataStateTest {
+
+  @Test
+  public void testSnapshot() {
+    MetadataState state = new MetadataState();
+    long now = System.currentTimeMillis();
+
+    AppRevision appRevision = new AppRevision();
+    appRevision.setAppName("testApp");
+    appRevision.setRevision("testRevision");
+    appRevision.setInterfaceMap(Collections.emptyMap());
+    Assert.assertTrue(state.registerRevision(appRevision, now));
+    Assert.assertEquals(1, state.registerInterfaceApps("testApp", Lists.newArrayList("a"), now));
+
+    String dataInfoId =
+        DataInfo.toDataInfoId(
+            "key", ValueConstants.DEFAULT_GROUP, ValueConstants.DEFAULT_INSTANCE_ID);
+    PersistenceData data = PersistenceDataBuilder.createPersistenceData(dataInfoId, "val");
+    Assert.assertTrue(state.putProvideData(data, -1));
+    state.competeLockOnInsert("META-MASTER", "meta-0", 1000, now);
+
+    byte[] bytes = CommandCodec.encodeCommand(state.snapshot());
+    MetadataState loaded = new MetadataState();
+    loaded.load(CommandCodec.decodeCommand(bytes, MetadataState.Snapshot.class));
+
+    Assert.assertEquals("testApp", loaded.getRevision("testRevision").getAppName());
+    Assert.assertEquals("testRevision", loaded.listRevisions(0, 10).get(0).getRevision());
+    Assert.assertEquals(state.getInterfaceAppsVersion(), loaded.getInterfaceAppsVersion());
+    Assert.assertTrue(loaded.getInterfaceMapping("a").getApps().contains("testApp"));
+    Assert.assertEquals(data, loaded.getProvideData(dataInfoId));
+    Assert.assertEquals("meta-0", loaded.queryDistLock("dc", "META-MASTER").getOwner());
+
+    // the sequences continue after loading
+    AppRevision other = new AppRevision();
+    other.setAppName("otherApp");
+    other.setRevision("otherRevision");
+    other.setInterfaceMap(Collections.emptyMap());
+    Assert.assertTrue(loaded.registerRevision(other, now));
+    Assert.assertEquals(2, loaded.listRevisions(0, 10).size());
+  }
+}